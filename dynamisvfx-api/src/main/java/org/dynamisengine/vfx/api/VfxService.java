@@ -16,4 +16,12 @@ public interface VfxService {
     void setPhysicsHandoff(PhysicsHandoff handoff);
 
     VfxStats getStats();
+
+    /**
+     * Fills {@code out} with the current stats. Services that keep their counters incrementally
+     * override this to avoid the allocations of {@link #getStats()}.
+     */
+    default void readStats(VfxStatsSnapshot out) {
+        out.set(getStats());
+    }
 }
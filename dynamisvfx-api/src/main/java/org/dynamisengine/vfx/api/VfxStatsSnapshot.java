@@ -0,0 +1,144 @@
+package org.dynamisengine.vfx.api;
+
+/**
+ * Caller-owned, reusable counterpart of {@link VfxStats} for per-frame polling: services fill it
+ * in place through {@link VfxService#readStats(VfxStatsSnapshot)} without allocating.
+ */
+public final class VfxStatsSnapshot {
+    private int activeEffectCount;
+    private int activeParticleCount;
+    private int sleepingEmitterCount;
+    private int culledParticleCount;
+    private long gpuMemoryBytes;
+
+    private int totalBudget;
+    private int usedBudget;
+    private int remainingBudget;
+    private int budgetEffectCount;
+    private int rejectedThisFrame;
+    private int clampedThisFrame;
+    private int evictedThisFrame;
+
+    public void setCounts(
+        int activeEffectCount,
+        int activeParticleCount,
+        int sleepingEmitterCount,
+        int culledParticleCount,
+        long gpuMemoryBytes
+    ) {
+        this.activeEffectCount = activeEffectCount;
+        this.activeParticleCount = activeParticleCount;
+        this.sleepingEmitterCount = sleepingEmitterCount;
+        this.culledParticleCount = culledParticleCount;
+        this.gpuMemoryBytes = gpuMemoryBytes;
+    }
+
+    public void setBudget(
+        int totalBudget,
+        int usedBudget,
+        int remainingBudget,
+        int activeEffectCount,
+        int rejectedThisFrame,
+        int clampedThisFrame,
+        int evictedThisFrame
+    ) {
+        this.totalBudget = totalBudget;
+        this.usedBudget = usedBudget;
+        this.remainingBudget = remainingBudget;
+        this.budgetEffectCount = activeEffectCount;
+        this.rejectedThisFrame = rejectedThisFrame;
+        this.clampedThisFrame = clampedThisFrame;
+        this.evictedThisFrame = evictedThisFrame;
+    }
+
+    public void set(VfxStats stats) {
+        setCounts(
+            stats.activeEffectCount(),
+            stats.activeParticleCount(),
+            stats.sleepingEmitterCount(),
+            stats.culledParticleCount(),
+            stats.gpuMemoryBytes()
+        );
+        VfxBudgetStats budget = stats.budgetStats();
+        if (budget == null) {
+            setBudget(0, 0, 0, 0, 0, 0, 0);
+        } else {
+            setBudget(
+                budget.totalBudget(),
+                budget.usedBudget(),
+                budget.remainingBudget(),
+                budget.activeEffectCount(),
+                budget.rejectedThisFrame(),
+                budget.clampedThisFrame(),
+                budget.evictedThisFrame()
+            );
+        }
+    }
+
+    public VfxStats toStats() {
+        return new VfxStats(
+            activeEffectCount,
+            activeParticleCount,
+            sleepingEmitterCount,
+            culledParticleCount,
+            gpuMemoryBytes,
+            new VfxBudgetStats(
+                totalBudget,
+                usedBudget,
+                remainingBudget,
+                budgetEffectCount,
+                rejectedThisFrame,
+                clampedThisFrame,
+                evictedThisFrame
+            )
+        );
+    }
+
+    public int activeEffectCount() {
+        return activeEffectCount;
+    }
+
+    public int activeParticleCount() {
+        return activeParticleCount;
+    }
+
+    public int sleepingEmitterCount() {
+        return sleepingEmitterCount;
+    }
+
+    public int culledParticleCount() {
+        return culledParticleCount;
+    }
+
+    public long gpuMemoryBytes() {
+        return gpuMemoryBytes;
+    }
+
+    public int totalBudget() {
+        return totalBudget;
+    }
+
+    public int usedBudget() {
+        return usedBudget;
+    }
+
+    public int remainingBudget() {
+        return remainingBudget;
+    }
+
+    public int budgetEffectCount() {
+        return budgetEffectCount;
+    }
+
+    public int rejectedThisFrame() {
+        return rejectedThisFrame;
+    }
+
+    public int clampedThisFrame() {
+        return clampedThisFrame;
+    }
+
+    public int evictedThisFrame() {
+        return evictedThisFrame;
+    }
+}
@@ -0,0 +1,79 @@
+package org.dynamisengine.vfx.bench;
+
+import org.dynamisengine.vfx.vulkan.budget.VfxBudgetAllocation;
+import org.dynamisengine.vfx.vulkan.budget.VfxBudgetAllocator;
+import org.dynamisengine.vfx.vulkan.budget.VfxBudgetPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Spawn/despawn traffic from eight gameplay threads against one shared particle budget: the
+ * CAS-based allocator versus the same allocator behind a single lock, which is how the
+ * synchronized implementation behaved. The budget is sized so EVICT_OLDEST keeps evicting.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class BudgetAllocatorContentionBenchmark {
+    private static final int LIVE_PER_THREAD = 8;
+
+    @Param({"REJECT", "EVICT_OLDEST"})
+    public VfxBudgetPolicy policy;
+
+    private VfxBudgetAllocator lockFree;
+    private VfxBudgetAllocator locked;
+
+    @State(Scope.Thread)
+    public static class Spawner {
+        final int[] live = new int[LIVE_PER_THREAD];
+        int cursor;
+        int request = 1;
+    }
+
+    @Setup
+    public void setup() {
+        lockFree = new VfxBudgetAllocator(64 * 1024, policy);
+        locked = new VfxBudgetAllocator(64 * 1024, policy);
+    }
+
+    @Benchmark
+    public int lockFreeSpawn(Spawner spawner) {
+        return spawnAndRetire(lockFree, spawner, lockFree::release);
+    }
+
+    @Benchmark
+    public int lockedSpawn(Spawner spawner) {
+        synchronized (locked) {
+            return spawnAndRetire(locked, spawner, locked::release);
+        }
+    }
+
+    private static int spawnAndRetire(VfxBudgetAllocator allocator, Spawner spawner, Consumer<Integer> evicted) {
+        // Requests between 256 and 2303 particles, so eight threads oversubscribe the budget.
+        spawner.request = spawner.request * 1_103_515_245 + 12_345;
+        VfxBudgetAllocation allocation = allocator.allocate(256 + ((spawner.request >>> 16) & 2047), evicted);
+        int slot = spawner.cursor++ % LIVE_PER_THREAD;
+        if (spawner.live[slot] != 0) {
+            allocator.release(spawner.live[slot]);
+        }
+        spawner.live[slot] = allocation == null ? 0 : allocation.allocationId();
+        return allocation == null ? 0 : allocation.allocatedParticles();
+    }
+}
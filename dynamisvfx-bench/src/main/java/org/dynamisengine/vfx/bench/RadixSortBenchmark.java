@@ -0,0 +1,79 @@
+package org.dynamisengine.vfx.bench;
+
+import org.dynamisengine.vfx.vulkan.compute.VulkanVfxRadixSort;
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Host radix sort over back-to-front depth keys, serial (single-worker pool) against the chunked
+ * fork/join path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RadixSortBenchmark {
+    @Param({"65536", "262144", "1048576"})
+    public int keyCount;
+
+    private int[] keys;
+    private int[] indices;
+    private ForkJoinPool singleWorker;
+    private VulkanVfxRadixSort serial;
+    private VulkanVfxRadixSort parallel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        keys = new int[keyCount];
+        indices = new int[keyCount];
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < keyCount; i++) {
+            // Sortable bits of positive squared distances in [0, 10000).
+            keys[i] = Float.floatToRawIntBits((float) random.nextDouble(10_000.0)) ^ 0x80000000;
+            indices[i] = i;
+        }
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        singleWorker = new ForkJoinPool(1);
+        serial = VulkanVfxRadixSort.create(1L, layout, keyCount, singleWorker);
+        parallel = VulkanVfxRadixSort.create(1L, layout, keyCount, ForkJoinPool.commonPool());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        serial.destroy(1L);
+        parallel.destroy(1L);
+        singleWorker.shutdown();
+    }
+
+    @Benchmark
+    public int serialSort() {
+        serial.loadInputs(keys, indices, keyCount);
+        serial.sort(1L, keyCount);
+        return serial.sortedIndex(0);
+    }
+
+    @Benchmark
+    public int parallelSort() {
+        parallel.loadInputs(keys, indices, keyCount);
+        parallel.sort(1L, keyCount);
+        return parallel.sortedIndex(0);
+    }
+}
@@ -0,0 +1,93 @@
+package org.dynamisengine.vfx.bench;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.Force;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.dynamisengine.vfx.core.sim.ParallelParticleSimulateKernel;
+import org.dynamisengine.vfx.core.sim.ParticleEffectSimulation;
+import org.dynamisengine.vfx.core.sim.ParticleSimulateKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar reference, Vector API and fork/join chunked SIMULATE over a fully populated effect.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SimulateKernelBenchmark {
+    @Param({"16384", "65536", "262144"})
+    public int particleCount;
+
+    private ParticleEffectSimulation scalarEffect;
+    private ParticleEffectSimulation vectorEffect;
+    private ParticleEffectSimulation parallelEffect;
+    private ParticleSimulateKernel scalar;
+    private ParticleSimulateKernel vector;
+    private ParticleSimulateKernel parallel;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        // Long lifetimes keep every slot live for the whole iteration.
+        ParticleEmitterDescriptor descriptor = EffectBuilder.emitter("bench_simulate")
+            .shape(EmitterShape.sphere(1.0f))
+            .rate(EmissionRate.burst(particleCount))
+            .init(ParticleInit.builder()
+                .lifetime(1.0e6f, 2.0e6f)
+                .velocityRange(1.0f, 8.0f)
+                .sizeRange(0.05f, 0.2f)
+                .build())
+            .force(Force.gravity(9.8f))
+            .force(Force.drag(0.3f))
+            .force(Force.wind(2.0f, 1.0f, 0.0f, 0.0f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+        scalarEffect = new ParticleEffectSimulation(descriptor, particleCount, 1, 42L);
+        scalarEffect.emit(particleCount);
+        vectorEffect = new ParticleEffectSimulation(descriptor, particleCount, 1, 42L);
+        vectorEffect.emit(particleCount);
+        parallelEffect = new ParticleEffectSimulation(descriptor, particleCount, 1, 42L);
+        parallelEffect.emit(particleCount);
+        scalar = ParticleSimulateKernel.scalar();
+        vector = ParticleSimulateKernel.preferred();
+        parallel = ParallelParticleSimulateKernel.commonPool();
+    }
+
+    @Benchmark
+    public long scalarSimulate() {
+        scalarEffect.simulate(1.0f / 60.0f, scalar);
+        return scalarEffect.frameCounter();
+    }
+
+    @Benchmark
+    public long vectorSimulate() {
+        vectorEffect.simulate(1.0f / 60.0f, vector);
+        return vectorEffect.frameCounter();
+    }
+
+    @Benchmark
+    public long parallelSimulate() {
+        parallelEffect.simulate(1.0f / 60.0f, parallel);
+        return parallelEffect.frameCounter();
+    }
+}
@@ -3,10 +3,13 @@ module org.dynamisengine.vfx.core {
     requires org.dynamisengine.vectrix;
     requires fastnoiselitenouveau;
     requires com.fasterxml.jackson.databind;
+    requires static jdk.incubator.vector;
 
     exports org.dynamisengine.vfx.core;
     exports org.dynamisengine.vfx.core.builder;
+    exports org.dynamisengine.vfx.core.lod;
     exports org.dynamisengine.vfx.core.noise;
     exports org.dynamisengine.vfx.core.serial;
+    exports org.dynamisengine.vfx.core.sim;
     exports org.dynamisengine.vfx.core.validate;
 }
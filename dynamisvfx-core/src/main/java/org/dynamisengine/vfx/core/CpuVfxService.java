@@ -0,0 +1,416 @@
+package org.dynamisengine.vfx.core;
+
+import org.dynamisengine.vfx.api.DebrisSpawnEvent;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.api.PhysicsHandoff;
+import org.dynamisengine.vfx.api.PhysicsHandoffDescriptor;
+import org.dynamisengine.vfx.api.VfxBudgetStats;
+import org.dynamisengine.vfx.api.VfxDrawContext;
+import org.dynamisengine.vfx.api.VfxFrameContext;
+import org.dynamisengine.vfx.api.VfxHandle;
+import org.dynamisengine.vfx.api.VfxIndirectCommandSink;
+import org.dynamisengine.vfx.api.VfxService;
+import org.dynamisengine.vfx.api.VfxStats;
+import org.dynamisengine.vfx.core.lod.EmitterSleepPolicy;
+import org.dynamisengine.vfx.core.lod.LodBatch;
+import org.dynamisengine.vfx.core.lod.LodPolicy;
+import org.dynamisengine.vfx.core.lod.LodPolicyConfig;
+import org.dynamisengine.vfx.core.sim.FixedTimestep;
+import org.dynamisengine.vfx.core.sim.ParticleCapacityEstimator;
+import org.dynamisengine.vfx.core.sim.ParticleEffectSimulation;
+import org.dynamisengine.vfx.core.sim.ParticleSoaBuffers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link VfxService} that runs the whole pipeline on the host through {@link ParticleSimulationCore}.
+ * Indirect commands carry the real post-cull instance counts and {@link #getStats()} reports live,
+ * culled and sleeping numbers, for servers and CI agents without a Vulkan device.
+ */
+public final class CpuVfxService implements VfxService {
+    public static final int DEFAULT_PARTICLE_BUDGET = 1 << 20;
+    public static final int DEFAULT_MAX_PARTICLES_PER_EFFECT = DEFAULT_PARTICLE_BUDGET / 16;
+    public static final int BILLBOARD_INDEX_COUNT = 6;
+    public static final float DEBRIS_AGE_THRESHOLD = 0.8f;
+    public static final int MAX_DEBRIS_PER_FRAME = 256;
+
+    // meta.w bit set once a particle has been handed to physics.
+    private static final int FLAG_HANDED_OFF = 1 << 1;
+    private static final int V = ParticleSoaBuffers.VEC4_FLOATS;
+
+    private final ParticleSimulationCore core;
+    private final int particleBudget;
+    private final int maxParticlesPerEffect;
+    private final long seed;
+
+    private final Map<Integer, EffectEntry> effects = new HashMap<>();
+    private final List<ParticleEffectSimulation> frameEffects = new ArrayList<>();
+    private final List<ParticleEffectSimulation> lodEffects = new ArrayList<>();
+    private final LodBatch lodBatch = new LodBatch();
+    private final float[] frustum = new float[24];
+
+    private PhysicsHandoff physicsHandoff;
+    private int nextHandleId = 1;
+    private int usedBudget;
+    private int simulatedEffectCount;
+    private int rejectedThisFrame;
+    private int clampedThisFrame;
+    private long frameNumber;
+    private FixedTimestep fixedTimestep;
+    // Camera of the current simulate call.
+    private float cameraX;
+    private float cameraY;
+    private float cameraZ;
+    private float projectionScale = 1.0f;
+    private boolean fastForwardOnWake = true;
+    private LodPolicyConfig lodPolicy = LodPolicyConfig.DEFAULT;
+
+    public CpuVfxService() {
+        this(new ParticleSimulationCore(), DEFAULT_PARTICLE_BUDGET, DEFAULT_MAX_PARTICLES_PER_EFFECT, 0L);
+    }
+
+    public CpuVfxService(ParticleSimulationCore core, int particleBudget, int maxParticlesPerEffect, long seed) {
+        if (particleBudget <= 0) {
+            throw new IllegalArgumentException("particleBudget must be > 0");
+        }
+        if (maxParticlesPerEffect <= 0) {
+            throw new IllegalArgumentException("maxParticlesPerEffect must be > 0");
+        }
+        this.core = Objects.requireNonNull(core, "core");
+        this.particleBudget = particleBudget;
+        this.maxParticlesPerEffect = maxParticlesPerEffect;
+        this.seed = seed;
+    }
+
+    @Override
+    public void simulate(List<VfxHandle> activeEffects, float deltaTime, VfxFrameContext ctx) {
+        Objects.requireNonNull(activeEffects, "activeEffects");
+        Objects.requireNonNull(ctx, "ctx");
+        rejectedThisFrame = 0;
+        clampedThisFrame = 0;
+
+        float[] planes = ctx.frustumPlanes();
+        Arrays.fill(frustum, 0.0f);
+        if (planes != null) {
+            System.arraycopy(planes, 0, frustum, 0, Math.min(24, planes.length));
+        }
+
+        // Same translation-only camera extraction as the Vulkan path.
+        float[] view = ctx.cameraView();
+        boolean hasCamera = view != null && view.length >= 16;
+        cameraX = hasCamera ? -view[12] : 0.0f;
+        cameraY = hasCamera ? -view[13] : 0.0f;
+        cameraZ = hasCamera ? -view[14] : 0.0f;
+        float[] projection = ctx.cameraProjection();
+        projectionScale = projection == null || projection.length < 16 ? 1.0f : Math.abs(projection[5]);
+
+        if (fixedTimestep == null) {
+            simulateStep(activeEffects, deltaTime);
+        } else {
+            // Fixed-step mode: a whole number of equal steps, none at all on a short frame.
+            int substeps = fixedTimestep.advance(deltaTime);
+            for (int i = 0; i < substeps; i++) {
+                simulateStep(activeEffects, fixedTimestep.stepSeconds());
+            }
+        }
+
+        if (physicsHandoff != null) {
+            int budget = MAX_DEBRIS_PER_FRAME;
+            for (VfxHandle handle : activeEffects) {
+                EffectEntry entry = resolve(handle);
+                if (entry != null && budget > 0) {
+                    budget -= handOffDebris(entry, budget);
+                }
+            }
+        }
+    }
+
+    /**
+     * LOD, sleep and amortization decisions, then one step of everything left.
+     */
+    private void simulateStep(List<VfxHandle> activeEffects, float deltaTime) {
+        lodEffects.clear();
+        lodBatch.clear();
+        for (VfxHandle handle : activeEffects) {
+            EffectEntry entry = resolve(handle);
+            if (entry != null) {
+                ParticleEffectSimulation simulation = entry.simulation;
+                lodEffects.add(simulation);
+                lodBatch.add(
+                    simulation.lodTable(),
+                    simulation.originX(), simulation.originY(), simulation.originZ(),
+                    simulation.bounds().radius(),
+                    simulation.lodTier()
+                );
+            }
+        }
+        lodBatch.evaluate(cameraX, cameraY, cameraZ, projectionScale, lodPolicy);
+
+        frameEffects.clear();
+        int deferred = 0;
+        for (int i = 0; i < lodEffects.size(); i++) {
+            ParticleEffectSimulation simulation = lodEffects.get(i);
+            simulation.setLodTier(lodBatch.tier(i));
+            simulation.setCapBySimulationScale(!lodPolicy.amortized());
+            if (sleepOrWake(simulation, lodBatch.distance(i), deltaTime)) {
+                continue;
+            }
+            // Amortized tiers step every stride-th step, staggered by emitter id.
+            int stride = lodBatch.stride(i);
+            if (stride > 1 && !LodPolicy.simulatesOnFrame(frameNumber, stride, simulation.emitterId())) {
+                simulation.defer(deltaTime);
+                deferred++;
+            } else {
+                frameEffects.add(simulation);
+            }
+        }
+        frameNumber++;
+        simulatedEffectCount = frameEffects.size() + deferred;
+        core.stepAll(frameEffects, deltaTime, frustum);
+    }
+
+    @Override
+    public void recordDraws(List<VfxHandle> activeEffects, VfxDrawContext ctx) {
+        Objects.requireNonNull(activeEffects, "activeEffects");
+        Objects.requireNonNull(ctx, "ctx");
+        VfxIndirectCommandSink out = ctx.indirectCommandSink();
+        int slot = 0;
+        for (VfxHandle handle : activeEffects) {
+            EffectEntry entry = resolve(handle);
+            if (entry == null) {
+                continue;
+            }
+            out.writeCommand(slot++, BILLBOARD_INDEX_COUNT, entry.simulation.visibleCount(), 0, 0, 0);
+        }
+    }
+
+    @Override
+    public VfxHandle spawn(ParticleEmitterDescriptor descriptor, float[] transform) {
+        Objects.requireNonNull(descriptor, "descriptor");
+        int remaining = particleBudget - usedBudget;
+        if (remaining <= 0) {
+            rejectedThisFrame++;
+            return null;
+        }
+        int requested = estimateCapacity(descriptor, maxParticlesPerEffect);
+        int granted = Math.min(requested, remaining);
+        if (granted < requested) {
+            clampedThisFrame++;
+        }
+
+        int id = nextHandleId++;
+        VfxHandle handle = VfxHandle.create(id, 0, descriptor.id());
+        ParticleEffectSimulation simulation = core.createEffect(descriptor, granted, id, seed ^ (id * 0x9E3779B97F4A7C15L));
+        simulation.setTransform(transform);
+        effects.put(id, new EffectEntry(handle, simulation));
+        usedBudget += granted;
+        return handle;
+    }
+
+    @Override
+    public void despawn(VfxHandle handle) {
+        EffectEntry entry = resolve(handle);
+        if (entry == null) {
+            return;
+        }
+        effects.remove(handle.id());
+        usedBudget -= entry.simulation.buffers().capacity();
+    }
+
+    @Override
+    public void updateTransform(VfxHandle handle, float[] transform) {
+        EffectEntry entry = resolve(handle);
+        if (entry != null) {
+            entry.simulation.setTransform(transform);
+        }
+    }
+
+    @Override
+    public void setPhysicsHandoff(PhysicsHandoff handoff) {
+        this.physicsHandoff = handoff;
+    }
+
+    /**
+     * Sleeping counts live effects that were not in the last simulate call; culled counts live
+     * particles that failed the last frustum test.
+     */
+    @Override
+    public VfxStats getStats() {
+        int activeParticles = 0;
+        int culled = 0;
+        long bytes = 0L;
+        for (EffectEntry entry : effects.values()) {
+            activeParticles += entry.simulation.aliveCount();
+            culled += entry.simulation.culledCount();
+            bytes += entry.simulation.buffers().totalBytes();
+        }
+        VfxBudgetStats budgetStats = new VfxBudgetStats(
+            particleBudget,
+            usedBudget,
+            particleBudget - usedBudget,
+            effects.size(),
+            rejectedThisFrame,
+            clampedThisFrame,
+            0
+        );
+        return new VfxStats(
+            effects.size(),
+            activeParticles,
+            Math.max(0, effects.size() - simulatedEffectCount),
+            culled,
+            bytes,
+            budgetStats
+        );
+    }
+
+    /**
+     * Whether a woken effect catches up on the time it slept (the default) or resumes where it stopped.
+     */
+    public void setFastForwardOnWake(boolean fastForwardOnWake) {
+        this.fastForwardOnWake = fastForwardOnWake;
+    }
+
+    /**
+     * Switches to fixed-step simulation, or back to the caller's delta with null. With fixed
+     * steps, replays at different frame rates produce identical particle state.
+     */
+    public void setFixedTimestep(FixedTimestep fixedTimestep) {
+        this.fixedTimestep = fixedTimestep;
+    }
+
+    public FixedTimestep fixedTimestep() {
+        return fixedTimestep;
+    }
+
+    /**
+     * Fraction of a fixed step not yet simulated, for render interpolation; 0 without fixed steps.
+     */
+    public float interpolationAlpha() {
+        return fixedTimestep == null ? 0.0f : fixedTimestep.alpha();
+    }
+
+    /**
+     * Metric and hysteresis for LOD tier selection; distance without hysteresis by default.
+     */
+    public void setLodPolicy(LodPolicyConfig lodPolicy) {
+        this.lodPolicy = Objects.requireNonNull(lodPolicy, "lodPolicy");
+    }
+
+    public boolean isHandleAlive(VfxHandle handle) {
+        return resolve(handle) != null;
+    }
+
+    /**
+     * Host simulation behind a live handle, or null; exposed for gameplay queries and tests.
+     */
+    public ParticleEffectSimulation simulation(VfxHandle handle) {
+        EffectEntry entry = resolve(handle);
+        return entry == null ? null : entry.simulation;
+    }
+
+    public PhysicsHandoff physicsHandoff() {
+        return physicsHandoff;
+    }
+
+    /**
+     * Slots needed to hold every particle alive at once (see {@link ParticleCapacityEstimator}),
+     * clamped to {@code [1, maxParticles]}.
+     */
+    static int estimateCapacity(ParticleEmitterDescriptor descriptor, int maxParticles) {
+        long estimate = ParticleCapacityEstimator.peakAliveCount(descriptor);
+        if (estimate == ParticleCapacityEstimator.UNBOUNDED) {
+            estimate = maxParticles;
+        }
+        return (int) Math.max(1L, Math.min(maxParticles, estimate));
+    }
+
+    /**
+     * Applies {@link EmitterSleepPolicy}; true when the effect stays out of this frame's stages.
+     */
+    private boolean sleepOrWake(ParticleEffectSimulation simulation, float distance, float deltaTime) {
+        boolean sleep = EmitterSleepPolicy.shouldSleep(
+            simulation.descriptor(),
+            distance,
+            simulation.aliveCount(),
+            simulation.scheduler().burstConsumed()
+        );
+        if (sleep) {
+            if (!simulation.sleeping()) {
+                simulation.sleep();
+            }
+            simulation.advanceAsleep(deltaTime);
+            return true;
+        }
+        if (simulation.sleeping()) {
+            simulation.wake(fastForwardOnWake);
+        }
+        return false;
+    }
+
+    private int handOffDebris(EffectEntry entry, int limit) {
+        PhysicsHandoffDescriptor physics = entry.simulation.descriptor().physics();
+        if (physics == null || !physics.enabled()) {
+            return 0;
+        }
+        ParticleSoaBuffers buffers = entry.simulation.buffers();
+        float[] positions = buffers.positions();
+        float[] velocities = buffers.velocities();
+        int[] meta = buffers.meta();
+        float speedThresholdSq = physics.speedThreshold() * physics.speedThreshold();
+        int end = buffers.highWaterMark();
+        int handed = 0;
+        for (int i = 0; i < end && handed < limit; i++) {
+            int o = i * V;
+            float age = positions[o + 3];
+            if (age >= 1.0f || age <= DEBRIS_AGE_THRESHOLD || (meta[o + 3] & FLAG_HANDED_OFF) != 0) {
+                continue;
+            }
+            float vx = velocities[o];
+            float vy = velocities[o + 1];
+            float vz = velocities[o + 2];
+            if (vx * vx + vy * vy + vz * vz <= speedThresholdSq) {
+                continue;
+            }
+            meta[o + 3] |= FLAG_HANDED_OFF;
+            physicsHandoff.onDebrisSpawn(new DebrisSpawnEvent(
+                translation(positions[o], positions[o + 1], positions[o + 2]),
+                new float[] {vx, vy, vz},
+                new float[] {0.0f, 0.0f, 0.0f},
+                physics.mass(),
+                physics.meshId(),
+                physics.materialTag(),
+                entry.handle.id()
+            ));
+            handed++;
+        }
+        return handed;
+    }
+
+    private EffectEntry resolve(VfxHandle handle) {
+        if (handle == null) {
+            return null;
+        }
+        EffectEntry entry = effects.get(handle.id());
+        if (entry == null || entry.handle.generation() != handle.generation()) {
+            return null;
+        }
+        return entry;
+    }
+
+    private static float[] translation(float x, float y, float z) {
+        return new float[] {
+            1.0f, 0.0f, 0.0f, 0.0f,
+            0.0f, 1.0f, 0.0f, 0.0f,
+            0.0f, 0.0f, 1.0f, 0.0f,
+            x, y, z, 1.0f
+        };
+    }
+
+    private record EffectEntry(VfxHandle handle, ParticleEffectSimulation simulation) {
+    }
+}
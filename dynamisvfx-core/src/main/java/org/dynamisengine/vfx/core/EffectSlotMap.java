@@ -0,0 +1,146 @@
+package org.dynamisengine.vfx.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Generational slot map backing {@link org.dynamisengine.vfx.api.VfxHandle} ids. A handle id is a
+ * slot index and its generation must match the slot's current one, so stale handles are rejected
+ * with two array reads and no hashing. Values are kept densely packed (swap-remove) for cache
+ * friendly iteration via {@link #size()} and {@link #valueAt(int)}. Slot 0 is never handed out.
+ * Not thread-safe.
+ */
+public final class EffectSlotMap<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] generations;
+    // Slot -> dense index while live; next free slot (or 0) while free.
+    private int[] slotToDense;
+    private boolean[] live;
+    private int[] denseToSlot;
+    private Object[] values;
+    private int slotCount = 1;
+    private int freeHead;
+    private int size;
+
+    public EffectSlotMap() {
+        generations = new int[INITIAL_CAPACITY];
+        slotToDense = new int[INITIAL_CAPACITY];
+        live = new boolean[INITIAL_CAPACITY];
+        denseToSlot = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Stores a value and returns its slot id; pair it with {@link #generation(int)} for the handle.
+     */
+    public int insert(T value) {
+        Objects.requireNonNull(value, "value");
+        int slot;
+        if (freeHead != 0) {
+            slot = freeHead;
+            freeHead = slotToDense[slot];
+        } else {
+            if (slotCount == generations.length) {
+                int capacity = generations.length * 2;
+                generations = Arrays.copyOf(generations, capacity);
+                slotToDense = Arrays.copyOf(slotToDense, capacity);
+                live = Arrays.copyOf(live, capacity);
+            }
+            slot = slotCount++;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            denseToSlot = Arrays.copyOf(denseToSlot, size * 2);
+        }
+        values[size] = value;
+        denseToSlot[size] = slot;
+        slotToDense[slot] = size;
+        live[slot] = true;
+        size++;
+        return slot;
+    }
+
+    public int generation(int slot) {
+        return generations[slot];
+    }
+
+    /**
+     * The value for a live (slot, generation) pair, or null for stale or unknown ids.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int slot, int generation) {
+        if (slot <= 0 || slot >= slotCount || !live[slot] || generations[slot] != generation) {
+            return null;
+        }
+        return (T) values[slotToDense[slot]];
+    }
+
+    /**
+     * The value currently in a slot regardless of generation, for ids that carry no generation
+     * (GPU emitter ids, spatial index payloads).
+     */
+    @SuppressWarnings("unchecked")
+    public T getLive(int slot) {
+        if (slot <= 0 || slot >= slotCount || !live[slot]) {
+            return null;
+        }
+        return (T) values[slotToDense[slot]];
+    }
+
+    /**
+     * Removes a live (slot, generation) pair and bumps the slot's generation; returns the value or null.
+     */
+    public T remove(int slot, int generation) {
+        T value = get(slot, generation);
+        if (value == null) {
+            return null;
+        }
+        int dense = slotToDense[slot];
+        int last = --size;
+        if (dense != last) {
+            values[dense] = values[last];
+            denseToSlot[dense] = denseToSlot[last];
+            slotToDense[denseToSlot[dense]] = dense;
+        }
+        values[last] = null;
+        live[slot] = false;
+        generations[slot]++;
+        slotToDense[slot] = freeHead;
+        freeHead = slot;
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Dense iteration: valid for {@code 0 <= denseIndex < size()}; order changes on removal.
+     */
+    @SuppressWarnings("unchecked")
+    public T valueAt(int denseIndex) {
+        Objects.checkIndex(denseIndex, size);
+        return (T) values[denseIndex];
+    }
+
+    public int slotAt(int denseIndex) {
+        Objects.checkIndex(denseIndex, size);
+        return denseToSlot[denseIndex];
+    }
+
+    /**
+     * Drops every value; generations survive so handles issued before stay stale.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            int slot = denseToSlot[i];
+            live[slot] = false;
+            generations[slot]++;
+            slotToDense[slot] = freeHead;
+            freeHead = slot;
+            values[i] = null;
+        }
+        size = 0;
+    }
+}
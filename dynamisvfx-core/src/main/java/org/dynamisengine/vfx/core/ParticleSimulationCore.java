@@ -1,9 +1,177 @@
 package org.dynamisengine.vfx.core;
 
 import org.dynamisengine.vfx.api.EffectDescriptor;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.sim.EffectBounds;
+import org.dynamisengine.vfx.core.sim.ParticleEffectSimulation;
+import org.dynamisengine.vfx.core.sim.ParticleSimulateKernel;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Host-side reference particle engine. Runs the same RETIRE, EMIT, SIMULATE and CULL pipeline
+ * as the Vulkan compute stages over SoA arrays, for GPU-less fallback and parity checks.
+ */
 public final class ParticleSimulationCore {
+    private static final float[] ACCEPT_ALL_FRUSTUM = new float[24];
+
+    private final ParticleSimulateKernel kernel;
+    private final ForkJoinPool pool;
+
+    // Reused stepAll task tree, heap-ordered: node k splits into 2k + 1 and 2k + 2.
+    private StepTask[] stepTasks = new StepTask[0];
+    private List<ParticleEffectSimulation> stepEffects;
+    private float stepDeltaTime;
+    private float[] stepFrustum;
+
+    public ParticleSimulationCore() {
+        this(ParticleSimulateKernel.preferred());
+    }
+
+    public ParticleSimulationCore(ParticleSimulateKernel kernel) {
+        this(kernel, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool runs {@link #stepAll} across effects; give the same pool to a
+     *             {@link org.dynamisengine.vfx.core.sim.ParallelParticleSimulateKernel} to also split large effects
+     */
+    public ParticleSimulationCore(ParticleSimulateKernel kernel, ForkJoinPool pool) {
+        this.kernel = Objects.requireNonNull(kernel, "kernel");
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
     public String describe(EffectDescriptor descriptor) {
         return "Effect<" + descriptor.id() + ">";
     }
+
+    public ParticleEffectSimulation createEffect(
+        ParticleEmitterDescriptor descriptor,
+        int maxParticles,
+        int emitterId,
+        long seed
+    ) {
+        Objects.requireNonNull(descriptor, "descriptor");
+        return new ParticleEffectSimulation(descriptor, maxParticles, emitterId, seed);
+    }
+
+    /**
+     * Advances one effect by one frame plus any time it deferred, and returns the visible instance count.
+     */
+    public int step(ParticleEffectSimulation effect, float deltaTime, float[] frustumPlanes6x4) {
+        Objects.requireNonNull(effect, "effect");
+        float deferred = effect.takeDeferredSeconds();
+        float stepTime = deltaTime + deferred;
+        effect.retire();
+        int spawnCount = effect.scheduler().computeSpawnCount(
+            effect.descriptor().rate(),
+            stepTime,
+            effect.lodFreeSlots(),
+            effect.emissionScale()
+        );
+        effect.emit(spawnCount);
+        if (deferred > 0.0f) {
+            // Catch-up steps stay within the step size EffectBounds pads for.
+            int substeps = (int) Math.ceil(stepTime / EffectBounds.STEP_MARGIN_SECONDS);
+            for (int i = 0; i < substeps; i++) {
+                effect.simulate(stepTime / substeps, kernel);
+            }
+        } else {
+            effect.simulate(deltaTime, kernel);
+        }
+        return effect.cull(frustumPlanes6x4 == null ? ACCEPT_ALL_FRUSTUM : frustumPlanes6x4);
+    }
+
+    /**
+     * Advances every effect by one frame, effects in parallel on the pool, and returns the total
+     * visible instance count. Effects share no state, so the result matches stepping them serially.
+     * The task tree is reused across calls, so calls must not overlap.
+     */
+    public int stepAll(List<ParticleEffectSimulation> effects, float deltaTime, float[] frustumPlanes6x4) {
+        Objects.requireNonNull(effects, "effects");
+        if (effects.isEmpty()) {
+            return 0;
+        }
+        if (effects.size() == 1) {
+            return step(effects.get(0), deltaTime, frustumPlanes6x4);
+        }
+        ensureStepTasks(effects.size());
+        stepEffects = effects;
+        stepDeltaTime = deltaTime;
+        stepFrustum = frustumPlanes6x4;
+        StepTask root = stepTasks[0];
+        root.reset(0, effects.size());
+        try {
+            if (ForkJoinTask.getPool() == pool) {
+                root.invoke();
+            } else {
+                pool.invoke(root);
+            }
+        } finally {
+            stepEffects = null;
+            stepFrustum = null;
+        }
+        int visible = 0;
+        for (ParticleEffectSimulation effect : effects) {
+            visible += effect.visibleCount();
+        }
+        return visible;
+    }
+
+    public ParticleSimulateKernel kernel() {
+        return kernel;
+    }
+
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    private void ensureStepTasks(int effectCount) {
+        // Midpoint splits of n leaves fit in the complete tree over the next power of two.
+        int nodes = 2 * Integer.highestOneBit((effectCount - 1) << 1);
+        if (stepTasks.length >= nodes) {
+            return;
+        }
+        StepTask[] grown = Arrays.copyOf(stepTasks, nodes);
+        for (int k = stepTasks.length; k < nodes; k++) {
+            grown[k] = new StepTask(k);
+        }
+        stepTasks = grown;
+    }
+
+    @SuppressWarnings("serial")
+    private final class StepTask extends RecursiveAction {
+        private final int node;
+        private int from;
+        private int to;
+
+        private StepTask(int node) {
+            this.node = node;
+        }
+
+        private void reset(int from, int to) {
+            this.from = from;
+            this.to = to;
+            reinitialize();
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                step(stepEffects.get(from), stepDeltaTime, stepFrustum);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            StepTask left = stepTasks[2 * node + 1];
+            StepTask right = stepTasks[2 * node + 2];
+            left.reset(from, mid);
+            right.reset(mid, to);
+            invokeAll(left, right);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package org.dynamisengine.vfx.core.lod;
+
+import org.dynamisengine.vfx.api.EmissionRateDescriptor;
+import org.dynamisengine.vfx.api.LodDescriptor;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+
+/**
+ * When an effect may leave the per-frame stage loop: beyond {@link LodDescriptor#sleepingDistance()}
+ * if the descriptor allows sleeping, or whenever nothing is alive and nothing will be emitted
+ * without outside help. Both tests are pure functions of the inputs, so waking is deterministic.
+ */
+public final class EmitterSleepPolicy {
+    private EmitterSleepPolicy() {
+    }
+
+    public static boolean shouldSleep(
+        ParticleEmitterDescriptor descriptor,
+        float cameraDistance,
+        int aliveCount,
+        boolean burstConsumed
+    ) {
+        return sleepsByDistance(descriptor.lod(), cameraDistance)
+            || (aliveCount == 0 && !emissionPending(descriptor.rate(), burstConsumed));
+    }
+
+    public static boolean sleepsByDistance(LodDescriptor lod, float cameraDistance) {
+        return lod != null && lod.allowSleeping() && cameraDistance > lod.sleepingDistance();
+    }
+
+    /**
+     * True while the emitter will still spawn on its own: a continuous rate, or a burst that has
+     * not fired. EVENT emitters only spawn when triggered.
+     */
+    public static boolean emissionPending(EmissionRateDescriptor rate, boolean burstConsumed) {
+        if (rate == null || rate.mode() == null) {
+            return false;
+        }
+        return switch (rate.mode()) {
+            case CONTINUOUS -> rate.particlesPerSecond() > 0.0f;
+            case BURST -> !burstConsumed && rate.burstCount() > 0;
+            case EVENT -> false;
+        };
+    }
+}
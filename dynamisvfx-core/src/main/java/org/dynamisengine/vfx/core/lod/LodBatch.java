@@ -0,0 +1,125 @@
+package org.dynamisengine.vfx.core.lod;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Per-frame LOD evaluation for many effects at once: {@link #add} each effect's compiled table,
+ * emitter position, bounds radius and last tier, then {@link #evaluate} fills camera distances,
+ * tiers and scales in one pass under a {@link LodPolicyConfig}.
+ * Arrays grow on demand and are reused across frames, so steady-state frames allocate nothing.
+ * Not thread-safe.
+ */
+public final class LodBatch {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private LodTierTable[] tables = new LodTierTable[INITIAL_CAPACITY];
+    // {x0, y0, z0, x1, ...}
+    private float[] positions = new float[INITIAL_CAPACITY * 3];
+    private float[] radii = new float[INITIAL_CAPACITY];
+    private float[] distances = new float[INITIAL_CAPACITY];
+    private int[] tiers = new int[INITIAL_CAPACITY];
+    private int[] strides = new int[INITIAL_CAPACITY];
+    private float[] simulationScales = new float[INITIAL_CAPACITY];
+    private float[] emissionScales = new float[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Forgets last frame's effects; tables are released for collection.
+     */
+    public void clear() {
+        Arrays.fill(tables, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Queues one effect without extent or tier history and returns its batch index.
+     */
+    public int add(LodTierTable table, float x, float y, float z) {
+        return add(table, x, y, z, 0.0f, LodTierTable.NO_TIER);
+    }
+
+    /**
+     * Queues one effect and returns its batch index; {@code currentTier} anchors hysteresis.
+     */
+    public int add(LodTierTable table, float x, float y, float z, float radius, int currentTier) {
+        Objects.requireNonNull(table, "table");
+        if (size == tables.length) {
+            grow();
+        }
+        int i = size++;
+        tables[i] = table;
+        positions[i * 3] = x;
+        positions[i * 3 + 1] = y;
+        positions[i * 3 + 2] = z;
+        radii[i] = radius;
+        tiers[i] = currentTier;
+        return i;
+    }
+
+    public void evaluate(float cameraX, float cameraY, float cameraZ) {
+        evaluate(cameraX, cameraY, cameraZ, 1.0f, LodPolicyConfig.DEFAULT);
+    }
+
+    /**
+     * {@code projectionScale} is {@code projection[5]}, i.e. {@code 1 / tan(fovY / 2)}.
+     */
+    public void evaluate(float cameraX, float cameraY, float cameraZ, float projectionScale, LodPolicyConfig config) {
+        LodMetric metric = config.metric();
+        float hysteresis = config.hysteresis();
+        int maxStride = config.maxSimulationStride();
+        for (int i = 0; i < size; i++) {
+            float dx = positions[i * 3] - cameraX;
+            float dy = positions[i * 3 + 1] - cameraY;
+            float dz = positions[i * 3 + 2] - cameraZ;
+            float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+            LodTierTable table = tables[i];
+            float value = LodPolicy.metricValue(metric, distance, radii[i], projectionScale);
+            int tier = table.tierIndex(value, tiers[i], hysteresis);
+            distances[i] = distance;
+            tiers[i] = tier;
+            simulationScales[i] = table.simulationScale(tier);
+            strides[i] = LodPolicy.simulationStride(simulationScales[i], maxStride);
+            emissionScales[i] = table.emissionScale(tier);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float distance(int index) {
+        return distances[Objects.checkIndex(index, size)];
+    }
+
+    public int tier(int index) {
+        return tiers[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Frames between simulation steps; 1 unless the config amortizes.
+     */
+    public int stride(int index) {
+        return strides[Objects.checkIndex(index, size)];
+    }
+
+    public float simulationScale(int index) {
+        return simulationScales[Objects.checkIndex(index, size)];
+    }
+
+    public float emissionScale(int index) {
+        return emissionScales[Objects.checkIndex(index, size)];
+    }
+
+    private void grow() {
+        int capacity = tables.length * 2;
+        tables = Arrays.copyOf(tables, capacity);
+        positions = Arrays.copyOf(positions, capacity * 3);
+        radii = Arrays.copyOf(radii, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        tiers = Arrays.copyOf(tiers, capacity);
+        strides = Arrays.copyOf(strides, capacity);
+        simulationScales = Arrays.copyOf(simulationScales, capacity);
+        emissionScales = Arrays.copyOf(emissionScales, capacity);
+    }
+}
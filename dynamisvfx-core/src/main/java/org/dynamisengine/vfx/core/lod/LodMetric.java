@@ -0,0 +1,15 @@
+package org.dynamisengine.vfx.core.lod;
+
+/**
+ * What LOD tier thresholds are compared against.
+ */
+public enum LodMetric {
+    /** Camera distance to the emitter. */
+    DISTANCE,
+    /**
+     * Projected size: {@link LodPolicy#screenSizeDistance} turns bounds radius, distance and
+     * projection scale into the distance at which a unit-radius effect under a 90 degree
+     * projection would look as large, so zooming in raises detail.
+     */
+    SCREEN_SIZE
+}
@@ -7,9 +7,54 @@ import java.util.Comparator;
 import java.util.List;
 
 public final class LodPolicy {
+    // Keeps the screen-size metric finite for effects without extent.
+    private static final float MIN_RADIUS = 1.0e-3f;
+
     private LodPolicy() {
     }
 
+    /**
+     * Value compared against tier thresholds for the configured metric.
+     */
+    public static float metricValue(LodMetric metric, float cameraDistance, float radius, float projectionScale) {
+        return metric == LodMetric.SCREEN_SIZE
+            ? screenSizeDistance(cameraDistance, radius, projectionScale)
+            : cameraDistance;
+    }
+
+    /**
+     * Projected size {@code radius / distance * projectionScale} expressed as the distance of a
+     * unit-radius effect seen through a projection scale of 1 (90 degree FOV).
+     */
+    public static float screenSizeDistance(float cameraDistance, float radius, float projectionScale) {
+        return cameraDistance / (Math.max(radius, MIN_RADIUS) * Math.max(projectionScale, MIN_RADIUS));
+    }
+
+    /**
+     * Frames between simulation steps for a tier: the largest power of two not above
+     * {@code 1 / simulationScale}, capped at {@code maxStride}.
+     */
+    public static int simulationStride(float simulationScale, int maxStride) {
+        if (maxStride <= 1 || !(simulationScale < 1.0f)) {
+            return 1;
+        }
+        if (simulationScale <= 1.0f / maxStride) {
+            return maxStride;
+        }
+        return Integer.highestOneBit((int) (1.0f / simulationScale));
+    }
+
+    /**
+     * Whether an effect with the given stride steps on this frame. The phase, usually the effect
+     * id, staggers effects of one stride evenly across its frames.
+     */
+    public static boolean simulatesOnFrame(long frame, int stride, int phase) {
+        return ((frame + phase) & (stride - 1)) == 0;
+    }
+
+    /**
+     * Sorts the tiers on every call; per-frame code looks tiers up in a compiled {@link LodTierTable}.
+     */
     public static LodTier activeTier(LodDescriptor descriptor, float cameraDistance) {
         if (descriptor == null || descriptor.tiers() == null || descriptor.tiers().isEmpty()) {
             return null;
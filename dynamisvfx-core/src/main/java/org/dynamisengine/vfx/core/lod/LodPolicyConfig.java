@@ -1,4 +1,40 @@
 package org.dynamisengine.vfx.core.lod;
 
-public record LodPolicyConfig(float[] tierDistanceThresholds) {
+import java.util.Objects;
+
+/**
+ * {@code hysteresis} widens the current tier's [min, max] by that fraction of each bound before
+ * another tier is picked, so effects sitting on a threshold do not flip tiers every frame.
+ * {@code maxSimulationStride} above 1 enables temporal amortization: tiers with a simulation scale
+ * below 1 step every {@link LodPolicy#simulationStride} frames instead of capping particles.
+ */
+public record LodPolicyConfig(
+    float[] tierDistanceThresholds,
+    LodMetric metric,
+    float hysteresis,
+    int maxSimulationStride
+) {
+    public static final LodPolicyConfig DEFAULT = new LodPolicyConfig(new float[0]);
+
+    public LodPolicyConfig {
+        Objects.requireNonNull(metric, "metric");
+        if (!(hysteresis >= 0.0f && hysteresis < 1.0f)) {
+            throw new IllegalArgumentException("hysteresis must be in [0, 1)");
+        }
+        if (maxSimulationStride < 1 || Integer.bitCount(maxSimulationStride) != 1) {
+            throw new IllegalArgumentException("maxSimulationStride must be a power of two >= 1");
+        }
+    }
+
+    public LodPolicyConfig(float[] tierDistanceThresholds, LodMetric metric, float hysteresis) {
+        this(tierDistanceThresholds, metric, hysteresis, 1);
+    }
+
+    public LodPolicyConfig(float[] tierDistanceThresholds) {
+        this(tierDistanceThresholds, LodMetric.DISTANCE, 0.0f);
+    }
+
+    public boolean amortized() {
+        return maxSimulationStride > 1;
+    }
 }
@@ -0,0 +1,111 @@
+package org.dynamisengine.vfx.core.lod;
+
+import org.dynamisengine.vfx.api.LodDescriptor;
+import org.dynamisengine.vfx.api.LodTier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link LodDescriptor}'s tiers compiled once into flat arrays sorted by min distance, so the
+ * per-frame lookup is a short scan over floats. Selection matches {@link LodPolicy#activeTier}:
+ * the first tier whose [min, max] contains the distance, else the last tier. Immutable.
+ */
+public final class LodTierTable {
+    /** Tier index for tables without tiers; its scales are 1. */
+    public static final int NO_TIER = -1;
+    public static final LodTierTable NONE = new LodTierTable(new float[0], new float[0], new float[0]);
+
+    // {min0, max0, min1, max1, ...}
+    private final float[] thresholds;
+    private final float[] simulationScales;
+    private final float[] emissionScales;
+
+    private LodTierTable(float[] thresholds, float[] simulationScales, float[] emissionScales) {
+        this.thresholds = thresholds;
+        this.simulationScales = simulationScales;
+        this.emissionScales = emissionScales;
+    }
+
+    public static LodTierTable compile(LodDescriptor descriptor) {
+        if (descriptor == null || descriptor.tiers() == null || descriptor.tiers().isEmpty()) {
+            return NONE;
+        }
+        List<LodTier> tiers = new ArrayList<>(descriptor.tiers().size());
+        for (LodTier tier : descriptor.tiers()) {
+            if (tier != null) {
+                tiers.add(tier);
+            }
+        }
+        if (tiers.isEmpty()) {
+            return NONE;
+        }
+        tiers.sort(Comparator.comparingDouble(LodTier::minDistance));
+        int n = tiers.size();
+        float[] thresholds = new float[n * 2];
+        float[] simulationScales = new float[n];
+        float[] emissionScales = new float[n];
+        for (int i = 0; i < n; i++) {
+            LodTier tier = tiers.get(i);
+            thresholds[i * 2] = tier.minDistance();
+            thresholds[i * 2 + 1] = tier.maxDistance();
+            simulationScales[i] = clampScale(tier.simulationScale());
+            emissionScales[i] = clampScale(tier.emissionScale());
+        }
+        return new LodTierTable(thresholds, simulationScales, emissionScales);
+    }
+
+    public int tierIndex(float cameraDistance) {
+        int n = simulationScales.length;
+        for (int i = 0; i < n; i++) {
+            if (cameraDistance >= thresholds[i * 2] && cameraDistance <= thresholds[i * 2 + 1]) {
+                return i;
+            }
+        }
+        return n - 1;
+    }
+
+    /**
+     * Keeps {@code currentTier} while the value stays inside its range widened by
+     * {@code hysteresis} (a fraction of each bound); otherwise the plain lookup. The last tier
+     * has no upper bound since everything beyond the tiers falls back to it.
+     */
+    public int tierIndex(float value, int currentTier, float hysteresis) {
+        int n = simulationScales.length;
+        if (currentTier >= 0 && currentTier < n && hysteresis > 0.0f) {
+            float min = thresholds[currentTier * 2] * (1.0f - hysteresis);
+            float max = currentTier == n - 1
+                ? Float.POSITIVE_INFINITY
+                : thresholds[currentTier * 2 + 1] * (1.0f + hysteresis);
+            if (value >= min && value <= max) {
+                return currentTier;
+            }
+        }
+        return tierIndex(value);
+    }
+
+    public int tierCount() {
+        return simulationScales.length;
+    }
+
+    public float simulationScale(int tier) {
+        return tier == NO_TIER ? 1.0f : simulationScales[tier];
+    }
+
+    public float emissionScale(int tier) {
+        return tier == NO_TIER ? 1.0f : emissionScales[tier];
+    }
+
+    public float minDistance(int tier) {
+        return thresholds[tier * 2];
+    }
+
+    public float maxDistance(int tier) {
+        return thresholds[tier * 2 + 1];
+    }
+
+    private static float clampScale(float scale) {
+        return Float.isNaN(scale) ? 1.0f : Math.min(1.0f, Math.max(0.0f, scale));
+    }
+}
@@ -0,0 +1,506 @@
+package org.dynamisengine.vfx.core.sim;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Dynamic bounding-volume hierarchy over effect bounds, for frustum, sphere and ray queries in
+ * O(log n + hits) instead of a walk over every live effect. Leaves store a fattened box so small
+ * moves refit nothing; a leaf is reinserted only when its tight box escapes the fat one or shrinks
+ * far inside it. Inserts pick the sibling by surface-area cost and AVL-style rotations keep the
+ * tree balanced. Nodes live in flat arrays and queries use a reusable stack, so steady-state
+ * updates and queries do not allocate. Not thread-safe, and visitors must not modify the tree.
+ */
+public final class DynamicAabbTree {
+    public static final int NULL_NODE = -1;
+    public static final float DEFAULT_MARGIN = 1.0f;
+
+    private static final int INITIAL_CAPACITY = 16;
+    // A fat box more than this many margins larger than its tight box on any side is refreshed.
+    private static final float SHRINK_MARGINS = 4.0f;
+
+    private final float margin;
+
+    private float[] boxes;
+    private int[] parents;
+    private int[] child1;
+    private int[] child2;
+    private int[] heights;
+    private int[] userData;
+    private int capacity;
+    private int nodeCount;
+    private int freeList = NULL_NODE;
+    private int root = NULL_NODE;
+    private int leafCount;
+    private int[] stack = new int[64];
+
+    public DynamicAabbTree() {
+        this(DEFAULT_MARGIN);
+    }
+
+    public DynamicAabbTree(float margin) {
+        if (margin < 0.0f || Float.isNaN(margin)) {
+            throw new IllegalArgumentException("margin must be >= 0");
+        }
+        this.margin = margin;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Adds a leaf for the given box and returns its proxy id.
+     */
+    public int insert(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int data) {
+        int leaf = allocateNode();
+        setFat(leaf, minX, minY, minZ, maxX, maxY, maxZ);
+        userData[leaf] = data;
+        heights[leaf] = 0;
+        insertLeaf(leaf);
+        leafCount++;
+        return leaf;
+    }
+
+    public void remove(int proxyId) {
+        checkLeaf(proxyId);
+        removeLeaf(proxyId);
+        freeNode(proxyId);
+        leafCount--;
+    }
+
+    /**
+     * Refits a leaf to a new tight box. Returns true when the leaf had to be reinserted.
+     */
+    public boolean move(int proxyId, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        checkLeaf(proxyId);
+        int b = proxyId * 6;
+        boolean contained = boxes[b] <= minX && boxes[b + 1] <= minY && boxes[b + 2] <= minZ
+            && boxes[b + 3] >= maxX && boxes[b + 4] >= maxY && boxes[b + 5] >= maxZ;
+        float slack = margin * SHRINK_MARGINS;
+        boolean loose = minX - boxes[b] > slack || minY - boxes[b + 1] > slack || minZ - boxes[b + 2] > slack
+            || boxes[b + 3] - maxX > slack || boxes[b + 4] - maxY > slack || boxes[b + 5] - maxZ > slack;
+        if (contained && !loose) {
+            return false;
+        }
+        removeLeaf(proxyId);
+        setFat(proxyId, minX, minY, minZ, maxX, maxY, maxZ);
+        insertLeaf(proxyId);
+        return true;
+    }
+
+    public int userData(int proxyId) {
+        checkLeaf(proxyId);
+        return userData[proxyId];
+    }
+
+    /**
+     * Visits the user data of every leaf whose fat box is not fully behind one of the six planes
+     * ({@code n.p + d >= 0} inside). Subtrees fully inside every plane are reported without tests.
+     */
+    public void queryFrustum(float[] frustumPlanes6x4, IntConsumer visitor) {
+        if (frustumPlanes6x4 == null || frustumPlanes6x4.length != 24) {
+            throw new IllegalArgumentException("frustumPlanes6x4 must contain exactly 24 floats");
+        }
+        int top = push(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (node == NULL_NODE) {
+                continue;
+            }
+            int b = node * 6;
+            boolean inside = true;
+            boolean outside = false;
+            for (int p = 0; p < 6 && !outside; p++) {
+                int q = p * 4;
+                float nx = frustumPlanes6x4[q];
+                float ny = frustumPlanes6x4[q + 1];
+                float nz = frustumPlanes6x4[q + 2];
+                float d = frustumPlanes6x4[q + 3];
+                float far = nx * (nx >= 0.0f ? boxes[b + 3] : boxes[b])
+                    + ny * (ny >= 0.0f ? boxes[b + 4] : boxes[b + 1])
+                    + nz * (nz >= 0.0f ? boxes[b + 5] : boxes[b + 2]) + d;
+                if (far < 0.0f) {
+                    outside = true;
+                } else if (inside) {
+                    float near = nx * (nx >= 0.0f ? boxes[b] : boxes[b + 3])
+                        + ny * (ny >= 0.0f ? boxes[b + 1] : boxes[b + 4])
+                        + nz * (nz >= 0.0f ? boxes[b + 2] : boxes[b + 5]) + d;
+                    inside = near >= 0.0f;
+                }
+            }
+            if (outside) {
+                continue;
+            }
+            if (inside) {
+                visitSubtree(node, top, visitor);
+            } else if (heights[node] == 0) {
+                visitor.accept(userData[node]);
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    /**
+     * Visits the user data of every leaf whose fat box overlaps the sphere.
+     */
+    public void querySphere(float x, float y, float z, float radius, IntConsumer visitor) {
+        float r2 = radius * radius;
+        int top = push(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (node == NULL_NODE) {
+                continue;
+            }
+            int b = node * 6;
+            float dx = Math.max(Math.max(boxes[b] - x, 0.0f), x - boxes[b + 3]);
+            float dy = Math.max(Math.max(boxes[b + 1] - y, 0.0f), y - boxes[b + 4]);
+            float dz = Math.max(Math.max(boxes[b + 2] - z, 0.0f), z - boxes[b + 5]);
+            if (dx * dx + dy * dy + dz * dz > r2) {
+                continue;
+            }
+            if (heights[node] == 0) {
+                visitor.accept(userData[node]);
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    /**
+     * Visits the user data of every leaf whose fat box the segment {@code origin + t*dir},
+     * {@code t in [0, maxT]}, passes through. The direction need not be normalized.
+     */
+    public void raycast(float ox, float oy, float oz, float dx, float dy, float dz, float maxT, IntConsumer visitor) {
+        float invX = 1.0f / dx;
+        float invY = 1.0f / dy;
+        float invZ = 1.0f / dz;
+        int top = push(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (node == NULL_NODE) {
+                continue;
+            }
+            if (!segmentHitsBox(node * 6, ox, oy, oz, dx, dy, dz, invX, invY, invZ, maxT)) {
+                continue;
+            }
+            if (heights[node] == 0) {
+                visitor.accept(userData[node]);
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    public int leafCount() {
+        return leafCount;
+    }
+
+    public int height() {
+        return root == NULL_NODE ? 0 : heights[root];
+    }
+
+    public void clear() {
+        nodeCount = 0;
+        freeList = NULL_NODE;
+        root = NULL_NODE;
+        leafCount = 0;
+    }
+
+    private boolean segmentHitsBox(
+        int b,
+        float ox,
+        float oy,
+        float oz,
+        float dx,
+        float dy,
+        float dz,
+        float invX,
+        float invY,
+        float invZ,
+        float maxT
+    ) {
+        float tMin = 0.0f;
+        float tMax = maxT;
+        // Slab test; a zero direction component only needs the origin inside that slab.
+        if (dx == 0.0f) {
+            if (ox < boxes[b] || ox > boxes[b + 3]) {
+                return false;
+            }
+        } else {
+            float t1 = (boxes[b] - ox) * invX;
+            float t2 = (boxes[b + 3] - ox) * invX;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dy == 0.0f) {
+            if (oy < boxes[b + 1] || oy > boxes[b + 4]) {
+                return false;
+            }
+        } else {
+            float t1 = (boxes[b + 1] - oy) * invY;
+            float t2 = (boxes[b + 4] - oy) * invY;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dz == 0.0f) {
+            if (oz < boxes[b + 2] || oz > boxes[b + 5]) {
+                return false;
+            }
+        } else {
+            float t1 = (boxes[b + 2] - oz) * invZ;
+            float t2 = (boxes[b + 5] - oz) * invZ;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax;
+    }
+
+    private void visitSubtree(int subtreeRoot, int base, IntConsumer visitor) {
+        // Entries below base are the caller's pending nodes; everything above is scratch.
+        int top = push(base, subtreeRoot);
+        while (top > base) {
+            int node = stack[--top];
+            if (heights[node] == 0) {
+                visitor.accept(userData[node]);
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    private int push(int top, int node) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top] = node;
+        return top + 1;
+    }
+
+    private void setFat(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        if (!(minX <= maxX && minY <= maxY && minZ <= maxZ)) {
+            throw new IllegalArgumentException("box min must not exceed max");
+        }
+        int b = node * 6;
+        boxes[b] = minX - margin;
+        boxes[b + 1] = minY - margin;
+        boxes[b + 2] = minZ - margin;
+        boxes[b + 3] = maxX + margin;
+        boxes[b + 4] = maxY + margin;
+        boxes[b + 5] = maxZ + margin;
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parents[leaf] = NULL_NODE;
+            return;
+        }
+
+        // Descend towards the sibling with the lowest surface-area cost.
+        int lb = leaf * 6;
+        int index = root;
+        while (heights[index] > 0) {
+            int c1 = child1[index];
+            int c2 = child2[index];
+            float area = area(index * 6);
+            float combinedArea = unionArea(index * 6, lb);
+            float cost = 2.0f * combinedArea;
+            float inheritance = 2.0f * (combinedArea - area);
+            float cost1 = childCost(c1, lb) + inheritance;
+            float cost2 = childCost(c2, lb) + inheritance;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? c1 : c2;
+        }
+
+        int sibling = index;
+        int oldParent = parents[sibling];
+        int newParent = allocateNode();
+        parents[newParent] = oldParent;
+        userData[newParent] = 0;
+        unionInto(newParent, sibling, leaf);
+        heights[newParent] = heights[sibling] + 1;
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+        if (oldParent == NULL_NODE) {
+            root = newParent;
+        } else if (child1[oldParent] == sibling) {
+            child1[oldParent] = newParent;
+        } else {
+            child2[oldParent] = newParent;
+        }
+
+        refitUpwards(parents[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+        int parent = parents[leaf];
+        int grandParent = parents[parent];
+        int sibling = child1[parent] == leaf ? child2[parent] : child1[parent];
+        if (grandParent == NULL_NODE) {
+            root = sibling;
+            parents[sibling] = NULL_NODE;
+            freeNode(parent);
+            return;
+        }
+        if (child1[grandParent] == parent) {
+            child1[grandParent] = sibling;
+        } else {
+            child2[grandParent] = sibling;
+        }
+        parents[sibling] = grandParent;
+        freeNode(parent);
+        refitUpwards(grandParent);
+    }
+
+    private void refitUpwards(int start) {
+        int index = start;
+        while (index != NULL_NODE) {
+            index = balance(index);
+            int c1 = child1[index];
+            int c2 = child2[index];
+            heights[index] = 1 + Math.max(heights[c1], heights[c2]);
+            unionInto(index, c1, c2);
+            index = parents[index];
+        }
+    }
+
+    /**
+     * Rotates the taller grandchild up when the children's heights differ by more than one.
+     * Returns the node now at this position.
+     */
+    private int balance(int a) {
+        if (heights[a] < 2) {
+            return a;
+        }
+        int b = child1[a];
+        int c = child2[a];
+        int diff = heights[c] - heights[b];
+        if (diff > 1) {
+            return rotate(a, c, b, false);
+        }
+        if (diff < -1) {
+            return rotate(a, b, c, true);
+        }
+        return a;
+    }
+
+    // Lifts "up" (a child of a) above a; "other" is a's other child. upIsChild1 tells which slot up held.
+    private int rotate(int a, int up, int other, boolean upIsChild1) {
+        int f = child1[up];
+        int g = child2[up];
+
+        child1[up] = a;
+        parents[up] = parents[a];
+        parents[a] = up;
+        if (parents[up] == NULL_NODE) {
+            root = up;
+        } else if (child1[parents[up]] == a) {
+            child1[parents[up]] = up;
+        } else {
+            child2[parents[up]] = up;
+        }
+
+        // The taller grandchild stays under up; the shorter one replaces up under a.
+        int keep = heights[f] > heights[g] ? f : g;
+        int give = keep == f ? g : f;
+        child2[up] = keep;
+        if (upIsChild1) {
+            child1[a] = give;
+        } else {
+            child2[a] = give;
+        }
+        parents[give] = a;
+        unionInto(a, other, give);
+        heights[a] = 1 + Math.max(heights[other], heights[give]);
+        unionInto(up, a, keep);
+        heights[up] = 1 + Math.max(heights[a], heights[keep]);
+        return up;
+    }
+
+    private float childCost(int child, int leafBox) {
+        float combined = unionArea(child * 6, leafBox);
+        return heights[child] == 0 ? combined : combined - area(child * 6);
+    }
+
+    private void unionInto(int target, int a, int b) {
+        int t = target * 6;
+        int x = a * 6;
+        int y = b * 6;
+        boxes[t] = Math.min(boxes[x], boxes[y]);
+        boxes[t + 1] = Math.min(boxes[x + 1], boxes[y + 1]);
+        boxes[t + 2] = Math.min(boxes[x + 2], boxes[y + 2]);
+        boxes[t + 3] = Math.max(boxes[x + 3], boxes[y + 3]);
+        boxes[t + 4] = Math.max(boxes[x + 4], boxes[y + 4]);
+        boxes[t + 5] = Math.max(boxes[x + 5], boxes[y + 5]);
+    }
+
+    private float area(int b) {
+        float ex = boxes[b + 3] - boxes[b];
+        float ey = boxes[b + 4] - boxes[b + 1];
+        float ez = boxes[b + 5] - boxes[b + 2];
+        return 2.0f * (ex * ey + ey * ez + ez * ex);
+    }
+
+    private float unionArea(int a, int b) {
+        float ex = Math.max(boxes[a + 3], boxes[b + 3]) - Math.min(boxes[a], boxes[b]);
+        float ey = Math.max(boxes[a + 4], boxes[b + 4]) - Math.min(boxes[a + 1], boxes[b + 1]);
+        float ez = Math.max(boxes[a + 5], boxes[b + 5]) - Math.min(boxes[a + 2], boxes[b + 2]);
+        return 2.0f * (ex * ey + ey * ez + ez * ex);
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            if (nodeCount == capacity) {
+                allocate(capacity * 2);
+            }
+            int node = nodeCount++;
+            parents[node] = NULL_NODE;
+            child1[node] = NULL_NODE;
+            child2[node] = NULL_NODE;
+            return node;
+        }
+        int node = freeList;
+        freeList = parents[node];
+        parents[node] = NULL_NODE;
+        child1[node] = NULL_NODE;
+        child2[node] = NULL_NODE;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parents[node] = freeList;
+        heights[node] = -1;
+        freeList = node;
+    }
+
+    private void checkLeaf(int proxyId) {
+        if (proxyId < 0 || proxyId >= nodeCount || heights[proxyId] != 0) {
+            throw new IllegalArgumentException("not a live proxy: " + proxyId);
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        boxes = boxes == null ? new float[newCapacity * 6] : Arrays.copyOf(boxes, newCapacity * 6);
+        parents = grow(parents, newCapacity);
+        child1 = grow(child1, newCapacity);
+        child2 = grow(child2, newCapacity);
+        heights = grow(heights, newCapacity);
+        userData = grow(userData, newCapacity);
+        capacity = newCapacity;
+    }
+
+    private static int[] grow(int[] array, int newCapacity) {
+        return array == null ? new int[newCapacity] : Arrays.copyOf(array, newCapacity);
+    }
+}
@@ -0,0 +1,254 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.EmitterShapeDescriptor;
+import org.dynamisengine.vfx.api.ForceDescriptor;
+import org.dynamisengine.vfx.api.ForceType;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.api.ParticleInitDescriptor;
+
+import java.util.Objects;
+
+/**
+ * Conservative world AABB of everything an effect can have alive, predicted from the descriptor:
+ * spawn radius + max speed x lifetime + size, stretched along constant forces. Emitter moves and
+ * descriptor changes grow the box of the current epoch; an epoch lasts as long as the longest
+ * lifetime spawned in it or the one before, so keeping two epochs covers every live particle and
+ * a moving emitter's box trails it instead of growing forever. O(1) per update, so whole effects
+ * can be rejected before any per-particle work.
+ */
+public final class EffectBounds {
+    // Semi-implicit Euler overshoots continuous motion by 0.5*a*t*dt and a particle may outlive
+    // its lifetime by one step; padding the lifetime covers steps up to this size.
+    public static final float STEP_MARGIN_SECONDS = 0.1f;
+
+    // Predicted reach relative to the origin for the current descriptor.
+    private float lowX;
+    private float lowY;
+    private float lowZ;
+    private float highX;
+    private float highY;
+    private float highZ;
+    private float lifetime;
+
+    private float originX;
+    private float originY;
+    private float originZ;
+
+    private boolean empty = true;
+    // {minX, minY, minZ, maxX, maxY, maxZ} for the current and the previous epoch, then their union.
+    private final float[] current = new float[6];
+    private final float[] previous = new float[6];
+    private final float[] union = new float[6];
+    private float currentEpochLifetime;
+    private float previousEpochLifetime;
+    private float secondsInEpoch;
+
+    /**
+     * Re-derives the predicted reach; particles from the previous descriptor stay covered.
+     */
+    public void configure(ParticleEmitterDescriptor descriptor) {
+        Objects.requireNonNull(descriptor, "descriptor");
+        ParticleInitDescriptor init = descriptor.init();
+        EmitterShapeDescriptor shape = descriptor.shape();
+
+        float life = init == null ? 0.0f : Math.max(init.lifetimeMinSeconds(), init.lifetimeMaxSeconds());
+        float t = Math.max(0.0f, life) + STEP_MARGIN_SECONDS;
+        float speed = init == null ? 0.0f : Math.max(Math.abs(init.speedMin()), Math.abs(init.speedMax()));
+        float size = init == null ? 0.0f : Math.max(Math.abs(init.sizeMin()), Math.abs(init.sizeMax()));
+
+        float shapeRadius = 0.0f;
+        float[] dims = shape == null ? null : shape.dimensions();
+        if (dims != null) {
+            for (float d : dims) {
+                shapeRadius = Math.max(shapeRadius, Math.abs(d));
+            }
+        }
+
+        // Constant forces push the box one way; position-dependent ones widen it in every direction.
+        float ax = 0.0f;
+        float ay = 0.0f;
+        float az = 0.0f;
+        float isotropic = 0.0f;
+        float dragGrowth = 1.0f;
+        if (descriptor.forces() != null) {
+            for (ForceDescriptor force : descriptor.forces()) {
+                if (force == null || force.type() == null) {
+                    continue;
+                }
+                ForceType type = force.type();
+                float s = force.strength();
+                if (type == ForceType.GRAVITY || type == ForceType.WIND) {
+                    float[] dir = force.direction();
+                    ax += valueAt(dir, 0) * s;
+                    ay += valueAt(dir, 1) * s;
+                    az += valueAt(dir, 2) * s;
+                } else if (type == ForceType.DRAG) {
+                    // Positive drag only slows particles down; negative drag accelerates them.
+                    if (s < 0.0f) {
+                        dragGrowth *= (float) Math.exp(-s * t);
+                    }
+                } else {
+                    isotropic += Math.abs(s);
+                }
+            }
+        }
+
+        float halfT2 = 0.5f * t * t;
+        float base = shapeRadius + (speed * t + isotropic * halfT2) * dragGrowth + size;
+        lowX = -base + Math.min(0.0f, ax * halfT2) * dragGrowth;
+        lowY = -base + Math.min(0.0f, ay * halfT2) * dragGrowth;
+        lowZ = -base + Math.min(0.0f, az * halfT2) * dragGrowth;
+        highX = base + Math.max(0.0f, ax * halfT2) * dragGrowth;
+        highY = base + Math.max(0.0f, ay * halfT2) * dragGrowth;
+        highZ = base + Math.max(0.0f, az * halfT2) * dragGrowth;
+        lifetime = t;
+        if (!empty) {
+            grow();
+        }
+    }
+
+    /**
+     * Places the emitter with nothing alive yet: the box is just the prediction around the origin.
+     */
+    public void resetTo(float x, float y, float z) {
+        originX = x;
+        originY = y;
+        originZ = z;
+        predict(current);
+        predict(previous);
+        currentEpochLifetime = lifetime;
+        previousEpochLifetime = lifetime;
+        secondsInEpoch = 0.0f;
+        empty = false;
+        updateUnion();
+    }
+
+    /**
+     * Moves the emitter origin; particles spawned at the old origin stay covered.
+     */
+    public void moveTo(float x, float y, float z) {
+        if (empty) {
+            resetTo(x, y, z);
+            return;
+        }
+        if (x == originX && y == originY && z == originZ) {
+            return;
+        }
+        originX = x;
+        originY = y;
+        originZ = z;
+        grow();
+    }
+
+    /**
+     * Ages the epochs; once nothing from the previous epoch can be alive, it is dropped.
+     */
+    public void advance(float deltaTime) {
+        if (empty) {
+            return;
+        }
+        secondsInEpoch += Math.max(0.0f, deltaTime);
+        if (secondsInEpoch < Math.max(currentEpochLifetime, previousEpochLifetime)) {
+            return;
+        }
+        System.arraycopy(current, 0, previous, 0, 6);
+        previousEpochLifetime = currentEpochLifetime;
+        predict(current);
+        currentEpochLifetime = lifetime;
+        secondsInEpoch = 0.0f;
+        updateUnion();
+    }
+
+    /**
+     * False only when the box is fully behind one of the planes; all-zero planes accept everything
+     * and a box that was never placed is never rejected.
+     */
+    public boolean intersectsFrustum(float[] frustumPlanes6x4) {
+        if (empty) {
+            return true;
+        }
+        for (int p = 0; p < 6; p++) {
+            int b = p * 4;
+            float nx = frustumPlanes6x4[b];
+            float ny = frustumPlanes6x4[b + 1];
+            float nz = frustumPlanes6x4[b + 2];
+            // Test the corner furthest along the plane normal.
+            float px = nx >= 0.0f ? union[3] : union[0];
+            float py = ny >= 0.0f ? union[4] : union[1];
+            float pz = nz >= 0.0f ? union[5] : union[2];
+            if (nx * px + ny * py + nz * pz + frustumPlanes6x4[b + 3] < 0.0f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public float minX() {
+        return union[0];
+    }
+
+    public float minY() {
+        return union[1];
+    }
+
+    public float minZ() {
+        return union[2];
+    }
+
+    public float maxX() {
+        return union[3];
+    }
+
+    public float maxY() {
+        return union[4];
+    }
+
+    public float maxZ() {
+        return union[5];
+    }
+
+    /**
+     * Half the largest extent of the box; 0 while empty.
+     */
+    public float radius() {
+        if (empty) {
+            return 0.0f;
+        }
+        return Math.max(union[3] - union[0], Math.max(union[4] - union[1], union[5] - union[2])) * 0.5f;
+    }
+
+    private void grow() {
+        current[0] = Math.min(current[0], originX + lowX);
+        current[1] = Math.min(current[1], originY + lowY);
+        current[2] = Math.min(current[2], originZ + lowZ);
+        current[3] = Math.max(current[3], originX + highX);
+        current[4] = Math.max(current[4], originY + highY);
+        current[5] = Math.max(current[5], originZ + highZ);
+        currentEpochLifetime = Math.max(currentEpochLifetime, lifetime);
+        updateUnion();
+    }
+
+    private void predict(float[] box) {
+        box[0] = originX + lowX;
+        box[1] = originY + lowY;
+        box[2] = originZ + lowZ;
+        box[3] = originX + highX;
+        box[4] = originY + highY;
+        box[5] = originZ + highZ;
+    }
+
+    private void updateUnion() {
+        for (int i = 0; i < 3; i++) {
+            union[i] = Math.min(current[i], previous[i]);
+            union[i + 3] = Math.max(current[i + 3], previous[i + 3]);
+        }
+    }
+
+    private static float valueAt(float[] values, int index) {
+        return values != null && index < values.length ? values[index] : 0.0f;
+    }
+}
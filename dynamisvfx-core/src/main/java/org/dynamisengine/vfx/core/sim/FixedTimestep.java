@@ -0,0 +1,85 @@
+package org.dynamisengine.vfx.core.sim;
+
+/**
+ * Fixed-step accumulator: frame deltas are banked and spent in whole steps of
+ * {@link #stepSeconds()}, so the sequence of steps depends only on elapsed time, not frame rate.
+ * At most {@link #maxSubsteps()} run per frame; time beyond that is dropped instead of carried,
+ * so a hitch cannot snowball into ever longer frames. {@link #alpha()} is the fraction of a step
+ * left in the bank, for renderers that interpolate or extrapolate between steps. Not thread-safe.
+ */
+public final class FixedTimestep {
+    public static final float DEFAULT_STEP_SECONDS = 1.0f / 60.0f;
+    public static final int DEFAULT_MAX_SUBSTEPS = 4;
+
+    private final float stepSeconds;
+    private final int maxSubsteps;
+    // Double so banked time does not drift over long sessions.
+    private double accumulator;
+    private double droppedSeconds;
+    private long totalSteps;
+
+    public FixedTimestep() {
+        this(DEFAULT_STEP_SECONDS, DEFAULT_MAX_SUBSTEPS);
+    }
+
+    public FixedTimestep(float stepSeconds, int maxSubsteps) {
+        if (!(stepSeconds > 0.0f) || Float.isInfinite(stepSeconds)) {
+            throw new IllegalArgumentException("stepSeconds must be > 0");
+        }
+        if (maxSubsteps <= 0) {
+            throw new IllegalArgumentException("maxSubsteps must be > 0");
+        }
+        this.stepSeconds = stepSeconds;
+        this.maxSubsteps = maxSubsteps;
+    }
+
+    /**
+     * Banks a frame's delta and returns how many steps to run now.
+     */
+    public int advance(float deltaTime) {
+        if (deltaTime > 0.0f && Float.isFinite(deltaTime)) {
+            accumulator += deltaTime;
+        }
+        int steps = (int) Math.min(maxSubsteps, Math.floor(accumulator / stepSeconds));
+        accumulator -= (double) steps * stepSeconds;
+        if (accumulator >= stepSeconds) {
+            double excess = accumulator - accumulator % stepSeconds;
+            droppedSeconds += excess;
+            accumulator -= excess;
+        }
+        totalSteps += steps;
+        return steps;
+    }
+
+    /**
+     * Banked time as a fraction of a step, in [0, 1).
+     */
+    public float alpha() {
+        return (float) (accumulator / stepSeconds);
+    }
+
+    public float stepSeconds() {
+        return stepSeconds;
+    }
+
+    public int maxSubsteps() {
+        return maxSubsteps;
+    }
+
+    /**
+     * Time discarded by the substep clamp since construction or {@link #reset()}.
+     */
+    public double droppedSeconds() {
+        return droppedSeconds;
+    }
+
+    public long totalSteps() {
+        return totalSteps;
+    }
+
+    public void reset() {
+        accumulator = 0.0;
+        droppedSeconds = 0.0;
+        totalSteps = 0L;
+    }
+}
@@ -0,0 +1,59 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.EmissionMode;
+import org.dynamisengine.vfx.api.EmissionRateDescriptor;
+import org.dynamisengine.vfx.api.LodDescriptor;
+import org.dynamisengine.vfx.api.LodTier;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.api.ParticleInitDescriptor;
+
+/**
+ * Upper bound on how many particles an emitter can have alive at once, from the same rules as
+ * {@link ParticleEmissionScheduler}: a burst fires once, so its peak is the burst count; a
+ * continuous emitter settles at rate x longest lifetime, plus one for the fractional carry. Both
+ * are scaled by the largest LOD emission scale, since the nearest tier decides the peak.
+ */
+public final class ParticleCapacityEstimator {
+    public static final int UNBOUNDED = -1;
+
+    private ParticleCapacityEstimator() {
+    }
+
+    /**
+     * Peak alive count, or {@link #UNBOUNDED} when the descriptor does not bound it (no rate,
+     * or EVENT emission driven from outside).
+     */
+    public static long peakAliveCount(ParticleEmitterDescriptor descriptor) {
+        EmissionRateDescriptor rate = descriptor.rate();
+        if (rate == null || rate.mode() == null) {
+            return UNBOUNDED;
+        }
+        float scale = maxEmissionScale(descriptor.lod());
+        if (rate.mode() == EmissionMode.BURST) {
+            return (long) Math.ceil(Math.max(0, rate.burstCount()) * scale);
+        }
+        if (rate.mode() == EmissionMode.CONTINUOUS) {
+            ParticleInitDescriptor init = descriptor.init();
+            float lifetime = init == null ? 0.0f : Math.max(init.lifetimeMinSeconds(), init.lifetimeMaxSeconds());
+            double steady = (double) Math.max(0.0f, rate.particlesPerSecond()) * Math.max(0.0f, lifetime) * scale;
+            return (long) Math.ceil(steady) + 1L;
+        }
+        return UNBOUNDED;
+    }
+
+    /**
+     * Largest emission scale over the LOD tiers; 1 without tiers.
+     */
+    public static float maxEmissionScale(LodDescriptor lod) {
+        if (lod == null || lod.tiers() == null || lod.tiers().isEmpty()) {
+            return 1.0f;
+        }
+        float max = 0.0f;
+        for (LodTier tier : lod.tiers()) {
+            if (tier != null) {
+                max = Math.max(max, tier.emissionScale());
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,561 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.EmissionMode;
+import org.dynamisengine.vfx.api.EmissionRateDescriptor;
+import org.dynamisengine.vfx.api.EmitterShapeDescriptor;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.lod.LodTierTable;
+import org.dynamisengine.vfx.api.ParticleInitDescriptor;
+
+import java.util.Objects;
+
+/**
+ * One effect's host-side simulation state and its RETIRE, EMIT, SIMULATE and CULL stages.
+ * Each stage follows the matching compute shader; all scratch storage is allocated up front.
+ */
+public final class ParticleEffectSimulation {
+    private static final int V = ParticleSoaBuffers.VEC4_FLOATS;
+
+    private final ParticleSoaBuffers buffers;
+    private final ParticleEmissionScheduler scheduler = new ParticleEmissionScheduler();
+    private final int emitterId;
+    private final int seed;
+    private final int[] drawIndices;
+    // Slots retired or emitted this step, moved through the free list in one bulk call.
+    private final int[] slotScratch;
+    private final EffectBounds bounds = new EffectBounds();
+
+    private ParticleEmitterDescriptor descriptor;
+    private ParticleForceTable forces;
+
+    // Emitter parameters, unpacked the same way as the packed EmitterDescriptor.
+    private float shapeRadius;
+    private float dirX;
+    private float dirY;
+    private float dirZ;
+    private float speedMin;
+    private float speedMax;
+    private float sizeMin;
+    private float sizeMax;
+    private float lifetimeMin;
+    private float lifetimeMax;
+    private float colorR;
+    private float colorG;
+    private float colorB;
+    private float colorA;
+
+    private float originX;
+    private float originY;
+    private float originZ;
+
+    private long frameCounter;
+    private int lastSpawnCount;
+    private int lastRetiredCount;
+    private int visibleCount;
+    private boolean effectCulled;
+    private boolean sleeping;
+    private LodTierTable lodTable = LodTierTable.NONE;
+    private int lodTier = LodTierTable.NO_TIER;
+    private float simulationScale = 1.0f;
+    private float emissionScale = 1.0f;
+    private boolean capBySimulationScale = true;
+    private float deferredSeconds;
+    private float sleptSeconds;
+
+    public ParticleEffectSimulation(ParticleEmitterDescriptor descriptor, int maxParticles, int emitterId, long seed) {
+        this.buffers = new ParticleSoaBuffers(maxParticles);
+        this.drawIndices = new int[maxParticles];
+        this.slotScratch = new int[maxParticles];
+        this.emitterId = emitterId;
+        this.seed = (int) (seed ^ (seed >>> 32));
+        updateDescriptor(descriptor);
+        bounds.resetTo(0.0f, 0.0f, 0.0f);
+    }
+
+    /**
+     * Re-derives emitter parameters and the force table; live particles are kept.
+     */
+    public void updateDescriptor(ParticleEmitterDescriptor updated) {
+        this.descriptor = Objects.requireNonNull(updated, "descriptor");
+        this.forces = ParticleForceTable.compile(updated.forces());
+        this.lodTable = LodTierTable.compile(updated.lod());
+        setLodTier(LodTierTable.NO_TIER);
+        bounds.configure(updated);
+
+        EmitterShapeDescriptor shape = updated.shape();
+        ParticleInitDescriptor init = updated.init();
+        float[] dims = shape == null ? null : shape.dimensions();
+        shapeRadius = valueAt(dims, 0);
+
+        float[] direction = init == null ? null : init.initialDirection();
+        float dx = signedAtLeast(valueAt(direction, 0));
+        float dy = signedAtLeast(valueAt(direction, 1));
+        float dz = signedAtLeast(valueAt(direction, 2));
+        float invLen = (float) (1.0 / Math.sqrt(dx * dx + dy * dy + dz * dz));
+        dirX = dx * invLen;
+        dirY = dy * invLen;
+        dirZ = dz * invLen;
+
+        speedMin = init == null ? 0.0f : init.speedMin();
+        speedMax = init == null ? 0.0f : init.speedMax();
+        sizeMin = init == null ? 0.0f : init.sizeMin();
+        sizeMax = init == null ? 0.0f : init.sizeMax();
+        lifetimeMin = init == null ? 0.0f : init.lifetimeMinSeconds();
+        lifetimeMax = init == null ? 0.0f : init.lifetimeMaxSeconds();
+        float[] color = init == null ? null : init.colorRgb();
+        colorR = valueAt(color, 0);
+        colorG = valueAt(color, 1);
+        colorB = valueAt(color, 2);
+        colorA = init == null ? 1.0f : init.alpha();
+    }
+
+    /**
+     * Takes the spawn origin from the translation column of a column-major 4x4 transform.
+     */
+    public void setTransform(float[] transform) {
+        if (transform == null || transform.length != 16) {
+            originX = 0.0f;
+            originY = 0.0f;
+            originZ = 0.0f;
+        } else {
+            originX = transform[12];
+            originY = transform[13];
+            originZ = transform[14];
+        }
+        if (buffers.aliveCount() == 0) {
+            bounds.resetTo(originX, originY, originZ);
+        } else {
+            bounds.moveTo(originX, originY, originZ);
+        }
+    }
+
+    /**
+     * RETIRE: returns every slot whose normalized age reached 1 to the free list.
+     */
+    public int retire() {
+        float[] positions = buffers.positions();
+        int end = buffers.highWaterMark();
+        int retired = 0;
+        for (int i = 0; i < end; i++) {
+            float age = positions[i * V + 3];
+            if (age >= 1.0f && age != ParticleSoaBuffers.FREE_SLOT_AGE) {
+                slotScratch[retired++] = i;
+            }
+        }
+        buffers.releaseSlots(slotScratch, retired);
+        lastRetiredCount = retired;
+        return retired;
+    }
+
+    /**
+     * EMIT: initializes up to {@code spawnCount} free slots from the emitter parameters.
+     * Uses the shader's PCG hash, seeded per frame so successive emissions differ.
+     */
+    public int emit(int spawnCount) {
+        return spawn(spawnCount, 0.0f, 0.0f);
+    }
+
+    /**
+     * Selects a tier of {@link #lodTable()}: its emission scale thins out spawning and its
+     * simulation scale caps the live particles at that fraction of capacity.
+     */
+    public void setLodTier(int tier) {
+        if (tier < LodTierTable.NO_TIER || tier >= lodTable.tierCount()) {
+            throw new IllegalArgumentException("tier out of range: " + tier);
+        }
+        lodTier = tier;
+        simulationScale = lodTable.simulationScale(tier);
+        emissionScale = lodTable.emissionScale(tier);
+    }
+
+    /**
+     * Whether the tier's simulation scale caps live particles (the default) or is spent on
+     * temporal amortization instead.
+     */
+    public void setCapBySimulationScale(boolean capBySimulationScale) {
+        this.capBySimulationScale = capBySimulationScale;
+    }
+
+    /**
+     * Skips this frame's step; the time is added to the next one. Until then renderers may draw
+     * {@link #extrapolatedPosition} to hide the stall.
+     */
+    public void defer(float deltaTime) {
+        deferredSeconds += Math.max(0.0f, deltaTime);
+    }
+
+    /**
+     * Returns and clears the time deferred since the last step.
+     */
+    public float takeDeferredSeconds() {
+        float seconds = deferredSeconds;
+        deferredSeconds = 0.0f;
+        return seconds;
+    }
+
+    public float deferredSeconds() {
+        return deferredSeconds;
+    }
+
+    /**
+     * Position of a slot extrapolated along its velocity by {@link #deferredSeconds()}; writes
+     * x, y, z into {@code out}.
+     */
+    public void extrapolatedPosition(int slot, float[] out) {
+        int o = slot * V;
+        float[] positions = buffers.positions();
+        float[] velocities = buffers.velocities();
+        out[0] = positions[o] + velocities[o] * deferredSeconds;
+        out[1] = positions[o + 1] + velocities[o + 1] * deferredSeconds;
+        out[2] = positions[o + 2] + velocities[o + 2] * deferredSeconds;
+    }
+
+    /**
+     * Slots this effect may fill at its current LOD tier.
+     */
+    public int lodFreeSlots() {
+        float scale = capBySimulationScale ? simulationScale : 1.0f;
+        int limit = (int) Math.ceil(buffers.capacity() * scale);
+        return Math.max(0, Math.min(buffers.freeCount(), limit - buffers.aliveCount()));
+    }
+
+    /**
+     * Takes the effect out of the stage loop: particles keep their state and nothing is drawn
+     * until {@link #wake(boolean)}.
+     */
+    public void sleep() {
+        sleeping = true;
+        visibleCount = 0;
+    }
+
+    /**
+     * O(1) bookkeeping for a frame spent asleep.
+     */
+    public void advanceAsleep(float deltaTime) {
+        sleptSeconds += Math.max(0.0f, deltaTime);
+    }
+
+    /**
+     * Resumes stepping; with {@code fastForward} the time spent asleep is caught up through
+     * {@link #fastForward(float)} first. Returns the seconds slept.
+     */
+    public float wake(boolean fastForward) {
+        float slept = sleptSeconds;
+        sleeping = false;
+        sleptSeconds = 0.0f;
+        if (fastForward) {
+            fastForward(slept);
+        }
+        return slept;
+    }
+
+    /**
+     * Advances the effect by {@code seconds} in closed form instead of frame by frame: live
+     * particles follow the exact solution for constant (gravity, wind) and linear drag forces,
+     * and whatever the emitter would have spawned and still have alive is spawned pre-aged,
+     * spread evenly over its emission window. Attractors are position-dependent and ignored.
+     */
+    public void fastForward(float seconds) {
+        if (seconds <= 0.0f) {
+            return;
+        }
+        float[] positions = buffers.positions();
+        float[] attribs = buffers.attribs();
+        int end = buffers.highWaterMark();
+        for (int i = 0; i < end; i++) {
+            int o = i * V;
+            if (positions[o + 3] < 1.0f) {
+                advanceAnalytically(o, seconds, attribs[o + 3]);
+            }
+        }
+        retire();
+        EmissionRateDescriptor rate = descriptor.rate();
+        if (rate != null && rate.mode() == EmissionMode.BURST && !scheduler.burstConsumed()) {
+            // The burst fired as the emitter fell asleep.
+            spawn(scheduler.computeSpawnCount(rate, seconds, lodFreeSlots(), emissionScale), 0.0f, seconds);
+        } else if (rate != null && rate.mode() == EmissionMode.CONTINUOUS) {
+            // Anything emitted before the last lifetimeMax seconds is gone already.
+            float window = Math.min(seconds, Math.max(lifetimeMax, lifetimeMin));
+            spawn(scheduler.computeSpawnCount(rate, window, lodFreeSlots(), emissionScale), window, 0.0f);
+        }
+        retire();
+        bounds.advance(seconds);
+        frameCounter++;
+    }
+
+    /**
+     * Spawns {@code spawnCount} particles; particle k is backdated by
+     * {@code offsetSeconds + spanSeconds * (k + 0.5) / count}.
+     */
+    private int spawn(int spawnCount, float spanSeconds, float offsetSeconds) {
+        int count = buffers.acquireSlots(slotScratch, Math.max(0, spawnCount));
+        int frameSeed = pcg(seed ^ (int) (frameCounter * 0x9E3779B9L));
+        float[] positions = buffers.positions();
+        float[] velocities = buffers.velocities();
+        float[] colors = buffers.colors();
+        float[] attribs = buffers.attribs();
+        int[] meta = buffers.meta();
+
+        for (int spawnIdx = 0; spawnIdx < count; spawnIdx++) {
+            int slot = slotScratch[spawnIdx];
+            int rng = pcg(frameSeed ^ spawnIdx);
+            int o = slot * V;
+
+            float r = shapeRadius * rand01(rng);
+            float speed = mix(speedMin, speedMax, rand01(rng ^ 0x9e3779b9));
+            float size = mix(sizeMin, sizeMax, rand01(rng ^ 0x7f4a7c15));
+            float lifetime = mix(lifetimeMin, lifetimeMax, rand01(rng ^ 0x6a09e667));
+
+            positions[o] = originX + r;
+            positions[o + 1] = originY;
+            positions[o + 2] = originZ;
+            positions[o + 3] = 0.0f;
+            velocities[o] = dirX * speed;
+            velocities[o + 1] = dirY * speed;
+            velocities[o + 2] = dirZ * speed;
+            velocities[o + 3] = 1.0f;
+            colors[o] = colorR;
+            colors[o + 1] = colorG;
+            colors[o + 2] = colorB;
+            colors[o + 3] = colorA;
+            attribs[o] = size;
+            attribs[o + 1] = 0.0f;
+            attribs[o + 2] = 0.0f;
+            attribs[o + 3] = lifetime;
+            meta[o] = emitterId;
+            meta[o + 1] = rng;
+            meta[o + 2] = 0;
+            meta[o + 3] = 0;
+
+            float backdate = offsetSeconds + spanSeconds * (spawnIdx + 0.5f) / count;
+            if (backdate > 0.0f) {
+                advanceAnalytically(o, backdate, lifetime);
+            }
+        }
+        lastSpawnCount = count;
+        return count;
+    }
+
+    private void advanceAnalytically(int o, float t, float lifetime) {
+        float[] positions = buffers.positions();
+        float[] velocities = buffers.velocities();
+        float ax = 0.0f;
+        float ay = 0.0f;
+        float az = 0.0f;
+        float drag = 0.0f;
+        for (int f = 0; f < forces.forceCount(); f++) {
+            int type = forces.type(f);
+            float s = forces.strength(f);
+            if (type == ParticleForceTable.TYPE_GRAVITY || type == ParticleForceTable.TYPE_WIND) {
+                ax += forces.directionX(f) * s;
+                ay += forces.directionY(f) * s;
+                az += forces.directionZ(f) * s;
+            } else if (type == ParticleForceTable.TYPE_DRAG) {
+                drag += s;
+            }
+        }
+        float vx = velocities[o];
+        float vy = velocities[o + 1];
+        float vz = velocities[o + 2];
+        if (Math.abs(drag) < 1e-6f) {
+            float halfT2 = 0.5f * t * t;
+            positions[o] += vx * t + ax * halfT2;
+            positions[o + 1] += vy * t + ay * halfT2;
+            positions[o + 2] += vz * t + az * halfT2;
+            velocities[o] = vx + ax * t;
+            velocities[o + 1] = vy + ay * t;
+            velocities[o + 2] = vz + az * t;
+        } else {
+            // dv/dt = a - k v: v relaxes towards the terminal velocity a / k.
+            float decay = (float) Math.exp(-drag * t);
+            float spread = (1.0f - decay) / drag;
+            float tx = ax / drag;
+            float ty = ay / drag;
+            float tz = az / drag;
+            positions[o] += tx * t + (vx - tx) * spread;
+            positions[o + 1] += ty * t + (vy - ty) * spread;
+            positions[o + 2] += tz * t + (vz - tz) * spread;
+            velocities[o] = tx + (vx - tx) * decay;
+            velocities[o + 1] = ty + (vy - ty) * decay;
+            velocities[o + 2] = tz + (vz - tz) * decay;
+        }
+        positions[o + 3] += t / Math.max(lifetime, ScalarParticleSimulateKernel.MIN_LIFETIME);
+    }
+
+    /**
+     * SIMULATE with the scalar reference kernel.
+     */
+    public void simulate(float deltaTime) {
+        simulate(deltaTime, ParticleSimulateKernel.scalar());
+    }
+
+    /**
+     * SIMULATE: integrates every live particle with the given kernel.
+     */
+    public void simulate(float deltaTime, ParticleSimulateKernel kernel) {
+        kernel.simulate(buffers, forces, deltaTime, 0, buffers.highWaterMark());
+        bounds.advance(deltaTime);
+        frameCounter++;
+    }
+
+    /**
+     * CULL + COMPACT: writes the slots of live particles inside the frustum into
+     * {@link #drawIndices()} and returns the instance count. All-zero planes accept everything.
+     * An effect whose {@link #bounds()} are outside the frustum is rejected without touching particles.
+     */
+    public int cull(float[] frustumPlanes6x4) {
+        if (frustumPlanes6x4 == null || frustumPlanes6x4.length != 24) {
+            throw new IllegalArgumentException("frustumPlanes6x4 must contain exactly 24 floats");
+        }
+        effectCulled = !bounds.intersectsFrustum(frustumPlanes6x4);
+        if (effectCulled) {
+            visibleCount = 0;
+            return 0;
+        }
+        float[] positions = buffers.positions();
+        float[] attribs = buffers.attribs();
+        int end = buffers.highWaterMark();
+        int visible = 0;
+        for (int i = 0; i < end; i++) {
+            int o = i * V;
+            if (positions[o + 3] >= 1.0f) {
+                continue;
+            }
+            if (frustumTest(frustumPlanes6x4, positions[o], positions[o + 1], positions[o + 2], attribs[o])) {
+                drawIndices[visible++] = i;
+            }
+        }
+        visibleCount = visible;
+        return visible;
+    }
+
+    static boolean frustumTest(float[] planes, float x, float y, float z, float radius) {
+        for (int p = 0; p < 6; p++) {
+            int b = p * 4;
+            if (planes[b] * x + planes[b + 1] * y + planes[b + 2] * z + planes[b + 3] < -radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public ParticleSoaBuffers buffers() {
+        return buffers;
+    }
+
+    public ParticleEmitterDescriptor descriptor() {
+        return descriptor;
+    }
+
+    public EffectBounds bounds() {
+        return bounds;
+    }
+
+    /**
+     * True when the last cull rejected the whole effect by its bounds.
+     */
+    public boolean effectCulled() {
+        return effectCulled;
+    }
+
+    public ParticleForceTable forces() {
+        return forces;
+    }
+
+    public ParticleEmissionScheduler scheduler() {
+        return scheduler;
+    }
+
+    public int emitterId() {
+        return emitterId;
+    }
+
+    public int aliveCount() {
+        return buffers.aliveCount();
+    }
+
+    public int lastSpawnCount() {
+        return lastSpawnCount;
+    }
+
+    public int lastRetiredCount() {
+        return lastRetiredCount;
+    }
+
+    public int visibleCount() {
+        return visibleCount;
+    }
+
+    public int culledCount() {
+        return Math.max(0, buffers.aliveCount() - visibleCount);
+    }
+
+    /**
+     * Live compacted draw-index stream; the first {@link #visibleCount()} entries are valid.
+     */
+    public int[] drawIndices() {
+        return drawIndices;
+    }
+
+    public long frameCounter() {
+        return frameCounter;
+    }
+
+    public LodTierTable lodTable() {
+        return lodTable;
+    }
+
+    public int lodTier() {
+        return lodTier;
+    }
+
+    public float simulationScale() {
+        return simulationScale;
+    }
+
+    public float emissionScale() {
+        return emissionScale;
+    }
+
+    public boolean sleeping() {
+        return sleeping;
+    }
+
+    public float sleptSeconds() {
+        return sleptSeconds;
+    }
+
+    public float originX() {
+        return originX;
+    }
+
+    public float originY() {
+        return originY;
+    }
+
+    public float originZ() {
+        return originZ;
+    }
+
+    static int pcg(int v) {
+        int state = v * 747796405 + (int) 2891336453L;
+        int word = ((state >>> ((state >>> 28) + 4)) ^ state) * 277803737;
+        return (word >>> 22) ^ word;
+    }
+
+    static float rand01(int v) {
+        return (v & 0x00ffffff) / 16777216.0f;
+    }
+
+    private static float mix(float a, float b, float t) {
+        return a * (1.0f - t) + b * t;
+    }
+
+    private static float signedAtLeast(float value) {
+        return Math.max(Math.abs(value), 1e-5f) * Math.signum(value + 1e-5f);
+    }
+
+    private static float valueAt(float[] values, int index) {
+        return values != null && index < values.length ? values[index] : 0.0f;
+    }
+}
@@ -0,0 +1,68 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.EmissionMode;
+import org.dynamisengine.vfx.api.EmissionRateDescriptor;
+
+/**
+ * Per-effect spawn counter: BURST fires once, CONTINUOUS carries the fractional remainder
+ * between frames, EVENT never spawns on its own.
+ */
+public final class ParticleEmissionScheduler {
+    private float fractionalAccumulator;
+    private boolean burstConsumed;
+
+    public int computeSpawnCount(
+        EmissionRateDescriptor rate,
+        float deltaTime,
+        int freeSlots
+    ) {
+        return computeSpawnCount(rate, deltaTime, freeSlots, 1.0f);
+    }
+
+    /**
+     * Spawn count with a LOD emission scale in [0, 1] applied to the rate or burst size.
+     */
+    public int computeSpawnCount(
+        EmissionRateDescriptor rate,
+        float deltaTime,
+        int freeSlots,
+        float emissionScale
+    ) {
+        if (rate == null || freeSlots <= 0 || deltaTime <= 0.0f) {
+            return 0;
+        }
+
+        int spawnCount;
+        if (rate.mode() == EmissionMode.BURST) {
+            if (burstConsumed) {
+                spawnCount = 0;
+            } else {
+                burstConsumed = true;
+                spawnCount = emissionScale >= 1.0f
+                    ? rate.burstCount()
+                    : (int) Math.ceil(rate.burstCount() * Math.max(0.0f, emissionScale));
+            }
+        } else if (rate.mode() == EmissionMode.CONTINUOUS) {
+            float exact = rate.particlesPerSecond() * Math.min(1.0f, Math.max(0.0f, emissionScale)) * deltaTime
+                + fractionalAccumulator;
+            spawnCount = (int) Math.floor(exact);
+            fractionalAccumulator = exact - spawnCount;
+        } else {
+            spawnCount = 0;
+        }
+
+        if (spawnCount < 0) {
+            spawnCount = 0;
+        }
+        return Math.min(spawnCount, freeSlots);
+    }
+
+    public boolean burstConsumed() {
+        return burstConsumed;
+    }
+
+    public void reset() {
+        fractionalAccumulator = 0.0f;
+        burstConsumed = false;
+    }
+}
@@ -0,0 +1,112 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.ForceDescriptor;
+import org.dynamisengine.vfx.api.ForceType;
+
+import java.util.List;
+
+/**
+ * Host-side mirror of the packed ForceFieldBuffer: same type codes, the same 32-force cap and the
+ * same ATTRACTOR convention (direction carries the origin). CURL_NOISE is sampled from a baked
+ * 3D field on the GPU and is not part of the table.
+ */
+public final class ParticleForceTable {
+    public static final int MAX_FORCES = 32;
+
+    public static final int TYPE_GRAVITY = 0;
+    public static final int TYPE_DRAG = 1;
+    public static final int TYPE_ATTRACTOR = 2;
+    public static final int TYPE_WIND = 3;
+    public static final int TYPE_UNSUPPORTED = 255;
+
+    private final int[] types = new int[MAX_FORCES];
+    private final float[] strengths = new float[MAX_FORCES];
+    private final float[] directions = new float[MAX_FORCES * 3];
+    private final float[] origins = new float[MAX_FORCES * 3];
+    private int forceCount;
+
+    private ParticleForceTable() {
+    }
+
+    public static ParticleForceTable compile(List<ForceDescriptor> forces) {
+        ParticleForceTable table = new ParticleForceTable();
+        if (forces == null) {
+            return table;
+        }
+        for (ForceDescriptor force : forces) {
+            if (force == null || force.type() == null || force.type() == ForceType.CURL_NOISE) {
+                continue;
+            }
+            if (table.forceCount >= MAX_FORCES) {
+                break;
+            }
+            int i = table.forceCount++;
+            float[] direction = force.direction();
+            float x = valueAt(direction, 0);
+            float y = valueAt(direction, 1);
+            float z = valueAt(direction, 2);
+            table.types[i] = typeCode(force.type());
+            table.strengths[i] = force.strength();
+            if (force.type() == ForceType.ATTRACTOR) {
+                table.origins[i * 3] = x;
+                table.origins[i * 3 + 1] = y;
+                table.origins[i * 3 + 2] = z;
+            } else {
+                table.directions[i * 3] = x;
+                table.directions[i * 3 + 1] = y;
+                table.directions[i * 3 + 2] = z;
+            }
+        }
+        return table;
+    }
+
+    public static int typeCode(ForceType type) {
+        return switch (type) {
+            case GRAVITY -> TYPE_GRAVITY;
+            case DRAG -> TYPE_DRAG;
+            case ATTRACTOR -> TYPE_ATTRACTOR;
+            case WIND -> TYPE_WIND;
+            default -> TYPE_UNSUPPORTED;
+        };
+    }
+
+    public int forceCount() {
+        return forceCount;
+    }
+
+    public int type(int index) {
+        return types[index];
+    }
+
+    public float strength(int index) {
+        return strengths[index];
+    }
+
+    public float directionX(int index) {
+        return directions[index * 3];
+    }
+
+    public float directionY(int index) {
+        return directions[index * 3 + 1];
+    }
+
+    public float directionZ(int index) {
+        return directions[index * 3 + 2];
+    }
+
+    public float originX(int index) {
+        return origins[index * 3];
+    }
+
+    public float originY(int index) {
+        return origins[index * 3 + 1];
+    }
+
+    public float originZ(int index) {
+        return origins[index * 3 + 2];
+    }
+
+    private static float valueAt(float[] values, int index) {
+        return values != null && index < values.length ? values[index] : 0.0f;
+    }
+}
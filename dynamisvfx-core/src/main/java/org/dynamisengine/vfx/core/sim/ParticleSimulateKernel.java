@@ -0,0 +1,28 @@
+package org.dynamisengine.vfx.core.sim;
+
+/**
+ * SIMULATE step over a slot range {@code [from, to)} of an effect's SoA streams.
+ * Implementations must leave free and dead slots untouched.
+ */
+public interface ParticleSimulateKernel {
+
+    void simulate(ParticleSoaBuffers buffers, ParticleForceTable forces, float deltaTime, int from, int to);
+
+    /**
+     * Scalar reference kernel; mirrors the compute shader force loop in table order.
+     */
+    static ParticleSimulateKernel scalar() {
+        return ScalarParticleSimulateKernel.INSTANCE;
+    }
+
+    /**
+     * Vector API kernel when {@code jdk.incubator.vector} is resolved and the preferred species
+     * holds whole particles, otherwise the scalar kernel.
+     */
+    static ParticleSimulateKernel preferred() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return scalar();
+        }
+        return VectorParticleSimulateKernel.isSupported() ? VectorParticleSimulateKernel.INSTANCE : scalar();
+    }
+}
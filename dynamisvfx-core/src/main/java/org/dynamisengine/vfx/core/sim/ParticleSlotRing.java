@@ -0,0 +1,162 @@
+package org.dynamisengine.vfx.core.sim;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free free list of particle slots with the same shape as the GPU FreeListBuffer:
+ * RETIRE appends at {@code writeHead}, EMIT consumes from {@code readHead}, and a fresh ring
+ * hands out slots 0..capacity-1 in order. Any number of threads may acquire and release
+ * concurrently, in bulk.
+ *
+ * <p>Each cell carries a sequence number (bounded MPMC queue). A cell at position {@code p} is
+ * published when its sequence is {@code p + 1} and free for the next lap at {@code p + capacity}.
+ * Acquire claims a run of published cells with one CAS on {@code readHead}; release reserves a
+ * run with one add on {@code writeHead}. Slots are unique and never exceed capacity, so a
+ * release never waits on a full ring.
+ */
+public final class ParticleSlotRing {
+    private final int capacity;
+    private final int[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong readHead = new AtomicLong();
+    private final AtomicLong writeHead = new AtomicLong();
+
+    public ParticleSlotRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.slots = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        reset();
+    }
+
+    /**
+     * Refills the ring with every slot in ascending order. Not safe against concurrent callers.
+     */
+    public void reset() {
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = i;
+            sequences.set(i, i + 1L);
+        }
+        readHead.set(0L);
+        writeHead.set(capacity);
+    }
+
+    /**
+     * Empties the ring, so slots only enter through release. Not safe against concurrent callers.
+     */
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        readHead.set(0L);
+        writeHead.set(0L);
+    }
+
+    /**
+     * Claims up to {@code count} slots into {@code out[offset..]} and returns how many were claimed.
+     */
+    public int acquire(int[] out, int offset, int count) {
+        if (count < 0 || offset < 0 || offset + count > out.length) {
+            throw new IllegalArgumentException("invalid range: offset=" + offset + ", count=" + count);
+        }
+        while (true) {
+            long head = readHead.get();
+            int run = 0;
+            while (run < count && sequences.get(index(head + run)) == head + run + 1L) {
+                run++;
+            }
+            if (run == 0) {
+                return 0;
+            }
+            if (readHead.compareAndSet(head, head + run)) {
+                for (int i = 0; i < run; i++) {
+                    long pos = head + i;
+                    int cell = index(pos);
+                    out[offset + i] = slots[cell];
+                    sequences.lazySet(cell, pos + capacity);
+                }
+                return run;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Claims one slot, or returns -1 when none is published.
+     */
+    public int acquire() {
+        while (true) {
+            long head = readHead.get();
+            int cell = index(head);
+            if (sequences.get(cell) != head + 1L) {
+                return -1;
+            }
+            if (readHead.compareAndSet(head, head + 1L)) {
+                int slot = slots[cell];
+                sequences.lazySet(cell, head + capacity);
+                return slot;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Returns {@code count} slots from {@code slotsToRelease[offset..]} to the ring.
+     */
+    public void release(int[] slotsToRelease, int offset, int count) {
+        if (count < 0 || offset < 0 || offset + count > slotsToRelease.length) {
+            throw new IllegalArgumentException("invalid range: offset=" + offset + ", count=" + count);
+        }
+        if (count == 0) {
+            return;
+        }
+        long start = writeHead.getAndAdd(count);
+        for (int i = 0; i < count; i++) {
+            long pos = start + i;
+            int cell = index(pos);
+            // The acquirer that drained this cell last lap may not have marked it yet.
+            while (sequences.get(cell) != pos) {
+                Thread.onSpinWait();
+            }
+            slots[cell] = slotsToRelease[offset + i];
+            sequences.set(cell, pos + 1L);
+        }
+    }
+
+    public void release(int slot) {
+        long pos = writeHead.getAndIncrement();
+        int cell = index(pos);
+        while (sequences.get(cell) != pos) {
+            Thread.onSpinWait();
+        }
+        slots[cell] = slot;
+        sequences.set(cell, pos + 1L);
+    }
+
+    /**
+     * Slots reserved by releasers minus slots claimed; a snapshot under concurrency.
+     */
+    public int available() {
+        long available = writeHead.get() - readHead.get();
+        return (int) Math.max(0L, Math.min(capacity, available));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long readHead() {
+        return readHead.get();
+    }
+
+    public long writeHead() {
+        return writeHead.get();
+    }
+
+    private int index(long position) {
+        return (int) (position % capacity);
+    }
+}
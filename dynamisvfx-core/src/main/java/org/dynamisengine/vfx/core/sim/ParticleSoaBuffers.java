@@ -0,0 +1,177 @@
+package org.dynamisengine.vfx.core.sim;
+
+import java.util.Arrays;
+
+/**
+ * Host-side particle state with the same five vec4 streams as the GPU SoA buffers
+ * (position, velocity, color, attrib, meta), plus the free list and alive counter.
+ *
+ * <p>Retired slots go to a {@link ParticleSlotRing}, the host shape of the GPU FreeListBuffer,
+ * and are handed out again before any slot past {@link #highWaterMark()}, which keeps live
+ * particles packed toward the front of the streams. The counters belong to the simulating thread.
+ */
+public final class ParticleSoaBuffers {
+    public static final int VEC4_FLOATS = 4;
+    public static final int STREAM_COUNT = 5;
+    public static final int BYTES_PER_PARTICLE = VEC4_FLOATS * Float.BYTES * STREAM_COUNT;
+
+    /**
+     * Normalized age stored in slots that sit in the free list, so RETIRE only pushes a slot once.
+     */
+    public static final float FREE_SLOT_AGE = Float.POSITIVE_INFINITY;
+
+    private final int capacity;
+
+    // position.xyz, position.w = normalized age
+    private final float[] positions;
+    // velocity.xyz, velocity.w = mass
+    private final float[] velocities;
+    private final float[] colors;
+    // attrib.x = size, attrib.w = lifetime seconds
+    private final float[] attribs;
+    // meta.x = emitter id, meta.y = rng state
+    private final int[] meta;
+
+    private final ParticleSlotRing freeSlots;
+    private int aliveCount;
+    private int highWaterMark;
+
+    public ParticleSoaBuffers(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.positions = new float[capacity * VEC4_FLOATS];
+        this.velocities = new float[capacity * VEC4_FLOATS];
+        this.colors = new float[capacity * VEC4_FLOATS];
+        this.attribs = new float[capacity * VEC4_FLOATS];
+        this.meta = new int[capacity * VEC4_FLOATS];
+        this.freeSlots = new ParticleSlotRing(capacity);
+        reset();
+    }
+
+    /**
+     * Marks every slot free; slot 0 is handed out first.
+     */
+    public void reset() {
+        Arrays.fill(positions, 0.0f);
+        Arrays.fill(velocities, 0.0f);
+        Arrays.fill(colors, 0.0f);
+        Arrays.fill(attribs, 0.0f);
+        Arrays.fill(meta, 0);
+        for (int i = 0; i < capacity; i++) {
+            positions[i * VEC4_FLOATS + 3] = FREE_SLOT_AGE;
+        }
+        freeSlots.clear();
+        aliveCount = 0;
+        highWaterMark = 0;
+    }
+
+    /**
+     * Takes a free slot, or returns -1 when the pool is exhausted.
+     */
+    public int acquireSlot() {
+        int slot = freeSlots.acquire();
+        if (slot < 0) {
+            if (highWaterMark == capacity) {
+                return -1;
+            }
+            slot = highWaterMark++;
+        }
+        aliveCount++;
+        return slot;
+    }
+
+    /**
+     * Takes up to {@code count} free slots into {@code out[0..]} in one ring claim, topped up from
+     * past the high-water mark, and returns how many were taken.
+     */
+    public int acquireSlots(int[] out, int count) {
+        int wanted = Math.min(count, out.length);
+        int taken = freeSlots.acquire(out, 0, wanted);
+        int fresh = Math.min(wanted - taken, capacity - highWaterMark);
+        for (int i = 0; i < fresh; i++) {
+            out[taken++] = highWaterMark++;
+        }
+        aliveCount += taken;
+        return taken;
+    }
+
+    /**
+     * Returns a retired slot to the free list and marks it with {@link #FREE_SLOT_AGE}.
+     */
+    public void releaseSlot(int slot) {
+        checkSlot(slot);
+        positions[slot * VEC4_FLOATS + 3] = FREE_SLOT_AGE;
+        freeSlots.release(slot);
+        aliveCount--;
+    }
+
+    /**
+     * Returns {@code slots[0..count)} to the free list in one ring reservation.
+     */
+    public void releaseSlots(int[] slots, int count) {
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            checkSlot(slot);
+            positions[slot * VEC4_FLOATS + 3] = FREE_SLOT_AGE;
+        }
+        freeSlots.release(slots, 0, count);
+        aliveCount -= count;
+    }
+
+    public boolean isAlive(int slot) {
+        return positions[slot * VEC4_FLOATS + 3] < 1.0f;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int aliveCount() {
+        return aliveCount;
+    }
+
+    public int freeCount() {
+        return freeSlots.available() + capacity - highWaterMark;
+    }
+
+    /**
+     * One past the highest slot ever handed out; stage loops never need to look beyond it.
+     */
+    public int highWaterMark() {
+        return highWaterMark;
+    }
+
+    public long totalBytes() {
+        return (long) capacity * BYTES_PER_PARTICLE;
+    }
+
+    // Stream accessors return the live backing arrays so stage kernels can run without copies.
+
+    public float[] positions() {
+        return positions;
+    }
+
+    public float[] velocities() {
+        return velocities;
+    }
+
+    public float[] colors() {
+        return colors;
+    }
+
+    public float[] attribs() {
+        return attribs;
+    }
+
+    public int[] meta() {
+        return meta;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= capacity) {
+            throw new IllegalArgumentException("slot out of range: " + slot);
+        }
+    }
+}
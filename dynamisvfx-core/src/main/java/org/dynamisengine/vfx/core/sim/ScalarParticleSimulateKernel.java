@@ -0,0 +1,82 @@
+package org.dynamisengine.vfx.core.sim;
+
+/**
+ * Accumulates forces in table order, then semi-implicit Euler and age advance.
+ */
+final class ScalarParticleSimulateKernel implements ParticleSimulateKernel {
+    static final ScalarParticleSimulateKernel INSTANCE = new ScalarParticleSimulateKernel();
+
+    static final float MIN_LIFETIME = 0.001f;
+    private static final int V = ParticleSoaBuffers.VEC4_FLOATS;
+
+    private ScalarParticleSimulateKernel() {
+    }
+
+    @Override
+    public void simulate(ParticleSoaBuffers buffers, ParticleForceTable table, float deltaTime, int from, int to) {
+        float[] positions = buffers.positions();
+        float[] velocities = buffers.velocities();
+        float[] attribs = buffers.attribs();
+        int forceCount = table.forceCount();
+
+        for (int i = from; i < to; i++) {
+            int o = i * V;
+            float age = positions[o + 3];
+            if (age >= 1.0f) {
+                continue;
+            }
+            float px = positions[o];
+            float py = positions[o + 1];
+            float pz = positions[o + 2];
+            float vx = velocities[o];
+            float vy = velocities[o + 1];
+            float vz = velocities[o + 2];
+
+            float ax = 0.0f;
+            float ay = 0.0f;
+            float az = 0.0f;
+            for (int f = 0; f < forceCount; f++) {
+                switch (table.type(f)) {
+                    case ParticleForceTable.TYPE_GRAVITY, ParticleForceTable.TYPE_WIND -> {
+                        float s = table.strength(f);
+                        ax += table.directionX(f) * s;
+                        ay += table.directionY(f) * s;
+                        az += table.directionZ(f) * s;
+                    }
+                    case ParticleForceTable.TYPE_DRAG -> {
+                        float s = table.strength(f);
+                        ax += -vx * s;
+                        ay += -vy * s;
+                        az += -vz * s;
+                    }
+                    case ParticleForceTable.TYPE_ATTRACTOR -> {
+                        float tx = table.originX(f) - px;
+                        float ty = table.originY(f) - py;
+                        float tz = table.originZ(f) - pz;
+                        float dist = (float) Math.sqrt(tx * tx + ty * ty + tz * tz);
+                        if (dist >= 0.001f) {
+                            float falloff = 1.0f - Math.min(Math.max(dist, 0.0f), 1.0f);
+                            float scale = table.strength(f) * falloff / dist;
+                            ax += tx * scale;
+                            ay += ty * scale;
+                            az += tz * scale;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+
+            vx += ax * deltaTime;
+            vy += ay * deltaTime;
+            vz += az * deltaTime;
+            positions[o] = px + vx * deltaTime;
+            positions[o + 1] = py + vy * deltaTime;
+            positions[o + 2] = pz + vz * deltaTime;
+            positions[o + 3] = age + deltaTime / Math.max(attribs[o + 3], MIN_LIFETIME);
+            velocities[o] = vx;
+            velocities[o + 1] = vy;
+            velocities[o + 2] = vz;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.dynamisengine.vfx.core.sim;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API SIMULATE kernel. Each vector covers whole vec4 particles straight out of the SoA
+ * streams, so loads and stores stay contiguous. Gravity and wind fold into one constant
+ * acceleration and drag into one damping factor; attractors are evaluated per lane group.
+ * Results match the scalar kernel up to float reassociation. The tail runs the scalar kernel.
+ */
+final class VectorParticleSimulateKernel implements ParticleSimulateKernel {
+    static final VectorParticleSimulateKernel INSTANCE = new VectorParticleSimulateKernel();
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int V = ParticleSoaBuffers.VEC4_FLOATS;
+    private static final float MIN_LIFETIME = ScalarParticleSimulateKernel.MIN_LIFETIME;
+
+    private static final VectorShuffle<Float> BROADCAST_W = lanePermutation(3, 0);
+    private static final VectorShuffle<Float> SWAP_PAIRS = lanePermutation(0, 1);
+    private static final VectorShuffle<Float> SWAP_HALVES = lanePermutation(0, 2);
+    private static final VectorMask<Float> Y_LANES = laneMask(1);
+    private static final VectorMask<Float> Z_LANES = laneMask(2);
+    private static final VectorMask<Float> W_LANES = laneMask(3);
+
+    private VectorParticleSimulateKernel() {
+    }
+
+    static boolean isSupported() {
+        return SPECIES.length() >= V && SPECIES.length() % V == 0;
+    }
+
+    @Override
+    public void simulate(ParticleSoaBuffers buffers, ParticleForceTable table, float deltaTime, int from, int to) {
+        if (to <= from) {
+            return;
+        }
+        float[] positions = buffers.positions();
+        float[] velocities = buffers.velocities();
+        float[] attribs = buffers.attribs();
+
+        float constX = 0.0f;
+        float constY = 0.0f;
+        float constZ = 0.0f;
+        float dragSum = 0.0f;
+        int attractorCount = 0;
+        int forceCount = table.forceCount();
+        for (int f = 0; f < forceCount; f++) {
+            switch (table.type(f)) {
+                case ParticleForceTable.TYPE_GRAVITY, ParticleForceTable.TYPE_WIND -> {
+                    float s = table.strength(f);
+                    constX += table.directionX(f) * s;
+                    constY += table.directionY(f) * s;
+                    constZ += table.directionZ(f) * s;
+                }
+                case ParticleForceTable.TYPE_DRAG -> dragSum += table.strength(f);
+                case ParticleForceTable.TYPE_ATTRACTOR -> attractorCount++;
+                default -> {
+                }
+            }
+        }
+
+        float damp = 1.0f - dragSum * deltaTime;
+        FloatVector accelDt = lanes(constX * deltaTime, constY * deltaTime, constZ * deltaTime, 0.0f);
+        FloatVector damping = lanes(damp, damp, damp, 1.0f);
+        FloatVector dtXyz = lanes(deltaTime, deltaTime, deltaTime, 0.0f);
+        FloatVector dtW = lanes(0.0f, 0.0f, 0.0f, deltaTime);
+
+        int start = from * V;
+        int bound = start + SPECIES.loopBound((to - from) * V);
+        for (int i = start; i < bound; i += SPECIES.length()) {
+            FloatVector p = FloatVector.fromArray(SPECIES, positions, i);
+            VectorMask<Float> alive = p.rearrange(BROADCAST_W).lt(1.0f);
+            if (!alive.anyTrue()) {
+                continue;
+            }
+            FloatVector v = FloatVector.fromArray(SPECIES, velocities, i);
+            FloatVector vNew = v.mul(damping).add(accelDt);
+            if (attractorCount > 0) {
+                vNew = vNew.add(attractorAcceleration(table, p).mul(dtXyz));
+            }
+            FloatVector lifetime = FloatVector.fromArray(SPECIES, attribs, i).max(MIN_LIFETIME);
+            FloatVector pNew = p.add(vNew.mul(dtXyz)).add(dtW.div(lifetime));
+            p.blend(pNew, alive).intoArray(positions, i);
+            v.blend(vNew, alive).intoArray(velocities, i);
+        }
+
+        int tail = bound / V;
+        if (tail < to) {
+            ScalarParticleSimulateKernel.INSTANCE.simulate(buffers, table, deltaTime, tail, to);
+        }
+    }
+
+    private static FloatVector attractorAcceleration(ParticleForceTable table, FloatVector p) {
+        FloatVector acc = FloatVector.zero(SPECIES);
+        for (int f = 0; f < table.forceCount(); f++) {
+            if (table.type(f) != ParticleForceTable.TYPE_ATTRACTOR) {
+                continue;
+            }
+            FloatVector d = lanes(table.originX(f), table.originY(f), table.originZ(f), 0.0f)
+                .sub(p)
+                .blend(0.0f, W_LANES);
+            FloatVector sq = d.mul(d);
+            FloatVector pairs = sq.add(sq.rearrange(SWAP_PAIRS));
+            FloatVector dist = pairs.add(pairs.rearrange(SWAP_HALVES)).sqrt();
+            FloatVector falloff = dist.min(1.0f).neg().add(1.0f);
+            FloatVector scale = falloff.mul(table.strength(f)).div(dist).blend(0.0f, dist.lt(0.001f));
+            acc = acc.add(d.mul(scale));
+        }
+        return acc;
+    }
+
+    private static FloatVector lanes(float x, float y, float z, float w) {
+        return FloatVector.broadcast(SPECIES, x)
+            .blend(y, Y_LANES)
+            .blend(z, Z_LANES)
+            .blend(w, W_LANES);
+    }
+
+    // (i & ~3) | set, then ^ flip; wrapped so an unsupported species still initializes.
+    private static VectorShuffle<Float> lanePermutation(int set, int flip) {
+        return VectorShuffle.fromOp(SPECIES, i -> (((i & ~3) | (i & 3) | set) ^ flip) % SPECIES.length());
+    }
+
+    private static VectorMask<Float> laneMask(int component) {
+        boolean[] bits = new boolean[SPECIES.length()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = (i & 3) == component;
+        }
+        return VectorMask.fromArray(SPECIES, bits, 0);
+    }
+}
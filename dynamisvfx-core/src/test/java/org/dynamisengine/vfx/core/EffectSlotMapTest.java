@@ -0,0 +1,57 @@
+package org.dynamisengine.vfx.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EffectSlotMapTest {
+
+    @Test
+    void reusedSlotRejectsStaleGeneration() {
+        EffectSlotMap<String> map = new EffectSlotMap<>();
+        int slot = map.insert("a");
+        int generation = map.generation(slot);
+        assertEquals("a", map.get(slot, generation));
+
+        assertEquals("a", map.remove(slot, generation));
+        assertNull(map.get(slot, generation));
+        assertNull(map.remove(slot, generation));
+
+        int reused = map.insert("b");
+        assertEquals(slot, reused);
+        assertNotEquals(generation, map.generation(reused));
+        assertNull(map.get(slot, generation));
+        assertEquals("b", map.get(reused, map.generation(reused)));
+        assertNull(map.get(0, 0));
+    }
+
+    @Test
+    void denseIterationStaysPackedAcrossRemovals() {
+        EffectSlotMap<Integer> map = new EffectSlotMap<>();
+        int[] slots = new int[100];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = map.insert(i);
+        }
+        for (int i = 0; i < slots.length; i += 3) {
+            map.remove(slots[i], map.generation(slots[i]));
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < map.size(); i++) {
+            Integer value = map.valueAt(i);
+            seen.add(value);
+            assertEquals(value, map.getLive(map.slotAt(i)));
+        }
+        assertEquals(66, map.size());
+        assertEquals(66, seen.size());
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(slots[1], 0));
+    }
+}
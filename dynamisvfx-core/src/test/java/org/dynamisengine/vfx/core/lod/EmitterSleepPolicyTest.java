@@ -0,0 +1,48 @@
+package org.dynamisengine.vfx.core.lod;
+
+import org.dynamisengine.vfx.api.EmissionRateDescriptor;
+import org.dynamisengine.vfx.api.LodDescriptor;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.LodBuilder;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmitterSleepPolicyTest {
+
+    @Test
+    void sleepsBeyondSleepingDistanceOnlyWhenAllowed() {
+        LodDescriptor allowed = new LodBuilder().allowSleeping(true).sleepingDistance(100f).build();
+        LodDescriptor denied = new LodBuilder().allowSleeping(false).sleepingDistance(100f).build();
+
+        assertFalse(EmitterSleepPolicy.sleepsByDistance(allowed, 100f));
+        assertTrue(EmitterSleepPolicy.sleepsByDistance(allowed, 101f));
+        assertFalse(EmitterSleepPolicy.sleepsByDistance(denied, 1000f));
+        assertFalse(EmitterSleepPolicy.sleepsByDistance(null, 1000f));
+    }
+
+    @Test
+    void idleEmittersSleepOnceNothingIsPending() {
+        ParticleEmitterDescriptor burst = emitter(EmissionRate.burst(16));
+        assertFalse(EmitterSleepPolicy.shouldSleep(burst, 0f, 0, false));
+        assertFalse(EmitterSleepPolicy.shouldSleep(burst, 0f, 5, true));
+        assertTrue(EmitterSleepPolicy.shouldSleep(burst, 0f, 0, true));
+
+        assertFalse(EmitterSleepPolicy.shouldSleep(emitter(EmissionRate.continuous(10f)), 0f, 0, true));
+        assertTrue(EmitterSleepPolicy.shouldSleep(emitter(EmissionRate.onEvent("hit", 8)), 0f, 0, false));
+    }
+
+    private static ParticleEmitterDescriptor emitter(EmissionRateDescriptor rate) {
+        return EffectBuilder.emitter("sleep")
+            .shape(EmitterShape.point())
+            .rate(rate)
+            .init(ParticleInit.builder().lifetime(1.0f, 1.0f).build())
+            .renderer(Renderer.billboard().build())
+            .build();
+    }
+}
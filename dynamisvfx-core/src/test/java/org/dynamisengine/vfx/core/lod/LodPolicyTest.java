@@ -65,4 +65,28 @@ class LodPolicyTest {
         // Beyond range returns last (only) tier
         assertNotNull(LodPolicy.activeTier(single, 200));
     }
+
+    @Test
+    void simulationStrideIsAPowerOfTwoFromTheScale() {
+        assertEquals(1, LodPolicy.simulationStride(1.0f, 8));
+        assertEquals(2, LodPolicy.simulationStride(0.5f, 8));
+        assertEquals(2, LodPolicy.simulationStride(0.3f, 8));
+        assertEquals(4, LodPolicy.simulationStride(0.25f, 8));
+        assertEquals(8, LodPolicy.simulationStride(0.01f, 8));
+        assertEquals(8, LodPolicy.simulationStride(0.0f, 8));
+        assertEquals(1, LodPolicy.simulationStride(0.1f, 1));
+    }
+
+    @Test
+    void staggeredEffectsSpreadEvenlyOverTheStride() {
+        int[] perFrame = new int[4];
+        for (int frame = 0; frame < 4; frame++) {
+            for (int effect = 0; effect < 100; effect++) {
+                if (LodPolicy.simulatesOnFrame(frame, 4, effect)) {
+                    perFrame[frame]++;
+                }
+            }
+        }
+        assertArrayEquals(new int[] {25, 25, 25, 25}, perFrame);
+    }
 }
@@ -0,0 +1,95 @@
+package org.dynamisengine.vfx.core.lod;
+
+import org.dynamisengine.vfx.api.LodDescriptor;
+import org.dynamisengine.vfx.api.LodTier;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LodTierTableTest {
+
+    // Deliberately out of order; the table sorts by min distance like LodPolicy does.
+    private final LodDescriptor lod = new LodDescriptor(
+        List.of(
+            new LodTier(100, 200, 0.25f, 0.1f),
+            new LodTier(0, 50, 1.0f, 1.0f),
+            new LodTier(50, 100, 0.5f, 0.5f)
+        ), false, 300
+    );
+
+    @Test
+    void tierSelectionMatchesLodPolicy() {
+        LodTierTable table = LodTierTable.compile(lod);
+        assertEquals(3, table.tierCount());
+        for (float distance : new float[] {0f, 25f, 50f, 75f, 100f, 150f, 500f}) {
+            int tier = table.tierIndex(distance);
+            LodTier expected = LodPolicy.activeTier(lod, distance);
+            assertEquals(expected.minDistance(), table.minDistance(tier), "distance " + distance);
+            assertEquals(expected.simulationScale(), table.simulationScale(tier));
+            assertEquals(expected.emissionScale(), table.emissionScale(tier));
+        }
+    }
+
+    @Test
+    void hysteresisHoldsTheCurrentTierNearThresholds() {
+        LodTierTable table = LodTierTable.compile(lod);
+        assertEquals(0, table.tierIndex(54f, 0, 0.1f));
+        assertEquals(1, table.tierIndex(56f, 0, 0.1f));
+        assertEquals(1, table.tierIndex(46f, 1, 0.1f));
+        assertEquals(0, table.tierIndex(44f, 1, 0.1f));
+        // The last tier keeps everything beyond it.
+        assertEquals(2, table.tierIndex(5000f, 2, 0.1f));
+        // No history or no band: plain lookup.
+        assertEquals(1, table.tierIndex(54f, LodTierTable.NO_TIER, 0.1f));
+        assertEquals(1, table.tierIndex(54f, 0, 0.0f));
+    }
+
+    @Test
+    void screenSizeMetricFollowsZoomAndExtent() {
+        LodTierTable table = LodTierTable.compile(lod);
+        LodPolicyConfig screen = new LodPolicyConfig(new float[0], LodMetric.SCREEN_SIZE, 0.0f);
+        LodBatch batch = new LodBatch();
+        batch.add(table, 0f, 0f, 80f, 1.0f, LodTierTable.NO_TIER);
+        batch.add(table, 0f, 0f, 80f, 4.0f, LodTierTable.NO_TIER);
+
+        batch.evaluate(0f, 0f, 0f, 1.0f, screen);
+        assertEquals(1, batch.tier(0));
+        assertEquals(0, batch.tier(1));
+        // A 4x zoom (scope) brings the small effect up to full detail.
+        batch.evaluate(0f, 0f, 0f, 4.0f, screen);
+        assertEquals(0, batch.tier(0));
+        assertThrows(IllegalArgumentException.class, () -> new LodPolicyConfig(new float[0], LodMetric.DISTANCE, 1.0f));
+    }
+
+    @Test
+    void missingTiersCompileToNeutralTable() {
+        assertSame(LodTierTable.NONE, LodTierTable.compile(null));
+        assertSame(LodTierTable.NONE, LodTierTable.compile(new LodDescriptor(List.of(), true, 10)));
+        assertEquals(LodTierTable.NO_TIER, LodTierTable.NONE.tierIndex(1000f));
+        assertEquals(1.0f, LodTierTable.NONE.simulationScale(LodTierTable.NO_TIER));
+        assertEquals(1.0f, LodTierTable.NONE.emissionScale(LodTierTable.NO_TIER));
+    }
+
+    @Test
+    void batchEvaluatesEveryEffectAgainstTheCamera() {
+        LodTierTable table = LodTierTable.compile(lod);
+        LodBatch batch = new LodBatch();
+        for (int frame = 0; frame < 2; frame++) {
+            batch.clear();
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, batch.add(i % 2 == 0 ? table : LodTierTable.NONE, i * 2.0f, 0f, 0f));
+            }
+            batch.evaluate(0f, 0f, 0f);
+        }
+        assertEquals(100, batch.size());
+        assertEquals(150f, batch.distance(75), 1e-4f);
+        assertEquals(LodTierTable.NO_TIER, batch.tier(75));
+        assertEquals(1.0f, batch.emissionScale(75));
+        assertEquals(2, batch.tier(76));
+        assertEquals(0.25f, batch.simulationScale(76));
+        assertEquals(0.1f, batch.emissionScale(76));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.tier(100));
+    }
+}
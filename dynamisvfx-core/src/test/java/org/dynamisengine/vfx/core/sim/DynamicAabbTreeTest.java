@@ -0,0 +1,134 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicAabbTreeTest {
+
+    private static final float MARGIN = 0.5f;
+
+    @Test
+    void queriesMatchBruteForceThroughInsertMoveRemove() {
+        DynamicAabbTree tree = new DynamicAabbTree(MARGIN);
+        Map<Integer, float[]> fat = new HashMap<>();
+        Map<Integer, Integer> proxies = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(17L);
+
+        for (int id = 0; id < 500; id++) {
+            float[] box = randomBox(random);
+            proxies.put(id, tree.insert(box[0], box[1], box[2], box[3], box[4], box[5], id));
+            fat.put(id, fatten(box));
+        }
+        List<Integer> ids = new ArrayList<>(proxies.keySet());
+        for (int step = 0; step < 2000; step++) {
+            int id = ids.get(random.nextInt(ids.size()));
+            float[] box = randomBox(random);
+            if (tree.move(proxies.get(id), box[0], box[1], box[2], box[3], box[4], box[5])) {
+                fat.put(id, fatten(box));
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            Integer id = ids.remove(random.nextInt(ids.size()));
+            tree.remove(proxies.remove(id));
+            fat.remove(id);
+        }
+        assertEquals(300, tree.leafCount());
+        assertTrue(tree.height() <= 20, "tree should stay balanced, height " + tree.height());
+
+        for (int q = 0; q < 50; q++) {
+            float x = (float) random.nextDouble(-100, 100);
+            float y = (float) random.nextDouble(-100, 100);
+            float z = (float) random.nextDouble(-100, 100);
+            float r = (float) random.nextDouble(1, 40);
+
+            TreeSet<Integer> sphere = new TreeSet<>();
+            tree.querySphere(x, y, z, r, sphere::add);
+            TreeSet<Integer> expectedSphere = new TreeSet<>();
+            fat.forEach((id, b) -> {
+                if (sphereOverlaps(b, x, y, z, r)) {
+                    expectedSphere.add(id);
+                }
+            });
+            assertEquals(expectedSphere, sphere);
+
+            // Axis-aligned slab x in [x - r, x + r] as a frustum.
+            float[] planes = new float[24];
+            planes[0] = 1f;
+            planes[3] = -(x - r);
+            planes[4] = -1f;
+            planes[7] = x + r;
+            for (int p = 2; p < 6; p++) {
+                planes[p * 4 + 3] = 1_000_000f;
+            }
+            TreeSet<Integer> frustum = new TreeSet<>();
+            tree.queryFrustum(planes, frustum::add);
+            TreeSet<Integer> expectedFrustum = new TreeSet<>();
+            fat.forEach((id, b) -> {
+                if (b[3] >= x - r && b[0] <= x + r) {
+                    expectedFrustum.add(id);
+                }
+            });
+            assertEquals(expectedFrustum, frustum);
+
+            TreeSet<Integer> ray = new TreeSet<>();
+            tree.raycast(x, y, -200f, 0f, 0f, 1f, 400f, ray::add);
+            TreeSet<Integer> expectedRay = new TreeSet<>();
+            fat.forEach((id, b) -> {
+                if (x >= b[0] && x <= b[3] && y >= b[1] && y <= b[4]) {
+                    expectedRay.add(id);
+                }
+            });
+            assertEquals(expectedRay, ray);
+        }
+    }
+
+    @Test
+    void smallMovesStayInsideFatBox() {
+        DynamicAabbTree tree = new DynamicAabbTree(MARGIN);
+        int proxy = tree.insert(0f, 0f, 0f, 1f, 1f, 1f, 7);
+        assertFalse(tree.move(proxy, 0.2f, 0f, 0f, 1.2f, 1f, 1f));
+        assertTrue(tree.move(proxy, 5f, 0f, 0f, 6f, 1f, 1f));
+        assertEquals(7, tree.userData(proxy));
+    }
+
+    @Test
+    void removedProxyIsRejected() {
+        DynamicAabbTree tree = new DynamicAabbTree();
+        int a = tree.insert(0f, 0f, 0f, 1f, 1f, 1f, 1);
+        int b = tree.insert(4f, 0f, 0f, 5f, 1f, 1f, 2);
+        tree.remove(a);
+        assertThrows(IllegalArgumentException.class, () -> tree.userData(a));
+        assertEquals(2, tree.userData(b));
+        assertThrows(IllegalArgumentException.class, () -> tree.insert(1f, 0f, 0f, 0f, 1f, 1f, 3));
+    }
+
+    private static float[] randomBox(SplittableRandom random) {
+        float x = (float) random.nextDouble(-100, 100);
+        float y = (float) random.nextDouble(-100, 100);
+        float z = (float) random.nextDouble(-100, 100);
+        float e = (float) random.nextDouble(0.1, 5);
+        return new float[] {x - e, y - e, z - e, x + e, y + e, z + e};
+    }
+
+    private static float[] fatten(float[] box) {
+        return new float[] {
+            box[0] - MARGIN, box[1] - MARGIN, box[2] - MARGIN,
+            box[3] + MARGIN, box[4] + MARGIN, box[5] + MARGIN
+        };
+    }
+
+    private static boolean sphereOverlaps(float[] b, float x, float y, float z, float r) {
+        float dx = Math.max(Math.max(b[0] - x, 0f), x - b[3]);
+        float dy = Math.max(Math.max(b[1] - y, 0f), y - b[4]);
+        float dz = Math.max(Math.max(b[2] - z, 0f), z - b[5]);
+        return dx * dx + dy * dy + dz * dz <= r * r;
+    }
+}
@@ -0,0 +1,120 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.ParticleSimulationCore;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.Force;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EffectBoundsTest {
+
+    private static final float DT = 1.0f / 60.0f;
+
+    private final ParticleSimulationCore core = new ParticleSimulationCore();
+
+    @Test
+    void predictedBoundsContainEveryLiveParticle() {
+        ParticleEffectSimulation effect = core.createEffect(fountain(), 2048, 1, 11L);
+        float[] transform = translation(5f, 2f, -3f);
+        for (int frame = 0; frame < 180; frame++) {
+            // Drift the emitter so particles from earlier origins are still alive.
+            transform[12] += 0.05f;
+            effect.setTransform(transform);
+            core.step(effect, DT, null);
+            assertContainsLiveParticles(effect);
+        }
+    }
+
+    @Test
+    void boundsDropOldOriginOnceItsParticlesExpire() {
+        ParticleEffectSimulation effect = core.createEffect(fountain(), 2048, 1, 3L);
+        core.step(effect, DT, null);
+        effect.setTransform(translation(500f, 0f, 0f));
+        assertTrue(effect.bounds().minX() < 10f, "particles from the old origin are still covered");
+
+        for (int frame = 0; frame < 200; frame++) {
+            core.step(effect, DT, null);
+        }
+        assertTrue(effect.bounds().minX() > 400f, "old origin dropped after two epochs");
+        assertContainsLiveParticles(effect);
+    }
+
+    @Test
+    void offscreenEffectIsRejectedWithoutParticleTests() {
+        ParticleEffectSimulation effect = core.createEffect(fountain(), 512, 1, 5L);
+        effect.setTransform(translation(-1000f, 0f, 0f));
+
+        // Single active plane x >= 0; the rest accept everything.
+        float[] frustum = new float[24];
+        frustum[0] = 1f;
+        for (int p = 1; p < 6; p++) {
+            frustum[p * 4 + 3] = 1_000_000f;
+        }
+        assertEquals(0, core.step(effect, DT, frustum));
+        assertTrue(effect.effectCulled());
+        assertEquals(effect.aliveCount(), effect.culledCount());
+
+        effect.setTransform(translation(10f, 0f, 0f));
+        for (int frame = 0; frame < 120; frame++) {
+            core.step(effect, DT, frustum);
+        }
+        assertFalse(effect.effectCulled());
+        assertTrue(effect.visibleCount() > 0);
+    }
+
+    @Test
+    void unplacedBoundsAreNeverRejected() {
+        EffectBounds bounds = new EffectBounds();
+        float[] frustum = new float[24];
+        frustum[3] = -1f;
+        assertTrue(bounds.isEmpty());
+        assertTrue(bounds.intersectsFrustum(frustum));
+    }
+
+    private static void assertContainsLiveParticles(ParticleEffectSimulation effect) {
+        EffectBounds bounds = effect.bounds();
+        ParticleSoaBuffers buffers = effect.buffers();
+        float[] positions = buffers.positions();
+        for (int i = 0; i < buffers.highWaterMark(); i++) {
+            int o = i * ParticleSoaBuffers.VEC4_FLOATS;
+            if (positions[o + 3] >= 1.0f) {
+                continue;
+            }
+            assertTrue(positions[o] >= bounds.minX() && positions[o] <= bounds.maxX(), "x of slot " + i);
+            assertTrue(positions[o + 1] >= bounds.minY() && positions[o + 1] <= bounds.maxY(), "y of slot " + i);
+            assertTrue(positions[o + 2] >= bounds.minZ() && positions[o + 2] <= bounds.maxZ(), "z of slot " + i);
+        }
+    }
+
+    private static ParticleEmitterDescriptor fountain() {
+        return EffectBuilder.emitter("fountain")
+            .shape(EmitterShape.sphere(0.5f))
+            .rate(EmissionRate.continuous(400f))
+            .init(ParticleInit.builder()
+                .lifetime(0.5f, 1.0f)
+                .velocityRange(2.0f, 6.0f)
+                .sizeRange(0.1f, 0.3f)
+                .build())
+            .force(Force.gravity(9.8f))
+            .force(Force.drag(0.2f))
+            .force(Force.wind(3.0f, 1.0f, 0.0f, 0.0f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+    }
+
+    private static float[] translation(float x, float y, float z) {
+        return new float[] {
+            1f, 0f, 0f, 0f,
+            0f, 1f, 0f, 0f,
+            0f, 0f, 1f, 0f,
+            x, y, z, 1f
+        };
+    }
+}
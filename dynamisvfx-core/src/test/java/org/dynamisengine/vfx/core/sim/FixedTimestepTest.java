@@ -0,0 +1,40 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedTimestepTest {
+
+    private static final float STEP = 1.0f / 60.0f;
+
+    @Test
+    void banksPartialStepsAndReportsAlpha() {
+        FixedTimestep timestep = new FixedTimestep(STEP, 4);
+        assertEquals(2, timestep.advance(1.0f / 30.0f));
+        assertEquals(0.0f, timestep.alpha(), 1e-4f);
+
+        assertEquals(0, timestep.advance(0.01f));
+        assertEquals(0.6f, timestep.alpha(), 1e-4f);
+        assertEquals(1, timestep.advance(0.01f));
+        assertEquals(0.2f, timestep.alpha(), 1e-4f);
+        assertEquals(3L, timestep.totalSteps());
+    }
+
+    @Test
+    void hitchesAreClampedAndTheExcessDropped() {
+        FixedTimestep timestep = new FixedTimestep(STEP, 4);
+        assertEquals(4, timestep.advance(1.0f));
+        assertTrue(timestep.alpha() < 1.0f);
+        assertEquals(1.0 - 4 * STEP, timestep.droppedSeconds() + timestep.alpha() * STEP, 1e-5);
+        // The next normal frame is a normal frame again.
+        assertEquals(1, timestep.advance(STEP));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new FixedTimestep(0.0f, 4));
+        assertThrows(IllegalArgumentException.class, () -> new FixedTimestep(Float.NaN, 4));
+        assertThrows(IllegalArgumentException.class, () -> new FixedTimestep(STEP, 0));
+    }
+}
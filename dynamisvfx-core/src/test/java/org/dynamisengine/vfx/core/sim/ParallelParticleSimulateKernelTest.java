@@ -0,0 +1,129 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.ParticleSimulationCore;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.Force;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelParticleSimulateKernelTest {
+
+    private static final float DT = 1.0f / 60.0f;
+
+    @Test
+    void chunkSizeRoundsUpToAlignment() {
+        assertEquals(16, ParallelParticleSimulateKernel.alignChunk(1));
+        assertEquals(16, ParallelParticleSimulateKernel.alignChunk(16));
+        assertEquals(4112, ParallelParticleSimulateKernel.alignChunk(4100));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ParallelParticleSimulateKernel(ParticleSimulateKernel.scalar(), ForkJoinPool.commonPool(), 0));
+    }
+
+    @Test
+    void resultIsIndependentOfThreadCountAndChunkSize() {
+        float[] serial = run(ParticleSimulateKernel.preferred());
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(serial, run(new ParallelParticleSimulateKernel(ParticleSimulateKernel.preferred(), one, 64)));
+            assertArrayEquals(serial, run(new ParallelParticleSimulateKernel(ParticleSimulateKernel.preferred(), four, 16)));
+            assertArrayEquals(serial, run(new ParallelParticleSimulateKernel(ParticleSimulateKernel.preferred(), four, 1000)));
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test
+    void stepAllMatchesSerialSteps() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParticleSimulationCore parallel = new ParticleSimulationCore(
+                new ParallelParticleSimulateKernel(ParticleSimulateKernel.preferred(), pool, 128), pool);
+            ParticleSimulationCore serial = new ParticleSimulationCore(ParticleSimulateKernel.preferred());
+            List<ParticleEffectSimulation> a = effects(serial);
+            List<ParticleEffectSimulation> b = effects(parallel);
+
+            for (int frame = 0; frame < 20; frame++) {
+                int expected = 0;
+                for (ParticleEffectSimulation effect : a) {
+                    expected += serial.step(effect, DT, null);
+                }
+                assertEquals(expected, parallel.stepAll(b, DT, null));
+            }
+            for (int i = 0; i < a.size(); i++) {
+                assertEquals(a.get(i).aliveCount(), b.get(i).aliveCount());
+                assertArrayEquals(a.get(i).buffers().positions(), b.get(i).buffers().positions());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void stepAllReusesTasksAcrossChangingEffectCounts() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParticleSimulationCore parallel = new ParticleSimulationCore(ParticleSimulateKernel.preferred(), pool);
+            ParticleSimulationCore serial = new ParticleSimulationCore(ParticleSimulateKernel.preferred());
+            List<ParticleEffectSimulation> a = effects(serial);
+            List<ParticleEffectSimulation> b = effects(parallel);
+
+            for (int count : new int[] {2, 7, 3, 5, 2, 7}) {
+                int expected = 0;
+                for (ParticleEffectSimulation effect : a.subList(0, count)) {
+                    expected += serial.step(effect, DT, null);
+                }
+                assertEquals(expected, parallel.stepAll(b.subList(0, count), DT, null));
+            }
+            for (int i = 0; i < a.size(); i++) {
+                assertArrayEquals(a.get(i).buffers().positions(), b.get(i).buffers().positions());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static float[] run(ParticleSimulateKernel kernel) {
+        ParticleEffectSimulation effect = new ParticleEffectSimulation(descriptor(5003), 5003, 1, 11L);
+        effect.emit(5003);
+        for (int frame = 0; frame < 10; frame++) {
+            effect.simulate(DT, kernel);
+        }
+        return effect.buffers().positions();
+    }
+
+    private static List<ParticleEffectSimulation> effects(ParticleSimulationCore core) {
+        List<ParticleEffectSimulation> out = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            out.add(core.createEffect(descriptor(300 + i * 150), 2048, i + 1, 1000L + i));
+        }
+        return out;
+    }
+
+    private static ParticleEmitterDescriptor descriptor(int burst) {
+        return EffectBuilder.emitter("parallel")
+            .shape(EmitterShape.sphere(1.0f))
+            .rate(EmissionRate.burst(burst))
+            .init(ParticleInit.builder()
+                .lifetime(0.1f, 0.5f)
+                .velocityRange(0.5f, 3.0f)
+                .sizeRange(0.1f, 0.2f)
+                .build())
+            .force(Force.gravity(9.8f))
+            .force(Force.drag(0.2f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+    }
+}
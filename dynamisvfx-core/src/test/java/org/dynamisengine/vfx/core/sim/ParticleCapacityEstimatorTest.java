@@ -0,0 +1,59 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.EmissionRateDescriptor;
+import org.dynamisengine.vfx.api.LodDescriptor;
+import org.dynamisengine.vfx.api.LodTier;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticleCapacityEstimatorTest {
+
+    @Test
+    void burstPeakIsTheBurstCount() {
+        assertEquals(10L, ParticleCapacityEstimator.peakAliveCount(emitter(EmissionRate.burst(10), 2.0f, null)));
+    }
+
+    @Test
+    void continuousPeakIsRateTimesLongestLifetime() {
+        ParticleEmitterDescriptor descriptor = emitter(EmissionRate.continuous(100f), 2.0f, null);
+        assertEquals(201L, ParticleCapacityEstimator.peakAliveCount(descriptor));
+    }
+
+    @Test
+    void nearestLodTierScalesThePeak() {
+        LodDescriptor lod = new LodDescriptor(List.of(
+            new LodTier(0f, 10f, 1.0f, 0.5f),
+            new LodTier(10f, 50f, 0.5f, 0.25f)
+        ), false, 0f);
+        ParticleEmitterDescriptor descriptor = emitter(EmissionRate.continuous(100f), 2.0f, lod);
+        assertEquals(101L, ParticleCapacityEstimator.peakAliveCount(descriptor));
+        assertEquals(0.5f, ParticleCapacityEstimator.maxEmissionScale(lod), 1e-6f);
+    }
+
+    @Test
+    void eventEmissionIsUnbounded() {
+        ParticleEmitterDescriptor descriptor = emitter(EmissionRate.onEvent("impact", 32), 1.0f, null);
+        assertEquals(ParticleCapacityEstimator.UNBOUNDED, ParticleCapacityEstimator.peakAliveCount(descriptor));
+        assertEquals(ParticleCapacityEstimator.UNBOUNDED, ParticleCapacityEstimator.peakAliveCount(
+            new ParticleEmitterDescriptor("bare", null, null, null, List.of(), null, null, null)));
+    }
+
+    private static ParticleEmitterDescriptor emitter(EmissionRateDescriptor rate, float lifetime, LodDescriptor lod) {
+        return EffectBuilder.emitter("capacity")
+            .shape(EmitterShape.point())
+            .rate(rate)
+            .init(ParticleInit.builder().lifetime(lifetime * 0.5f, lifetime).build())
+            .renderer(Renderer.billboard().build())
+            .lod(lod)
+            .build();
+    }
+}
@@ -0,0 +1,80 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ForceDescriptor;
+import org.dynamisengine.vfx.api.ForceType;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.Force;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticleSimulateKernelTest {
+
+    private static final float DT = 1.0f / 60.0f;
+
+    @Test
+    void preferredKernelMatchesScalarReference() {
+        // Odd count so the vector kernel also runs its scalar tail.
+        ParticleEffectSimulation reference = populated(1003);
+        ParticleEffectSimulation candidate = populated(1003);
+
+        for (int frame = 0; frame < 30; frame++) {
+            reference.simulate(DT, ParticleSimulateKernel.scalar());
+            candidate.simulate(DT, ParticleSimulateKernel.preferred());
+        }
+
+        assertArrayEquals(reference.buffers().positions(), candidate.buffers().positions(), 1e-4f);
+        assertArrayEquals(reference.buffers().velocities(), candidate.buffers().velocities(), 1e-4f);
+    }
+
+    @Test
+    void deadAndFreeSlotsAreLeftUntouched() {
+        ParticleEffectSimulation effect = populated(64);
+        float[] positions = effect.buffers().positions();
+        positions[5 * 4 + 3] = 1.0f;
+        positions[5 * 4] = 42.0f;
+        effect.buffers().releaseSlot(9);
+        float freeX = positions[9 * 4];
+
+        effect.simulate(DT, ParticleSimulateKernel.preferred());
+
+        assertEquals(42.0f, positions[5 * 4]);
+        assertEquals(1.0f, positions[5 * 4 + 3]);
+        assertEquals(freeX, positions[9 * 4]);
+        assertEquals(ParticleSoaBuffers.FREE_SLOT_AGE, positions[9 * 4 + 3]);
+    }
+
+    @Test
+    void emptyRangeIsNoOp() {
+        ParticleEffectSimulation effect = populated(8);
+        float[] before = effect.buffers().positions().clone();
+        ParticleSimulateKernel.preferred().simulate(effect.buffers(), effect.forces(), DT, 4, 4);
+        assertArrayEquals(before, effect.buffers().positions());
+    }
+
+    private static ParticleEffectSimulation populated(int count) {
+        ParticleEmitterDescriptor descriptor = EffectBuilder.emitter("kernel")
+            .shape(EmitterShape.sphere(2.0f))
+            .rate(EmissionRate.burst(count))
+            .init(ParticleInit.builder()
+                .lifetime(1.0f, 3.0f)
+                .velocityRange(0.5f, 4.0f)
+                .sizeRange(0.1f, 0.3f)
+                .build())
+            .force(Force.gravity(9.8f))
+            .force(Force.drag(0.3f))
+            .force(Force.wind(2.0f, 1.0f, 0.0f, 0.5f))
+            .force(new ForceDescriptor(ForceType.ATTRACTOR, 6.0f, new float[] {0.5f, 0.5f, 0.0f}, null))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+        ParticleEffectSimulation effect = new ParticleEffectSimulation(descriptor, count, 1, 99L);
+        effect.emit(count);
+        return effect;
+    }
+}
@@ -0,0 +1,284 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.core.ParticleSimulationCore;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.Force;
+import org.dynamisengine.vfx.core.builder.LodBuilder;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticleSimulationCoreTest {
+
+    private static final float DT = 1.0f / 60.0f;
+
+    private final ParticleSimulationCore core = new ParticleSimulationCore();
+
+    @Test
+    void burstEmitsRequestedCountOnFirstStep() {
+        ParticleEffectSimulation effect = core.createEffect(burst(500, 1.0f, 2.0f), 1024, 1, 12345L);
+        int visible = core.step(effect, DT, null);
+        assertEquals(500, effect.aliveCount());
+        assertEquals(500, visible);
+        assertEquals(524, effect.buffers().freeCount());
+
+        core.step(effect, DT, null);
+        assertEquals(0, effect.lastSpawnCount());
+    }
+
+    @Test
+    void burstClampedToCapacity() {
+        ParticleEffectSimulation effect = core.createEffect(burst(5000, 1.0f, 1.0f), 1024, 1, 1L);
+        core.step(effect, DT, null);
+        assertEquals(1024, effect.aliveCount());
+        assertEquals(0, effect.buffers().freeCount());
+    }
+
+    @Test
+    void particlesRetireAfterLifetime() {
+        ParticleEffectSimulation effect = core.createEffect(burst(100, 0.5f, 0.5f), 256, 1, 100L);
+        for (int i = 0; i < 29; i++) {
+            core.step(effect, DT, null);
+        }
+        assertEquals(100, effect.aliveCount());
+        for (int i = 0; i < 2; i++) {
+            core.step(effect, DT, null);
+        }
+        assertEquals(0, effect.aliveCount());
+        assertEquals(256, effect.buffers().freeCount());
+    }
+
+    @Test
+    void retiredSlotsAreReusedWithoutGrowingHighWaterMark() {
+        ParticleEffectSimulation effect = core.createEffect(continuous(600f, 0.25f), 4096, 1, 7L);
+        for (int i = 0; i < 240; i++) {
+            core.step(effect, DT, null);
+        }
+        assertTrue(effect.aliveCount() > 0);
+        assertTrue(effect.buffers().highWaterMark() <= 256, "slots should be recycled from the front");
+    }
+
+    @Test
+    void gravityIntegratesWithSemiImplicitEuler() {
+        ParticleEmitterDescriptor descriptor = EffectBuilder.emitter("fall")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.burst(1))
+            .init(ParticleInit.builder().lifetime(10f, 10f).velocityRange(0f, 0f).sizeRange(1f, 1f).build())
+            .force(Force.gravity(10f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+        ParticleEffectSimulation effect = core.createEffect(descriptor, 16, 1, 0L);
+
+        float vy = 0f;
+        float py = 0f;
+        for (int i = 0; i < 10; i++) {
+            core.step(effect, 0.1f, null);
+            vy += -10f * 0.1f;
+            py += vy * 0.1f;
+        }
+        float[] positions = effect.buffers().positions();
+        float[] velocities = effect.buffers().velocities();
+        assertEquals(py, positions[1], 1e-4f);
+        assertEquals(vy, velocities[1], 1e-4f);
+        assertEquals(0.1f, positions[3], 1e-5f);
+    }
+
+    @Test
+    void dragOpposesVelocity() {
+        ParticleEmitterDescriptor descriptor = EffectBuilder.emitter("drag")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.burst(1))
+            .init(ParticleInit.builder().lifetime(10f, 10f).velocityRange(4f, 4f).sizeRange(1f, 1f).build())
+            .force(Force.drag(0.5f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+        ParticleEffectSimulation effect = core.createEffect(descriptor, 16, 1, 0L);
+        core.step(effect, 0.1f, null);
+        assertEquals(4f * (1f - 0.5f * 0.1f), effect.buffers().velocities()[1], 1e-4f);
+    }
+
+    @Test
+    void frustumCullsParticlesOutsidePlanes() {
+        ParticleEffectSimulation effect = core.createEffect(burst(64, 1f, 1f), 64, 1, 3L);
+        float[] transform = identity();
+        transform[12] = 100f;
+        effect.setTransform(transform);
+
+        // Single active plane x <= 10 (normal -x, d = 10); the rest accept everything.
+        float[] frustum = new float[24];
+        frustum[0] = -1f;
+        frustum[3] = 10f;
+        for (int p = 1; p < 6; p++) {
+            frustum[p * 4 + 3] = 1_000_000f;
+        }
+
+        int visible = core.step(effect, DT, frustum);
+        assertEquals(0, visible);
+        assertEquals(64, effect.culledCount());
+    }
+
+    @Test
+    void sameSeedProducesIdenticalState() {
+        ParticleEffectSimulation a = core.createEffect(burst(200, 0.8f, 1.4f), 256, 1, 777L);
+        ParticleEffectSimulation b = core.createEffect(burst(200, 0.8f, 1.4f), 256, 1, 777L);
+        int[] countsA = new int[60];
+        int[] countsB = new int[60];
+        for (int i = 0; i < 60; i++) {
+            core.step(a, DT, null);
+            core.step(b, DT, null);
+            countsA[i] = a.aliveCount();
+            countsB[i] = b.aliveCount();
+        }
+        assertArrayEquals(countsA, countsB);
+        assertArrayEquals(a.buffers().positions(), b.buffers().positions());
+    }
+
+    @Test
+    void emitWritesAllFiveStreams() {
+        ParticleEffectSimulation effect = core.createEffect(burst(1, 2f, 2f), 8, 42, 9L);
+        effect.emit(1);
+        ParticleSoaBuffers buffers = effect.buffers();
+        assertEquals(0f, buffers.positions()[3]);
+        assertEquals(1f, buffers.velocities()[3]);
+        assertEquals(1f, buffers.colors()[3]);
+        assertEquals(2f, buffers.attribs()[3]);
+        assertEquals(42, buffers.meta()[0]);
+        assertTrue(buffers.isAlive(0));
+        assertFalse(buffers.isAlive(1));
+    }
+
+    @Test
+    void lodTierScalesEmissionAndCapsSimulatedParticles() {
+        ParticleEmitterDescriptor descriptor = EffectBuilder.emitter("lod")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.continuous(600f))
+            .init(ParticleInit.builder().lifetime(10.0f, 10.0f).velocityRange(0.2f, 0.8f).sizeRange(0.1f, 0.1f).build())
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .lod(new LodBuilder().addTier(0, 50, 1.0f, 1.0f).addTier(50, 100, 0.25f, 0.5f).build())
+            .build();
+        ParticleEffectSimulation effect = core.createEffect(descriptor, 200, 1, 5L);
+        effect.setLodTier(effect.lodTable().tierIndex(75f));
+        assertEquals(0.5f, effect.emissionScale());
+
+        for (int i = 0; i < 6; i++) {
+            core.step(effect, DT, null);
+        }
+        // 300 particles per second at the far tier.
+        assertEquals(30, effect.aliveCount());
+        for (int i = 0; i < 60; i++) {
+            core.step(effect, DT, null);
+        }
+        assertEquals(50, effect.aliveCount());
+        assertEquals(0, effect.lodFreeSlots());
+        assertThrows(IllegalArgumentException.class, () -> effect.setLodTier(2));
+    }
+
+    @Test
+    void deferredTimeIsCaughtUpOnTheNextStep() {
+        ParticleEffectSimulation amortized = core.createEffect(burst(1, 10.0f, 10.0f), 4, 1, 9L);
+        ParticleEffectSimulation reference = core.createEffect(burst(1, 10.0f, 10.0f), 4, 1, 9L);
+        core.step(amortized, DT, null);
+        core.step(reference, DT, null);
+        for (int i = 0; i < 3; i++) {
+            amortized.defer(DT);
+            core.step(reference, DT, null);
+        }
+        float[] extrapolated = new float[3];
+        amortized.extrapolatedPosition(0, extrapolated);
+        float[] p = amortized.buffers().positions();
+        float[] v = amortized.buffers().velocities();
+        assertEquals(p[1] + v[1] * 3 * DT, extrapolated[1], 1e-6f);
+
+        core.step(amortized, DT, null);
+        core.step(reference, DT, null);
+        assertEquals(0.0f, amortized.deferredSeconds());
+        float[] expected = reference.buffers().positions();
+        assertEquals(expected[3], p[3], 1e-6f);
+        // One 4-frame Euler step versus four: within 0.5 * g * t * dt.
+        assertEquals(expected[1], p[1], 0.02f);
+    }
+
+    @Test
+    void wakeFastForwardsTheTimeSpentAsleep() {
+        ParticleEffectSimulation effect = core.createEffect(continuous(600f, 0.25f), 4096, 1, 3L);
+        for (int i = 0; i < 30; i++) {
+            core.step(effect, DT, null);
+        }
+        effect.sleep();
+        assertEquals(0, effect.visibleCount());
+        for (int i = 0; i < 600; i++) {
+            effect.advanceAsleep(DT);
+        }
+        assertEquals(10.0f, effect.wake(true), 1e-3f);
+        assertFalse(effect.sleeping());
+
+        // Everything alive before the sleep has expired; only the last lifetime's worth remains.
+        assertEquals(150, effect.aliveCount(), 1);
+    }
+
+    @Test
+    void fastForwardMatchesClosedFormMotion() {
+        ParticleEffectSimulation effect = core.createEffect(burst(1, 10.0f, 10.0f), 4, 1, 9L);
+        core.step(effect, DT, null);
+        float[] p = effect.buffers().positions();
+        float[] v = effect.buffers().velocities();
+        float y0 = p[1];
+        float vy0 = v[1];
+        float age0 = p[3];
+
+        effect.fastForward(2.0f);
+
+        // Gravity 9.8 down with drag 0.25: terminal velocity -39.2.
+        float k = 0.25f;
+        float terminal = -9.8f / k;
+        float decay = (float) Math.exp(-k * 2.0f);
+        assertEquals(terminal + (vy0 - terminal) * decay, v[1], 1e-3f);
+        assertEquals(y0 + terminal * 2.0f + (vy0 - terminal) * (1.0f - decay) / k, p[1], 1e-3f);
+        assertEquals(age0 + 0.2f, p[3], 1e-5f);
+        assertEquals(1, effect.aliveCount());
+    }
+
+    private static ParticleEmitterDescriptor burst(int count, float lifeMin, float lifeMax) {
+        return EffectBuilder.emitter("burst")
+            .shape(EmitterShape.sphere(0.5f))
+            .rate(EmissionRate.burst(count))
+            .init(ParticleInit.builder()
+                .lifetime(lifeMin, lifeMax)
+                .velocityRange(0.5f, 1.0f)
+                .sizeRange(0.1f, 0.2f)
+                .build())
+            .force(Force.gravity(9.8f))
+            .force(Force.drag(0.25f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+    }
+
+    private static ParticleEmitterDescriptor continuous(float pps, float lifeSeconds) {
+        return EffectBuilder.emitter("continuous")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.continuous(pps))
+            .init(ParticleInit.builder()
+                .lifetime(lifeSeconds, lifeSeconds)
+                .velocityRange(0.2f, 0.8f)
+                .sizeRange(0.05f, 0.2f)
+                .build())
+            .force(Force.gravity(9.8f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+    }
+
+    private static float[] identity() {
+        return new float[] {
+            1f, 0f, 0f, 0f,
+            0f, 1f, 0f, 0f,
+            0f, 0f, 1f, 0f,
+            0f, 0f, 0f, 1f
+        };
+    }
+}
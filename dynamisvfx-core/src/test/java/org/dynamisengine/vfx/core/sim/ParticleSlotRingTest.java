@@ -0,0 +1,112 @@
+package org.dynamisengine.vfx.core.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticleSlotRingTest {
+
+    @Test
+    void freshRingHandsOutSlotsInOrder() {
+        ParticleSlotRing ring = new ParticleSlotRing(8);
+        int[] out = new int[5];
+        assertEquals(5, ring.acquire(out, 0, 5));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, out);
+        assertEquals(3, ring.available());
+        assertEquals(5, ring.readHead());
+    }
+
+    @Test
+    void bulkAcquireStopsAtAvailable() {
+        ParticleSlotRing ring = new ParticleSlotRing(4);
+        int[] out = new int[10];
+        assertEquals(4, ring.acquire(out, 0, 10));
+        assertEquals(0, ring.acquire(out, 0, 10));
+        assertEquals(-1, ring.acquire());
+
+        ring.release(new int[] {2, 0}, 0, 2);
+        assertEquals(2, ring.acquire(out, 3, 5));
+        assertEquals(2, out[3]);
+        assertEquals(0, out[4]);
+    }
+
+    @Test
+    void clearedRingHandsOutOnlyReleasedSlots() {
+        ParticleSlotRing ring = new ParticleSlotRing(4);
+        ring.clear();
+        assertEquals(0, ring.available());
+        assertEquals(-1, ring.acquire());
+
+        ring.release(new int[] {3, 1}, 0, 2);
+        int[] out = new int[4];
+        assertEquals(2, ring.acquire(out, 0, 4));
+        assertEquals(3, out[0]);
+        assertEquals(1, out[1]);
+    }
+
+    @Test
+    void wrapsAroundAcrossManyLaps() {
+        ParticleSlotRing ring = new ParticleSlotRing(3);
+        for (int lap = 0; lap < 100; lap++) {
+            int slot = ring.acquire();
+            assertTrue(slot >= 0 && slot < 3);
+            ring.release(slot);
+        }
+        assertEquals(3, ring.available());
+    }
+
+    @Test
+    void concurrentBulkTrafficNeverDuplicatesOrLosesSlots() throws Exception {
+        int capacity = 4096;
+        ParticleSlotRing ring = new ParticleSlotRing(capacity);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int burst = 1 + t * 7;
+            Thread worker = new Thread(() -> {
+                int[] held = new int[burst];
+                try {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        int got = ring.acquire(held, 0, burst);
+                        ring.release(held, 0, got);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get());
+
+        int[] all = new int[capacity];
+        assertEquals(capacity, ring.acquire(all, 0, capacity));
+        BitSet seen = new BitSet(capacity);
+        for (int slot : all) {
+            assertFalse(seen.get(slot), "duplicate slot " + slot);
+            seen.set(slot);
+        }
+        assertEquals(capacity, seen.cardinality());
+    }
+
+    @Test
+    void rejectsInvalidRanges() {
+        ParticleSlotRing ring = new ParticleSlotRing(4);
+        assertThrows(IllegalArgumentException.class, () -> ring.acquire(new int[2], 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> ring.release(new int[2], 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> new ParticleSlotRing(0));
+    }
+}
@@ -0,0 +1,303 @@
+package org.dynamisengine.vfx.test;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.api.VfxDescriptorBindingWriter;
+import org.dynamisengine.vfx.api.VfxDrawContext;
+import org.dynamisengine.vfx.api.VfxHandle;
+import org.dynamisengine.vfx.api.VfxIndirectCommandSink;
+import org.dynamisengine.vfx.api.VfxStats;
+import org.dynamisengine.vfx.core.CpuVfxService;
+import org.dynamisengine.vfx.core.ParticleSimulationCore;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.Force;
+import org.dynamisengine.vfx.core.builder.LodBuilder;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.PhysicsHandoffBuilder;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.dynamisengine.vfx.core.lod.LodMetric;
+import org.dynamisengine.vfx.core.lod.LodPolicyConfig;
+import org.dynamisengine.vfx.core.sim.FixedTimestep;
+import org.dynamisengine.vfx.test.harness.DeterministicSimHarness;
+import org.dynamisengine.vfx.test.harness.Matrix4fUtil;
+import org.dynamisengine.vfx.test.harness.SimResult;
+import org.dynamisengine.vfx.test.mock.MockPhysicsHandoff;
+import org.dynamisengine.vfx.test.mock.MockVfxFrameContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CpuVfxServiceTest {
+
+    @Test
+    void indirectCommandsCarryRealInstanceCounts() {
+        CpuVfxService service = new CpuVfxService();
+        VfxHandle a = service.spawn(burst("a", 300, 2.0f), Matrix4fUtil.identity());
+        VfxHandle b = service.spawn(burst("b", 120, 2.0f), Matrix4fUtil.identity());
+        List<VfxHandle> active = List.of(a, b);
+
+        service.simulate(active, 1f / 60f, new MockVfxFrameContext());
+        CapturingDrawContext draw = new CapturingDrawContext();
+        service.recordDraws(active, draw);
+
+        assertEquals(300, (int) draw.instanceCounts.get(0));
+        assertEquals(120, (int) draw.instanceCounts.get(1));
+        VfxStats stats = service.getStats();
+        assertEquals(2, stats.activeEffectCount());
+        assertEquals(420, stats.activeParticleCount());
+        assertEquals(0, stats.culledParticleCount());
+        assertEquals(420L * 80L, stats.gpuMemoryBytes());
+    }
+
+    @Test
+    void statsReportCulledAndSleeping() {
+        CpuVfxService service = new CpuVfxService();
+        float[] farAway = Matrix4fUtil.identity();
+        farAway[12] = 500f;
+        VfxHandle culled = service.spawn(burst("culled", 64, 2.0f), farAway);
+        service.spawn(burst("idle", 32, 2.0f), Matrix4fUtil.identity());
+
+        // Single active plane x <= 10; the rest accept everything.
+        float[] frustum = new float[24];
+        frustum[0] = -1f;
+        frustum[3] = 10f;
+        for (int p = 1; p < 6; p++) {
+            frustum[p * 4 + 3] = 1_000_000f;
+        }
+        service.simulate(List.of(culled), 1f / 60f, new MockVfxFrameContext().frustumPlanes(frustum));
+
+        VfxStats stats = service.getStats();
+        assertEquals(64, stats.culledParticleCount());
+        assertEquals(1, stats.sleepingEmitterCount());
+    }
+
+    @Test
+    void distantEmittersSleepAndCatchUpWhenTheCameraApproaches() {
+        CpuVfxService service = new CpuVfxService();
+        float[] far = Matrix4fUtil.identity();
+        far[12] = 500f;
+        ParticleEmitterDescriptor descriptor = EffectBuilder.emitter("smoke")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.continuous(120f))
+            .init(ParticleInit.builder().lifetime(0.5f, 0.5f).velocityRange(0.5f, 1.0f).sizeRange(0.1f, 0.2f).build())
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .lod(new LodBuilder().allowSleeping(true).sleepingDistance(100f).build())
+            .build();
+        VfxHandle handle = service.spawn(descriptor, far);
+        List<VfxHandle> active = List.of(handle);
+
+        for (int i = 0; i < 60; i++) {
+            service.simulate(active, 1f / 60f, new MockVfxFrameContext());
+        }
+        assertTrue(service.simulation(handle).sleeping());
+        assertEquals(0, service.simulation(handle).aliveCount());
+        assertEquals(1, service.getStats().sleepingEmitterCount());
+
+        // Camera at x = 500: the view matrix translates by -500.
+        float[] view = Matrix4fUtil.identity();
+        view[12] = -500f;
+        service.simulate(active, 1f / 60f, new MockVfxFrameContext().cameraView(view));
+
+        assertFalse(service.simulation(handle).sleeping());
+        assertEquals(0, service.getStats().sleepingEmitterCount());
+        assertTrue(service.simulation(handle).aliveCount() >= 60, "a second of sleep is caught up on wake");
+    }
+
+    @Test
+    void amortizedFarTiersStepEveryStrideFrames() {
+        CpuVfxService service = new CpuVfxService();
+        service.setLodPolicy(new LodPolicyConfig(new float[0], LodMetric.DISTANCE, 0.0f, 8));
+        ParticleEmitterDescriptor descriptor = EffectBuilder.emitter("far")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.continuous(60f))
+            .init(ParticleInit.builder().lifetime(5.0f, 5.0f).velocityRange(0.5f, 1.0f).sizeRange(0.1f, 0.2f).build())
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .lod(new LodBuilder().addTier(0, 50, 1.0f, 1.0f).addTier(50, 500, 0.25f, 1.0f).build())
+            .build();
+        float[] far = Matrix4fUtil.identity();
+        far[12] = 100f;
+        VfxHandle handle = service.spawn(descriptor, far);
+
+        int steps = 0;
+        for (int frame = 0; frame < 16; frame++) {
+            service.simulate(List.of(handle), 1f / 60f, new MockVfxFrameContext());
+            if (service.simulation(handle).deferredSeconds() == 0.0f) {
+                steps++;
+            }
+        }
+        assertEquals(4, steps);
+        assertEquals(0, service.getStats().sleepingEmitterCount());
+        // Emission keeps pace with real time despite the skipped frames.
+        assertEquals(16, service.simulation(handle).aliveCount(), 4);
+    }
+
+    @Test
+    void fixedTimestepIsDeterministicAcrossFrameRates() {
+        ParticleEmitterDescriptor descriptor = EffectBuilder.emitter("fountain")
+            .shape(EmitterShape.sphere(0.5f))
+            .rate(EmissionRate.continuous(90f))
+            .init(ParticleInit.builder().lifetime(0.5f, 1.5f).velocityRange(0.5f, 2.0f).sizeRange(0.1f, 0.2f).build())
+            .force(Force.gravity(9.8f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+        CpuVfxService at30 = fixedStepService();
+        CpuVfxService at60 = fixedStepService();
+        VfxHandle a = at30.spawn(descriptor, Matrix4fUtil.identity());
+        VfxHandle b = at60.spawn(descriptor, Matrix4fUtil.identity());
+        for (int frame = 0; frame < 60; frame++) {
+            at30.simulate(List.of(a), 1f / 30f, new MockVfxFrameContext());
+        }
+        for (int frame = 0; frame < 120; frame++) {
+            at60.simulate(List.of(b), 1f / 60f, new MockVfxFrameContext());
+        }
+
+        assertEquals(120L, at30.fixedTimestep().totalSteps());
+        assertEquals(at60.simulation(b).aliveCount(), at30.simulation(a).aliveCount());
+        assertArrayEquals(at60.simulation(b).buffers().positions(), at30.simulation(a).buffers().positions());
+        assertEquals(0.0f, at30.interpolationAlpha(), 1e-3f);
+    }
+
+    @Test
+    void particlesRetireAndDespawnReleasesBudget() {
+        CpuVfxService service = new CpuVfxService(new ParticleSimulationCore(), 1000, 600, 1L);
+        VfxHandle handle = service.spawn(burst("short", 500, 0.1f), null);
+        VfxHandle clamped = service.spawn(burst("clamped", 600, 1.0f), null);
+        assertNotNull(clamped);
+        assertNull(service.spawn(burst("rejected", 10, 1.0f), null));
+        VfxStats spawned = service.getStats();
+        assertEquals(1000, spawned.budgetStats().usedBudget());
+        assertEquals(1, spawned.budgetStats().clampedThisFrame());
+        assertEquals(1, spawned.budgetStats().rejectedThisFrame());
+
+        for (int i = 0; i < 10; i++) {
+            service.simulate(List.of(handle), 1f / 60f, new MockVfxFrameContext());
+        }
+        assertEquals(0, service.getStats().activeParticleCount());
+
+        service.despawn(handle);
+        service.despawn(clamped);
+        assertFalse(service.isHandleAlive(handle));
+        assertEquals(0, service.getStats().budgetStats().usedBudget());
+    }
+
+    @Test
+    void fastDebrisIsHandedToPhysicsOnce() {
+        CpuVfxService service = new CpuVfxService();
+        MockPhysicsHandoff handoff = new MockPhysicsHandoff();
+        service.setPhysicsHandoff(handoff);
+        ParticleEmitterDescriptor debris = EffectBuilder.emitter("debris")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.burst(10))
+            .init(ParticleInit.builder().lifetime(1.0f, 1.0f).velocityRange(20f, 20f).sizeRange(0.1f, 0.1f).build())
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .physics(new PhysicsHandoffBuilder().enabled(true).speedThreshold(5f).meshId("rock").materialTag("stone").build())
+            .build();
+        VfxHandle handle = service.spawn(debris, Matrix4fUtil.identity());
+
+        for (int i = 0; i < 58; i++) {
+            service.simulate(List.of(handle), 1f / 60f, new MockVfxFrameContext());
+        }
+        assertEquals(10, handoff.eventCount());
+        assertEquals("rock", handoff.events().get(0).meshId());
+        assertEquals(handle.id(), handoff.events().get(0).sourceEmitterId());
+    }
+
+    @Test
+    void harnessReplayIsDeterministic() {
+        ParticleEmitterDescriptor smoke = EffectBuilder.emitter("smoke")
+            .shape(EmitterShape.sphere(1.0f))
+            .rate(EmissionRate.continuous(200f))
+            .init(ParticleInit.builder().lifetime(0.5f, 1.0f).velocityRange(0.2f, 1.0f).sizeRange(0.3f, 1.0f).build())
+            .force(Force.gravity(1.0f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+
+        SimResult first = replay(smoke);
+        SimResult second = replay(smoke);
+        assertEquals(first.steps(), second.steps());
+        int finalCount = first.steps().get(first.steps().size() - 1).stats().activeParticleCount();
+        assertTrue(finalCount > 100 && finalCount <= 201, "expected steady-state smoke, got " + finalCount);
+    }
+
+    private static SimResult replay(ParticleEmitterDescriptor descriptor) {
+        return DeterministicSimHarness.builder()
+            .service(new CpuVfxService(new ParticleSimulationCore(), 1 << 16, 4096, 99L))
+            .effect(descriptor, Matrix4fUtil.identity())
+            .steps(90)
+            .deltaTime(1f / 60f)
+            .seed(5L)
+            .build()
+            .run();
+    }
+
+    private static CpuVfxService fixedStepService() {
+        CpuVfxService service = new CpuVfxService(new ParticleSimulationCore(), 1 << 16, 4096, 11L);
+        service.setFixedTimestep(new FixedTimestep(1f / 60f, 4));
+        return service;
+    }
+
+    private static ParticleEmitterDescriptor burst(String id, int count, float lifetime) {
+        return EffectBuilder.emitter(id)
+            .shape(EmitterShape.sphere(0.5f))
+            .rate(EmissionRate.burst(count))
+            .init(ParticleInit.builder().lifetime(lifetime, lifetime).velocityRange(0.5f, 1.0f).sizeRange(0.1f, 0.2f).build())
+            .force(Force.gravity(9.8f))
+            .renderer(Renderer.billboard().blend(BlendMode.ALPHA).build())
+            .build();
+    }
+
+    private static final class CapturingDrawContext implements VfxDrawContext {
+        private final Map<Integer, Integer> instanceCounts = new HashMap<>();
+        private final VfxIndirectCommandSink sink = new VfxIndirectCommandSink() {
+            @Override
+            public void writeCommand(int slot, int indexCount, int instanceCount, int firstIndex, int vertexOffset, int firstInstance) {
+                instanceCounts.put(slot, instanceCount);
+            }
+
+            @Override
+            public long bufferHandle() {
+                return 0L;
+            }
+
+            @Override
+            public long countBufferHandle() {
+                return 0L;
+            }
+
+            @Override
+            public int variantOffset(int variantIndex) {
+                return 0;
+            }
+
+            @Override
+            public int variantCapacity(int variantIndex) {
+                return 0;
+            }
+
+            @Override
+            public void destroy() {
+            }
+        };
+
+        @Override
+        public VfxIndirectCommandSink indirectCommandSink() {
+            return sink;
+        }
+
+        @Override
+        public VfxDescriptorBindingWriter bindlessHeapWriter() {
+            return null;
+        }
+
+        @Override
+        public long frameIndex() {
+            return 0L;
+        }
+    }
+}
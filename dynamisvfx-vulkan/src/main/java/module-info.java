@@ -7,7 +7,9 @@ module org.dynamisengine.vfx.vulkan {
     requires java.logging;
 
     exports org.dynamisengine.vfx.vulkan;
+    exports org.dynamisengine.vfx.vulkan.budget to org.dynamisengine.vfx.bench;
     exports org.dynamisengine.vfx.vulkan.compute to org.dynamisengine.vfx.bench;
+    exports org.dynamisengine.vfx.vulkan.descriptor to org.dynamisengine.vfx.bench;
     exports org.dynamisengine.vfx.vulkan.emitter to org.dynamisengine.vfx.bench;
     exports org.dynamisengine.vfx.vulkan.force to org.dynamisengine.vfx.bench;
 }
@@ -1,5 +1,6 @@
 package org.dynamisengine.vfx.vulkan;
 
+import org.dynamisengine.vfx.api.EmissionMode;
 import org.dynamisengine.vfx.api.VfxIndirectCommandSink;
 import org.dynamisengine.gpu.vulkan.memory.VulkanBufferOps;
 import org.dynamisengine.gpu.vulkan.memory.VulkanImageOps;
@@ -11,13 +12,27 @@ import org.dynamisengine.vfx.api.VfxHandle;
 import org.dynamisengine.vfx.api.VfxService;
 import org.dynamisengine.vfx.api.VfxBudgetStats;
 import org.dynamisengine.vfx.api.VfxStats;
+import org.dynamisengine.vfx.api.VfxStatsSnapshot;
+import org.dynamisengine.vfx.core.EffectSlotMap;
+import org.dynamisengine.vfx.core.lod.EmitterSleepPolicy;
+import org.dynamisengine.vfx.core.lod.LodBatch;
+import org.dynamisengine.vfx.core.lod.LodPolicyConfig;
+import org.dynamisengine.vfx.core.lod.LodTierTable;
+import org.dynamisengine.vfx.core.sim.DynamicAabbTree;
+import org.dynamisengine.vfx.core.sim.EffectBounds;
+import org.dynamisengine.vfx.core.sim.FixedTimestep;
+import org.dynamisengine.vfx.vulkan.budget.VfxArenaMoveListener;
 import org.dynamisengine.vfx.vulkan.budget.VfxBudgetAllocation;
 import org.dynamisengine.vfx.vulkan.budget.VfxBudgetAllocator;
 import org.dynamisengine.vfx.vulkan.budget.VfxBudgetPolicy;
+import org.dynamisengine.vfx.vulkan.budget.VfxBudgetPool;
+import org.dynamisengine.vfx.vulkan.budget.VfxImportance;
+import org.dynamisengine.vfx.vulkan.compute.VulkanVfxBatchedDispatcher;
 import org.dynamisengine.vfx.vulkan.compute.VulkanVfxCullCompactStage;
 import org.dynamisengine.vfx.vulkan.compute.VulkanVfxEmitStage;
 import org.dynamisengine.vfx.vulkan.compute.VulkanVfxRetireStage;
 import org.dynamisengine.vfx.vulkan.compute.VulkanVfxSimulateStage;
+import org.dynamisengine.vfx.vulkan.compute.VulkanVfxSortHistory;
 import org.dynamisengine.vfx.vulkan.compute.VulkanVfxSortStage;
 import org.dynamisengine.vfx.vulkan.compute.VulkanVfxSpawnScheduler;
 import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
@@ -30,18 +45,26 @@ import org.dynamisengine.vfx.vulkan.physics.VulkanVfxDebrisCandidate;
 import org.dynamisengine.vfx.vulkan.physics.VulkanVfxDebrisCandidateWriter;
 import org.dynamisengine.vfx.vulkan.physics.VulkanVfxDebrisReadbackBuffer;
 import org.dynamisengine.vfx.vulkan.physics.VulkanVfxDebrisReadbackRing;
+import org.dynamisengine.vfx.vulkan.resources.VfxBufferConfig;
 import org.dynamisengine.vfx.vulkan.resources.VulkanVfxEffectResources;
+import org.dynamisengine.vfx.vulkan.resources.VulkanVfxParticleArena;
+import org.dynamisengine.vfx.vulkan.resources.VulkanVfxSoaBuffers;
 import org.dynamisengine.vfx.vulkan.internal.gpu.DefaultVfxGpuCommandAdapter;
+import org.dynamisengine.vfx.vulkan.internal.gpu.VfxComputeStage;
 import org.dynamisengine.vfx.vulkan.internal.gpu.VfxGpuCommandAdapter;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public final class VulkanVfxService implements VfxService {
     private static final float[] DEFAULT_TRANSFORM = new float[16];
+    private static final long BYTES_PER_PARTICLE = 80L;
+    // Arena compaction copies at most this many particles (x80 bytes) per frame.
+    public static final int DEFAULT_COMPACTION_PARTICLES_PER_FRAME = 16_384;
 
     private final long device;
     private final VulkanBufferOps bufferOps;
@@ -51,21 +74,47 @@ public final class VulkanVfxService implements VfxService {
     private final VulkanVfxSimulateStage simulateStage;
     private final VulkanVfxSortStage sortStage;
     private final VulkanVfxCullCompactStage cullCompactStage;
-    private final VulkanVfxSpawnScheduler spawnScheduler;
+    private final VulkanVfxBatchedDispatcher batchedDispatcher;
     private final VulkanVfxDebrisCandidateWriter debrisCandidateWriter;
     private final VulkanVfxDebrisReadbackRing readbackRing;
     private final VulkanVfxHotReloader hotReloader;
     private final int framesInFlight;
+    private final VulkanVfxParticleArena particleArena;
     private final VfxBudgetAllocator budgetAllocator;
     private final VfxGpuCommandAdapter gpuCommandAdapter;
-    private final Map<Integer, Integer> allocationToHandle = new HashMap<>();
-
-    private final AtomicInteger nextHandleId = new AtomicInteger(1);
-    private final Map<Integer, EffectState> effects = new HashMap<>();
-    private final Map<Integer, Integer> generationById = new HashMap<>();
+    private final EffectSlotMap<EffectState> effects = new EffectSlotMap<>();
+    // Budget allocation id -> effect slot (0 = none), for eviction and compaction callbacks.
+    // Allocation ids are dense and increasing, so a plain array indexes them.
+    private int[] allocationToSlot = new int[64];
+    private final DynamicAabbTree effectTree = new DynamicAabbTree();
+    private final IntConsumer markVisible = this::markVisible;
+    private final List<EffectState> frameStates = new ArrayList<>();
+    private final List<EffectState> lodStates = new ArrayList<>();
+    private final LodBatch lodBatch = new LodBatch();
+    private final VfxArenaMoveListener arenaMoveListener = this::onArenaMove;
+    // Scratch bounds for scoring a spawn before its state exists.
+    private final EffectBounds spawnBounds = new EffectBounds();
 
     private PhysicsHandoff physicsHandoff;
     private VfxHandle lastRespawnedHandle;
+    private int lastCulledEffectCount;
+    private long cullPass;
+    private int compactionBudget = DEFAULT_COMPACTION_PARTICLES_PER_FRAME;
+    private int lastCompactedParticles;
+    private long compactionCommandBuffer;
+    // Camera of the last simulate call, for importance scores.
+    private float cameraX;
+    private float cameraY;
+    private float cameraZ;
+    private float projectionScale = 1.0f;
+    private LodPolicyConfig lodPolicy = LodPolicyConfig.DEFAULT;
+    private FixedTimestep fixedTimestep;
+
+    // Stats kept up to date as effects change, so reading them never walks the effect table.
+    private int aliveParticleTotal;
+    private int culledParticleTotal;
+    private int simulatedEffectTotal;
+    private long gpuBytesTotal;
 
     public VulkanVfxService(long device, VulkanBufferOps bufferOps, VulkanImageOps imageOps, VulkanVfxDescriptorSetLayout layout) {
         this(device, bufferOps, imageOps, layout, new DefaultVfxGpuCommandAdapter());
@@ -91,17 +140,26 @@ public final class VulkanVfxService implements VfxService {
         this.simulateStage = VulkanVfxSimulateStage.create(device, layout);
         this.sortStage = VulkanVfxSortStage.create(device, layout, 1_048_576);
         this.cullCompactStage = VulkanVfxCullCompactStage.create(device, layout);
-        this.spawnScheduler = new VulkanVfxSpawnScheduler();
         this.debrisCandidateWriter = VulkanVfxDebrisCandidateWriter.create(device, layout);
         this.readbackRing = bufferOps == null
             ? VulkanVfxDebrisReadbackRing.allocateForTest(VulkanVfxDebrisReadbackBuffer.DEFAULT_MAX_CANDIDATES)
             : VulkanVfxDebrisReadbackRing.allocate(bufferOps, VulkanVfxDebrisReadbackBuffer.DEFAULT_MAX_CANDIDATES);
         this.framesInFlight = 3;
         this.hotReloader = VulkanVfxHotReloader.create(device, 1L, layout, framesInFlight);
-        this.budgetAllocator = new VfxBudgetAllocator(
+        this.batchedDispatcher = new VulkanVfxBatchedDispatcher(
+            retireStage,
+            emitStage,
+            simulateStage,
+            cullCompactStage,
+            this.gpuCommandAdapter
+        );
+        this.particleArena = VulkanVfxParticleArena.allocate(
             VfxBudgetAllocator.DEFAULT_GLOBAL_BUDGET,
-            VfxBudgetPolicy.CLAMP
+            VulkanVfxParticleArena.DEFAULT_MIN_BLOCK_PARTICLES,
+            bufferOps
         );
+        this.budgetAllocator = new VfxBudgetAllocator(VfxBudgetPolicy.IMPORTANCE, particleArena.ranges());
+        this.gpuBytesTotal = particleArena.totalBytes();
     }
 
     @Override
@@ -112,55 +170,192 @@ public final class VulkanVfxService implements VfxService {
         long commandBuffer = resolveCommandBuffer(ctx);
         long set0 = 1L; // Per-frame shared set placeholder until frame-set allocator is wired.
         long frameIndexLong = ctx.frameIndex();
-        int frameIndex = (int) frameIndexLong;
         float[] frustum = normalizeFrustum(ctx.frustumPlanes());
         float[] cameraPos = extractCameraPos(ctx.cameraView());
+        cameraX = cameraPos[0];
+        cameraY = cameraPos[1];
+        cameraZ = cameraPos[2];
+        float[] projection = ctx.cameraProjection();
+        projectionScale = projection == null || projection.length < 16 ? 1.0f : Math.abs(projection[5]);
         processDebrisReadback(frameIndexLong);
+        budgetAllocator.beginFrame(frameIndexLong);
+        // Compact before gathering so the batched effect tables see the new offsets.
+        compactionCommandBuffer = commandBuffer;
+        lastCompactedParticles = budgetAllocator.compact(compactionBudget, arenaMoveListener);
+        frameStates.clear();
+        if (fixedTimestep == null) {
+            simulateStep(activeEffects, deltaTime, commandBuffer, set0, frameIndexLong, frustum, cameraPos);
+        } else {
+            // Fixed-step mode: a whole number of equal steps, none at all on a short frame.
+            int substeps = fixedTimestep.advance(deltaTime);
+            for (int i = 0; i < substeps; i++) {
+                simulateStep(activeEffects, fixedTimestep.stepSeconds(), commandBuffer, set0, frameIndexLong, frustum, cameraPos);
+            }
+        }
+        finishFrame(commandBuffer, set0, frameIndexLong);
+    }
 
+    /**
+     * Once-per-frame work. The debris candidate write targets this frame's readback buffer, so it
+     * covers only the effects the last step simulated and must not repeat per substep. Pending
+     * pipeline swaps are polled for every live effect, including on frames with no substep.
+     */
+    private void finishFrame(long commandBuffer, long set0, long frameIndexLong) {
+        int frameIndex = (int) frameIndexLong;
+        for (int i = 0; i < frameStates.size(); i++) {
+            EffectState state = frameStates.get(i);
+            debrisCandidateWriter.dispatch(commandBuffer, state.resources, state.descriptorSets, readbackRing.writeBuffer(frameIndexLong), set0, frameIndex, 0.8f, 5.0f);
+            if (state.firstDebrisFrame < 0L) {
+                state.firstDebrisFrame = frameIndexLong;
+            }
+        }
+        for (int i = 0; i < effects.size(); i++) {
+            EffectState state = effects.valueAt(i);
+            if (state.resources != null) {
+                hotReloader.tick(state.resources, frameIndexLong);
+            }
+        }
+    }
+
+    /**
+     * One gather / update / sort / cull pass over the active effects.
+     */
+    private void simulateStep(
+        List<VfxHandle> activeEffects,
+        float deltaTime,
+        long commandBuffer,
+        long set0,
+        long frameIndexLong,
+        float[] frustum,
+        float[] cameraPos
+    ) {
+        int frameIndex = (int) frameIndexLong;
+        lastCulledEffectCount = 0;
+        simulatedEffectTotal = 0;
+        // One tree query marks every effect whose bounds touch the frustum. Bounds only shrink
+        // during simulate, so the marks stay conservative for the whole pass.
+        cullPass++;
+        effectTree.queryFrustum(frustum, markVisible);
+
+        // Gather: per-effect host work, and every effect queued into its batch.
+        // LOD tiers and camera distances for every effect in one batched pass.
+        lodStates.clear();
+        lodBatch.clear();
         for (VfxHandle handle : activeEffects) {
-            EffectState state = effects.get(handle.id());
-            if (state == null || state.resources == null || state.descriptorSets == null) {
+            EffectState state = resolve(handle);
+            if (state == null || state.resources == null || state.descriptorSets == null
+                || state.gatheredPass == cullPass) {
+                continue;
+            }
+            state.gatheredPass = cullPass;
+            lodStates.add(state);
+            lodBatch.add(
+                state.lodTable,
+                state.transform[12], state.transform[13], state.transform[14],
+                state.bounds.radius(),
+                state.lodTier
+            );
+        }
+        lodBatch.evaluate(cameraX, cameraY, cameraZ, projectionScale, lodPolicy);
+
+        // Gather: per-effect host work, and every effect queued into its batch.
+        batchedDispatcher.begin();
+        frameStates.clear();
+        for (int lodIndex = 0; lodIndex < lodStates.size(); lodIndex++) {
+            EffectState state = lodStates.get(lodIndex);
+            // Sleeping effects keep their GPU state untouched and draw nothing. The alive count is
+            // only an upper estimate here, so just the distance rule applies.
+            if (EmitterSleepPolicy.sleepsByDistance(state.descriptor.lod(), lodBatch.distance(lodIndex))) {
+                state.lastDrawInstanceCount = 0;
+                state.ageSeconds += deltaTime;
                 continue;
             }
-
             VulkanVfxEffectResources resources = state.resources;
-            VulkanVfxDescriptorSets sets = state.descriptorSets;
+            int maxParticles = resources.config().maxParticles();
 
             VulkanVfxIndirectWriter.resetIndirectCommand(commandBuffer, resources);
-            retireStage.dispatch(commandBuffer, resources, sets, set0, frameIndex);
-            VulkanVfxRetireStage.insertPostRetireBarrier(commandBuffer);
+            // The tier's simulation scale caps live particles at that fraction of the capacity.
+            int lodLimit = (int) Math.ceil(maxParticles * lodBatch.simulationScale(lodIndex));
+            int freeSlots = Math.max(0, lodLimit - state.aliveCount);
+            state.lodTier = lodBatch.tier(lodIndex);
+            state.spawnCount = state.spawnScheduler.computeSpawnCount(
+                state.descriptor.rate(),
+                deltaTime,
+                freeSlots,
+                lodBatch.emissionScale(lodIndex)
+            );
+            if (bufferOps != null) {
+                simulateStage.uploadForces(commandBuffer, resources, state.descriptor.forces(), bufferOps);
+            }
+            state.bounds.advance(deltaTime);
+            refit(state);
+            state.ageSeconds += deltaTime;
+
+            // Off-screen effects skip sort and cull; the indirect command reset above draws nothing.
+            boolean visible = state.visiblePass == cullPass;
+            budgetAllocator.updateImportance(state.allocationId, importance(state, visible));
+            state.cullReference = batchedDispatcher.add(
+                maxParticles,
+                resources.config().needsSort(),
+                state.arenaOffset,
+                state.handle.id(),
+                state.spawnCount,
+                state.seed,
+                visible
+            );
+            state.simulatedPass = cullPass;
+            simulatedEffectTotal++;
+            frameStates.add(state);
+        }
 
-            int freeSlots = Math.max(0, resources.config().maxParticles() - state.aliveCount);
-            int spawnCount = spawnScheduler.computeSpawnCount(state.descriptor.rate(), deltaTime, freeSlots);
-            emitStage.dispatch(commandBuffer, resources, sets, set0, frameIndex, spawnCount, state.seed, handle.id());
-            VulkanVfxEmitStage.insertPostEmitBarrier(commandBuffer);
+        batchedDispatcher.recordUpdate(commandBuffer, set0, frameIndex);
 
-            if (bufferOps != null) {
-                simulateStage.dispatch(commandBuffer, resources, sets, set0, frameIndex, state.descriptor.forces(), bufferOps);
+        boolean sorted = false;
+        for (int i = 0; i < frameStates.size(); i++) {
+            EffectState state = frameStates.get(i);
+            if (state.cullReference < 0 || !state.resources.config().needsSort()) {
+                continue;
             }
-            VulkanVfxSimulateStage.insertPostSimulateBarrier(commandBuffer);
-
-            boolean needsSort = resources.config().needsSort();
-            if (needsSort) {
-                sortStage.dispatch(
-                    commandBuffer,
-                    resources,
-                    sets,
-                    state.descriptor.renderer().blendMode(),
-                    cameraPos,
-                    Math.max(state.aliveCount, spawnCount),
-                    frameIndex
-                );
-                VulkanVfxSortStage.insertPostSortBarrier(commandBuffer);
+            // The device streams have no host copy, so the sort runs on the GPU: a full key-gen and
+            // radix sort, or a repair of the effect's previous order while the camera holds still.
+            sortStage.dispatch(
+                commandBuffer,
+                state.resources,
+                state.descriptorSets,
+                state.descriptor.renderer().blendMode(),
+                cameraPos,
+                null,
+                state.sortHistory,
+                frameIndex
+            );
+            if (!sortStage.lastSkipped()) {
+                int maxParticles = state.resources.config().maxParticles();
+                VfxComputeStage stage = sortStage.lastIncremental() ? VfxComputeStage.SORT_REPAIR : VfxComputeStage.SORT;
+                gpuCommandAdapter.dispatch(commandBuffer, stage, VulkanVfxSortStage.groupCount(maxParticles));
+                sorted = true;
             }
+        }
+        if (sorted) {
+            VulkanVfxSortStage.insertPostSortBarrier(commandBuffer);
+            gpuCommandAdapter.barrier(commandBuffer, VfxComputeStage.SORT);
+        }
 
-            cullCompactStage.dispatch(commandBuffer, resources, sets, set0, frameIndex, needsSort, frustum);
-            VulkanVfxCullCompactStage.insertPostCullBarrier(commandBuffer);
-            debrisCandidateWriter.dispatch(commandBuffer, resources, sets, readbackRing.writeBuffer(frameIndexLong), set0, frameIndex, 0.8f, 5.0f);
-            hotReloader.tick(resources, frameIndexLong);
+        batchedDispatcher.recordCull(commandBuffer, set0, frameIndex, frustum);
 
-            state.aliveCount = Math.min(resources.config().maxParticles(), Math.max(0, state.aliveCount + spawnCount));
-            state.lastDrawInstanceCount = cullCompactStage.lastInstanceCount();
+        for (int i = 0; i < frameStates.size(); i++) {
+            EffectState state = frameStates.get(i);
+            VulkanVfxEffectResources resources = state.resources;
+            if (state.cullReference < 0) {
+                lastCulledEffectCount++;
+            }
+            int instances = batchedDispatcher.instanceCount(state.cullReference);
+            int alive = Math.min(resources.config().maxParticles(), Math.max(0, state.aliveCount + state.spawnCount));
+            int drawn = Math.min(alive, instances);
+            aliveParticleTotal += alive - state.aliveCount;
+            culledParticleTotal += (alive - drawn) - state.culledCount;
+            state.aliveCount = alive;
+            state.culledCount = alive - drawn;
+            state.lastDrawInstanceCount = instances;
         }
     }
 
@@ -171,7 +366,7 @@ public final class VulkanVfxService implements VfxService {
         VfxIndirectCommandSink out = ctx.indirectCommandSink();
         int slot = 0;
         for (VfxHandle handle : activeEffects) {
-            EffectState state = effects.get(handle.id());
+            EffectState state = resolve(handle);
             if (state == null || state.resources == null) {
                 continue;
             }
@@ -181,28 +376,47 @@ public final class VulkanVfxService implements VfxService {
 
     @Override
     public VfxHandle spawn(ParticleEmitterDescriptor descriptor, float[] transform) {
+        return spawn(descriptor, transform, budgetAllocator.root());
+    }
+
+    /**
+     * Spawns against one budget pool (see {@link VfxBudgetAllocator#addPool}), so e.g. weather
+     * cannot starve combat feedback of its guaranteed particles.
+     */
+    public VfxHandle spawn(ParticleEmitterDescriptor descriptor, float[] transform, VfxBudgetPool pool) {
         Objects.requireNonNull(descriptor, "descriptor");
+        float[] origin = normalizedTransform(transform);
+        spawnBounds.configure(descriptor);
+        spawnBounds.resetTo(origin[12], origin[13], origin[14]);
+        // Visibility is unknown until the next cull, so a spawn is scored as on-screen.
         VfxBudgetAllocation allocation = budgetAllocator.allocate(
-            VfxBudgetAllocator.DEFAULT_GLOBAL_BUDGET / 16,
+            pool,
+            VfxBufferConfig.estimateMaxParticles(descriptor),
+            importance(spawnBounds, descriptor, 0, 0.0f, true),
             this::despawnByAllocationId
         );
         if (allocation == null) {
             return null;
         }
 
-        int id = nextHandleId.getAndIncrement();
-        int generation = generationById.getOrDefault(id, 0);
-        VfxHandle handle = VfxHandle.create(id, generation, descriptor.id());
         EffectState state = new EffectState(
-            handle,
             descriptor,
-            normalizedTransform(transform),
+            origin,
             System.nanoTime(),
             allocation.allocationId(),
-            allocation.allocatedParticles()
+            allocation.allocatedParticles(),
+            allocation.arenaOffset()
+        );
+        int id = effects.insert(state);
+        mapAllocation(allocation.allocationId(), id);
+        VfxHandle handle = VfxHandle.create(id, effects.generation(id), descriptor.id());
+        state.handle = handle;
+        EffectBounds bounds = state.bounds;
+        state.proxyId = effectTree.insert(
+            bounds.minX(), bounds.minY(), bounds.minZ(),
+            bounds.maxX(), bounds.maxY(), bounds.maxZ(),
+            id
         );
-        effects.put(id, state);
-        allocationToHandle.put(allocation.allocationId(), id);
         return handle;
     }
 
@@ -211,27 +425,33 @@ public final class VulkanVfxService implements VfxService {
         if (handle == null) {
             return;
         }
-        EffectState state = effects.remove(handle.id());
-        generationById.put(handle.id(), handle.generation() + 1);
-        if (state != null && state.resources != null) {
+        EffectState state = effects.remove(handle.id(), handle.generation());
+        if (state == null) {
+            return;
+        }
+        if (state.resources != null && bufferOps != null) {
             state.resources.destroy(bufferOps, imageOps);
         }
-        if (state != null) {
-            budgetAllocator.release(state.allocationId);
-            allocationToHandle.remove(state.allocationId);
+        effectTree.remove(state.proxyId);
+        mapAllocation(state.allocationId, 0);
+        budgetAllocator.release(state.allocationId);
+        aliveParticleTotal -= state.aliveCount;
+        culledParticleTotal -= state.culledCount;
+        gpuBytesTotal -= state.gpuBytes;
+        if (state.simulatedPass == cullPass) {
+            simulatedEffectTotal--;
         }
     }
 
     @Override
     public void updateTransform(VfxHandle handle, float[] transform) {
-        if (handle == null) {
-            return;
-        }
-        EffectState state = effects.get(handle.id());
+        EffectState state = resolve(handle);
         if (state == null) {
             return;
         }
         state.transform = normalizedTransform(transform);
+        state.bounds.moveTo(state.transform[12], state.transform[13], state.transform[14]);
+        refit(state);
     }
 
     @Override
@@ -239,14 +459,13 @@ public final class VulkanVfxService implements VfxService {
         this.physicsHandoff = handoff;
     }
 
+    /**
+     * Sleeping counts live effects left out of the last simulate call; culled counts live
+     * particles that were not drawn last frame, whole off-screen effects included.
+     */
     @Override
     public VfxStats getStats() {
         int activeEffects = effects.size();
-        int activeParticles = effects.values().stream().mapToInt(s -> Math.max(0, s.aliveCount)).sum();
-        long gpuBytes = effects.values().stream()
-            .filter(s -> s.resources != null)
-            .mapToLong(s -> (long) s.resources.config().maxParticles() * 80L)
-            .sum();
         org.dynamisengine.vfx.vulkan.budget.VfxBudgetStats internal = budgetAllocator.stats();
         VfxBudgetStats budgetStats = new VfxBudgetStats(
             internal.totalBudget(),
@@ -257,7 +476,28 @@ public final class VulkanVfxService implements VfxService {
             internal.clampedThisFrame(),
             internal.evictedThisFrame()
         );
-        return new VfxStats(activeEffects, activeParticles, 0, 0, gpuBytes, budgetStats);
+        return new VfxStats(
+            activeEffects,
+            aliveParticleTotal,
+            Math.max(0, activeEffects - simulatedEffectTotal),
+            culledParticleTotal,
+            gpuBytesTotal,
+            budgetStats
+        );
+    }
+
+    @Override
+    public void readStats(VfxStatsSnapshot out) {
+        Objects.requireNonNull(out, "out");
+        int activeEffects = effects.size();
+        out.setCounts(
+            activeEffects,
+            aliveParticleTotal,
+            Math.max(0, activeEffects - simulatedEffectTotal),
+            culledParticleTotal,
+            gpuBytesTotal
+        );
+        budgetAllocator.readStats(out);
     }
 
     public void registerEffectResources(
@@ -269,17 +509,25 @@ public final class VulkanVfxService implements VfxService {
         Objects.requireNonNull(resources, "resources");
         Objects.requireNonNull(descriptorSets, "descriptorSets");
 
-        EffectState state = effects.get(handle.id());
+        EffectState state = resolve(handle);
         if (state == null) {
             throw new IllegalStateException("Handle not registered in service: " + handle.id());
         }
         state.resources = resources;
         state.descriptorSets = descriptorSets;
+        descriptorSets.writeAll(device, resources);
+        // Arena views live in the streams allocated up front, already counted once.
+        long bytes = resources.soaBuffers().isArenaView()
+            ? 0L
+            : (long) resources.config().maxParticles() * BYTES_PER_PARTICLE;
+        gpuBytesTotal += bytes - state.gpuBytes;
+        state.gpuBytes = bytes;
     }
 
     public void destroy() {
-        for (EffectState state : effects.values()) {
-            if (state.resources != null) {
+        for (int i = 0; i < effects.size(); i++) {
+            EffectState state = effects.valueAt(i);
+            if (state.resources != null && bufferOps != null) {
                 state.resources.destroy(bufferOps, imageOps);
             }
             if (state.descriptorSets != null) {
@@ -287,6 +535,12 @@ public final class VulkanVfxService implements VfxService {
             }
         }
         effects.clear();
+        Arrays.fill(allocationToSlot, 0);
+        effectTree.clear();
+        aliveParticleTotal = 0;
+        culledParticleTotal = 0;
+        simulatedEffectTotal = 0;
+        gpuBytesTotal = 0L;
         retireStage.destroy(device);
         emitStage.destroy(device);
         simulateStage.destroy(device);
@@ -294,6 +548,7 @@ public final class VulkanVfxService implements VfxService {
         cullCompactStage.destroy(device);
         debrisCandidateWriter.destroy(device);
         readbackRing.destroy(bufferOps);
+        particleArena.destroy(bufferOps);
         hotReloader.destroy();
         physicsHandoff = null;
     }
@@ -310,7 +565,7 @@ public final class VulkanVfxService implements VfxService {
         if (handle == null || updated == null) {
             return VfxReloadCategory.FORCES_ONLY;
         }
-        EffectState state = effects.get(handle.id());
+        EffectState state = resolve(handle);
         if (state == null) {
             return VfxReloadCategory.FORCES_ONLY;
         }
@@ -336,6 +591,9 @@ public final class VulkanVfxService implements VfxService {
             this.lastRespawnedHandle = respawned;
         } else {
             state.descriptor = updated;
+            state.lodTable = LodTierTable.compile(updated.lod());
+            state.bounds.configure(updated);
+            refit(state);
             if (state.resources != null) {
                 state.resources.updateDescriptor(updated);
             }
@@ -345,39 +603,232 @@ public final class VulkanVfxService implements VfxService {
     }
 
     public boolean isHandleAlive(VfxHandle handle) {
-        return handle != null && effects.containsKey(handle.id());
+        return resolve(handle) != null;
     }
 
     public VfxHandle lastRespawnedHandle() {
         return lastRespawnedHandle;
     }
 
+    /**
+     * Visits live effects whose bounds touch the frustum ({@code n.p + d >= 0} inside).
+     */
+    public void queryEffectsInFrustum(float[] frustumPlanes6x4, Consumer<VfxHandle> visitor) {
+        Objects.requireNonNull(visitor, "visitor");
+        effectTree.queryFrustum(frustumPlanes6x4, id -> visitor.accept(effects.getLive(id).handle));
+    }
+
+    /**
+     * Visits live effects whose bounds overlap the sphere, e.g. effects near an explosion.
+     */
+    public void queryEffectsInSphere(float x, float y, float z, float radius, Consumer<VfxHandle> visitor) {
+        Objects.requireNonNull(visitor, "visitor");
+        effectTree.querySphere(x, y, z, radius, id -> visitor.accept(effects.getLive(id).handle));
+    }
+
+    /**
+     * Visits live effects whose bounds the segment {@code origin + t*direction}, {@code t in [0, maxT]}, crosses.
+     */
+    public void raycastEffects(float[] origin, float[] direction, float maxT, Consumer<VfxHandle> visitor) {
+        Objects.requireNonNull(origin, "origin");
+        Objects.requireNonNull(direction, "direction");
+        Objects.requireNonNull(visitor, "visitor");
+        if (origin.length < 3 || direction.length < 3) {
+            throw new IllegalArgumentException("origin and direction must have 3 components");
+        }
+        effectTree.raycast(
+            origin[0], origin[1], origin[2],
+            direction[0], direction[1], direction[2],
+            maxT,
+            id -> visitor.accept(effects.getLive(id).handle)
+        );
+    }
+
+    /**
+     * Effects rejected by their bounds in the last simulate call.
+     */
+    public int lastCulledEffectCount() {
+        return lastCulledEffectCount;
+    }
+
+    /**
+     * The effect's range of the shared particle arena, for allocating its resources with
+     * {@code VulkanVfxEffectResources.allocate(handle, descriptor, particleView, ...)}; null for
+     * stale handles.
+     */
+    public VulkanVfxSoaBuffers particleView(VfxHandle handle) {
+        EffectState state = resolve(handle);
+        return state == null ? null : particleArena.view(state.arenaOffset);
+    }
+
+    /**
+     * Particles the arena compactor may move per simulate call; 0 disables compaction.
+     */
+    public void setCompactionBudget(int particlesPerFrame) {
+        if (particlesPerFrame < 0) {
+            throw new IllegalArgumentException("particlesPerFrame must be >= 0");
+        }
+        this.compactionBudget = particlesPerFrame;
+    }
+
+    /**
+     * Gameplay priority for budget eviction; any higher tier outranks every effect below it.
+     */
+    public void setPriorityTier(VfxHandle handle, int priorityTier) {
+        EffectState state = resolve(handle);
+        if (state == null) {
+            return;
+        }
+        state.priorityTier = priorityTier;
+        budgetAllocator.updateImportance(state.allocationId, importance(state, state.visiblePass == cullPass));
+    }
+
+    /**
+     * Switches to fixed-step simulation, or back to the caller's delta with null. The spawn
+     * scheduler then only ever sees whole steps, so spawn counts match across frame rates.
+     */
+    public void setFixedTimestep(FixedTimestep fixedTimestep) {
+        this.fixedTimestep = fixedTimestep;
+    }
+
+    public FixedTimestep fixedTimestep() {
+        return fixedTimestep;
+    }
+
+    /**
+     * Fraction of a fixed step not yet simulated, for render interpolation; 0 without fixed steps.
+     */
+    public float interpolationAlpha() {
+        return fixedTimestep == null ? 0.0f : fixedTimestep.alpha();
+    }
+
+    /**
+     * Metric and hysteresis for LOD tier selection; distance without hysteresis by default.
+     */
+    public void setLodPolicy(LodPolicyConfig lodPolicy) {
+        this.lodPolicy = Objects.requireNonNull(lodPolicy, "lodPolicy");
+    }
+
+    /**
+     * LOD tier the effect was simulated at last frame, or {@link LodTierTable#NO_TIER}.
+     */
+    public int lodTier(VfxHandle handle) {
+        EffectState state = resolve(handle);
+        return state == null ? LodTierTable.NO_TIER : state.lodTier;
+    }
+
+    public int lastCompactedParticles() {
+        return lastCompactedParticles;
+    }
+
+    public VulkanVfxParticleArena particleArena() {
+        return particleArena;
+    }
+
     public VfxBudgetAllocator budgetAllocator() {
         return budgetAllocator;
     }
 
     void processDebrisReadback(long frameIndex) {
         VulkanVfxDebrisReadbackBuffer readBuffer = readbackRing.readBuffer(frameIndex);
-        List<VulkanVfxDebrisCandidate> candidates = readBuffer.readCandidates(bufferOps);
+        // Test-mode rings have no device buffers behind them, only the host mirror.
+        List<VulkanVfxDebrisCandidate> candidates = bufferOps == null
+            ? readBuffer.readCandidates()
+            : readBuffer.readCandidates(bufferOps);
         if (physicsHandoff == null) {
             return;
         }
+        // Candidates carry only the slot. A slot reused since the write belongs to another effect,
+        // so the candidate is dropped unless the current occupant was already writing then.
+        long writtenFrame = frameIndex - VulkanVfxDebrisReadbackRing.READBACK_LATENCY_FRAMES;
         for (VulkanVfxDebrisCandidate candidate : candidates) {
-            EffectState effect = effects.get(candidate.emitterId());
-            float[] transform = effect == null ? DEFAULT_TRANSFORM : effect.transform;
-            physicsHandoff.onDebrisSpawn(candidate.toSpawnEvent(transform));
+            EffectState effect = effects.getLive(candidate.emitterId());
+            if (effect == null || effect.firstDebrisFrame < 0L || effect.firstDebrisFrame > writtenFrame) {
+                continue;
+            }
+            physicsHandoff.onDebrisSpawn(candidate.toSpawnEvent(effect.transform));
         }
     }
 
     private void despawnByAllocationId(int allocationId) {
-        Integer handleId = allocationToHandle.get(allocationId);
-        if (handleId == null) {
+        EffectState state = stateForAllocation(allocationId);
+        if (state != null) {
+            despawn(state.handle);
+        }
+    }
+
+    private void onArenaMove(int allocationId, int fromOffset, int toOffset, int particles) {
+        EffectState state = stateForAllocation(allocationId);
+        if (state == null) {
             return;
         }
-        EffectState state = effects.get(handleId);
+        state.arenaOffset = toOffset;
+        if (state.resources != null && state.resources.soaBuffers().isArenaView()) {
+            particleArena.recordMove(compactionCommandBuffer, fromOffset, toOffset, particles);
+            state.resources.soaBuffers().relocate(toOffset);
+            // Rebind the view's streams at the new descriptor offset.
+            state.descriptorSets.writeAll(device, state.resources);
+        }
+    }
+
+    private EffectState stateForAllocation(int allocationId) {
+        if (allocationId <= 0 || allocationId >= allocationToSlot.length) {
+            return null;
+        }
+        int slot = allocationToSlot[allocationId];
+        return slot == 0 ? null : effects.getLive(slot);
+    }
+
+    private void mapAllocation(int allocationId, int slot) {
+        if (allocationId >= allocationToSlot.length) {
+            if (slot == 0) {
+                return;
+            }
+            allocationToSlot = Arrays.copyOf(allocationToSlot, Math.max(allocationId + 1, allocationToSlot.length * 2));
+        }
+        allocationToSlot[allocationId] = slot;
+    }
+
+    private EffectState resolve(VfxHandle handle) {
+        return handle == null ? null : effects.get(handle.id(), handle.generation());
+    }
+
+    private void markVisible(int handleId) {
+        EffectState state = effects.getLive(handleId);
         if (state != null) {
-            despawn(state.handle);
+            state.visiblePass = cullPass;
+        }
+    }
+
+    private float importance(EffectState state, boolean visible) {
+        return importance(state.bounds, state.descriptor, state.priorityTier, state.ageSeconds, visible);
+    }
+
+    /**
+     * Scores an effect from its bounds as seen by the last camera: distance to the box centre,
+     * projected box height, and the time left for one-shot bursts.
+     */
+    private float importance(EffectBounds bounds, ParticleEmitterDescriptor descriptor, int tier, float age, boolean visible) {
+        float dx = (bounds.minX() + bounds.maxX()) * 0.5f - cameraX;
+        float dy = (bounds.minY() + bounds.maxY()) * 0.5f - cameraY;
+        float dz = (bounds.minZ() + bounds.maxZ()) * 0.5f - cameraZ;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        float radius = (bounds.maxY() - bounds.minY()) * 0.5f;
+        float screenSize = visible ? radius * projectionScale / Math.max(distance, Math.max(radius, 1.0e-3f)) : 0.0f;
+        float remaining = VfxImportance.PERSISTENT;
+        if (descriptor.rate() != null && descriptor.rate().mode() == EmissionMode.BURST && descriptor.init() != null) {
+            remaining = Math.max(0.0f, descriptor.init().lifetimeMaxSeconds() - age);
         }
+        return VfxImportance.score(tier, distance, screenSize, remaining);
+    }
+
+    private void refit(EffectState state) {
+        EffectBounds bounds = state.bounds;
+        effectTree.move(
+            state.proxyId,
+            bounds.minX(), bounds.minY(), bounds.minZ(),
+            bounds.maxX(), bounds.maxY(), bounds.maxZ()
+        );
     }
 
     private static float[] normalizedTransform(float[] transform) {
@@ -405,32 +856,53 @@ public final class VulkanVfxService implements VfxService {
     }
 
     private static final class EffectState {
-        private final VfxHandle handle;
+        private VfxHandle handle;
         private ParticleEmitterDescriptor descriptor;
         private final long seed;
         private final int allocationId;
         private final int grantedParticles;
+        private int arenaOffset;
         private float[] transform;
+        private final EffectBounds bounds = new EffectBounds();
+        private int proxyId = DynamicAabbTree.NULL_NODE;
+        private long visiblePass;
+        private long simulatedPass = -1L;
+        private long gatheredPass = -1L;
+        private long firstDebrisFrame = -1L;
+        private LodTierTable lodTable;
+        private int lodTier = LodTierTable.NO_TIER;
+        private final VulkanVfxSortHistory sortHistory = new VulkanVfxSortHistory();
+        // Per effect: a burst fires once and the fractional carry is the effect's own.
+        private final VulkanVfxSpawnScheduler spawnScheduler = new VulkanVfxSpawnScheduler();
+        private long gpuBytes;
 
         private VulkanVfxEffectResources resources;
         private VulkanVfxDescriptorSets descriptorSets;
         private int aliveCount;
         private int lastDrawInstanceCount;
+        private int culledCount;
+        private int spawnCount;
+        private int cullReference = -1;
+        private int priorityTier;
+        private float ageSeconds;
 
         private EffectState(
-            VfxHandle handle,
             ParticleEmitterDescriptor descriptor,
             float[] transform,
             long seed,
             int allocationId,
-            int grantedParticles
+            int grantedParticles,
+            int arenaOffset
         ) {
-            this.handle = handle;
             this.descriptor = descriptor;
+            this.lodTable = LodTierTable.compile(descriptor.lod());
             this.transform = transform;
             this.seed = seed;
             this.allocationId = allocationId;
             this.grantedParticles = grantedParticles;
+            this.arenaOffset = arenaOffset;
+            bounds.configure(descriptor);
+            bounds.resetTo(transform[12], transform[13], transform[14]);
         }
     }
 }
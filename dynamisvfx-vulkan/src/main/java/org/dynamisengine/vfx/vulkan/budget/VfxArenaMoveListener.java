@@ -0,0 +1,10 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+/**
+ * Told when compaction relocates an allocation's arena range, so its owner can copy the
+ * particle streams and repoint its views. Called before the old range is released.
+ */
+@FunctionalInterface
+public interface VfxArenaMoveListener {
+    void onMove(int allocationId, int fromOffset, int toOffset, int particles);
+}
@@ -0,0 +1,233 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+import java.util.Arrays;
+
+/**
+ * Buddy sub-allocator over a power-of-two range of particle slots. Blocks are power-of-two
+ * multiples of {@code minBlock}, so every range it hands out already satisfies
+ * {@code VfxBufferConfig.validateMaxParticles}, and freeing merges buddies back in
+ * O(log(capacity / minBlock)). Bookkeeping is flat arrays indexed by min-block unit; nothing
+ * is allocated after construction. Not thread-safe.
+ */
+public final class VfxBuddyAllocator {
+    private static final int NONE = -1;
+
+    private final int capacity;
+    private final int minBlock;
+    private final int minBlockShift;
+    private final int maxOrder;
+
+    // Per unit: order of the block starting there, NONE if the unit is not a block head.
+    private final byte[] headOrder;
+    private final boolean[] headFree;
+    private final int[] next;
+    private final int[] prev;
+    // Per order: first free block head, NONE when empty.
+    private final int[] freeHeads;
+    private int freeParticles;
+
+    public VfxBuddyAllocator(int capacity, int minBlock) {
+        if (!isPowerOfTwo(capacity) || !isPowerOfTwo(minBlock) || minBlock > capacity) {
+            throw new IllegalArgumentException(
+                "capacity and minBlock must be powers of two with minBlock <= capacity, got "
+                    + capacity + " and " + minBlock
+            );
+        }
+        this.capacity = capacity;
+        this.minBlock = minBlock;
+        this.minBlockShift = Integer.numberOfTrailingZeros(minBlock);
+        this.maxOrder = Integer.numberOfTrailingZeros(capacity) - minBlockShift;
+        int units = capacity >>> minBlockShift;
+        this.headOrder = new byte[units];
+        this.headFree = new boolean[units];
+        this.next = new int[units];
+        this.prev = new int[units];
+        this.freeHeads = new int[maxOrder + 1];
+        reset();
+    }
+
+    /**
+     * Frees everything: the arena is one free block again.
+     */
+    public void reset() {
+        Arrays.fill(headOrder, (byte) NONE);
+        Arrays.fill(headFree, false);
+        Arrays.fill(freeHeads, NONE);
+        push(0, maxOrder);
+        freeParticles = capacity;
+    }
+
+    /**
+     * Reserves a block of at least {@code particles} slots and returns its offset, or -1 when no
+     * free block is large enough.
+     */
+    public int allocate(int particles) {
+        if (particles <= 0 || particles > capacity) {
+            return NONE;
+        }
+        int order = orderFor(particles);
+        int k = order;
+        while (k <= maxOrder && freeHeads[k] == NONE) {
+            k++;
+        }
+        if (k > maxOrder) {
+            return NONE;
+        }
+        return take(freeHeads[k], k, order);
+    }
+
+    /**
+     * Like {@link #allocate(int)} but only from free space below {@code limitOffset}, taking the
+     * lowest such block; -1 when none fits. Used to move ranges toward the start of the arena.
+     */
+    public int allocateBelow(int particles, int limitOffset) {
+        if (particles <= 0 || particles > capacity) {
+            return NONE;
+        }
+        int order = orderFor(particles);
+        int limitUnit = limitOffset >>> minBlockShift;
+        int best = NONE;
+        int bestOrder = NONE;
+        for (int k = order; k <= maxOrder; k++) {
+            for (int unit = freeHeads[k]; unit != NONE; unit = next[unit]) {
+                if (unit < limitUnit && (best == NONE || unit < best)) {
+                    best = unit;
+                    bestOrder = k;
+                }
+            }
+        }
+        return best == NONE ? NONE : take(best, bestOrder, order);
+    }
+
+    /**
+     * Offset of the highest allocated block starting below {@code offset}, or -1.
+     */
+    public int previousAllocated(int offset) {
+        for (int unit = (Math.min(offset, capacity) - 1) >> minBlockShift; unit >= 0; unit--) {
+            if (headOrder[unit] != NONE && !headFree[unit]) {
+                int start = unit << minBlockShift;
+                if (start < offset) {
+                    return start;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns a block to the arena and merges it with free buddies.
+     */
+    public void free(int offset) {
+        int unit = allocatedUnit(offset);
+        int k = headOrder[unit];
+        freeParticles += blockParticles(k);
+        headOrder[unit] = (byte) NONE;
+        while (k < maxOrder) {
+            int buddy = unit ^ (1 << k);
+            if (!headFree[buddy] || headOrder[buddy] != k) {
+                break;
+            }
+            unlink(buddy, k);
+            headOrder[buddy] = (byte) NONE;
+            unit = Math.min(unit, buddy);
+            k++;
+        }
+        push(unit, k);
+    }
+
+    /**
+     * Size in particles of the allocated block at {@code offset}.
+     */
+    public int blockSize(int offset) {
+        return blockParticles(headOrder[allocatedUnit(offset)]);
+    }
+
+    /**
+     * Block size {@link #allocate(int)} would reserve for {@code particles}.
+     */
+    public int roundUp(int particles) {
+        return blockParticles(orderFor(Math.max(1, particles)));
+    }
+
+    public int largestFreeBlock() {
+        for (int k = maxOrder; k >= 0; k--) {
+            if (freeHeads[k] != NONE) {
+                return blockParticles(k);
+            }
+        }
+        return 0;
+    }
+
+    public int freeParticles() {
+        return freeParticles;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int minBlock() {
+        return minBlock;
+    }
+
+    // Splits free block (unit, k) down to the requested order, keeping the lowest part.
+    private int take(int unit, int k, int order) {
+        unlink(unit, k);
+        while (k > order) {
+            k--;
+            push(unit + (1 << k), k);
+        }
+        headOrder[unit] = (byte) order;
+        headFree[unit] = false;
+        freeParticles -= blockParticles(order);
+        return unit << minBlockShift;
+    }
+
+    private int orderFor(int particles) {
+        int units = (particles + minBlock - 1) >>> minBlockShift;
+        return 32 - Integer.numberOfLeadingZeros(units - 1);
+    }
+
+    private int blockParticles(int order) {
+        return minBlock << order;
+    }
+
+    private int allocatedUnit(int offset) {
+        int unit = offset >>> minBlockShift;
+        if (offset < 0 || offset >= capacity || (offset & (minBlock - 1)) != 0
+            || headOrder[unit] == NONE || headFree[unit]) {
+            throw new IllegalArgumentException("No allocated block at offset " + offset);
+        }
+        return unit;
+    }
+
+    private void push(int unit, int order) {
+        headOrder[unit] = (byte) order;
+        headFree[unit] = true;
+        int head = freeHeads[order];
+        next[unit] = head;
+        prev[unit] = NONE;
+        if (head != NONE) {
+            prev[head] = unit;
+        }
+        freeHeads[order] = unit;
+    }
+
+    private void unlink(int unit, int order) {
+        int n = next[unit];
+        int p = prev[unit];
+        if (p == NONE) {
+            freeHeads[order] = n;
+        } else {
+            next[p] = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        }
+        headFree[unit] = false;
+    }
+
+    private static boolean isPowerOfTwo(int value) {
+        return value > 0 && (value & (value - 1)) == 0;
+    }
+}
@@ -1,7 +1,21 @@
 package org.dynamisengine.vfx.vulkan.budget;
 
+/**
+ * A granted share of the particle budget. {@code arenaOffset} is the first slot of the range in
+ * the shared particle arena, or -1 when the allocator only counts particles; {@code poolIndex}
+ * is the {@link VfxBudgetPool#index()} it is charged to.
+ */
 public record VfxBudgetAllocation(
     int allocatedParticles,
-    int allocationId
+    int allocationId,
+    int arenaOffset,
+    int poolIndex
 ) {
+    public VfxBudgetAllocation(int allocatedParticles, int allocationId) {
+        this(allocatedParticles, allocationId, -1, 0);
+    }
+
+    public VfxBudgetAllocation(int allocatedParticles, int allocationId, int arenaOffset) {
+        this(allocatedParticles, allocationId, arenaOffset, 0);
+    }
 }
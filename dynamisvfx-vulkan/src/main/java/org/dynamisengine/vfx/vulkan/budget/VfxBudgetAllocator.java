@@ -1,23 +1,56 @@
 package org.dynamisengine.vfx.vulkan.budget;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import org.dynamisengine.vfx.api.VfxStatsSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+/**
+ * Particle budget shared by every spawning thread. The counting budget is a CAS on one counter
+ * per pool and live allocations sit in a concurrent map, so spawns and releases never block each
+ * other; EVICT_OLDEST pops victims off a FIFO queue in O(1) and IMPORTANCE off an indexed min-heap
+ * in O(log n). Arena-backed budgets serialize only the buddy allocator itself. Eviction callbacks
+ * always run after the victim has been released and outside any lock, so a callback that
+ * despawns (and releases again) is a harmless no-op.
+ *
+ * <p>Budgets can be split into a tree of {@link VfxBudgetPool}s with guarantees and caps. The
+ * policy only ever evicts inside the requesting pool; other pools lose allocations only when they
+ * have borrowed past their guarantee and a sibling reclaims it.
+ *
+ * <p>The rejected/clamped/evicted counters cover one frame: {@link #beginFrame(long)} rolls them
+ * into a {@link VfxBudgetFrameHistory} per pool and globally, and the stats report rolling
+ * p50/p95/max over those frames.
+ */
 public final class VfxBudgetAllocator {
     public static final int DEFAULT_GLOBAL_BUDGET = 1 << 20;
+    public static final String ROOT_POOL = "global";
+    public static final long NO_FRAME = -1L;
+    // Released ids left in a pool's eviction queue before it is swept.
+    private static final int EVICTION_QUEUE_SLACK = 64;
 
     private final int totalBudget;
     private final VfxBudgetPolicy policy;
-    private final AtomicInteger usedBudget = new AtomicInteger(0);
+    private final VfxBuddyAllocator ranges;
+    // Guards ranges, ownerByUnit and the map entries of arena-backed allocations.
+    private final Object arenaLock = new Object();
+    // Allocation id per arena min-block unit, valid at the head unit of each granted range.
+    private final int[] ownerByUnit;
     private final AtomicInteger nextId = new AtomicInteger(1);
-    private final LinkedHashMap<Integer, VfxBudgetAllocation> activeAllocations = new LinkedHashMap<>();
+    private final ConcurrentHashMap<Integer, VfxBudgetAllocation> activeAllocations = new ConcurrentHashMap<>();
+    private final List<VfxBudgetPool> pools = new ArrayList<>();
+    private final VfxBudgetPool root;
 
     private final AtomicInteger rejectedThisFrame = new AtomicInteger(0);
     private final AtomicInteger clampedThisFrame = new AtomicInteger(0);
     private final AtomicInteger evictedThisFrame = new AtomicInteger(0);
+    // Past frames of the three counters above; guarded by itself, as is currentFrame.
+    private final VfxBudgetFrameHistory history = new VfxBudgetFrameHistory(VfxBudgetFrameHistory.DEFAULT_FRAMES);
+    private long currentFrame = NO_FRAME;
 
     public VfxBudgetAllocator(int totalBudget, VfxBudgetPolicy policy) {
         if (totalBudget <= 0) {
@@ -25,57 +58,287 @@ public final class VfxBudgetAllocator {
         }
         this.totalBudget = totalBudget;
         this.policy = Objects.requireNonNull(policy, "policy");
+        this.ranges = null;
+        this.ownerByUnit = null;
+        this.root = createRoot();
+    }
+
+    /**
+     * Budget backed by a shared particle arena: every grant is a power-of-two range from
+     * {@code ranges}, and the budget is the arena capacity.
+     */
+    public VfxBudgetAllocator(VfxBudgetPolicy policy, VfxBuddyAllocator ranges) {
+        this.ranges = Objects.requireNonNull(ranges, "ranges");
+        this.totalBudget = ranges.capacity();
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.ownerByUnit = new int[ranges.capacity() / ranges.minBlock()];
+        this.root = createRoot();
+    }
+
+    /**
+     * Adds a pool under {@code parent}. Sibling guarantees may not add up to more than the
+     * parent's guarantee, and a cap may not exceed the parent's cap. Build the tree before
+     * allocating from it; this is not safe against concurrent allocation.
+     */
+    public VfxBudgetPool addPool(String name, VfxBudgetPool parent, int guarantee, int cap) {
+        Objects.requireNonNull(name, "name");
+        checkPool(parent);
+        if (pool(name) != null) {
+            throw new IllegalArgumentException("duplicate pool name: " + name);
+        }
+        if (guarantee < 0 || guarantee > cap) {
+            throw new IllegalArgumentException("need 0 <= guarantee <= cap, got " + guarantee + " and " + cap);
+        }
+        if (cap > parent.cap()) {
+            throw new IllegalArgumentException("cap " + cap + " exceeds parent cap " + parent.cap());
+        }
+        if (parent.childGuarantees + guarantee > parent.guarantee()) {
+            throw new IllegalArgumentException(
+                "guarantees under " + parent.name() + " would reach " + (parent.childGuarantees + guarantee)
+                    + ", above its guarantee " + parent.guarantee()
+            );
+        }
+        VfxBudgetPool pool = new VfxBudgetPool(pools.size(), name, parent, guarantee, cap);
+        parent.addChild(pool);
+        pools.add(pool);
+        return pool;
+    }
+
+    /**
+     * The whole budget; allocations without a pool are charged here.
+     */
+    public VfxBudgetPool root() {
+        return root;
+    }
+
+    /**
+     * Pool by name, or null.
+     */
+    public VfxBudgetPool pool(String name) {
+        for (VfxBudgetPool pool : pools) {
+            if (pool.name().equals(name)) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    public List<VfxBudgetPool> pools() {
+        return Collections.unmodifiableList(pools);
     }
 
-    public synchronized VfxBudgetAllocation allocate(
+    public VfxBudgetAllocation allocate(
         int requestedParticles,
         Consumer<Integer> evictionCallback
     ) {
+        return allocate(root, requestedParticles, VfxImportance.DEFAULT_SCORE, evictionCallback);
+    }
+
+    public VfxBudgetAllocation allocate(
+        int requestedParticles,
+        float importance,
+        Consumer<Integer> evictionCallback
+    ) {
+        return allocate(root, requestedParticles, importance, evictionCallback);
+    }
+
+    /**
+     * Safe from any thread. {@code importance} only matters under IMPORTANCE, where allocations
+     * of the same pool scoring no higher than it may be evicted. {@code evictionCallback} may be
+     * invoked once per victim before this returns, on the calling thread.
+     */
+    public VfxBudgetAllocation allocate(
+        VfxBudgetPool pool,
+        int requestedParticles,
+        float importance,
+        Consumer<Integer> evictionCallback
+    ) {
+        checkPool(pool);
         if (requestedParticles <= 0) {
-            rejectedThisFrame.incrementAndGet();
+            reject(pool);
             return null;
         }
         Objects.requireNonNull(evictionCallback, "evictionCallback");
+        if (ranges != null) {
+            return allocateRange(pool, requestedParticles, importance, evictionCallback);
+        }
 
-        int remaining = totalBudget - usedBudget.get();
-        if (remaining <= 0) {
-            return onExhausted(requestedParticles, evictionCallback);
+        while (true) {
+            int remaining = headroom(pool);
+            if (requestedParticles > remaining && reclaim(pool, requestedParticles, false, evictionCallback)) {
+                continue;
+            }
+            int granted = switch (policy) {
+                case REJECT -> requestedParticles <= remaining ? requestedParticles : 0;
+                case CLAMP -> Math.max(0, Math.min(requestedParticles, remaining));
+                case EVICT_OLDEST, IMPORTANCE -> requestedParticles <= remaining ? requestedParticles : -1;
+            };
+            if (granted < 0) {
+                if (evict(pool, importance, evictionCallback)) {
+                    continue;
+                }
+                // Everything left outranks the request: IMPORTANCE shrinks it to what is free.
+                granted = policy == VfxBudgetPolicy.IMPORTANCE ? Math.max(0, remaining) : 0;
+            }
+            if (granted == 0) {
+                reject(pool);
+                return null;
+            }
+            if (!reserve(pool, granted)) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (granted < requestedParticles) {
+                clamp(pool);
+            }
+            VfxBudgetAllocation allocation = new VfxBudgetAllocation(granted, nextId.getAndIncrement(), -1, pool.index());
+            activeAllocations.put(allocation.allocationId(), allocation);
+            enqueue(pool, allocation.allocationId(), importance);
+            return allocation;
         }
+    }
 
-        Integer granted = switch (policy) {
-            case REJECT -> requestedParticles <= remaining ? requestedParticles : null;
-            case CLAMP -> Math.min(requestedParticles, remaining);
-            case EVICT_OLDEST -> requestedParticles <= remaining
-                ? requestedParticles
-                : allocateWithEviction(requestedParticles, evictionCallback);
-        };
+    /**
+     * Current state of a live allocation, whose arena offset may have changed through
+     * {@link #compact(int, VfxArenaMoveListener)}; null once released.
+     */
+    public VfxBudgetAllocation allocation(int allocationId) {
+        return activeAllocations.get(allocationId);
+    }
 
-        if (granted == null || granted <= 0) {
-            rejectedThisFrame.incrementAndGet();
-            return null;
+    /**
+     * Re-scores a live allocation for IMPORTANCE eviction, e.g. once per frame as the camera
+     * moves; O(log n). Returns false for released ids or other policies.
+     */
+    public boolean updateImportance(int allocationId, float importance) {
+        VfxBudgetAllocation allocation = activeAllocations.get(allocationId);
+        if (policy != VfxBudgetPolicy.IMPORTANCE || allocation == null) {
+            return false;
         }
-        if (granted < requestedParticles) {
-            clampedThisFrame.incrementAndGet();
+        VfxImportanceQueue queue = pools.get(allocation.poolIndex()).importanceQueue;
+        synchronized (queue) {
+            return queue.update(allocationId, importance);
         }
+    }
 
-        usedBudget.addAndGet(granted);
-        VfxBudgetAllocation allocation = new VfxBudgetAllocation(granted, nextId.getAndIncrement());
-        activeAllocations.put(allocation.allocationId(), allocation);
-        return allocation;
+    /**
+     * Current importance of a live allocation, or NaN when released or not tracked.
+     */
+    public float importance(int allocationId) {
+        VfxBudgetAllocation allocation = activeAllocations.get(allocationId);
+        if (allocation == null) {
+            return Float.NaN;
+        }
+        VfxImportanceQueue queue = pools.get(allocation.poolIndex()).importanceQueue;
+        synchronized (queue) {
+            return queue.score(allocationId);
+        }
     }
 
-    public synchronized void release(int allocationId) {
-        VfxBudgetAllocation alloc = activeAllocations.remove(allocationId);
-        if (alloc != null) {
-            usedBudget.addAndGet(-alloc.allocatedParticles());
+    public void release(int allocationId) {
+        VfxBudgetAllocation allocation = claim(allocationId);
+        if (allocation == null) {
+            return;
+        }
+        VfxBudgetPool pool = pools.get(allocation.poolIndex());
+        if (policy == VfxBudgetPolicy.IMPORTANCE) {
+            synchronized (pool.importanceQueue) {
+                pool.importanceQueue.remove(allocationId);
+            }
+        } else if (tracksGrantOrder(pool)) {
+            sweepEvictionQueue(pool);
         }
     }
 
-    public synchronized VfxBudgetStats stats() {
-        return new VfxBudgetStats(
+    /**
+     * Frame boundary: the counters gathered since the previous call are recorded as that frame
+     * and start again from zero. Calling it again with the same index is a no-op, so several
+     * services may share one allocator.
+     */
+    public void beginFrame(long frameIndex) {
+        synchronized (history) {
+            if (frameIndex == currentFrame) {
+                return;
+            }
+            int rejected = rejectedThisFrame.getAndSet(0);
+            int clamped = clampedThisFrame.getAndSet(0);
+            int evicted = evictedThisFrame.getAndSet(0);
+            if (currentFrame != NO_FRAME) {
+                history.record(currentFrame, rejected, clamped, evicted);
+            }
+            for (VfxBudgetPool pool : pools) {
+                int poolRejected = pool.rejected.getAndSet(0);
+                int poolClamped = pool.clamped.getAndSet(0);
+                int poolEvicted = pool.evicted.getAndSet(0);
+                if (currentFrame != NO_FRAME) {
+                    synchronized (pool.history) {
+                        pool.history.record(currentFrame, poolRejected, poolClamped, poolEvicted);
+                    }
+                }
+            }
+            currentFrame = frameIndex;
+        }
+    }
+
+    /**
+     * Index passed to the last {@link #beginFrame(long)}, or {@link #NO_FRAME}.
+     */
+    public long currentFrame() {
+        synchronized (history) {
+            return currentFrame;
+        }
+    }
+
+    public VfxBudgetStats stats() {
+        int used = root.used();
+        synchronized (history) {
+            return new VfxBudgetStats(
+                totalBudget,
+                used,
+                totalBudget - used,
+                activeAllocations.size(),
+                rejectedThisFrame.get(),
+                clampedThisFrame.get(),
+                evictedThisFrame.get(),
+                history.pressure(VfxBudgetFrameHistory.REJECTED),
+                history.pressure(VfxBudgetFrameHistory.CLAMPED),
+                history.pressure(VfxBudgetFrameHistory.EVICTED)
+            );
+        }
+    }
+
+    /**
+     * One pool's share: total is its cap, used covers the pools below it, and the counters count
+     * requests made to this pool (evictions count where the victim lived).
+     */
+    public VfxBudgetStats stats(VfxBudgetPool pool) {
+        checkPool(pool);
+        int used = pool.used();
+        synchronized (pool.history) {
+            return new VfxBudgetStats(
+                pool.cap(),
+                used,
+                pool.cap() - used,
+                pool.liveCount.get(),
+                pool.rejected.get(),
+                pool.clamped.get(),
+                pool.evicted.get(),
+                pool.history.pressure(VfxBudgetFrameHistory.REJECTED),
+                pool.history.pressure(VfxBudgetFrameHistory.CLAMPED),
+                pool.history.pressure(VfxBudgetFrameHistory.EVICTED)
+            );
+        }
+    }
+
+    /**
+     * Allocation-free variant of {@link #stats()} for per-frame polling.
+     */
+    public void readStats(VfxStatsSnapshot out) {
+        int used = root.used();
+        out.setBudget(
             totalBudget,
-            usedBudget.get(),
-            totalBudget - usedBudget.get(),
+            used,
+            totalBudget - used,
             activeAllocations.size(),
             rejectedThisFrame.get(),
             clampedThisFrame.get(),
@@ -91,44 +354,337 @@ public final class VfxBudgetAllocator {
         return policy;
     }
 
-    private VfxBudgetAllocation onExhausted(int requestedParticles, Consumer<Integer> evictionCallback) {
-        return switch (policy) {
-            case REJECT -> {
-                rejectedThisFrame.incrementAndGet();
-                yield null;
-            }
-            case CLAMP -> {
-                rejectedThisFrame.incrementAndGet();
-                yield null;
-            }
-            case EVICT_OLDEST -> {
-                if (activeAllocations.isEmpty()) {
-                    rejectedThisFrame.incrementAndGet();
-                    yield null;
+    /**
+     * One incremental compaction step: walks granted ranges from the top of the arena down and
+     * moves each into the lowest free block below it, until {@code maxParticlesMoved} particles
+     * would be exceeded. Does nothing when the free space is already one block. Returns the
+     * number of particles moved. The listener runs under the arena lock, so a range never moves
+     * twice before its copy is recorded; it must not call back into the allocator.
+     */
+    public int compact(int maxParticlesMoved, VfxArenaMoveListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        if (ranges == null || maxParticlesMoved <= 0) {
+            return 0;
+        }
+        synchronized (arenaLock) {
+            return compactLocked(maxParticlesMoved, listener);
+        }
+    }
+
+    /**
+     * The arena ranges are granted from, or null for a counting-only budget.
+     */
+    public VfxBuddyAllocator ranges() {
+        return ranges;
+    }
+
+    private int compactLocked(int maxParticlesMoved, VfxArenaMoveListener listener) {
+        if (ranges.largestFreeBlock() == ranges.freeParticles()) {
+            return 0;
+        }
+        int moved = 0;
+        int cursor = ranges.capacity();
+        while (true) {
+            int offset = ranges.previousAllocated(cursor);
+            if (offset < 0) {
+                break;
+            }
+            cursor = offset;
+            int size = ranges.blockSize(offset);
+            if (moved + size > maxParticlesMoved) {
+                // Smaller ranges further down may still fit the budget.
+                continue;
+            }
+            int target = ranges.allocateBelow(size, offset);
+            if (target < 0) {
+                continue;
+            }
+            int allocationId = ownerByUnit[offset / ranges.minBlock()];
+            listener.onMove(allocationId, offset, target, size);
+            ranges.free(offset);
+            ownerByUnit[target / ranges.minBlock()] = allocationId;
+            activeAllocations.computeIfPresent(
+                allocationId,
+                (id, old) -> new VfxBudgetAllocation(size, id, target, old.poolIndex())
+            );
+            moved += size;
+        }
+        return moved;
+    }
+
+    private VfxBudgetAllocation allocateRange(
+        VfxBudgetPool pool,
+        int requestedParticles,
+        float importance,
+        Consumer<Integer> evictionCallback
+    ) {
+        if (requestedParticles > totalBudget && policy != VfxBudgetPolicy.CLAMP && policy != VfxBudgetPolicy.IMPORTANCE) {
+            reject(pool);
+            return null;
+        }
+        int wanted = ranges.roundUp(Math.min(requestedParticles, totalBudget));
+        boolean settle = false;
+        while (true) {
+            // Settling takes the largest power of two the pool chain still has room for.
+            int block = settle ? Math.min(wanted, Integer.highestOneBit(Math.max(0, headroom(pool)))) : wanted;
+            boolean reserved = block >= ranges.minBlock() && reserve(pool, block);
+            if (reserved) {
+                VfxBudgetAllocation allocation = null;
+                synchronized (arenaLock) {
+                    int offset = ranges.allocate(block);
+                    if (offset < 0 && settle) {
+                        // Fragmented: settle for the largest free block; the effect runs with fewer slots.
+                        int largest = ranges.largestFreeBlock();
+                        if (largest >= ranges.minBlock()) {
+                            unreserve(pool, block - largest);
+                            block = largest;
+                            offset = ranges.allocate(block);
+                        }
+                    }
+                    if (offset >= 0) {
+                        allocation = new VfxBudgetAllocation(block, nextId.getAndIncrement(), offset, pool.index());
+                        ownerByUnit[offset / ranges.minBlock()] = allocation.allocationId();
+                        activeAllocations.put(allocation.allocationId(), allocation);
+                    }
+                }
+                if (allocation != null) {
+                    if (allocation.allocatedParticles() < wanted) {
+                        clamp(pool);
+                    }
+                    enqueue(pool, allocation.allocationId(), importance);
+                    return allocation;
+                }
+                unreserve(pool, block);
+            } else if (settle && block >= ranges.minBlock()) {
+                // Lost a race on a pool counter; headroom is re-read on the next pass.
+                continue;
+            }
+            // Evict outside the lock so the callback can despawn freely, then retry.
+            if (!settle && reclaim(pool, wanted, reserved, evictionCallback)) {
+                continue;
+            }
+            if (!settle && evict(pool, importance, evictionCallback)) {
+                continue;
+            }
+            if (!settle && (policy == VfxBudgetPolicy.CLAMP || policy == VfxBudgetPolicy.IMPORTANCE)) {
+                // Nothing more to reclaim or evict: take the largest block that still fits.
+                settle = true;
+                continue;
+            }
+            reject(pool);
+            return null;
+        }
+    }
+
+    private VfxBudgetPool createRoot() {
+        VfxBudgetPool pool = new VfxBudgetPool(0, ROOT_POOL, null, totalBudget, totalBudget);
+        pools.add(pool);
+        return pool;
+    }
+
+    private void checkPool(VfxBudgetPool pool) {
+        Objects.requireNonNull(pool, "pool");
+        if (pool.index() >= pools.size() || pools.get(pool.index()) != pool) {
+            throw new IllegalArgumentException("pool " + pool.name() + " belongs to another allocator");
+        }
+    }
+
+    /**
+     * Room left along the pool chain: the tightest cap minus usage.
+     */
+    private static int headroom(VfxBudgetPool pool) {
+        int headroom = Integer.MAX_VALUE;
+        for (VfxBudgetPool p = pool; p != null; p = p.parent()) {
+            headroom = Math.min(headroom, p.cap() - p.used.get());
+        }
+        return headroom;
+    }
+
+    /**
+     * Charges {@code particles} to every pool up the chain, or to none if any cap would be
+     * exceeded.
+     */
+    private static boolean reserve(VfxBudgetPool pool, int particles) {
+        for (VfxBudgetPool p = pool; p != null; p = p.parent()) {
+            while (true) {
+                int used = p.used.get();
+                if (used + particles > p.cap()) {
+                    for (VfxBudgetPool q = pool; q != p; q = q.parent()) {
+                        q.used.addAndGet(-particles);
+                    }
+                    return false;
+                }
+                if (p.used.compareAndSet(used, used + particles)) {
+                    break;
                 }
-                evictOldest(evictionCallback);
-                yield allocate(requestedParticles, evictionCallback);
             }
+        }
+        return true;
+    }
+
+    private static void unreserve(VfxBudgetPool pool, int particles) {
+        for (VfxBudgetPool p = pool; p != null; p = p.parent()) {
+            p.used.addAndGet(-particles);
+        }
+    }
+
+    /**
+     * Pools that may lose allocations by grant order: every pool under EVICT_OLDEST, and pools
+     * with a parent otherwise, since their borrowed particles can be reclaimed.
+     */
+    private boolean tracksGrantOrder(VfxBudgetPool pool) {
+        return policy == VfxBudgetPolicy.EVICT_OLDEST || (policy != VfxBudgetPolicy.IMPORTANCE && pool.parent() != null);
+    }
+
+    private void enqueue(VfxBudgetPool pool, int allocationId, float importance) {
+        pool.liveCount.incrementAndGet();
+        if (policy == VfxBudgetPolicy.IMPORTANCE) {
+            synchronized (pool.importanceQueue) {
+                pool.importanceQueue.add(allocationId, importance);
+            }
+        } else if (tracksGrantOrder(pool)) {
+            pool.evictionQueue.offer(allocationId);
+        }
+    }
+
+    /**
+     * Removes a live allocation and gives its particles (and arena range) back; exactly one
+     * caller wins for a given id.
+     */
+    private VfxBudgetAllocation claim(int allocationId) {
+        VfxBudgetAllocation alloc;
+        if (ranges != null) {
+            synchronized (arenaLock) {
+                alloc = activeAllocations.remove(allocationId);
+                if (alloc != null) {
+                    ranges.free(alloc.arenaOffset());
+                }
+            }
+        } else {
+            alloc = activeAllocations.remove(allocationId);
+        }
+        if (alloc != null) {
+            VfxBudgetPool pool = pools.get(alloc.poolIndex());
+            unreserve(pool, alloc.allocatedParticles());
+            pool.liveCount.decrementAndGet();
+        }
+        return alloc;
+    }
+
+    private boolean evict(VfxBudgetPool pool, float importance, Consumer<Integer> evictionCallback) {
+        return switch (policy) {
+            case EVICT_OLDEST, IMPORTANCE -> evictFrom(pool, importance, evictionCallback);
+            case REJECT, CLAMP -> false;
         };
     }
 
-    private Integer allocateWithEviction(int requestedParticles, Consumer<Integer> evictionCallback) {
-        int remaining = totalBudget - usedBudget.get();
-        while (remaining < requestedParticles && !activeAllocations.isEmpty()) {
-            evictOldest(evictionCallback);
-            remaining = totalBudget - usedBudget.get();
+    /**
+     * Takes borrowed particles back for a request that its pool is guaranteed: finds the first
+     * pool up the chain that is out of room ({@code rootFull} when the arena itself is) and, if
+     * the request stays within the guarantee of the child it came through, evicts from that
+     * child's most indebted sibling. False when there is nothing to reclaim.
+     */
+    private boolean reclaim(VfxBudgetPool pool, int particles, boolean rootFull, Consumer<Integer> evictionCallback) {
+        for (VfxBudgetPool child = pool, parent = pool.parent(); parent != null; child = parent, parent = parent.parent()) {
+            if (child.used.get() + particles > child.cap()) {
+                return false;
+            }
+            boolean blocked = parent.used.get() + particles > parent.cap() || (rootFull && parent == root);
+            if (!blocked) {
+                continue;
+            }
+            if (child.used.get() + particles > child.guarantee()) {
+                return false;
+            }
+            VfxBudgetPool lender = mostBorrowed(parent, child);
+            while (lender != null) {
+                if (evictFrom(lender, Float.POSITIVE_INFINITY, evictionCallback)) {
+                    return true;
+                }
+                // The borrowed particles live further down the lender's subtree.
+                lender = mostBorrowed(lender, null);
+            }
+            return false;
         }
-        return requestedParticles <= remaining ? requestedParticles : null;
+        return false;
     }
 
-    private void evictOldest(Consumer<Integer> evictionCallback) {
-        if (activeAllocations.isEmpty()) {
+    /**
+     * Child of {@code parent} other than {@code exclude} furthest above its guarantee, or when
+     * {@code exclude} is null, the busiest child; null when none qualifies.
+     */
+    private static VfxBudgetPool mostBorrowed(VfxBudgetPool parent, VfxBudgetPool exclude) {
+        VfxBudgetPool best = null;
+        int bestScore = 0;
+        for (VfxBudgetPool sibling : parent.children()) {
+            if (sibling == exclude) {
+                continue;
+            }
+            int score = exclude == null ? sibling.used() : sibling.borrowed();
+            if (score > bestScore) {
+                best = sibling;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Releases one allocation of {@code pool} and only then tells the owner: the oldest one, or
+     * under IMPORTANCE the least important one if it scores no higher than {@code importance}
+     * (ties go to the older allocation). False when nothing qualifies.
+     */
+    private boolean evictFrom(VfxBudgetPool pool, float importance, Consumer<Integer> evictionCallback) {
+        while (true) {
+            int allocationId;
+            if (policy == VfxBudgetPolicy.IMPORTANCE) {
+                synchronized (pool.importanceQueue) {
+                    if (pool.importanceQueue.peekScore() > importance) {
+                        return false;
+                    }
+                    allocationId = pool.importanceQueue.peekId();
+                    pool.importanceQueue.remove(allocationId);
+                }
+            } else {
+                Integer queued = pool.evictionQueue.poll();
+                if (queued == null) {
+                    return false;
+                }
+                allocationId = queued;
+            }
+            if (claim(allocationId) == null) {
+                // Released earlier through release(); its queue entry was stale.
+                if (policy != VfxBudgetPolicy.IMPORTANCE) {
+                    pool.staleQueued.decrementAndGet();
+                }
+                continue;
+            }
+            evictedThisFrame.incrementAndGet();
+            pool.evicted.incrementAndGet();
+            evictionCallback.accept(allocationId);
+            return true;
+        }
+    }
+
+    /**
+     * Released ids stay queued until eviction reaches them; sweep once they outnumber the live
+     * ones so the queue stays proportional to the live set.
+     */
+    private void sweepEvictionQueue(VfxBudgetPool pool) {
+        if (pool.staleQueued.incrementAndGet() <= pool.liveCount.get() + EVICTION_QUEUE_SLACK) {
             return;
         }
-        Map.Entry<Integer, VfxBudgetAllocation> oldest = activeAllocations.entrySet().iterator().next();
-        int allocationId = oldest.getKey();
-        evictedThisFrame.incrementAndGet();
-        evictionCallback.accept(allocationId);
-        release(allocationId);
+        pool.staleQueued.set(0);
+        pool.evictionQueue.removeIf(id -> !activeAllocations.containsKey(id));
+    }
+
+    private void reject(VfxBudgetPool pool) {
+        rejectedThisFrame.incrementAndGet();
+        pool.rejected.incrementAndGet();
+    }
+
+    private void clamp(VfxBudgetPool pool) {
+        clampedThisFrame.incrementAndGet();
+        pool.clamped.incrementAndGet();
     }
 }
@@ -0,0 +1,97 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of per-frame rejected/clamped/evicted counts, oldest frames overwritten first.
+ * Not thread-safe.
+ */
+public final class VfxBudgetFrameHistory {
+    public static final int DEFAULT_FRAMES = 120;
+
+    public static final int REJECTED = 0;
+    public static final int CLAMPED = 1;
+    public static final int EVICTED = 2;
+    private static final int COUNTERS = 3;
+
+    private final int capacity;
+    // Counter c of ring cell i at [i * COUNTERS + c].
+    private final int[] counts;
+    private final long[] frameIndices;
+    private final int[] scratch;
+    private int next;
+    private int size;
+
+    public VfxBudgetFrameHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.counts = new int[capacity * COUNTERS];
+        this.frameIndices = new long[capacity];
+        this.scratch = new int[capacity];
+    }
+
+    public void record(long frameIndex, int rejected, int clamped, int evicted) {
+        int base = next * COUNTERS;
+        counts[base + REJECTED] = rejected;
+        counts[base + CLAMPED] = clamped;
+        counts[base + EVICTED] = evicted;
+        frameIndices[next] = frameIndex;
+        next = (next + 1) % capacity;
+        size = Math.min(size + 1, capacity);
+    }
+
+    /**
+     * Nearest-rank p50/p95 and max of one counter over the recorded frames.
+     */
+    public VfxBudgetPressure pressure(int counter) {
+        if (counter < 0 || counter >= COUNTERS) {
+            throw new IllegalArgumentException("unknown counter " + counter);
+        }
+        if (size == 0) {
+            return VfxBudgetPressure.NONE;
+        }
+        for (int i = 0; i < size; i++) {
+            scratch[i] = counts[i * COUNTERS + counter];
+        }
+        Arrays.sort(scratch, 0, size);
+        return new VfxBudgetPressure(rank(0.50), rank(0.95), scratch[size - 1], size);
+    }
+
+    /**
+     * Count of one counter {@code framesAgo} frames back (0 = the latest recorded frame).
+     */
+    public int count(int counter, int framesAgo) {
+        return counts[cell(framesAgo) * COUNTERS + counter];
+    }
+
+    public long frameIndex(int framesAgo) {
+        return frameIndices[cell(framesAgo)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    private int cell(int framesAgo) {
+        if (framesAgo < 0 || framesAgo >= size) {
+            throw new IllegalArgumentException("framesAgo must be in [0, " + size + "), got " + framesAgo);
+        }
+        return Math.floorMod(next - 1 - framesAgo, capacity);
+    }
+
+    private int rank(double percentile) {
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return scratch[Math.max(0, index)];
+    }
+}
@@ -3,5 +3,10 @@ package org.dynamisengine.vfx.vulkan.budget;
 public enum VfxBudgetPolicy {
     REJECT,
     CLAMP,
-    EVICT_OLDEST
+    EVICT_OLDEST,
+    /**
+     * Evicts the allocations with the lowest {@link VfxImportance} score first, as long as they
+     * score no higher than the request; otherwise the request is clamped to what is left.
+     */
+    IMPORTANCE
 }
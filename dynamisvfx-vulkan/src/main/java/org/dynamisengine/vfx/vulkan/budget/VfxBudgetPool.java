@@ -0,0 +1,91 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One node of a {@link VfxBudgetAllocator}'s pool tree (e.g. global -> {combat, ambient,
+ * weather, UI}). A pool may always grow to its {@code guarantee}; past that it borrows whatever
+ * its siblings leave unused, up to its {@code cap}. Borrowed particles are reclaimed, by evicting
+ * the borrower's allocations, as soon as a sibling needs them to reach its own guarantee.
+ * Guarantees of siblings never add up to more than their parent's, so every guarantee holds at
+ * once without partitioning memory up front.
+ */
+public final class VfxBudgetPool {
+    private final int index;
+    private final String name;
+    private final VfxBudgetPool parent;
+    private final int guarantee;
+    private final int cap;
+    private final List<VfxBudgetPool> children = new ArrayList<>();
+
+    final AtomicInteger used = new AtomicInteger(0);
+    final AtomicInteger liveCount = new AtomicInteger(0);
+    final AtomicInteger rejected = new AtomicInteger(0);
+    final AtomicInteger clamped = new AtomicInteger(0);
+    final AtomicInteger evicted = new AtomicInteger(0);
+    // Past frames of the three counters above; guarded by itself.
+    final VfxBudgetFrameHistory history = new VfxBudgetFrameHistory(VfxBudgetFrameHistory.DEFAULT_FRAMES);
+    // Victim order inside this pool: grant order, or importance under IMPORTANCE (guarded by itself).
+    final ConcurrentLinkedQueue<Integer> evictionQueue = new ConcurrentLinkedQueue<>();
+    final AtomicInteger staleQueued = new AtomicInteger(0);
+    final VfxImportanceQueue importanceQueue = new VfxImportanceQueue();
+    int childGuarantees;
+
+    VfxBudgetPool(int index, String name, VfxBudgetPool parent, int guarantee, int cap) {
+        this.index = index;
+        this.name = name;
+        this.parent = parent;
+        this.guarantee = guarantee;
+        this.cap = cap;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Parent pool, or null for the allocator's root.
+     */
+    public VfxBudgetPool parent() {
+        return parent;
+    }
+
+    public List<VfxBudgetPool> children() {
+        return Collections.unmodifiableList(children);
+    }
+
+    public int guarantee() {
+        return guarantee;
+    }
+
+    public int cap() {
+        return cap;
+    }
+
+    /**
+     * Particles granted to this pool and every pool below it.
+     */
+    public int used() {
+        return used.get();
+    }
+
+    /**
+     * Particles above the guarantee, i.e. borrowed from siblings; 0 when within it.
+     */
+    public int borrowed() {
+        return Math.max(0, used.get() - guarantee);
+    }
+
+    void addChild(VfxBudgetPool child) {
+        children.add(child);
+        childGuarantees += child.guarantee;
+    }
+}
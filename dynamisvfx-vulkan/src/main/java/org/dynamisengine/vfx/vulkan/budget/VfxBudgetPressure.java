@@ -0,0 +1,13 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+/**
+ * Rolling distribution of one per-frame budget counter over the last {@code frames} frames.
+ */
+public record VfxBudgetPressure(
+    int p50,
+    int p95,
+    int max,
+    int frames
+) {
+    public static final VfxBudgetPressure NONE = new VfxBudgetPressure(0, 0, 0, 0);
+}
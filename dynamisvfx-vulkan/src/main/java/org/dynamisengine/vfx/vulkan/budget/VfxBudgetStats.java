@@ -1,5 +1,9 @@
 package org.dynamisengine.vfx.vulkan.budget;
 
+/**
+ * Budget state; the {@code ThisFrame} counters cover the frame since the last
+ * {@link VfxBudgetAllocator#beginFrame(long)} and the histories the frames before it.
+ */
 public record VfxBudgetStats(
     int totalBudget,
     int usedBudget,
@@ -7,6 +11,31 @@ public record VfxBudgetStats(
     int activeEffectCount,
     int rejectedThisFrame,
     int clampedThisFrame,
-    int evictedThisFrame
+    int evictedThisFrame,
+    VfxBudgetPressure rejectedHistory,
+    VfxBudgetPressure clampedHistory,
+    VfxBudgetPressure evictedHistory
 ) {
+    public VfxBudgetStats(
+        int totalBudget,
+        int usedBudget,
+        int remainingBudget,
+        int activeEffectCount,
+        int rejectedThisFrame,
+        int clampedThisFrame,
+        int evictedThisFrame
+    ) {
+        this(
+            totalBudget,
+            usedBudget,
+            remainingBudget,
+            activeEffectCount,
+            rejectedThisFrame,
+            clampedThisFrame,
+            evictedThisFrame,
+            VfxBudgetPressure.NONE,
+            VfxBudgetPressure.NONE,
+            VfxBudgetPressure.NONE
+        );
+    }
 }
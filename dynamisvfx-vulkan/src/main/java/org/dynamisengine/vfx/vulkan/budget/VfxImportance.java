@@ -0,0 +1,37 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+/**
+ * Importance score used by {@link VfxBudgetPolicy#IMPORTANCE}. The priority tier dominates:
+ * every tier step outweighs any combination of the other terms. Within a tier, effects that are
+ * near, cover more of the screen and will live longer score higher, so a persistent on-screen
+ * campfire outranks a shower of short-lived sparks off-screen.
+ */
+public final class VfxImportance {
+    // Passed as remaining lifetime for looping or externally driven effects.
+    public static final float PERSISTENT = -1.0f;
+    // Distance at which the nearness term has dropped to one half.
+    public static final float REFERENCE_DISTANCE = 25.0f;
+    // Remaining lifetime at which the persistence term has reached one half.
+    public static final float REFERENCE_LIFETIME_SECONDS = 2.0f;
+    // Larger than the maximum of (nearness + coverage) * (0.5 + persistence) = 3.
+    public static final float TIER_STEP = 4.0f;
+    public static final float DEFAULT_SCORE = score(0, REFERENCE_DISTANCE, 0.0f, PERSISTENT);
+
+    private VfxImportance() {
+    }
+
+    /**
+     * @param priorityTier gameplay tier, higher is more important
+     * @param distance camera distance in world units
+     * @param screenSize projected height as a fraction of the viewport height, 0 when off-screen
+     * @param remainingLifetimeSeconds seconds until the effect ends, or {@link #PERSISTENT}
+     */
+    public static float score(int priorityTier, float distance, float screenSize, float remainingLifetimeSeconds) {
+        float nearness = 1.0f / (1.0f + Math.max(0.0f, distance) / REFERENCE_DISTANCE);
+        float coverage = Math.max(0.0f, Math.min(1.0f, screenSize));
+        float persistence = remainingLifetimeSeconds < 0.0f
+            ? 1.0f
+            : remainingLifetimeSeconds / (remainingLifetimeSeconds + REFERENCE_LIFETIME_SECONDS);
+        return priorityTier * TIER_STEP + (nearness + coverage) * (0.5f + persistence);
+    }
+}
@@ -0,0 +1,139 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Indexed binary min-heap of allocation ids by importance score, ties broken towards the older
+ * (lower) id. Each entry knows its heap position, so re-scoring or removing an id is
+ * O(log n) instead of a linear search. Not thread-safe.
+ */
+final class VfxImportanceQueue {
+    private final HashMap<Integer, Entry> entries = new HashMap<>();
+    private Entry[] heap = new Entry[16];
+    private int size;
+
+    void add(int allocationId, float score) {
+        if (entries.containsKey(allocationId)) {
+            update(allocationId, score);
+            return;
+        }
+        Entry entry = new Entry(allocationId, score);
+        entries.put(allocationId, entry);
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        entry.index = size;
+        heap[size++] = entry;
+        siftUp(entry.index);
+    }
+
+    boolean update(int allocationId, float score) {
+        Entry entry = entries.get(allocationId);
+        if (entry == null) {
+            return false;
+        }
+        float old = entry.score;
+        entry.score = score;
+        if (score < old) {
+            siftUp(entry.index);
+        } else {
+            siftDown(entry.index);
+        }
+        return true;
+    }
+
+    boolean remove(int allocationId) {
+        Entry entry = entries.remove(allocationId);
+        if (entry == null) {
+            return false;
+        }
+        int index = entry.index;
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (index != size) {
+            heap[index] = last;
+            last.index = index;
+            siftDown(index);
+            siftUp(last.index);
+        }
+        return true;
+    }
+
+    /**
+     * Least important id, or -1 when empty.
+     */
+    int peekId() {
+        return size == 0 ? -1 : heap[0].allocationId;
+    }
+
+    /**
+     * Score of the least important id, or {@code Float.POSITIVE_INFINITY} when empty.
+     */
+    float peekScore() {
+        return size == 0 ? Float.POSITIVE_INFINITY : heap[0].score;
+    }
+
+    /**
+     * Score of an id, or NaN when it is not queued.
+     */
+    float score(int allocationId) {
+        Entry entry = entries.get(allocationId);
+        return entry == null ? Float.NaN : entry.score;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(entry, heap[parent])) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!less(heap[child], entry)) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(Entry entry, int index) {
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    private static boolean less(Entry a, Entry b) {
+        return a.score < b.score || (a.score == b.score && a.allocationId < b.allocationId);
+    }
+
+    private static final class Entry {
+        final int allocationId;
+        float score;
+        int index;
+
+        Entry(int allocationId, float score) {
+            this.allocationId = allocationId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.dynamisengine.vfx.vulkan.compute;
+
+import org.dynamisengine.vfx.vulkan.internal.gpu.VfxComputeStage;
+import org.dynamisengine.vfx.vulkan.internal.gpu.VfxGpuCommandAdapter;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Records the retire/emit/simulate and cull stages for a whole frame of effects: effects are
+ * grouped by {@link VulkanVfxEffectBatch#key(int, boolean)}, each group becomes one dispatch per
+ * stage over its packed effect table, and each stage ends with a single barrier instead of one
+ * per effect.
+ */
+public final class VulkanVfxBatchedDispatcher {
+    // Cull references pack the batch index above the entry index.
+    private static final int ENTRY_BITS = 20;
+    private static final int ENTRY_MASK = (1 << ENTRY_BITS) - 1;
+
+    private final VulkanVfxRetireStage retireStage;
+    private final VulkanVfxEmitStage emitStage;
+    private final VulkanVfxSimulateStage simulateStage;
+    private final VulkanVfxCullCompactStage cullCompactStage;
+    private final VfxGpuCommandAdapter adapter;
+    private final BatchGroup updateBatches = new BatchGroup();
+    private final BatchGroup cullBatches = new BatchGroup();
+
+    public VulkanVfxBatchedDispatcher(
+        VulkanVfxRetireStage retireStage,
+        VulkanVfxEmitStage emitStage,
+        VulkanVfxSimulateStage simulateStage,
+        VulkanVfxCullCompactStage cullCompactStage,
+        VfxGpuCommandAdapter adapter
+    ) {
+        this.retireStage = Objects.requireNonNull(retireStage, "retireStage");
+        this.emitStage = Objects.requireNonNull(emitStage, "emitStage");
+        this.simulateStage = Objects.requireNonNull(simulateStage, "simulateStage");
+        this.cullCompactStage = Objects.requireNonNull(cullCompactStage, "cullCompactStage");
+        this.adapter = Objects.requireNonNull(adapter, "adapter");
+    }
+
+    public void begin() {
+        updateBatches.begin();
+        cullBatches.begin();
+    }
+
+    /**
+     * Queues an effect for this frame. Returns a reference for {@link #instanceCount(int)} when the
+     * effect is visible and goes through cull, or -1.
+     */
+    public int add(
+        int maxParticles,
+        boolean sorted,
+        int arenaOffset,
+        int descriptorIndex,
+        int spawnCount,
+        long seed,
+        boolean visible
+    ) {
+        int key = VulkanVfxEffectBatch.key(maxParticles, sorted);
+        int flags = sorted ? VulkanVfxEffectBatch.FLAG_SORTED : 0;
+        updateBatches.batchFor(key).add(maxParticles, arenaOffset, descriptorIndex, spawnCount, seed, flags);
+        if (!visible) {
+            return -1;
+        }
+        int batchIndex = cullBatches.indexFor(key);
+        int entry = cullBatches.batches[batchIndex].add(maxParticles, arenaOffset, descriptorIndex, 0, seed, flags);
+        if (entry > ENTRY_MASK) {
+            throw new IllegalStateException("Too many effects in one batch: " + entry);
+        }
+        return (batchIndex << ENTRY_BITS) | entry;
+    }
+
+    /**
+     * Records RETIRE, EMIT and SIMULATE for every queued effect, one barrier per stage.
+     */
+    public void recordUpdate(long commandBuffer, long set0, int frameIndex) {
+        int count = updateBatches.count;
+        if (count == 0) {
+            return;
+        }
+        VulkanVfxEffectBatch[] batches = updateBatches.batches;
+        for (int i = 0; i < count; i++) {
+            adapter.dispatch(commandBuffer, VfxComputeStage.RETIRE, retireStage.dispatchBatch(commandBuffer, batches[i], set0, frameIndex));
+        }
+        VulkanVfxRetireStage.insertPostRetireBarrier(commandBuffer);
+        adapter.barrier(commandBuffer, VfxComputeStage.RETIRE);
+
+        boolean emitted = false;
+        for (int i = 0; i < count; i++) {
+            int groups = emitStage.dispatchBatch(commandBuffer, batches[i], set0, frameIndex);
+            if (groups > 0) {
+                adapter.dispatch(commandBuffer, VfxComputeStage.EMIT, groups);
+                emitted = true;
+            }
+        }
+        if (emitted) {
+            VulkanVfxEmitStage.insertPostEmitBarrier(commandBuffer);
+            adapter.barrier(commandBuffer, VfxComputeStage.EMIT);
+        }
+
+        for (int i = 0; i < count; i++) {
+            adapter.dispatch(commandBuffer, VfxComputeStage.SIMULATE, simulateStage.dispatchBatch(commandBuffer, batches[i], set0, frameIndex));
+        }
+        VulkanVfxSimulateStage.insertPostSimulateBarrier(commandBuffer);
+        adapter.barrier(commandBuffer, VfxComputeStage.SIMULATE);
+    }
+
+    /**
+     * Records CULL_COMPACT for every visible effect, then one barrier before indirect draws.
+     */
+    public void recordCull(long commandBuffer, long set0, int frameIndex, float[] frustumPlanes6x4) {
+        int count = cullBatches.count;
+        if (count == 0) {
+            return;
+        }
+        VulkanVfxEffectBatch[] batches = cullBatches.batches;
+        for (int i = 0; i < count; i++) {
+            adapter.dispatch(
+                commandBuffer,
+                VfxComputeStage.CULL_COMPACT,
+                cullCompactStage.dispatchBatch(commandBuffer, batches[i], set0, frameIndex, frustumPlanes6x4)
+            );
+        }
+        VulkanVfxCullCompactStage.insertPostCullBarrier(commandBuffer);
+        adapter.barrier(commandBuffer, VfxComputeStage.CULL_COMPACT);
+    }
+
+    /**
+     * Instances left after cull for a reference returned by {@link #add}.
+     */
+    public int instanceCount(int cullReference) {
+        if (cullReference < 0) {
+            return 0;
+        }
+        return cullBatches.batches[cullReference >>> ENTRY_BITS].instanceCount(cullReference & ENTRY_MASK);
+    }
+
+    public int updateBatchCount() {
+        return updateBatches.count;
+    }
+
+    public int cullBatchCount() {
+        return cullBatches.count;
+    }
+
+    public VulkanVfxEffectBatch updateBatch(int index) {
+        Objects.checkIndex(index, updateBatches.count);
+        return updateBatches.batches[index];
+    }
+
+    private static final class BatchGroup {
+        // Few distinct keys per frame, so a linear scan beats hashing; batches are reused across frames.
+        private VulkanVfxEffectBatch[] batches = new VulkanVfxEffectBatch[4];
+        private int count;
+
+        private void begin() {
+            count = 0;
+        }
+
+        private VulkanVfxEffectBatch batchFor(int key) {
+            return batches[indexFor(key)];
+        }
+
+        private int indexFor(int key) {
+            for (int i = 0; i < count; i++) {
+                if (batches[i].key() == key) {
+                    return i;
+                }
+            }
+            if (count == batches.length) {
+                batches = Arrays.copyOf(batches, count * 2);
+            }
+            if (batches[count] == null) {
+                batches[count] = new VulkanVfxEffectBatch();
+            }
+            batches[count].reset(key);
+            return count++;
+        }
+    }
+}
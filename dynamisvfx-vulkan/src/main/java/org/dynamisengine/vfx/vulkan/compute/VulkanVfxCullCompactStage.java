@@ -13,6 +13,7 @@ public final class VulkanVfxCullCompactStage {
     private static final int LOCAL_SIZE_X = 256;
 
     private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline;
+    private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline;
 
     private int lastDispatchGroupCount;
     private int lastInstanceCount;
@@ -20,8 +21,12 @@ public final class VulkanVfxCullCompactStage {
     private long lastBoundSet1;
     private long lastBoundSet3;
 
-    private VulkanVfxCullCompactStage(VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline) {
+    private VulkanVfxCullCompactStage(
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline,
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline
+    ) {
         this.pipeline = pipeline;
+        this.batchPipeline = batchPipeline;
     }
 
     public static VulkanVfxCullCompactStage create(
@@ -44,7 +49,14 @@ public final class VulkanVfxCullCompactStage {
             pushConstantBytes
         );
 
-        return new VulkanVfxCullCompactStage(handles);
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchHandles = VulkanVfxComputePipelineUtil.create(
+            device,
+            VfxCullCompactShaderSource.BATCHED_GLSL,
+            setLayouts,
+            pushConstantBytes
+        );
+
+        return new VulkanVfxCullCompactStage(handles, batchHandles);
     }
 
     public void dispatch(
@@ -82,6 +94,45 @@ public final class VulkanVfxCullCompactStage {
         this.lastInstanceCount = useSortedIndices ? Math.max(0, maxParticles / 2) : maxParticles;
     }
 
+    /**
+     * One dispatch over every effect in {@code batch}; fills each entry's instance count and
+     * returns the group count.
+     */
+    public int dispatchBatch(
+        long commandBuffer,
+        VulkanVfxEffectBatch batch,
+        long set0,
+        int frameIndex,
+        float[] frustumPlanes6x4
+    ) {
+        if (commandBuffer == 0L) {
+            throw new IllegalArgumentException("commandBuffer must be non-zero");
+        }
+        Objects.requireNonNull(batch, "batch");
+        validateFrustum(frustumPlanes6x4);
+
+        int groups = (batch.totalParticles() + LOCAL_SIZE_X - 1) / LOCAL_SIZE_X;
+
+        // Placeholder for real Vulkan dispatch:
+        // vkCmdBindPipeline(COMPUTE, batchPipeline)
+        // vkCmdBindDescriptorSets(set0 + effect table, whole-arena set1, set3 descriptor arrays for frameIndex)
+        // vkCmdPushConstants(batch.totalParticles(), batch.size(), frustumPlanes)
+        // vkCmdDispatch(groups, 1, 1)
+        this.lastDispatchGroupCount = groups;
+        this.lastBoundSet0 = set0;
+
+        // Same placeholder visibility model as the per-effect dispatch.
+        int lastCount = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            int maxParticles = batch.get(i, VulkanVfxEffectBatch.PARTICLE_COUNT);
+            boolean sorted = (batch.get(i, VulkanVfxEffectBatch.FLAGS) & VulkanVfxEffectBatch.FLAG_SORTED) != 0;
+            lastCount = sorted ? Math.max(0, maxParticles / 2) : maxParticles;
+            batch.setInstanceCount(i, lastCount);
+        }
+        this.lastInstanceCount = lastCount;
+        return groups;
+    }
+
     public int dispatchWithMockAliveCount(
         long commandBuffer,
         int aliveCount,
@@ -117,6 +168,7 @@ public final class VulkanVfxCullCompactStage {
 
     public void destroy(long device) {
         VulkanVfxComputePipelineUtil.destroy(device, pipeline);
+        VulkanVfxComputePipelineUtil.destroy(device, batchPipeline);
         lastDispatchGroupCount = 0;
         lastInstanceCount = 0;
         lastBoundSet0 = 0L;
@@ -0,0 +1,154 @@
+package org.dynamisengine.vfx.vulkan.compute;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Packed effect table for one batched dispatch: effects that share a pipeline and buffer class
+ * are laid end to end in a virtual particle range, and each shader invocation finds its effect
+ * by searching the {@link #PARTICLE_OFFSET} column, then addresses the shared particle arena at
+ * {@link #ARENA_OFFSET}. The descriptor index doubles as the emitter id. Entries are
+ * {@link #ENTRY_INTS} ints (std430-compatible) so the table uploads as-is.
+ */
+public final class VulkanVfxEffectBatch {
+    public static final int ENTRY_INTS = 8;
+    public static final int ENTRY_BYTES = ENTRY_INTS * Integer.BYTES;
+
+    public static final int PARTICLE_OFFSET = 0;
+    public static final int PARTICLE_COUNT = 1;
+    public static final int ARENA_OFFSET = 2;
+    public static final int DESCRIPTOR_INDEX = 3;
+    public static final int SPAWN_OFFSET = 4;
+    public static final int SPAWN_COUNT = 5;
+    public static final int SEED = 6;
+    public static final int FLAGS = 7;
+
+    public static final int FLAG_SORTED = 1;
+
+    private int key;
+    private int[] table = new int[16 * ENTRY_INTS];
+    private int[] instanceCounts = new int[16];
+    private int size;
+    private int totalParticles;
+    private int totalSpawnCount;
+
+    /**
+     * Batch key: effects with equal keys run the same pipeline over buffers of the same
+     * power-of-two capacity class.
+     */
+    public static int key(int maxParticles, boolean sorted) {
+        int capacityClass = 32 - Integer.numberOfLeadingZeros(Math.max(1, maxParticles) - 1);
+        return (capacityClass << 1) | (sorted ? FLAG_SORTED : 0);
+    }
+
+    void reset(int key) {
+        this.key = key;
+        size = 0;
+        totalParticles = 0;
+        totalSpawnCount = 0;
+    }
+
+    /**
+     * Appends an effect and returns its entry index.
+     */
+    public int add(int particleCount, int arenaOffset, int descriptorIndex, int spawnCount, long seed, int flags) {
+        if (particleCount < 0 || spawnCount < 0 || arenaOffset < 0) {
+            throw new IllegalArgumentException("particleCount, arenaOffset and spawnCount must be >= 0");
+        }
+        if (size == instanceCounts.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+            instanceCounts = Arrays.copyOf(instanceCounts, instanceCounts.length * 2);
+        }
+        int o = size * ENTRY_INTS;
+        table[o + PARTICLE_OFFSET] = totalParticles;
+        table[o + PARTICLE_COUNT] = particleCount;
+        table[o + ARENA_OFFSET] = arenaOffset;
+        table[o + DESCRIPTOR_INDEX] = descriptorIndex;
+        table[o + SPAWN_OFFSET] = totalSpawnCount;
+        table[o + SPAWN_COUNT] = spawnCount;
+        table[o + SEED] = (int) (seed ^ (seed >>> 32));
+        table[o + FLAGS] = flags;
+        instanceCounts[size] = 0;
+        totalParticles += particleCount;
+        totalSpawnCount += spawnCount;
+        return size++;
+    }
+
+    public int get(int entry, int field) {
+        return table[entryOffset(entry) + field];
+    }
+
+    /**
+     * Entry owning virtual particle {@code particle}, found as the batched shaders do.
+     */
+    public int entryForParticle(int particle) {
+        return search(PARTICLE_OFFSET, particle);
+    }
+
+    /**
+     * Entry owning spawn {@code spawn} of the batch, found as the batched emit shader does.
+     */
+    public int entryForSpawn(int spawn) {
+        return search(SPAWN_OFFSET, spawn);
+    }
+
+    /**
+     * Writes the table little-endian into {@code out} for upload; needs {@code size() * ENTRY_BYTES} bytes.
+     */
+    public void writeTo(ByteBuffer out) {
+        for (int i = 0, n = size * ENTRY_INTS; i < n; i++) {
+            out.putInt(table[i]);
+        }
+    }
+
+    public int key() {
+        return key;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int totalParticles() {
+        return totalParticles;
+    }
+
+    public int totalSpawnCount() {
+        return totalSpawnCount;
+    }
+
+    public int instanceCount(int entry) {
+        entryOffset(entry);
+        return instanceCounts[entry];
+    }
+
+    void setInstanceCount(int entry, int count) {
+        instanceCounts[entry] = count;
+    }
+
+    // Last entry whose column is <= value; the offset columns are running sums, so an empty
+    // entry loses to the next one starting at the same offset.
+    private int search(int column, int value) {
+        if (size == 0) {
+            throw new IllegalStateException("Batch is empty");
+        }
+        int lo = 0;
+        int hi = size - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (table[mid * ENTRY_INTS + column] <= value) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private int entryOffset(int entry) {
+        if (entry < 0 || entry >= size) {
+            throw new IndexOutOfBoundsException("entry " + entry + " out of range [0, " + size + ")");
+        }
+        return entry * ENTRY_INTS;
+    }
+}
@@ -10,6 +10,7 @@ import org.dynamisengine.vfx.vulkan.shader.VfxEmitShaderSource;
 import org.lwjgl.vulkan.VK10;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -18,15 +19,23 @@ public final class VulkanVfxEmitStage {
     private static final int LOCAL_SIZE_X = 256;
 
     private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline;
+    private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline;
     private final Map<Integer, Integer> uploadedDescriptorHashes = new HashMap<>();
+    // Reused for every upload; packed bytes go straight in without an intermediate array.
+    private final ByteBuffer descriptorStaging = ByteBuffer.allocateDirect(PackedEmitterDescriptor.SIZE_BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
 
     private int lastDispatchGroupCount;
     private long lastBoundSet0;
     private long lastBoundSet1;
     private long lastBoundSet2;
 
-    private VulkanVfxEmitStage(VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline) {
+    private VulkanVfxEmitStage(
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline,
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline
+    ) {
         this.pipeline = pipeline;
+        this.batchPipeline = batchPipeline;
     }
 
     public static VulkanVfxEmitStage create(
@@ -49,7 +58,14 @@ public final class VulkanVfxEmitStage {
             Integer.BYTES * 4
         );
 
-        return new VulkanVfxEmitStage(handles);
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchHandles = VulkanVfxComputePipelineUtil.create(
+            device,
+            VfxEmitShaderSource.BATCHED_GLSL,
+            setLayouts,
+            Integer.BYTES * 3
+        );
+
+        return new VulkanVfxEmitStage(handles, batchHandles);
     }
 
     public void dispatch(
@@ -90,6 +106,30 @@ public final class VulkanVfxEmitStage {
         }
     }
 
+    /**
+     * One dispatch over the spawn requests of every effect in {@code batch}; returns the group
+     * count, 0 when nothing spawns.
+     */
+    public int dispatchBatch(long commandBuffer, VulkanVfxEffectBatch batch, long set0, int frameIndex) {
+        Objects.requireNonNull(batch, "batch");
+        if (batch.totalSpawnCount() <= 0) {
+            return 0;
+        }
+        if (commandBuffer == 0L) {
+            throw new IllegalArgumentException("commandBuffer must be non-zero");
+        }
+        int groups = (batch.totalSpawnCount() + LOCAL_SIZE_X - 1) / LOCAL_SIZE_X;
+
+        // Placeholder for real Vulkan calls:
+        // vkCmdBindPipeline(COMPUTE, batchPipeline)
+        // vkCmdBindDescriptorSets(set0 + effect table, whole-arena set1, set2 descriptor arrays for frameIndex)
+        // vkCmdPushConstants(batch.totalSpawnCount(), batch.size(), frameIndex)
+        // vkCmdDispatch(groups, 1, 1)
+        this.lastDispatchGroupCount = groups;
+        this.lastBoundSet0 = set0;
+        return groups;
+    }
+
     public void uploadEmitterDescriptor(
         long commandBuffer,
         VulkanVfxEffectResources resources,
@@ -103,14 +143,16 @@ public final class VulkanVfxEmitStage {
         Objects.requireNonNull(packed, "packed");
         Objects.requireNonNull(memoryOps, "memoryOps");
 
-        int descriptorHash = java.util.Arrays.hashCode(packed.data());
+        int descriptorHash = packed.contentHash();
         Integer existing = uploadedDescriptorHashes.get(resources.handle().id());
         if (existing != null && existing == descriptorHash) {
             return;
         }
 
         // Placeholder: stage packed descriptor bytes into EmitterDescriptorBuffer.
-        ByteBuffer upload = ByteBuffer.wrap(packed.data());
+        ByteBuffer upload = descriptorStaging.clear();
+        packed.writeTo(upload);
+        upload.flip();
         if (upload.remaining() != PackedEmitterDescriptor.SIZE_BYTES) {
             throw new IllegalStateException("Packed descriptor size mismatch");
         }
@@ -147,6 +189,7 @@ public final class VulkanVfxEmitStage {
 
     public void destroy(long device) {
         VulkanVfxComputePipelineUtil.destroy(device, pipeline);
+        VulkanVfxComputePipelineUtil.destroy(device, batchPipeline);
         uploadedDescriptorHashes.clear();
     }
 
@@ -154,6 +197,10 @@ public final class VulkanVfxEmitStage {
         return pipeline;
     }
 
+    public VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline() {
+        return batchPipeline;
+    }
+
     public int lastDispatchGroupCount() {
         return lastDispatchGroupCount;
     }
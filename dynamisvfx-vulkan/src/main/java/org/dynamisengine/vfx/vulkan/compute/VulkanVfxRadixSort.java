@@ -7,8 +7,25 @@ import org.dynamisengine.vfx.vulkan.shader.VfxRadixScatterShaderSource;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * Host mirror of the GPU histogram / prefix / scatter radix sort: stable LSD over unsigned
+ * 32-bit keys, eight bits per pass. All scratch is allocated up front, passes whose digit is
+ * the same for every key are skipped, and above {@link #PARALLEL_THRESHOLD} keys histogram and
+ * scatter run per chunk on a fork/join pool with results identical to the serial path.
+ */
 public final class VulkanVfxRadixSort {
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int RADIX = 256;
+    private static final int PASSES = 4;
+    private static final int PHASE_COUNT_ALL = 0;
+    private static final int PHASE_COUNT_PASS = 1;
+    private static final int PHASE_SCATTER = 2;
+
     private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles histogramPipeline;
     private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles prefixPipeline;
     private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles scatterPipeline;
@@ -18,15 +35,38 @@ public final class VulkanVfxRadixSort {
     private final int[] keysPong;
     private final int[] indicesPing;
     private final int[] indicesPong;
+    private final int[] digitCounts = new int[PASSES * RADIX];
+    private final int[] offsets = new int[RADIX];
+
+    private final ForkJoinPool pool;
+    private final int chunkCount;
+    // Per chunk: PASSES * RADIX digit counts, then RADIX scatter offsets for the current pass.
+    private final int[] chunkCounts;
+    private final int[] chunkOffsets;
+    private final ChunkTask[] chunkTasks;
+    private final RootTask rootTask;
 
-    private int[] sortedKeys = new int[0];
-    private int[] sortedIndices = new int[0];
+    // Shared with chunk tasks; published by fork/join invoke.
+    private int phase;
+    private int shift;
+    private int pass;
+    private int count;
+    private int[] srcKeys;
+    private int[] srcIndices;
+    private int[] dstKeys;
+    private int[] dstIndices;
+
+    private int[] resultKeys;
+    private int[] resultIndices;
+    private int sortedCount;
+    private int lastPassCount;
 
     private VulkanVfxRadixSort(
         VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles histogramPipeline,
         VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles prefixPipeline,
         VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles scatterPipeline,
-        int maxParticles
+        int maxParticles,
+        ForkJoinPool pool
     ) {
         this.histogramPipeline = histogramPipeline;
         this.prefixPipeline = prefixPipeline;
@@ -36,10 +76,35 @@ public final class VulkanVfxRadixSort {
         this.keysPong = new int[maxParticles];
         this.indicesPing = new int[maxParticles];
         this.indicesPong = new int[maxParticles];
+        this.resultKeys = keysPing;
+        this.resultIndices = indicesPing;
+
+        this.pool = pool;
+        this.chunkCount = maxParticles > PARALLEL_THRESHOLD ? Math.max(1, pool.getParallelism()) : 0;
+        this.chunkCounts = new int[chunkCount * PASSES * RADIX];
+        this.chunkOffsets = new int[chunkCount * RADIX];
+        this.chunkTasks = new ChunkTask[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            chunkTasks[c] = new ChunkTask(c);
+        }
+        this.rootTask = new RootTask();
     }
 
     public static VulkanVfxRadixSort create(long device, VulkanVfxDescriptorSetLayout layout, int maxParticles) {
+        return create(device, layout, maxParticles, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool runs the chunked path for sorts above {@link #PARALLEL_THRESHOLD} keys
+     */
+    public static VulkanVfxRadixSort create(
+        long device,
+        VulkanVfxDescriptorSetLayout layout,
+        int maxParticles,
+        ForkJoinPool pool
+    ) {
         Objects.requireNonNull(layout, "layout");
+        Objects.requireNonNull(pool, "pool");
         if (maxParticles <= 0) {
             throw new IllegalArgumentException("maxParticles must be > 0");
         }
@@ -72,7 +137,7 @@ public final class VulkanVfxRadixSort {
             Integer.BYTES * 2
         );
 
-        return new VulkanVfxRadixSort(histogram, prefix, scatter, maxParticles);
+        return new VulkanVfxRadixSort(histogram, prefix, scatter, maxParticles, pool);
     }
 
     public void sort(long commandBuffer, int particleCount) {
@@ -83,9 +148,7 @@ public final class VulkanVfxRadixSort {
             throw new IllegalArgumentException("particleCount must be in [0, maxParticles]");
         }
 
-        radixSort(keysPing, indicesPing, particleCount);
-        sortedKeys = Arrays.copyOf(keysPing, particleCount);
-        sortedIndices = Arrays.copyOf(indicesPing, particleCount);
+        radixSort(particleCount);
     }
 
     public void loadInputs(int[] keys, int[] indices, int particleCount) {
@@ -97,11 +160,41 @@ public final class VulkanVfxRadixSort {
     }
 
     public int[] sortedKeys() {
-        return Arrays.copyOf(sortedKeys, sortedKeys.length);
+        return Arrays.copyOf(resultKeys, sortedCount);
     }
 
     public int[] sortedIndices() {
-        return Arrays.copyOf(sortedIndices, sortedIndices.length);
+        return Arrays.copyOf(resultIndices, sortedCount);
+    }
+
+    /**
+     * Copies the last result into {@code out}, which must hold {@link #sortedCount()} entries.
+     */
+    public void copySortedKeys(int[] out) {
+        System.arraycopy(resultKeys, 0, out, 0, sortedCount);
+    }
+
+    public void copySortedIndices(int[] out) {
+        System.arraycopy(resultIndices, 0, out, 0, sortedCount);
+    }
+
+    public int sortedKey(int i) {
+        return resultKeys[i];
+    }
+
+    public int sortedIndex(int i) {
+        return resultIndices[i];
+    }
+
+    public int sortedCount() {
+        return sortedCount;
+    }
+
+    /**
+     * Scatter passes run by the last sort; uniform digits are skipped.
+     */
+    public int lastPassCount() {
+        return lastPassCount;
     }
 
     public void destroy(long device) {
@@ -112,49 +205,153 @@ public final class VulkanVfxRadixSort {
         Arrays.fill(keysPong, 0);
         Arrays.fill(indicesPing, 0);
         Arrays.fill(indicesPong, 0);
-        sortedKeys = new int[0];
-        sortedIndices = new int[0];
-    }
-
-    private void radixSort(int[] keys, int[] indices, int count) {
-        int[] inKeys = keys;
-        int[] outKeys = keysPong;
-        int[] inIndices = indices;
-        int[] outIndices = indicesPong;
-
-        for (int pass = 0; pass < 4; pass++) {
-            int shift = pass * 8;
-            int[] histogram = new int[256];
-            for (int i = 0; i < count; i++) {
-                int bucket = (inKeys[i] >>> shift) & 0xFF;
-                histogram[bucket]++;
+        resultKeys = keysPing;
+        resultIndices = indicesPing;
+        sortedCount = 0;
+        lastPassCount = 0;
+    }
+
+    private void radixSort(int n) {
+        count = n;
+        srcKeys = keysPing;
+        srcIndices = indicesPing;
+        dstKeys = keysPong;
+        dstIndices = indicesPong;
+        lastPassCount = 0;
+
+        boolean parallel = n > PARALLEL_THRESHOLD && chunkCount > 1;
+        if (parallel) {
+            runPhase(PHASE_COUNT_ALL);
+            Arrays.fill(digitCounts, 0);
+            for (int c = 0; c < chunkCount; c++) {
+                int base = c * PASSES * RADIX;
+                for (int i = 0; i < PASSES * RADIX; i++) {
+                    digitCounts[i] += chunkCounts[base + i];
+                }
             }
+        } else {
+            countAllDigits(srcKeys, 0, n, digitCounts, 0);
+        }
 
-            int[] prefix = new int[256];
-            int running = 0;
-            for (int i = 0; i < 256; i++) {
-                prefix[i] = running;
-                running += histogram[i];
+        for (pass = 0; pass < PASSES && n > 0; pass++) {
+            shift = pass * 8;
+            int histogram = pass * RADIX;
+            // One bucket holding every key means the pass would be the identity permutation.
+            if (digitCounts[histogram + ((srcKeys[0] >>> shift) & 0xFF)] == n) {
+                continue;
             }
 
-            for (int i = 0; i < count; i++) {
-                int key = inKeys[i];
-                int bucket = (key >>> shift) & 0xFF;
-                int pos = prefix[bucket]++;
-                outKeys[pos] = key;
-                outIndices[pos] = inIndices[i];
+            if (parallel) {
+                // Chunk counts from the first phase describe the original order only.
+                if (lastPassCount > 0) {
+                    runPhase(PHASE_COUNT_PASS);
+                }
+                int running = 0;
+                for (int b = 0; b < RADIX; b++) {
+                    for (int c = 0; c < chunkCount; c++) {
+                        chunkOffsets[c * RADIX + b] = running;
+                        running += chunkCounts[c * PASSES * RADIX + histogram + b];
+                    }
+                }
+                runPhase(PHASE_SCATTER);
+            } else {
+                int running = 0;
+                for (int b = 0; b < RADIX; b++) {
+                    offsets[b] = running;
+                    running += digitCounts[histogram + b];
+                }
+                scatter(srcKeys, srcIndices, dstKeys, dstIndices, 0, n, shift, offsets, 0);
             }
+            lastPassCount++;
+
+            int[] tmpKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmpKeys;
+            int[] tmpIndices = srcIndices;
+            srcIndices = dstIndices;
+            dstIndices = tmpIndices;
+        }
+
+        resultKeys = srcKeys;
+        resultIndices = srcIndices;
+        sortedCount = n;
+    }
+
+    private void runPhase(int nextPhase) {
+        phase = nextPhase;
+        rootTask.reinitialize();
+        for (ChunkTask task : chunkTasks) {
+            task.reinitialize();
+        }
+        if (ForkJoinTask.getPool() == pool) {
+            rootTask.invoke();
+        } else {
+            pool.invoke(rootTask);
+        }
+    }
+
+    private static void countAllDigits(int[] keys, int from, int to, int[] counts, int base) {
+        Arrays.fill(counts, base, base + PASSES * RADIX, 0);
+        for (int i = from; i < to; i++) {
+            int key = keys[i];
+            counts[base + (key & 0xFF)]++;
+            counts[base + RADIX + ((key >>> 8) & 0xFF)]++;
+            counts[base + 2 * RADIX + ((key >>> 16) & 0xFF)]++;
+            counts[base + 3 * RADIX + (key >>> 24)]++;
+        }
+    }
 
-            int[] tmpKeys = inKeys;
-            inKeys = outKeys;
-            outKeys = tmpKeys;
+    private static void scatter(
+        int[] inKeys,
+        int[] inIndices,
+        int[] outKeys,
+        int[] outIndices,
+        int from,
+        int to,
+        int shift,
+        int[] offsets,
+        int base
+    ) {
+        for (int i = from; i < to; i++) {
+            int key = inKeys[i];
+            int pos = offsets[base + ((key >>> shift) & 0xFF)]++;
+            outKeys[pos] = key;
+            outIndices[pos] = inIndices[i];
+        }
+    }
 
-            int[] tmpIndices = inIndices;
-            inIndices = outIndices;
-            outIndices = tmpIndices;
+    @SuppressWarnings("serial")
+    private final class RootTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            invokeAll(chunkTasks);
         }
+    }
 
-        System.arraycopy(inKeys, 0, keysPing, 0, count);
-        System.arraycopy(inIndices, 0, indicesPing, 0, count);
+    @SuppressWarnings("serial")
+    private final class ChunkTask extends RecursiveAction {
+        private final int chunk;
+
+        private ChunkTask(int chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            int from = (int) ((long) count * chunk / chunkCount);
+            int to = (int) ((long) count * (chunk + 1) / chunkCount);
+            int base = chunk * PASSES * RADIX;
+            switch (phase) {
+                case PHASE_COUNT_ALL -> countAllDigits(srcKeys, from, to, chunkCounts, base);
+                case PHASE_COUNT_PASS -> {
+                    int histogram = base + pass * RADIX;
+                    Arrays.fill(chunkCounts, histogram, histogram + RADIX, 0);
+                    for (int i = from; i < to; i++) {
+                        chunkCounts[histogram + ((srcKeys[i] >>> shift) & 0xFF)]++;
+                    }
+                }
+                default -> scatter(srcKeys, srcIndices, dstKeys, dstIndices, from, to, shift, chunkOffsets, chunk * RADIX);
+            }
+        }
     }
 }
@@ -12,6 +12,7 @@ public final class VulkanVfxRetireStage {
     private static final int LOCAL_SIZE_X = 256;
 
     private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline;
+    private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline;
 
     private int lastDispatchGroupCount;
     private long lastBoundCommandBuffer;
@@ -19,8 +20,12 @@ public final class VulkanVfxRetireStage {
     private long lastBoundSet1;
     private long lastBoundSet2;
 
-    private VulkanVfxRetireStage(VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline) {
+    private VulkanVfxRetireStage(
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline,
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline
+    ) {
         this.pipeline = pipeline;
+        this.batchPipeline = batchPipeline;
     }
 
     public static VulkanVfxRetireStage create(
@@ -42,7 +47,14 @@ public final class VulkanVfxRetireStage {
             Integer.BYTES
         );
 
-        return new VulkanVfxRetireStage(handles);
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchHandles = VulkanVfxComputePipelineUtil.create(
+            device,
+            VfxRetireShaderSource.BATCHED_GLSL,
+            setLayouts,
+            Integer.BYTES * 2
+        );
+
+        return new VulkanVfxRetireStage(handles, batchHandles);
     }
 
     public void dispatch(
@@ -73,6 +85,27 @@ public final class VulkanVfxRetireStage {
         this.lastBoundSet2 = descriptorSets.set2(frameIndex);
     }
 
+    /**
+     * One dispatch over every effect in {@code batch}; returns the group count (0 when empty).
+     */
+    public int dispatchBatch(long commandBuffer, VulkanVfxEffectBatch batch, long set0, int frameIndex) {
+        if (commandBuffer == 0L) {
+            throw new IllegalArgumentException("commandBuffer must be non-zero");
+        }
+        Objects.requireNonNull(batch, "batch");
+        int groups = (batch.totalParticles() + LOCAL_SIZE_X - 1) / LOCAL_SIZE_X;
+
+        // Placeholder for real Vulkan calls:
+        // vkCmdBindPipeline(COMPUTE, batchPipeline)
+        // vkCmdBindDescriptorSets(set0 + effect table, whole-arena set1, set2 descriptor arrays for frameIndex)
+        // vkCmdPushConstants(batch.totalParticles(), batch.size())
+        // vkCmdDispatch(groups, 1, 1)
+        this.lastDispatchGroupCount = groups;
+        this.lastBoundCommandBuffer = commandBuffer;
+        this.lastBoundSet0 = set0;
+        return groups;
+    }
+
     public static void insertPostRetireBarrier(long commandBuffer) {
         if (commandBuffer == 0L) {
             throw new IllegalArgumentException("commandBuffer must be non-zero");
@@ -92,12 +125,17 @@ public final class VulkanVfxRetireStage {
 
     public void destroy(long device) {
         VulkanVfxComputePipelineUtil.destroy(device, pipeline);
+        VulkanVfxComputePipelineUtil.destroy(device, batchPipeline);
     }
 
     public VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline() {
         return pipeline;
     }
 
+    public VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline() {
+        return batchPipeline;
+    }
+
     public int lastDispatchGroupCount() {
         return lastDispatchGroupCount;
     }
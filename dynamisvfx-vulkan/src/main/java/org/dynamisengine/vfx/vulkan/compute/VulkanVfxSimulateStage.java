@@ -14,7 +14,6 @@ import org.lwjgl.vulkan.VK10;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,7 +23,10 @@ public final class VulkanVfxSimulateStage {
     private static final int LOCAL_SIZE_X = 256;
 
     private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline;
+    private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline;
     private final Map<Integer, Integer> uploadedForceHashes = new HashMap<>();
+    private final ByteBuffer forceStaging = ByteBuffer.allocateDirect(Integer.BYTES * 4 + PackedForceBuffer.SIZE_BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
 
     private int lastDispatchGroupCount;
     private long lastBoundSet0;
@@ -33,8 +35,12 @@ public final class VulkanVfxSimulateStage {
     private float lastNoiseWorldScale;
     private float lastNoiseStrength;
 
-    private VulkanVfxSimulateStage(VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline) {
+    private VulkanVfxSimulateStage(
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles pipeline,
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline
+    ) {
         this.pipeline = pipeline;
+        this.batchPipeline = batchPipeline;
     }
 
     public static VulkanVfxSimulateStage create(
@@ -57,7 +63,14 @@ public final class VulkanVfxSimulateStage {
             Integer.BYTES + Float.BYTES + Float.BYTES
         );
 
-        return new VulkanVfxSimulateStage(handles);
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchHandles = VulkanVfxComputePipelineUtil.create(
+            device,
+            VfxSimulateShaderSource.BATCHED_GLSL,
+            setLayouts,
+            Integer.BYTES * 2
+        );
+
+        return new VulkanVfxSimulateStage(handles, batchHandles);
     }
 
     public void dispatch(
@@ -82,7 +95,7 @@ public final class VulkanVfxSimulateStage {
         int maxParticles = resources.config().maxParticles();
         int groups = (maxParticles + LOCAL_SIZE_X - 1) / LOCAL_SIZE_X;
         NoiseForceConfig noiseCfg = findNoiseConfig(forces);
-        float noiseWorldScale = resources.noiseFieldConfig() == null ? 100.0f : resources.noiseFieldConfig().worldScale();
+        float noiseWorldScale = noiseWorldScale(resources);
         float noiseStrength = noiseCfg == null ? 0.0f : noiseCfg.amplitude();
 
         // Placeholder for real Vulkan calls:
@@ -98,11 +111,65 @@ public final class VulkanVfxSimulateStage {
         this.lastNoiseStrength = noiseStrength;
     }
 
+    /**
+     * One dispatch over every effect in {@code batch}; per-effect forces and noise come from the
+     * force buffers selected by each entry's descriptor index. Returns the group count.
+     */
+    public int dispatchBatch(long commandBuffer, VulkanVfxEffectBatch batch, long set0, int frameIndex) {
+        if (commandBuffer == 0L) {
+            throw new IllegalArgumentException("commandBuffer must be non-zero");
+        }
+        Objects.requireNonNull(batch, "batch");
+        int groups = (batch.totalParticles() + LOCAL_SIZE_X - 1) / LOCAL_SIZE_X;
+
+        // Placeholder for real Vulkan calls:
+        // vkCmdBindPipeline(COMPUTE, batchPipeline)
+        // vkCmdBindDescriptorSets(set0 + effect table, whole-arena set1, set2 descriptor arrays for frameIndex)
+        // vkCmdPushConstants(batch.totalParticles(), batch.size())
+        // vkCmdDispatch(groups, 1, 1)
+        this.lastDispatchGroupCount = groups;
+        this.lastBoundSet0 = set0;
+        return groups;
+    }
+
+    /**
+     * Packs and uploads an effect's forces without dispatching, for the batched path. The noise
+     * scale and strength go into the buffer header, where the batched shader reads them.
+     */
+    public void uploadForces(
+        long commandBuffer,
+        VulkanVfxEffectResources resources,
+        List<ForceDescriptor> forces,
+        VulkanBufferOps memoryOps
+    ) {
+        Objects.requireNonNull(resources, "resources");
+        NoiseForceConfig noiseCfg = findNoiseConfig(forces);
+        writeForceBuffer(
+            commandBuffer,
+            resources,
+            VulkanForceFieldPacker.pack(forces),
+            noiseWorldScale(resources),
+            noiseCfg == null ? 0.0f : noiseCfg.amplitude(),
+            memoryOps
+        );
+    }
+
     public void uploadForceBuffer(
         long commandBuffer,
         VulkanVfxEffectResources resources,
         PackedForceBuffer packed,
         VulkanBufferOps memoryOps
+    ) {
+        writeForceBuffer(commandBuffer, resources, packed, 0.0f, 0.0f, memoryOps);
+    }
+
+    private void writeForceBuffer(
+        long commandBuffer,
+        VulkanVfxEffectResources resources,
+        PackedForceBuffer packed,
+        float noiseWorldScale,
+        float noiseStrength,
+        VulkanBufferOps memoryOps
     ) {
         if (commandBuffer == 0L) {
             throw new IllegalArgumentException("commandBuffer must be non-zero");
@@ -111,19 +178,19 @@ public final class VulkanVfxSimulateStage {
         Objects.requireNonNull(packed, "packed");
         Objects.requireNonNull(memoryOps, "memoryOps");
 
-        int hash = Arrays.hashCode(packed.data()) ^ packed.forceCount();
+        int hash = 31 * (31 * (packed.contentHash() ^ packed.forceCount()) + Float.floatToIntBits(noiseWorldScale))
+            + Float.floatToIntBits(noiseStrength);
         Integer existing = uploadedForceHashes.get(resources.handle().id());
         if (existing != null && existing == hash) {
             return;
         }
 
-        ByteBuffer upload = ByteBuffer.allocateDirect(Integer.BYTES * 4 + PackedForceBuffer.SIZE_BYTES)
-            .order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer upload = forceStaging.clear();
         upload.putInt(packed.forceCount());
+        upload.putFloat(noiseWorldScale);
+        upload.putFloat(noiseStrength);
         upload.putInt(0);
-        upload.putInt(0);
-        upload.putInt(0);
-        upload.put(packed.data());
+        packed.writeTo(upload);
         upload.flip();
 
         // Placeholder: stage upload buffer into ForceFieldBuffer.
@@ -151,6 +218,7 @@ public final class VulkanVfxSimulateStage {
 
     public void destroy(long device) {
         VulkanVfxComputePipelineUtil.destroy(device, pipeline);
+        VulkanVfxComputePipelineUtil.destroy(device, batchPipeline);
         uploadedForceHashes.clear();
     }
 
@@ -158,6 +226,10 @@ public final class VulkanVfxSimulateStage {
         return pipeline;
     }
 
+    public VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles batchPipeline() {
+        return batchPipeline;
+    }
+
     public int lastDispatchGroupCount() {
         return lastDispatchGroupCount;
     }
@@ -182,6 +254,10 @@ public final class VulkanVfxSimulateStage {
         return lastNoiseStrength;
     }
 
+    private static float noiseWorldScale(VulkanVfxEffectResources resources) {
+        return resources.noiseFieldConfig() == null ? 100.0f : resources.noiseFieldConfig().worldScale();
+    }
+
     private static NoiseForceConfig findNoiseConfig(List<ForceDescriptor> forces) {
         if (forces == null) {
             return null;
@@ -0,0 +1,94 @@
+package org.dynamisengine.vfx.vulkan.compute;
+
+/**
+ * The previous back-to-front order of one effect and the camera it was keyed for. Each effect
+ * owns one, so a shared {@link VulkanVfxSortStage} only repairs an order against the same
+ * effect's particles. A device history holds no host order: the order stays in the effect's
+ * index buffer and only the camera and the repairs since the last full sort are tracked.
+ */
+public final class VulkanVfxSortHistory {
+    private boolean valid;
+    private boolean onDevice;
+    private int deviceRepairs;
+    private boolean depthMode;
+    private float camX;
+    private float camY;
+    private float camZ;
+    private float fwdX;
+    private float fwdY;
+    private float fwdZ;
+    private int[] order;
+    private int count;
+
+    public boolean hasPrevious() {
+        return valid;
+    }
+
+    public void invalidate() {
+        valid = false;
+        count = 0;
+    }
+
+    boolean matches(int count, float camX, float camY, float camZ, boolean depthMode, float fwdX, float fwdY, float fwdZ) {
+        if (!valid || onDevice || count != this.count || depthMode != this.depthMode || !cameraNear(camX, camY, camZ)) {
+            return false;
+        }
+        return !depthMode || fwdX * this.fwdX + fwdY * this.fwdY + fwdZ * this.fwdZ >= VulkanVfxSortStage.COHERENT_FORWARD_DOT;
+    }
+
+    boolean matchesDevice(int count, float camX, float camY, float camZ) {
+        return valid && onDevice && count == this.count
+            && deviceRepairs < VulkanVfxSortStage.DEVICE_FULL_SORT_INTERVAL
+            && cameraNear(camX, camY, camZ);
+    }
+
+    int orderAt(int i) {
+        return order[i];
+    }
+
+    void remember(int[] sortedIndices, int count, float camX, float camY, float camZ, boolean depthMode, float fwdX, float fwdY, float fwdZ) {
+        if (order == null || order.length < count) {
+            order = new int[count];
+        }
+        System.arraycopy(sortedIndices, 0, order, 0, count);
+        this.count = count;
+        this.valid = true;
+        this.onDevice = false;
+        this.depthMode = depthMode;
+        this.camX = camX;
+        this.camY = camY;
+        this.camZ = camZ;
+        this.fwdX = fwdX;
+        this.fwdY = fwdY;
+        this.fwdZ = fwdZ;
+    }
+
+    /**
+     * Records a full device sort of {@code count} slots keyed by squared distance.
+     */
+    void rememberDevice(int count, float camX, float camY, float camZ) {
+        this.count = count;
+        this.valid = true;
+        this.onDevice = true;
+        this.deviceRepairs = 0;
+        this.depthMode = false;
+        this.camX = camX;
+        this.camY = camY;
+        this.camZ = camZ;
+    }
+
+    void repairedOnDevice(float camX, float camY, float camZ) {
+        deviceRepairs++;
+        this.camX = camX;
+        this.camY = camY;
+        this.camZ = camZ;
+    }
+
+    private boolean cameraNear(float camX, float camY, float camZ) {
+        float dx = camX - this.camX;
+        float dy = camY - this.camY;
+        float dz = camZ - this.camZ;
+        float limit = VulkanVfxSortStage.COHERENT_CAMERA_DISTANCE;
+        return dx * dx + dy * dy + dz * dz <= limit * limit;
+    }
+}
@@ -5,25 +5,61 @@ import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
 import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSets;
 import org.dynamisengine.vfx.vulkan.resources.VulkanVfxEffectResources;
 import org.dynamisengine.vfx.vulkan.shader.VfxSortKeyGenShaderSource;
+import org.dynamisengine.vfx.vulkan.shader.VfxSortRepairShaderSource;
 import org.lwjgl.vulkan.VK10;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Objects;
 
+/**
+ * Back-to-front ordering for alpha-blended effects. Keys are sortable bits of the squared camera
+ * distance, or of view-space depth when a forward axis is given, so ascending key order is
+ * ascending distance; dead slots get key 0. Each effect's {@link VulkanVfxSortHistory} keeps its
+ * last order and, while the camera stays put, that order is re-keyed and repaired with a bounded
+ * insertion pass instead of a full radix sort. Without host positions the same holds on the
+ * device: the index buffer is re-keyed in place and repaired with {@link #DEVICE_REPAIR_PASSES}
+ * odd-even transposition passes, with a full sort at least every
+ * {@link #DEVICE_FULL_SORT_INTERVAL} frames to bound what the repair leaves out of order.
+ */
 public final class VulkanVfxSortStage {
+    public static final float COHERENT_CAMERA_DISTANCE = 0.05f;
+    public static final int INCREMENTAL_MOVES_PER_KEY = 4;
+    public static final int DEVICE_REPAIR_PASSES = 8;
+    public static final int DEVICE_FULL_SORT_INTERVAL = 8;
+
+    private static final int VEC4_BYTES = 16;
+    private static final int LOCAL_SIZE_X = 256;
+    static final float COHERENT_FORWARD_DOT = 0.9999f;
+
     private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles keyGenPipeline;
+    private final VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles repairPipeline;
     private final VulkanVfxRadixSort radixSort;
+    private final int[] keys;
+    private final int[] indices;
+    private final int[] sortedKeys;
+    private final int[] sortedIndices;
 
     private boolean lastSkipped;
-    private int[] lastSortedKeys = new int[0];
-    private int[] lastSortedIndices = new int[0];
+    private boolean lastIncremental;
+    private boolean incrementalEnabled = true;
+    private int sortedCount;
+    // Used by the overloads that take no history.
+    private final VulkanVfxSortHistory defaultHistory = new VulkanVfxSortHistory();
 
     private VulkanVfxSortStage(
         VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles keyGenPipeline,
-        VulkanVfxRadixSort radixSort
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles repairPipeline,
+        VulkanVfxRadixSort radixSort,
+        int maxParticles
     ) {
         this.keyGenPipeline = keyGenPipeline;
+        this.repairPipeline = repairPipeline;
         this.radixSort = radixSort;
+        this.keys = new int[maxParticles];
+        this.indices = new int[maxParticles];
+        this.sortedKeys = new int[maxParticles];
+        this.sortedIndices = new int[maxParticles];
     }
 
     public static VulkanVfxSortStage create(long device, VulkanVfxDescriptorSetLayout layout, int maxParticles) {
@@ -42,27 +78,41 @@ public final class VulkanVfxSortStage {
             setLayouts,
             Integer.BYTES + (Float.BYTES * 3)
         );
+        VulkanVfxComputePipelineUtil.VulkanComputePipelineHandles repair = VulkanVfxComputePipelineUtil.create(
+            device,
+            VfxSortRepairShaderSource.GLSL,
+            setLayouts,
+            VEC4_BYTES + (Integer.BYTES * 2)
+        );
 
         VulkanVfxRadixSort radixSort = VulkanVfxRadixSort.create(device, layout, maxParticles);
-        return new VulkanVfxSortStage(keyGen, radixSort);
+        return new VulkanVfxSortStage(keyGen, repair, radixSort, maxParticles);
     }
 
+    /**
+     * Sorts every slot of the effect, as the key-gen shader does. When {@code hostPositions} does
+     * not cover all slots the sort is recorded on the device and no host order is produced
+     * ({@link #lastSortedCount()} is 0): a coherent frame repairs the order already in the index
+     * buffer ({@link #lastIncremental()}), any other runs key-gen and the radix sort.
+     *
+     * @param hostPositions host copy of the position stream, or null when there is none
+     */
     public void dispatch(
         long commandBuffer,
         VulkanVfxEffectResources resources,
         VulkanVfxDescriptorSets descriptorSets,
         BlendMode blendMode,
         float[] cameraPos,
-        int aliveCount,
+        ByteBuffer hostPositions,
+        VulkanVfxSortHistory history,
         int frameIndex
     ) {
         Objects.requireNonNull(resources, "resources");
         Objects.requireNonNull(descriptorSets, "descriptorSets");
+        Objects.requireNonNull(history, "history");
 
         if (blendMode == BlendMode.ADDITIVE) {
-            lastSkipped = true;
-            lastSortedKeys = new int[0];
-            lastSortedIndices = new int[0];
+            markSkipped(history);
             return;
         }
 
@@ -70,47 +120,70 @@ public final class VulkanVfxSortStage {
             throw new IllegalArgumentException("commandBuffer must be non-zero");
         }
 
-        int count = Math.max(0, Math.min(aliveCount, resources.config().maxParticles()));
-        int[] keys = new int[count];
-        int[] indices = new int[count];
-
-        float camX = valueAt(cameraPos, 0);
-        float camY = valueAt(cameraPos, 1);
-        float camZ = valueAt(cameraPos, 2);
-        int cameraBias = Math.round((camX + camY + camZ) * 1000f);
-
-        // Placeholder for sort-key generation based on particle distance.
-        for (int i = 0; i < count; i++) {
-            float distSquared = (float) Math.pow(count - i, 2);
-            int key = floatToSortableUint(distSquared) ^ cameraBias;
-            keys[i] = key;
-            indices[i] = i;
+        int maxParticles = Math.min(resources.config().maxParticles(), keys.length);
+        if (hostPositions != null && hostPositions.limit() >= (long) maxParticles * VEC4_BYTES) {
+            sortByCamera(commandBuffer, hostPositions, maxParticles, cameraPos, null, history);
+        } else {
+            sortOnDevice(commandBuffer, maxParticles, cameraPos, history);
         }
 
-        radixSort.loadInputs(keys, indices, count);
-        radixSort.sort(commandBuffer, count);
-
-        lastSkipped = false;
-        lastSortedKeys = radixSort.sortedKeys();
-        lastSortedIndices = radixSort.sortedIndices();
-
         long ignoredSet1 = descriptorSets.set1(frameIndex);
         if (ignoredSet1 == Long.MIN_VALUE) {
             throw new IllegalStateException("Invalid descriptor set");
         }
     }
 
+    /**
+     * Sorts {@code count} slots of a std430 position stream (xyz, w = normalized age).
+     *
+     * @param viewForward unit view axis for view-space depth keys, or null for squared distance
+     */
+    public void dispatchWithPositions(
+        long commandBuffer,
+        BlendMode blendMode,
+        ByteBuffer positions,
+        int count,
+        float[] cameraPos,
+        float[] viewForward
+    ) {
+        dispatchWithPositions(commandBuffer, blendMode, positions, count, cameraPos, viewForward, defaultHistory);
+    }
+
+    /**
+     * As {@link #dispatchWithPositions(long, BlendMode, ByteBuffer, int, float[], float[])}, reusing
+     * and updating the previous order held in {@code history}.
+     */
+    public void dispatchWithPositions(
+        long commandBuffer,
+        BlendMode blendMode,
+        ByteBuffer positions,
+        int count,
+        float[] cameraPos,
+        float[] viewForward,
+        VulkanVfxSortHistory history
+    ) {
+        Objects.requireNonNull(history, "history");
+        if (blendMode == BlendMode.ADDITIVE) {
+            markSkipped(history);
+            return;
+        }
+        if (commandBuffer == 0L) {
+            throw new IllegalArgumentException("commandBuffer must be non-zero");
+        }
+        Objects.requireNonNull(positions, "positions");
+        if (count < 0 || count > keys.length || (long) count * VEC4_BYTES > positions.limit()) {
+            throw new IllegalArgumentException("count must be in [0, maxParticles] and within positions");
+        }
+        sortByCamera(commandBuffer, positions, count, cameraPos, viewForward, history);
+    }
+
     public void dispatchWithMockDistances(long commandBuffer, BlendMode blendMode, float[] distances) {
         if (blendMode == BlendMode.ADDITIVE) {
-            lastSkipped = true;
-            lastSortedKeys = new int[0];
-            lastSortedIndices = new int[0];
+            markSkipped(defaultHistory);
             return;
         }
 
-        int count = distances == null ? 0 : distances.length;
-        int[] keys = new int[count];
-        int[] indices = new int[count];
+        int count = distances == null ? 0 : Math.min(distances.length, keys.length);
         for (int i = 0; i < count; i++) {
             keys[i] = floatToSortableUint(distances[i]);
             indices[i] = i;
@@ -120,12 +193,15 @@ public final class VulkanVfxSortStage {
             throw new IllegalArgumentException("commandBuffer must be non-zero");
         }
 
-        radixSort.loadInputs(keys, indices, count);
-        radixSort.sort(commandBuffer, count);
+        fullSort(commandBuffer, count);
+        defaultHistory.invalidate();
+    }
 
-        lastSkipped = false;
-        lastSortedKeys = radixSort.sortedKeys();
-        lastSortedIndices = radixSort.sortedIndices();
+    /**
+     * Key-gen workgroups needed for {@code count} particles.
+     */
+    public static int groupCount(int count) {
+        return (Math.max(0, count) + LOCAL_SIZE_X - 1) / LOCAL_SIZE_X;
     }
 
     public static void insertPostSortBarrier(long commandBuffer) {
@@ -145,22 +221,171 @@ public final class VulkanVfxSortStage {
 
     public void destroy(long device) {
         VulkanVfxComputePipelineUtil.destroy(device, keyGenPipeline);
+        VulkanVfxComputePipelineUtil.destroy(device, repairPipeline);
         radixSort.destroy(device);
         lastSkipped = false;
-        lastSortedKeys = new int[0];
-        lastSortedIndices = new int[0];
+        lastIncremental = false;
+        sortedCount = 0;
+        defaultHistory.invalidate();
     }
 
     public boolean lastSkipped() {
         return lastSkipped;
     }
 
+    /**
+     * True when the last sort repaired the previous order instead of running the radix sort.
+     */
+    public boolean lastIncremental() {
+        return lastIncremental;
+    }
+
+    public void setIncrementalEnabled(boolean enabled) {
+        this.incrementalEnabled = enabled;
+        if (!enabled) {
+            defaultHistory.invalidate();
+        }
+    }
+
     public int[] lastSortedKeys() {
-        return Arrays.copyOf(lastSortedKeys, lastSortedKeys.length);
+        return Arrays.copyOf(sortedKeys, sortedCount);
     }
 
     public int[] lastSortedIndices() {
-        return Arrays.copyOf(lastSortedIndices, lastSortedIndices.length);
+        return Arrays.copyOf(sortedIndices, sortedCount);
+    }
+
+    public int lastSortedCount() {
+        return sortedCount;
+    }
+
+    private void sortByCamera(
+        long commandBuffer,
+        ByteBuffer positions,
+        int count,
+        float[] cameraPos,
+        float[] viewForward,
+        VulkanVfxSortHistory history
+    ) {
+        float camX = valueAt(cameraPos, 0);
+        float camY = valueAt(cameraPos, 1);
+        float camZ = valueAt(cameraPos, 2);
+        boolean depthMode = viewForward != null;
+        float fwdX = valueAt(viewForward, 0);
+        float fwdY = valueAt(viewForward, 1);
+        float fwdZ = valueAt(viewForward, 2);
+
+        if (incrementalEnabled && history.matches(count, camX, camY, camZ, depthMode, fwdX, fwdY, fwdZ)) {
+            for (int i = 0; i < count; i++) {
+                int slot = history.orderAt(i);
+                sortedIndices[i] = slot;
+                sortedKeys[i] = sortKey(positions, slot, camX, camY, camZ, depthMode, fwdX, fwdY, fwdZ);
+            }
+            if (repairOrder(count)) {
+                sortedCount = count;
+                lastSkipped = false;
+                lastIncremental = true;
+                history.remember(sortedIndices, count, camX, camY, camZ, depthMode, fwdX, fwdY, fwdZ);
+                return;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            keys[i] = sortKey(positions, i, camX, camY, camZ, depthMode, fwdX, fwdY, fwdZ);
+            indices[i] = i;
+        }
+        fullSort(commandBuffer, count);
+        history.remember(sortedIndices, count, camX, camY, camZ, depthMode, fwdX, fwdY, fwdZ);
+    }
+
+    private void sortOnDevice(long commandBuffer, int count, float[] cameraPos, VulkanVfxSortHistory history) {
+        float camX = valueAt(cameraPos, 0);
+        float camY = valueAt(cameraPos, 1);
+        float camZ = valueAt(cameraPos, 2);
+        sortedCount = 0;
+        lastSkipped = false;
+        if (incrementalEnabled && history.matchesDevice(count, camX, camY, camZ)) {
+            // Placeholder for real Vulkan calls:
+            // vkCmdBindPipeline(COMPUTE, repairPipeline)
+            // vkCmdPushConstants(cameraPos, count, phase 0); vkCmdDispatch(groupCount(count))
+            // per pass: barrier, phase 1 over count / 2 pairs, barrier, phase 2 over (count - 1) / 2
+            history.repairedOnDevice(camX, camY, camZ);
+            lastIncremental = true;
+            return;
+        }
+        // Placeholder for real Vulkan calls:
+        // vkCmdBindPipeline(COMPUTE, keyGenPipeline)
+        // vkCmdPushConstants(count, cameraPos); vkCmdDispatch(groupCount(count))
+        // radix histogram / prefix / scatter passes over the key and index buffers
+        history.rememberDevice(count, camX, camY, camZ);
+        lastIncremental = false;
+    }
+
+    private void fullSort(long commandBuffer, int count) {
+        radixSort.loadInputs(keys, indices, count);
+        radixSort.sort(commandBuffer, count);
+        radixSort.copySortedKeys(sortedKeys);
+        radixSort.copySortedIndices(sortedIndices);
+        sortedCount = count;
+        lastSkipped = false;
+        lastIncremental = false;
+    }
+
+    /**
+     * Stable insertion pass over the re-keyed previous order. Gives up once the element moves
+     * exceed the budget; the radix fallback rewrites both arrays, so they may be left torn.
+     */
+    private boolean repairOrder(int count) {
+        long budget = (long) count * INCREMENTAL_MOVES_PER_KEY;
+        for (int i = 1; i < count; i++) {
+            int key = sortedKeys[i];
+            int biased = key ^ Integer.MIN_VALUE;
+            if ((sortedKeys[i - 1] ^ Integer.MIN_VALUE) <= biased) {
+                continue;
+            }
+            int index = sortedIndices[i];
+            int j = i - 1;
+            while (j >= 0 && (sortedKeys[j] ^ Integer.MIN_VALUE) > biased) {
+                sortedKeys[j + 1] = sortedKeys[j];
+                sortedIndices[j + 1] = sortedIndices[j];
+                j--;
+                if (--budget < 0) {
+                    return false;
+                }
+            }
+            sortedKeys[j + 1] = key;
+            sortedIndices[j + 1] = index;
+        }
+        return true;
+    }
+
+    private void markSkipped(VulkanVfxSortHistory history) {
+        lastSkipped = true;
+        lastIncremental = false;
+        sortedCount = 0;
+        history.invalidate();
+    }
+
+    private static int sortKey(
+        ByteBuffer positions,
+        int slot,
+        float camX,
+        float camY,
+        float camZ,
+        boolean depthMode,
+        float fwdX,
+        float fwdY,
+        float fwdZ
+    ) {
+        int base = slot * VEC4_BYTES;
+        if (positions.getFloat(base + 12) >= 1.0f) {
+            return 0;
+        }
+        float dx = positions.getFloat(base) - camX;
+        float dy = positions.getFloat(base + 4) - camY;
+        float dz = positions.getFloat(base + 8) - camZ;
+        float dist = depthMode ? dx * fwdX + dy * fwdY + dz * fwdZ : dx * dx + dy * dy + dz * dz;
+        return floatToSortableUint(dist);
     }
 
     private static int floatToSortableUint(float f) {
@@ -1,45 +1,33 @@
 package org.dynamisengine.vfx.vulkan.compute;
 
-import org.dynamisengine.vfx.api.EmissionMode;
 import org.dynamisengine.vfx.api.EmissionRateDescriptor;
+import org.dynamisengine.vfx.core.sim.ParticleEmissionScheduler;
 
+/**
+ * Spawn counts for one effect. It carries the effect's burst and fractional state, so every
+ * effect owns its own scheduler; the logic is the host simulation's, so GPU and CPU paths agree.
+ */
 public final class VulkanVfxSpawnScheduler {
-    private float fractionalAccumulator;
-    private boolean burstConsumed;
+    private final ParticleEmissionScheduler scheduler = new ParticleEmissionScheduler();
 
     public int computeSpawnCount(
         EmissionRateDescriptor rate,
         float deltaTime,
         int freeSlots
     ) {
-        if (rate == null || freeSlots <= 0 || deltaTime <= 0.0f) {
-            return 0;
-        }
-
-        int spawnCount;
-        if (rate.mode() == EmissionMode.BURST) {
-            if (burstConsumed) {
-                spawnCount = 0;
-            } else {
-                burstConsumed = true;
-                spawnCount = rate.burstCount();
-            }
-        } else if (rate.mode() == EmissionMode.CONTINUOUS) {
-            float exact = rate.particlesPerSecond() * deltaTime + fractionalAccumulator;
-            spawnCount = (int) Math.floor(exact);
-            fractionalAccumulator = exact - spawnCount;
-        } else {
-            spawnCount = 0;
-        }
+        return scheduler.computeSpawnCount(rate, deltaTime, freeSlots);
+    }
 
-        if (spawnCount < 0) {
-            spawnCount = 0;
-        }
-        return Math.min(spawnCount, freeSlots);
+    public int computeSpawnCount(
+        EmissionRateDescriptor rate,
+        float deltaTime,
+        int freeSlots,
+        float emissionScale
+    ) {
+        return scheduler.computeSpawnCount(rate, deltaTime, freeSlots, emissionScale);
     }
 
     public void reset() {
-        fractionalAccumulator = 0.0f;
-        burstConsumed = false;
+        scheduler.reset();
     }
 }
@@ -51,7 +51,9 @@ public final class VulkanVfxDescriptorSetLayout {
                 0,
                 VK10.VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER,
                 VK10.VK_SHADER_STAGE_COMPUTE_BIT | VK10.VK_SHADER_STAGE_VERTEX_BIT | VK10.VK_SHADER_STAGE_FRAGMENT_BIT
-            )
+            ),
+            // Effect table of the batched compute dispatches.
+            new DescriptorBinding(1, VK10.VK_DESCRIPTOR_TYPE_STORAGE_BUFFER, VK10.VK_SHADER_STAGE_COMPUTE_BIT)
         );
 
         List<DescriptorBinding> set1 = List.of(
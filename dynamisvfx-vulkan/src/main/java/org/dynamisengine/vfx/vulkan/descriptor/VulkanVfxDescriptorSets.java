@@ -15,6 +15,8 @@ public final class VulkanVfxDescriptorSets {
     private final int framesInFlight;
 
     private boolean written;
+    private long streamOffsetBytes;
+    private long streamRangeBytes;
 
     private VulkanVfxDescriptorSets(long[] set1PerFrame, long[] set2PerFrame, long[] set3PerFrame, int framesInFlight) {
         this.set1PerFrame = set1PerFrame;
@@ -63,7 +65,11 @@ public final class VulkanVfxDescriptorSets {
             throw new IllegalArgumentException("Invalid device handle");
         }
 
-        resources.soaBuffers();
+        // Placeholder for vkUpdateDescriptorSets: each set 1 stream binding is
+        // VkDescriptorBufferInfo{stream, streamOffsetBytes, streamRangeBytes}, so an arena view
+        // only sees its own range and shaders index it from 0.
+        streamOffsetBytes = resources.soaBuffers().streamOffsetBytes();
+        streamRangeBytes = resources.soaBuffers().streamRangeBytes();
         resources.controlBuffers();
         resources.renderBuffers();
         if (resources.noiseField() != null) {
@@ -86,6 +92,8 @@ public final class VulkanVfxDescriptorSets {
         Arrays.fill(set2PerFrame, 0L);
         Arrays.fill(set3PerFrame, 0L);
         written = false;
+        streamOffsetBytes = 0L;
+        streamRangeBytes = 0L;
     }
 
     public long set1(int frameIndex) {
@@ -104,6 +112,14 @@ public final class VulkanVfxDescriptorSets {
         return written;
     }
 
+    public long streamOffsetBytes() {
+        return streamOffsetBytes;
+    }
+
+    public long streamRangeBytes() {
+        return streamRangeBytes;
+    }
+
     private int normalizeFrame(int frameIndex) {
         if (frameIndex < 0) {
             throw new IllegalArgumentException("frameIndex must be >= 0");
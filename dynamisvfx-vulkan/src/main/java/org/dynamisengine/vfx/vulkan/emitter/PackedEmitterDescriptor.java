@@ -1,5 +1,6 @@
 package org.dynamisengine.vfx.vulkan.emitter;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public record PackedEmitterDescriptor(byte[] data) {
@@ -16,4 +17,15 @@ public record PackedEmitterDescriptor(byte[] data) {
     public byte[] data() {
         return Arrays.copyOf(data, data.length);
     }
+
+    /**
+     * Writes the packed bytes at the target's position without a defensive copy.
+     */
+    public void writeTo(ByteBuffer target) {
+        target.put(data);
+    }
+
+    public int contentHash() {
+        return Arrays.hashCode(data);
+    }
 }
@@ -1,5 +1,6 @@
 package org.dynamisengine.vfx.vulkan.force;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public record PackedForceBuffer(byte[] data, int forceCount) {
@@ -20,4 +21,15 @@ public record PackedForceBuffer(byte[] data, int forceCount) {
     public byte[] data() {
         return Arrays.copyOf(data, data.length);
     }
+
+    /**
+     * Writes the packed bytes at the target's position without a defensive copy.
+     */
+    public void writeTo(ByteBuffer target) {
+        target.put(data);
+    }
+
+    public int contentHash() {
+        return Arrays.hashCode(data);
+    }
 }
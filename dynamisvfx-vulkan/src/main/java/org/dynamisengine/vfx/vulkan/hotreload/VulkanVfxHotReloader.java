@@ -8,8 +8,6 @@ import org.dynamisengine.vfx.core.validate.ValidationError;
 import org.dynamisengine.vfx.vulkan.compute.VulkanVfxSimulateStage;
 import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
 import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSets;
-import org.dynamisengine.vfx.vulkan.force.PackedForceBuffer;
-import org.dynamisengine.vfx.vulkan.force.VulkanForceFieldPacker;
 import org.dynamisengine.vfx.vulkan.resources.VulkanVfxEffectResources;
 
 import java.util.List;
@@ -62,8 +60,7 @@ public final class VulkanVfxHotReloader {
         VfxReloadCategory category = VfxDescriptorDiff.classify(resources.descriptor(), updatedDescriptor);
         switch (category) {
             case FORCES_ONLY -> {
-                PackedForceBuffer packed = VulkanForceFieldPacker.pack(updatedDescriptor.forces());
-                simulateStage.uploadForceBuffer(commandBuffer, resources, packed, memoryOps);
+                simulateStage.uploadForces(commandBuffer, resources, updatedDescriptor.forces(), memoryOps);
                 resources.updateDescriptor(updatedDescriptor);
             }
             case RENDERER_CHANGED -> {
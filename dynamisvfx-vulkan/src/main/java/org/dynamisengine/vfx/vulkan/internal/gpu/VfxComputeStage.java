@@ -0,0 +1,13 @@
+package org.dynamisengine.vfx.vulkan.internal.gpu;
+
+/**
+ * Compute stages of the per-frame particle pipeline, in recording order.
+ */
+public enum VfxComputeStage {
+    RETIRE,
+    EMIT,
+    SIMULATE,
+    SORT,
+    SORT_REPAIR,
+    CULL_COMPACT
+}
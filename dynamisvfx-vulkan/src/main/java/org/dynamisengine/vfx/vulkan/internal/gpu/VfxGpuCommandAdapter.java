@@ -7,4 +7,16 @@ import org.dynamisengine.vfx.api.VfxFrameContext;
  */
 public interface VfxGpuCommandAdapter {
     long commandBuffer(VfxFrameContext frameContext);
+
+    /**
+     * Observes one compute dispatch recorded into {@code commandBuffer}.
+     */
+    default void dispatch(long commandBuffer, VfxComputeStage stage, int groupCountX) {
+    }
+
+    /**
+     * Observes the pipeline barrier recorded after {@code stage}.
+     */
+    default void barrier(long commandBuffer, VfxComputeStage stage) {
+    }
 }
@@ -19,22 +19,21 @@ public record VulkanVfxDebrisCandidate(
             throw new IllegalArgumentException("offset out of range for debris candidate read");
         }
 
-        ByteBuffer read = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
-        read.position(offset);
+        ByteBuffer read = buf.order() == ByteOrder.LITTLE_ENDIAN ? buf : buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
 
         return new VulkanVfxDebrisCandidate(
-            read.getFloat(),
-            read.getFloat(),
-            read.getFloat(),
-            read.getFloat(),
-            read.getFloat(),
-            read.getFloat(),
-            read.getFloat(),
-            read.getFloat(),
-            read.getInt(),
-            read.getInt(),
-            read.getInt(),
-            read.getInt()
+            read.getFloat(offset),
+            read.getFloat(offset + 4),
+            read.getFloat(offset + 8),
+            read.getFloat(offset + 12),
+            read.getFloat(offset + 16),
+            read.getFloat(offset + 20),
+            read.getFloat(offset + 24),
+            read.getFloat(offset + 28),
+            read.getInt(offset + 32),
+            read.getInt(offset + 36),
+            read.getInt(offset + 40),
+            read.getInt(offset + 44)
         );
     }
 
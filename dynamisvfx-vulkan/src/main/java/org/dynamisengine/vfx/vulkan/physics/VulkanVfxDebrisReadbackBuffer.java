@@ -49,9 +49,11 @@ public final class VulkanVfxDebrisReadbackBuffer {
     }
 
     public List<VulkanVfxDebrisCandidate> readCandidates() {
-
-        ByteBuffer read = hostMirror.duplicate().order(ByteOrder.LITTLE_ENDIAN);
-        int count = Math.max(0, Math.min(maxCandidates, read.getInt(0)));
+        int count = Math.max(0, Math.min(maxCandidates, hostMirror.getInt(0)));
+        if (count == 0) {
+            return List.of();
+        }
+        ByteBuffer read = hostMirror;
         List<VulkanVfxDebrisCandidate> out = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
             int offset = HEADER_BYTES + (i * VulkanVfxDebrisCandidate.SIZE_BYTES);
@@ -92,20 +94,19 @@ public final class VulkanVfxDebrisReadbackBuffer {
         return maxCandidates;
     }
 
+    // hostMirror is little-endian already, so absolute puts avoid a view per candidate.
     private static void writeCandidate(ByteBuffer target, int offset, VulkanVfxDebrisCandidate c) {
-        ByteBuffer out = target.duplicate().order(ByteOrder.LITTLE_ENDIAN);
-        out.position(offset);
-        out.putFloat(c.px());
-        out.putFloat(c.py());
-        out.putFloat(c.pz());
-        out.putFloat(c.mass());
-        out.putFloat(c.vx());
-        out.putFloat(c.vy());
-        out.putFloat(c.vz());
-        out.putFloat(c.angularSpeed());
-        out.putInt(c.meshId());
-        out.putInt(c.materialTag());
-        out.putInt(c.emitterId());
-        out.putInt(c.flags());
+        target.putFloat(offset, c.px());
+        target.putFloat(offset + 4, c.py());
+        target.putFloat(offset + 8, c.pz());
+        target.putFloat(offset + 12, c.mass());
+        target.putFloat(offset + 16, c.vx());
+        target.putFloat(offset + 20, c.vy());
+        target.putFloat(offset + 24, c.vz());
+        target.putFloat(offset + 28, c.angularSpeed());
+        target.putInt(offset + 32, c.meshId());
+        target.putInt(offset + 36, c.materialTag());
+        target.putInt(offset + 40, c.emitterId());
+        target.putInt(offset + 44, c.flags());
     }
 }
@@ -5,6 +5,11 @@ import org.dynamisengine.gpu.vulkan.memory.VulkanBufferOps;
 import java.util.Objects;
 
 public final class VulkanVfxDebrisReadbackRing {
+    /**
+     * Frames between writing a candidate buffer and reading it back.
+     */
+    public static final int READBACK_LATENCY_FRAMES = 2;
+
     private static final int RING_SIZE = 3;
     private final VulkanVfxDebrisReadbackBuffer[] ring;
 
@@ -37,7 +42,7 @@ public final class VulkanVfxDebrisReadbackRing {
     }
 
     public VulkanVfxDebrisReadbackBuffer readBuffer(long frameIndex) {
-        return ring[Math.floorMod((int) (frameIndex - 2), RING_SIZE)];
+        return ring[Math.floorMod((int) (frameIndex - READBACK_LATENCY_FRAMES), RING_SIZE)];
     }
 
     public void destroy(VulkanBufferOps memoryOps) {
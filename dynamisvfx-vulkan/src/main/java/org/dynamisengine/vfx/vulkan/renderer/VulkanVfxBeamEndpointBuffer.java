@@ -3,6 +3,9 @@ package org.dynamisengine.vfx.vulkan.renderer;
 import org.dynamisengine.gpu.vulkan.memory.VulkanBufferAlloc;
 import org.dynamisengine.gpu.vulkan.memory.VulkanBufferOps;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.Objects;
 
 public final class VulkanVfxBeamEndpointBuffer {
@@ -12,12 +15,16 @@ public final class VulkanVfxBeamEndpointBuffer {
     private final VulkanBufferAlloc buffer;
     private final int maxBeams;
 
-    private float[] lastUploadedData = new float[0];
+    // Persistent std430 staging sized for maxBeams; uploads bulk-copy into it.
+    private final ByteBuffer staging;
+    private final FloatBuffer stagingFloats;
     private int lastBeamCount;
 
     private VulkanVfxBeamEndpointBuffer(VulkanBufferAlloc buffer, int maxBeams) {
         this.buffer = buffer;
         this.maxBeams = maxBeams;
+        this.staging = ByteBuffer.allocateDirect(maxBeams * STRIDE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.stagingFloats = staging.asFloatBuffer();
     }
 
     public static VulkanVfxBeamEndpointBuffer allocate(VulkanBufferOps memoryOps, int maxBeams) {
@@ -45,15 +52,13 @@ public final class VulkanVfxBeamEndpointBuffer {
         }
 
         memoryOps.getClass();
-        lastUploadedData = new float[requiredFloats];
-        System.arraycopy(endpointData, 0, lastUploadedData, 0, requiredFloats);
+        stagingFloats.put(0, endpointData, 0, requiredFloats);
         lastBeamCount = beamCount;
     }
 
     public void destroy(VulkanBufferOps memoryOps) {
         Objects.requireNonNull(memoryOps, "memoryOps");
         memoryOps.getClass();
-        lastUploadedData = new float[0];
         lastBeamCount = 0;
     }
 
@@ -69,7 +74,16 @@ public final class VulkanVfxBeamEndpointBuffer {
         return lastBeamCount;
     }
 
+    /**
+     * Read-only view of the staged bytes for the last upload.
+     */
+    public ByteBuffer stagingBuffer() {
+        return staging.slice(0, lastBeamCount * STRIDE_BYTES).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
     public float[] lastUploadedData() {
-        return lastUploadedData.clone();
+        float[] out = new float[lastBeamCount * (STRIDE_BYTES / Float.BYTES)];
+        stagingFloats.get(0, out, 0, out.length);
+        return out;
     }
 }
@@ -5,6 +5,7 @@ import org.dynamisengine.gpu.api.error.GpuException;
 import org.dynamisengine.vfx.api.BlendMode;
 import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
 import org.dynamisengine.vfx.api.RendererType;
+import org.dynamisengine.vfx.core.sim.ParticleCapacityEstimator;
 
 public record VfxBufferConfig(
     int maxParticles,
@@ -16,13 +17,14 @@ public record VfxBufferConfig(
     public static final int DEFAULT_MAX_PARTICLES = 65_536;
     public static final int HARD_MAX_PARTICLES = 1_048_576;
     public static final int DEFAULT_MAX_DEBRIS_CANDIDATES = 256;
+    public static final int MIN_ESTIMATED_PARTICLES = 64;
 
     public static VfxBufferConfig defaults() {
         return new VfxBufferConfig(DEFAULT_MAX_PARTICLES, true, false, false, DEFAULT_MAX_DEBRIS_CANDIDATES);
     }
 
     public static VfxBufferConfig of(ParticleEmitterDescriptor desc) throws GpuException {
-        int maxParticles = DEFAULT_MAX_PARTICLES;
+        int maxParticles = estimateMaxParticles(desc);
         validateMaxParticles(maxParticles);
 
         RendererType type = desc.renderer() == null ? RendererType.BILLBOARD : desc.renderer().type();
@@ -35,6 +37,29 @@ public record VfxBufferConfig(
         return new VfxBufferConfig(maxParticles, needsSort, needsRibbon, needsMesh, DEFAULT_MAX_DEBRIS_CANDIDATES);
     }
 
+    /**
+     * Peak alive count from the emission rate, lifetime and LOD emission scales, rounded up to a
+     * power of two in {@code [MIN_ESTIMATED_PARTICLES, HARD_MAX_PARTICLES]}. Emitters whose peak
+     * the descriptor does not bound (EVENT, no rate) get {@code DEFAULT_MAX_PARTICLES}.
+     */
+    public static int estimateMaxParticles(ParticleEmitterDescriptor desc) {
+        long peak = ParticleCapacityEstimator.peakAliveCount(desc);
+        if (peak == ParticleCapacityEstimator.UNBOUNDED) {
+            return DEFAULT_MAX_PARTICLES;
+        }
+        int clamped = (int) Math.max(MIN_ESTIMATED_PARTICLES, Math.min(HARD_MAX_PARTICLES, peak));
+        int rounded = Integer.highestOneBit(clamped);
+        return rounded == clamped ? clamped : Math.min(HARD_MAX_PARTICLES, rounded << 1);
+    }
+
+    /**
+     * Same flags with a different capacity, e.g. the size of a granted arena range.
+     */
+    public VfxBufferConfig withMaxParticles(int maxParticles) throws GpuException {
+        validateMaxParticles(maxParticles);
+        return new VfxBufferConfig(maxParticles, needsSort, needsRibbon, needsMesh, maxDebrisCandidates);
+    }
+
     public static void validateMaxParticles(int maxParticles) throws GpuException {
         if (maxParticles <= 0 || maxParticles > HARD_MAX_PARTICLES) {
             throw new GpuException(
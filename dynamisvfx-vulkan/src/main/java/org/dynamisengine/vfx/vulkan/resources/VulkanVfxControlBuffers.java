@@ -51,6 +51,22 @@ public final class VulkanVfxControlBuffers {
         );
     }
 
+    /**
+     * Host-only buffers with no device memory behind them, for tests without a Vulkan device.
+     */
+    static VulkanVfxControlBuffers allocateForTest(VfxBufferConfig config) {
+        Objects.requireNonNull(config, "config");
+        int usage = VK10.VK_BUFFER_USAGE_STORAGE_BUFFER_BIT;
+        return new VulkanVfxControlBuffers(
+            new VulkanBufferAlloc(0L, 0L),
+            new VulkanBufferAlloc(0L, 0L),
+            new VulkanBufferAlloc(0L, 0L),
+            new VulkanBufferAlloc(0L, 0L),
+            config.maxParticles(),
+            usage
+        );
+    }
+
     public void destroy(VulkanBufferOps memoryOps) {
         Objects.requireNonNull(memoryOps, "memoryOps");
         // Placeholder for explicit vkDestroyBuffer/vkFreeMemory once Vulkan device context is wired.
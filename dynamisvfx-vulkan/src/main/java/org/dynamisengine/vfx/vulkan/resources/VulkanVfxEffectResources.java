@@ -74,6 +74,64 @@ public final class VulkanVfxEffectResources {
         return resources;
     }
 
+    /**
+     * Like {@link #allocate(VfxHandle, ParticleEmitterDescriptor, VulkanBufferOps, VulkanImageOps, IndirectCommandBuffer)}
+     * but the particle streams are an arena range, and capacity follows the range size.
+     */
+    public static VulkanVfxEffectResources allocate(
+        VfxHandle handle,
+        ParticleEmitterDescriptor descriptor,
+        VulkanVfxSoaBuffers particleView,
+        VulkanBufferOps bufferOps,
+        VulkanImageOps imageOps,
+        IndirectCommandBuffer indirectBuffer
+    ) throws GpuException {
+        Objects.requireNonNull(handle, "handle");
+        Objects.requireNonNull(descriptor, "descriptor");
+        Objects.requireNonNull(particleView, "particleView");
+        Objects.requireNonNull(bufferOps, "bufferOps");
+        Objects.requireNonNull(imageOps, "imageOps");
+        Objects.requireNonNull(indirectBuffer, "indirectBuffer");
+
+        VfxBufferConfig config = VfxBufferConfig.of(descriptor).withMaxParticles(particleView.maxParticles());
+
+        VulkanVfxControlBuffers control = VulkanVfxControlBuffers.allocate(config, bufferOps);
+        VulkanVfxRenderBuffers render = VulkanVfxRenderBuffers.allocate(config, bufferOps, indirectBuffer);
+
+        VulkanVfxEffectResources resources = new VulkanVfxEffectResources(config, descriptor, particleView, control, render, handle);
+        NoiseForceConfig noiseConfig = findCurlNoiseConfig(descriptor);
+        if (noiseConfig != null) {
+            resources.noiseFieldConfig = VulkanVfxNoiseFieldConfig.from(noiseConfig);
+            resources.noiseField = VulkanVfxNoiseField3D.allocate(1L, imageOps, resources.noiseFieldConfig);
+        }
+        return resources;
+    }
+
+    /**
+     * Resources over an arena range with host-only control and render buffers, so the service
+     * pipeline can be exercised without a Vulkan device. Curl-noise fields are not allocated.
+     */
+    public static VulkanVfxEffectResources allocateForTest(
+        VfxHandle handle,
+        ParticleEmitterDescriptor descriptor,
+        VulkanVfxSoaBuffers particleView,
+        IndirectCommandBuffer indirectBuffer
+    ) throws GpuException {
+        Objects.requireNonNull(handle, "handle");
+        Objects.requireNonNull(descriptor, "descriptor");
+        Objects.requireNonNull(particleView, "particleView");
+
+        VfxBufferConfig config = VfxBufferConfig.of(descriptor).withMaxParticles(particleView.maxParticles());
+        return new VulkanVfxEffectResources(
+            config,
+            descriptor,
+            particleView,
+            VulkanVfxControlBuffers.allocateForTest(config),
+            VulkanVfxRenderBuffers.allocateForTest(config, indirectBuffer),
+            handle
+        );
+    }
+
     public void destroy(VulkanBufferOps bufferOps, VulkanImageOps imageOps) {
         Objects.requireNonNull(bufferOps, "bufferOps");
         Objects.requireNonNull(imageOps, "imageOps");
@@ -0,0 +1,152 @@
+package org.dynamisengine.vfx.vulkan.resources;
+
+import org.dynamisengine.gpu.vulkan.memory.VulkanBufferAlloc;
+import org.dynamisengine.gpu.vulkan.memory.VulkanBufferOps;
+import org.dynamisengine.vfx.vulkan.budget.VfxBuddyAllocator;
+import org.lwjgl.vulkan.VK10;
+
+/**
+ * One storage buffer per SoA stream shared by every effect. Effects own power-of-two
+ * (offset, capacity) ranges handed out by {@link #ranges()}, usually through a
+ * {@code VfxBudgetAllocator}, and see them as {@link VulkanVfxSoaBuffers} views. A spark with 64
+ * particles then reserves 64 slots instead of a full per-effect buffer set, and all effects can
+ * be addressed by one batched dispatch.
+ */
+public final class VulkanVfxParticleArena {
+    public static final int DEFAULT_MIN_BLOCK_PARTICLES = 64;
+
+    private static final int VEC4_BYTES = 16;
+
+    private final VulkanBufferAlloc positionBuffer;
+    private final VulkanBufferAlloc velocityBuffer;
+    private final VulkanBufferAlloc colorBuffer;
+    private final VulkanBufferAlloc attribBuffer;
+    private final VulkanBufferAlloc metaBuffer;
+    private final VfxBuddyAllocator ranges;
+    private final int usageFlags;
+    private long movedBytes;
+
+    private VulkanVfxParticleArena(
+        VulkanBufferAlloc positionBuffer,
+        VulkanBufferAlloc velocityBuffer,
+        VulkanBufferAlloc colorBuffer,
+        VulkanBufferAlloc attribBuffer,
+        VulkanBufferAlloc metaBuffer,
+        VfxBuddyAllocator ranges,
+        int usageFlags
+    ) {
+        this.positionBuffer = positionBuffer;
+        this.velocityBuffer = velocityBuffer;
+        this.colorBuffer = colorBuffer;
+        this.attribBuffer = attribBuffer;
+        this.metaBuffer = metaBuffer;
+        this.ranges = ranges;
+        this.usageFlags = usageFlags;
+    }
+
+    /**
+     * Allocates the shared streams; with null {@code memoryOps} only the range bookkeeping
+     * exists, which is what host-only services and tests use.
+     */
+    public static VulkanVfxParticleArena allocate(int capacity, int minBlockParticles, VulkanBufferOps memoryOps) {
+        VfxBuddyAllocator ranges = new VfxBuddyAllocator(capacity, minBlockParticles);
+        int usage = VK10.VK_BUFFER_USAGE_STORAGE_BUFFER_BIT | VK10.VK_BUFFER_USAGE_TRANSFER_SRC_BIT
+            | VK10.VK_BUFFER_USAGE_TRANSFER_DST_BIT;
+        if (memoryOps == null) {
+            return new VulkanVfxParticleArena(null, null, null, null, null, ranges, usage);
+        }
+        long bytesPerStream = (long) capacity * VEC4_BYTES;
+        return new VulkanVfxParticleArena(
+            allocateStorageBuffer(memoryOps, bytesPerStream, usage),
+            allocateStorageBuffer(memoryOps, bytesPerStream, usage),
+            allocateStorageBuffer(memoryOps, bytesPerStream, usage),
+            allocateStorageBuffer(memoryOps, bytesPerStream, usage),
+            allocateStorageBuffer(memoryOps, bytesPerStream, usage),
+            ranges,
+            usage
+        );
+    }
+
+    /**
+     * SoA view of an allocated range.
+     */
+    public VulkanVfxSoaBuffers view(int offset) {
+        return VulkanVfxSoaBuffers.view(this, offset, ranges.blockSize(offset));
+    }
+
+    /**
+     * Copies a range of every stream for compaction. Particle indices, free lists and sort
+     * indices are range-relative, so only the streams move.
+     */
+    public void recordMove(long commandBuffer, int fromOffset, int toOffset, int particles) {
+        if (commandBuffer == 0L) {
+            throw new IllegalArgumentException("commandBuffer must be non-zero");
+        }
+        if (particles <= 0 || fromOffset < 0 || toOffset < 0
+            || Math.max(fromOffset, toOffset) + particles > ranges.capacity()) {
+            throw new IllegalArgumentException(
+                "invalid move: from=" + fromOffset + ", to=" + toOffset + ", particles=" + particles
+            );
+        }
+        // Placeholder for vkCmdCopyBuffer on each stream with
+        // srcOffset = fromOffset * 16, dstOffset = toOffset * 16, size = particles * 16,
+        // followed by a transfer -> compute barrier. Ranges never overlap: the target is free.
+        movedBytes += (long) particles * VEC4_BYTES * 5L;
+    }
+
+    /**
+     * Stream bytes copied by {@link #recordMove} since the arena was created.
+     */
+    public long movedBytes() {
+        return movedBytes;
+    }
+
+    /**
+     * Releases the streams and every range; {@code memoryOps} may be null for a host-only arena.
+     */
+    public void destroy(VulkanBufferOps memoryOps) {
+        ranges.reset();
+        // Placeholder for explicit vkDestroyBuffer/vkFreeMemory once Vulkan device context is wired.
+    }
+
+    public VfxBuddyAllocator ranges() {
+        return ranges;
+    }
+
+    public int capacity() {
+        return ranges.capacity();
+    }
+
+    public long totalBytes() {
+        return (long) ranges.capacity() * VEC4_BYTES * 5L;
+    }
+
+    public VulkanBufferAlloc positionBuffer() {
+        return positionBuffer;
+    }
+
+    public VulkanBufferAlloc velocityBuffer() {
+        return velocityBuffer;
+    }
+
+    public VulkanBufferAlloc colorBuffer() {
+        return colorBuffer;
+    }
+
+    public VulkanBufferAlloc attribBuffer() {
+        return attribBuffer;
+    }
+
+    public VulkanBufferAlloc metaBuffer() {
+        return metaBuffer;
+    }
+
+    public int usageFlags() {
+        return usageFlags;
+    }
+
+    private static VulkanBufferAlloc allocateStorageBuffer(VulkanBufferOps memoryOps, long sizeBytes, int usageFlags) {
+        memoryOps.getClass();
+        return new VulkanBufferAlloc(0L, 0L);
+    }
+}
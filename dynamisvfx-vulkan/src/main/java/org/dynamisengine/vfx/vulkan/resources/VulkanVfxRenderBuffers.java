@@ -65,6 +65,26 @@ public final class VulkanVfxRenderBuffers {
         );
     }
 
+    /**
+     * Host-only buffers with no device memory behind them, for tests without a Vulkan device.
+     */
+    static VulkanVfxRenderBuffers allocateForTest(VfxBufferConfig config, IndirectCommandBuffer indirectBuffer) {
+        Objects.requireNonNull(config, "config");
+        Objects.requireNonNull(indirectBuffer, "indirectBuffer");
+        VulkanBufferAlloc[] debrisRing = new VulkanBufferAlloc[3];
+        for (int i = 0; i < debrisRing.length; i++) {
+            debrisRing[i] = new VulkanBufferAlloc(0L, 0L);
+        }
+        return new VulkanVfxRenderBuffers(
+            new VulkanBufferAlloc(0L, 0L),
+            config.needsSort() ? new VulkanBufferAlloc(0L, 0L) : null,
+            debrisRing,
+            new VulkanBufferAlloc(0L, 0L),
+            indirectBuffer,
+            VK10.VK_BUFFER_USAGE_STORAGE_BUFFER_BIT
+        );
+    }
+
     public void destroy(VulkanBufferOps memoryOps) {
         Objects.requireNonNull(memoryOps, "memoryOps");
         indirectCommandBuffer.destroy();
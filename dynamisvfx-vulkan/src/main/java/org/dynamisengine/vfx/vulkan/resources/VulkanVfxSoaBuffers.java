@@ -17,6 +17,9 @@ public final class VulkanVfxSoaBuffers {
 
     private final int maxParticles;
     private final int usageFlags;
+    // First slot in the shared arena streams for views, 0 for buffers owned by one effect.
+    private int arenaOffset;
+    private final VulkanVfxParticleArena arena;
 
     private VulkanVfxSoaBuffers(
         VulkanBufferAlloc positionBuffer,
@@ -25,7 +28,9 @@ public final class VulkanVfxSoaBuffers {
         VulkanBufferAlloc attribBuffer,
         VulkanBufferAlloc metaBuffer,
         int maxParticles,
-        int usageFlags
+        int usageFlags,
+        int arenaOffset,
+        VulkanVfxParticleArena arena
     ) {
         this.positionBuffer = positionBuffer;
         this.velocityBuffer = velocityBuffer;
@@ -34,6 +39,8 @@ public final class VulkanVfxSoaBuffers {
         this.metaBuffer = metaBuffer;
         this.maxParticles = maxParticles;
         this.usageFlags = usageFlags;
+        this.arenaOffset = arenaOffset;
+        this.arena = arena;
     }
 
     public static VulkanVfxSoaBuffers allocate(VfxBufferConfig config, VulkanBufferOps memoryOps) {
@@ -50,12 +57,39 @@ public final class VulkanVfxSoaBuffers {
             allocateStorageBuffer(memoryOps, bytesPerBuffer, usage),
             allocateStorageBuffer(memoryOps, bytesPerBuffer, usage),
             config.maxParticles(),
-            usage
+            usage,
+            0,
+            null
+        );
+    }
+
+    /**
+     * Range {@code [offset, offset + capacity)} of the arena streams; the arena keeps ownership.
+     */
+    static VulkanVfxSoaBuffers view(VulkanVfxParticleArena arena, int offset, int capacity) {
+        Objects.requireNonNull(arena, "arena");
+        if (offset < 0 || capacity <= 0 || offset + capacity > arena.capacity()) {
+            throw new IllegalArgumentException("invalid arena range: offset=" + offset + ", capacity=" + capacity);
+        }
+        return new VulkanVfxSoaBuffers(
+            arena.positionBuffer(),
+            arena.velocityBuffer(),
+            arena.colorBuffer(),
+            arena.attribBuffer(),
+            arena.metaBuffer(),
+            capacity,
+            arena.usageFlags(),
+            offset,
+            arena
         );
     }
 
     public void destroy(VulkanBufferOps memoryOps) {
         Objects.requireNonNull(memoryOps, "memoryOps");
+        if (arena != null) {
+            // Views share the arena streams; the budget allocation owns the range.
+            return;
+        }
         // Placeholder for explicit vkDestroyBuffer/vkFreeMemory once Vulkan device context is wired.
     }
 
@@ -87,6 +121,39 @@ public final class VulkanVfxSoaBuffers {
         return maxParticles;
     }
 
+    public int arenaOffset() {
+        return arenaOffset;
+    }
+
+    /**
+     * Descriptor offset of this range in every stream. Arena ranges start on multiples of the
+     * minimum block, so the offset meets any storage-buffer offset alignment a device may require.
+     */
+    public long streamOffsetBytes() {
+        return (long) arenaOffset * VEC4_BYTES;
+    }
+
+    public long streamRangeBytes() {
+        return (long) maxParticles * VEC4_BYTES;
+    }
+
+    /**
+     * Repoints an arena view after compaction moved its range.
+     */
+    public void relocate(int offset) {
+        if (arena == null) {
+            throw new IllegalStateException("Only arena views can be relocated");
+        }
+        if (offset < 0 || offset + maxParticles > arena.capacity()) {
+            throw new IllegalArgumentException("invalid arena offset " + offset);
+        }
+        this.arenaOffset = offset;
+    }
+
+    public boolean isArenaView() {
+        return arena != null;
+    }
+
     public int usageFlags() {
         return usageFlags;
     }
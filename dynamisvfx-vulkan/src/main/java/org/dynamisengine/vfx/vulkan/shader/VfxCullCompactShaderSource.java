@@ -64,4 +64,62 @@ public final class VfxCullCompactShaderSource {
                 drawIndices[localBase + localSlot] = particleIdx;
         }
         """;
+
+    /**
+     * Batched variant over the effect table. Workgroups can straddle effects, so each visible
+     * particle claims its draw slot directly in its own effect's indirect command.
+     */
+    public static final String BATCHED_GLSL = """
+        #version 450
+        """ + VfxEffectTableShaderSource.DECLARATIONS + """
+        layout(local_size_x = 256) in;
+
+        const uint FLAG_SORTED = 1u;
+
+        layout(std430, set=1, binding=0) buffer PositionBuffer { vec4 positions[]; };
+        layout(std430, set=1, binding=3) buffer AttribBuffer   { vec4 attribs[];   };
+        layout(std430, set=3, binding=0) buffer DrawIndexBuffer{ uint drawIndices[];} drawIndexBuffers[];
+        layout(std430, set=3, binding=1) buffer IndirectBuffer {
+            uint vertexCount;
+            uint instanceCount;
+            uint firstVertex;
+            uint firstInstance;
+        } indirectBuffers[];
+        layout(std430, set=3, binding=2) buffer SortedIndexBuffer { uint sortedIndices[]; } sortedIndexBuffers[];
+
+        layout(push_constant) uniform PushConstants {
+            uint  totalParticles;
+            uint  effectCount;
+            float frustumPlanes[24];
+        } push;
+
+        bool frustumTest(vec3 pos, float radius) {
+            for (int i = 0; i < 6; i++) {
+                vec3 n = vec3(push.frustumPlanes[i*4],
+                              push.frustumPlanes[i*4+1],
+                              push.frustumPlanes[i*4+2]);
+                float d = push.frustumPlanes[i*4+3];
+                if (dot(n, pos) + d < -radius) return false;
+            }
+            return true;
+        }
+
+        void main() {
+            uint idx = gl_GlobalInvocationID.x;
+            if (idx >= push.totalParticles) return;
+            EffectEntry e = effects[findEffectForParticle(idx, push.effectCount)];
+            nonuniformEXT uint d = e.descriptorIndex;
+            uint local = idx - e.particleOffset;
+            uint particleIdx = (e.flags & FLAG_SORTED) != 0u
+                ? sortedIndexBuffers[d].sortedIndices[local]
+                : local;
+
+            vec4 pos = positions[e.arenaOffset + particleIdx];
+            if (pos.w >= 1.0) return;
+            if (!frustumTest(pos.xyz, attribs[e.arenaOffset + particleIdx].x)) return;
+
+            uint slot = atomicAdd(indirectBuffers[d].instanceCount, 1u);
+            drawIndexBuffers[d].drawIndices[slot] = particleIdx;
+        }
+        """;
 }
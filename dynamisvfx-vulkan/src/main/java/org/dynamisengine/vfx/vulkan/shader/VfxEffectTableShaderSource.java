@@ -0,0 +1,48 @@
+package org.dynamisengine.vfx.vulkan.shader;
+
+/**
+ * Effect table shared by the batched compute shaders; the layout matches
+ * {@code VulkanVfxEffectBatch}. The lookups return the last entry whose start is at or below the
+ * given index, so empty entries sharing a start with the next one are passed over.
+ */
+public final class VfxEffectTableShaderSource {
+    private VfxEffectTableShaderSource() {
+    }
+
+    public static final String DECLARATIONS = """
+        #extension GL_EXT_nonuniform_qualifier : require
+
+        struct EffectEntry {
+            uint particleOffset;
+            uint particleCount;
+            uint arenaOffset;
+            uint descriptorIndex;
+            uint spawnOffset;
+            uint spawnCount;
+            uint seed;
+            uint flags;
+        };
+
+        layout(std430, set=0, binding=1) readonly buffer EffectTable { EffectEntry effects[]; };
+
+        uint findEffectForParticle(uint particle, uint effectCount) {
+            uint lo = 0u;
+            uint hi = effectCount - 1u;
+            while (lo < hi) {
+                uint mid = (lo + hi + 1u) >> 1;
+                if (effects[mid].particleOffset <= particle) lo = mid; else hi = mid - 1u;
+            }
+            return lo;
+        }
+
+        uint findEffectForSpawn(uint spawn, uint effectCount) {
+            uint lo = 0u;
+            uint hi = effectCount - 1u;
+            while (lo < hi) {
+                uint mid = (lo + hi + 1u) >> 1;
+                if (effects[mid].spawnOffset <= spawn) lo = mid; else hi = mid - 1u;
+            }
+            return lo;
+        }
+        """;
+}
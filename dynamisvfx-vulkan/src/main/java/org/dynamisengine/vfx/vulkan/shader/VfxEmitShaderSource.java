@@ -83,4 +83,84 @@ public final class VfxEmitShaderSource {
             atomicAdd(freeList.readHead, 1);
         }
         """;
+
+    /**
+     * Batched variant: one invocation per spawn of every effect in the table. Slots from the
+     * per-effect free lists are range-relative, so writes land at the entry's arena offset.
+     */
+    public static final String BATCHED_GLSL = """
+        #version 450
+        """ + VfxEffectTableShaderSource.DECLARATIONS + """
+        layout(local_size_x = 256) in;
+
+        layout(std430, set=1, binding=0) buffer PositionBuffer  { vec4 positions[];  };
+        layout(std430, set=1, binding=1) buffer VelocityBuffer  { vec4 velocities[]; };
+        layout(std430, set=1, binding=2) buffer ColorBuffer     { vec4 colors[];     };
+        layout(std430, set=1, binding=3) buffer AttribBuffer    { vec4 attribs[];    };
+        layout(std430, set=1, binding=4) buffer MetaBuffer      { uvec4 meta[];      };
+
+        layout(std430, set=2, binding=1) buffer FreeListBuffer {
+            uint writeHead;
+            uint readHead;
+            uint slots[];
+        } freeLists[];
+        layout(std430, set=2, binding=2) buffer AliveCountBuffer { uint count; } aliveCounts[];
+        layout(std430, set=2, binding=0) buffer EmitterDescBuffer {
+            uint shapeType;
+            vec4 shape0;
+            vec4 shape1;
+            vec4 velocity0;
+            vec4 velocity1;
+            vec2 sizeRange;
+            vec2 lifetimeRange;
+            vec4 initColor;
+            uint flags;
+        } emitters[];
+
+        layout(push_constant) uniform PushConstants {
+            uint totalSpawnCount;
+            uint effectCount;
+            uint frameIndex;
+        } push;
+
+        // PCG hash for per-particle RNG
+        uint pcg(uint v) {
+            uint state = v * 747796405u + 2891336453u;
+            uint word = ((state >> ((state >> 28u) + 4u)) ^ state) * 277803737u;
+            return (word >> 22u) ^ word;
+        }
+
+        float rand01(uint v) {
+            return float(v & 0x00ffffffu) / 16777216.0;
+        }
+
+        void main() {
+            uint spawnIdx = gl_GlobalInvocationID.x;
+            if (spawnIdx >= push.totalSpawnCount) return;
+            EffectEntry e = effects[findEffectForSpawn(spawnIdx, push.effectCount)];
+            nonuniformEXT uint d = e.descriptorIndex;
+            uint local = spawnIdx - e.spawnOffset;
+
+            uint slot = e.arenaOffset + freeLists[d].slots[freeLists[d].readHead + local];
+            uint rng = pcg(e.seed ^ push.frameIndex ^ local);
+
+            vec3 sampledPos = vec3(emitters[d].shape0.w * rand01(rng), 0.0, 0.0);
+
+            float speed = mix(emitters[d].velocity0.w, emitters[d].velocity1.w, rand01(rng ^ 0x9e3779b9u));
+            vec3 v0 = emitters[d].velocity0.xyz;
+            vec3 dir = normalize(max(abs(v0), vec3(1e-5)) * sign(v0 + vec3(1e-5)));
+
+            float sampledSize = mix(emitters[d].sizeRange.x, emitters[d].sizeRange.y, rand01(rng ^ 0x7f4a7c15u));
+            float sampledLifetime = mix(emitters[d].lifetimeRange.x, emitters[d].lifetimeRange.y, rand01(rng ^ 0x6a09e667u));
+
+            positions[slot]  = vec4(sampledPos, 0.0);
+            velocities[slot] = vec4(dir * speed, 1.0);
+            colors[slot]     = emitters[d].initColor;
+            attribs[slot]    = vec4(sampledSize, 0.0, 0.0, sampledLifetime);
+            meta[slot]       = uvec4(e.descriptorIndex, rng, 0, 0);
+
+            atomicAdd(aliveCounts[d].count, 1);
+            atomicAdd(freeLists[d].readHead, 1);
+        }
+        """;
 }
@@ -34,4 +34,44 @@ public final class VfxRetireShaderSource {
             }
         }
         """;
+
+    /**
+     * Batched variant: one invocation per particle of every effect in the table. Streams are the
+     * whole arena; free lists and alive counts are per-effect arrays indexed by descriptor index.
+     */
+    public static final String BATCHED_GLSL = """
+        #version 450
+        """ + VfxEffectTableShaderSource.DECLARATIONS + """
+        layout(local_size_x = 256) in;
+
+        layout(std430, set=1, binding=0) buffer PositionBuffer {
+            vec4 positions[];
+        };
+        layout(std430, set=2, binding=1) buffer FreeListBuffer {
+            uint writeHead;
+            uint readHead;
+            uint slots[];
+        } freeLists[];
+        layout(std430, set=2, binding=2) buffer AliveCountBuffer {
+            uint count;
+        } aliveCounts[];
+
+        layout(push_constant) uniform PushConstants {
+            uint totalParticles;
+            uint effectCount;
+        } push;
+
+        void main() {
+            uint idx = gl_GlobalInvocationID.x;
+            if (idx >= push.totalParticles) return;
+            EffectEntry e = effects[findEffectForParticle(idx, push.effectCount)];
+            uint local = idx - e.particleOffset;
+            if (positions[e.arenaOffset + local].w >= 1.0) {
+                nonuniformEXT uint d = e.descriptorIndex;
+                uint freeSlot = atomicAdd(freeLists[d].writeHead, 1);
+                freeLists[d].slots[freeSlot] = local;
+                atomicAdd(aliveCounts[d].count, uint(-1));
+            }
+        }
+        """;
 }
@@ -101,4 +101,109 @@ public final class VfxSimulateShaderSource {
             velocities[idx].xyz = vel;
         }
         """;
+
+    /**
+     * Batched variant over the effect table. Noise scale and strength ride in each effect's force
+     * buffer header, since one push constant block serves every effect of the batch.
+     */
+    public static final String BATCHED_GLSL = """
+        #version 450
+        """ + VfxEffectTableShaderSource.DECLARATIONS + """
+        layout(local_size_x = 256) in;
+
+        struct ForceEntry {
+            uint  type;
+            float strength;
+            vec3  direction;
+            vec3  origin;
+        };
+
+        layout(std430, set=1, binding=0) buffer PositionBuffer  { vec4 positions[];  };
+        layout(std430, set=1, binding=1) buffer VelocityBuffer  { vec4 velocities[]; };
+        layout(std430, set=1, binding=2) buffer ColorBuffer     { vec4 colors[];     };
+        layout(std430, set=1, binding=3) buffer AttribBuffer    { vec4 attribs[];    };
+
+        layout(std430, set=2, binding=3) buffer ForceFieldBuffer {
+            uint forceCount;
+            float noiseWorldScale;
+            float noiseStrength;
+            uint pad0;
+            ForceEntry forces[];
+        } forceBuffers[];
+
+        layout(set=2, binding=4) uniform sampler3D noiseFields3D[];
+
+        layout(std140, set=0, binding=0) uniform FrameUniforms {
+            mat4 view;
+            mat4 projection;
+            vec4 cameraPos;
+            vec4 frustumPlanes[6];
+            float deltaTime;
+            float totalTime;
+            uint frameIndex;
+            uint padding;
+        } frameUniforms;
+
+        layout(push_constant) uniform PushConstants {
+            uint totalParticles;
+            uint effectCount;
+        } push;
+
+        vec3 evaluateForce(ForceEntry f, vec3 pos, vec3 vel, float mass) {
+            if (f.type == 0u) {  // GRAVITY
+                return f.direction * f.strength;
+            }
+            if (f.type == 1u) {  // DRAG
+                return -vel * f.strength;
+            }
+            if (f.type == 2u) {  // ATTRACTOR
+                vec3 toOrigin = f.origin - pos;
+                float dist = length(toOrigin);
+                if (dist < 0.001) return vec3(0);
+                float falloff = 1.0 - clamp(dist / 1.0, 0.0, 1.0);
+                return normalize(toOrigin) * f.strength * falloff;
+            }
+            if (f.type == 3u) {  // WIND
+                return f.direction * f.strength;
+            }
+            return vec3(0);
+        }
+
+        void main() {
+            uint idx = gl_GlobalInvocationID.x;
+            if (idx >= push.totalParticles) return;
+            EffectEntry e = effects[findEffectForParticle(idx, push.effectCount)];
+            nonuniformEXT uint d = e.descriptorIndex;
+            uint p = e.arenaOffset + (idx - e.particleOffset);
+            if (positions[p].w >= 1.0) return; // dead
+
+            vec3 pos  = positions[p].xyz;
+            vec3 vel  = velocities[p].xyz;
+            float mass = velocities[p].w;
+            float age  = positions[p].w;
+
+            vec3 acceleration = vec3(0.0);
+            for (uint i = 0u; i < forceBuffers[d].forceCount; i++) {
+                acceleration += evaluateForce(forceBuffers[d].forces[i], pos, vel, mass);
+            }
+
+            float noiseStrength = forceBuffers[d].noiseStrength;
+            if (noiseStrength > 0.0) {
+                vec3 noiseUV = (pos / max(forceBuffers[d].noiseWorldScale, 0.0001)) * 0.5 + 0.5;
+                noiseUV = clamp(noiseUV, 0.0, 1.0);
+                vec3 curlVel = texture(noiseFields3D[d], noiseUV).rgb;
+                vel += curlVel * noiseStrength * frameUniforms.deltaTime;
+            }
+
+            vel += acceleration * frameUniforms.deltaTime;
+            pos += vel * frameUniforms.deltaTime;
+
+            float lifetime = max(attribs[p].w, 0.001);
+            age += frameUniforms.deltaTime / lifetime;
+
+            positions[p].xyz  = pos;
+            positions[p].w    = age;
+            velocities[p].xyz = vel;
+        }
+        """;
 }
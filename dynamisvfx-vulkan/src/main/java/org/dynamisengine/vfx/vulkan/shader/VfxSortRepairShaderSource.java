@@ -0,0 +1,56 @@
+package org.dynamisengine.vfx.vulkan.shader;
+
+public final class VfxSortRepairShaderSource {
+    private VfxSortRepairShaderSource() {
+    }
+
+    public static final String GLSL = """
+        #version 450
+        layout(local_size_x = 256) in;
+
+        layout(std430, set=1, binding=0) buffer PositionBuffer { vec4 positions[]; };
+        layout(std430, set=3, binding=2) buffer SortKeyBuffer  { uint sortKeys[];  };
+        layout(std430, set=3, binding=0) buffer IndexBuffer    { uint indices[];   };
+
+        layout(push_constant) uniform PushConstants {
+            vec4 cameraPos;
+            uint maxParticles;
+            uint phase;
+        } push;
+
+        uint floatToSortableUint(float f) {
+            uint u = floatBitsToUint(f);
+            uint mask = uint(-int(u >> 31)) | 0x80000000u;
+            return u ^ mask;
+        }
+
+        // Phase 0 re-keys last frame's order in place; phases 1 and 2 are the even and odd
+        // compare-swap steps of one odd-even transposition pass.
+        void main() {
+            uint idx = gl_GlobalInvocationID.x;
+            if (push.phase == 0u) {
+                if (idx >= push.maxParticles) return;
+                vec4 p = positions[indices[idx]];
+                if (p.w >= 1.0) {
+                    sortKeys[idx] = 0u;
+                    return;
+                }
+                vec3 diff = p.xyz - push.cameraPos.xyz;
+                sortKeys[idx] = floatToSortableUint(dot(diff, diff));
+                return;
+            }
+            uint left = idx * 2u + (push.phase - 1u);
+            uint right = left + 1u;
+            if (right >= push.maxParticles) return;
+            uint leftKey = sortKeys[left];
+            uint rightKey = sortKeys[right];
+            if (leftKey > rightKey) {
+                sortKeys[left] = rightKey;
+                sortKeys[right] = leftKey;
+                uint index = indices[left];
+                indices[left] = indices[right];
+                indices[right] = index;
+            }
+        }
+        """;
+}
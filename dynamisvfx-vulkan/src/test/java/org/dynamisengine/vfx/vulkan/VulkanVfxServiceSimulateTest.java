@@ -0,0 +1,212 @@
+package org.dynamisengine.vfx.vulkan;
+
+import org.dynamisengine.gpu.test.mock.MockIndirectCommandBuffer;
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.api.VfxFrameContext;
+import org.dynamisengine.vfx.api.VfxHandle;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.dynamisengine.vfx.vulkan.compute.VulkanVfxSortStage;
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorPool;
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSets;
+import org.dynamisengine.vfx.vulkan.internal.gpu.VfxComputeStage;
+import org.dynamisengine.vfx.vulkan.internal.gpu.VfxGpuCommandAdapter;
+import org.dynamisengine.vfx.vulkan.resources.VulkanVfxEffectResources;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class VulkanVfxServiceSimulateTest {
+
+    @Test
+    void everyBurstEffectFiresItsOwnBurst() throws Exception {
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        VulkanVfxService service = new VulkanVfxService(1L, null, null, layout, new TrackingAdapter());
+        VulkanVfxDescriptorPool pool = VulkanVfxDescriptorPool.create(1L, 16, 3);
+
+        VfxHandle first = spawn(service, layout, pool, burst(40));
+        VfxHandle second = spawn(service, layout, pool, burst(40));
+        List<VfxHandle> active = List.of(first, second);
+
+        service.simulate(active, 1f / 60f, new FrameContext(0L));
+        assertEquals(80, service.getStats().activeParticleCount());
+
+        // Bursts fire once per effect, whatever the iteration order.
+        service.simulate(active, 1f / 60f, new FrameContext(1L));
+        assertEquals(80, service.getStats().activeParticleCount());
+
+        service.destroy();
+        layout.destroy(1L);
+    }
+
+    @Test
+    void stillCameraRepairsLastSortOnTheDevice() throws Exception {
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        TrackingAdapter adapter = new TrackingAdapter();
+        VulkanVfxService service = new VulkanVfxService(1L, null, null, layout, adapter);
+        VulkanVfxDescriptorPool pool = VulkanVfxDescriptorPool.create(1L, 16, 3);
+        List<VfxHandle> active = List.of(spawn(service, layout, pool, alphaBurst(64)));
+
+        service.simulate(active, 1f / 60f, new FrameContext(0L, 0f));
+        assertEquals(List.of(VfxComputeStage.SORT), sortDispatches(adapter));
+
+        long frame = 1L;
+        for (int i = 0; i < VulkanVfxSortStage.DEVICE_FULL_SORT_INTERVAL; i++) {
+            adapter.dispatches.clear();
+            service.simulate(active, 1f / 60f, new FrameContext(frame++, 0f));
+            assertEquals(List.of(VfxComputeStage.SORT_REPAIR), sortDispatches(adapter));
+        }
+
+        // Repairs are bounded, so a full sort follows the interval.
+        adapter.dispatches.clear();
+        service.simulate(active, 1f / 60f, new FrameContext(frame++, 0f));
+        assertEquals(List.of(VfxComputeStage.SORT), sortDispatches(adapter));
+
+        adapter.dispatches.clear();
+        service.simulate(active, 1f / 60f, new FrameContext(frame++, 0f));
+        assertEquals(List.of(VfxComputeStage.SORT_REPAIR), sortDispatches(adapter));
+
+        // A camera jump re-keys from scratch.
+        adapter.dispatches.clear();
+        service.simulate(active, 1f / 60f, new FrameContext(frame, 25f));
+        assertEquals(List.of(VfxComputeStage.SORT), sortDispatches(adapter));
+
+        service.destroy();
+        layout.destroy(1L);
+    }
+
+    @Test
+    void arenaEffectsBindTheirOwnRangeAndShareTheArenaBytes() throws Exception {
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        VulkanVfxService service = new VulkanVfxService(1L, null, null, layout, new TrackingAdapter());
+        VulkanVfxDescriptorPool pool = VulkanVfxDescriptorPool.create(1L, 16, 3);
+        long arenaBytes = service.particleArena().totalBytes();
+
+        spawn(service, layout, pool, burst(40));
+        VfxHandle handle = service.spawn(burst(40), null);
+        VulkanVfxEffectResources resources = VulkanVfxEffectResources.allocateForTest(
+            handle,
+            burst(40),
+            service.particleView(handle),
+            new MockIndirectCommandBuffer(1L, 2L, new int[] {0}, new int[] {4096})
+        );
+        VulkanVfxDescriptorSets sets = VulkanVfxDescriptorSets.allocate(1L, pool, layout, resources, 3);
+        service.registerEffectResources(handle, resources, sets);
+
+        int offset = resources.soaBuffers().arenaOffset();
+        assertNotEquals(0, offset);
+        assertEquals(offset * 16L, sets.streamOffsetBytes());
+        assertEquals(resources.soaBuffers().maxParticles() * 16L, sets.streamRangeBytes());
+        assertEquals(arenaBytes, service.getStats().gpuMemoryBytes());
+
+        service.destroy();
+        layout.destroy(1L);
+    }
+
+    static VfxHandle spawn(
+        VulkanVfxService service,
+        VulkanVfxDescriptorSetLayout layout,
+        VulkanVfxDescriptorPool pool,
+        ParticleEmitterDescriptor descriptor
+    ) throws Exception {
+        VfxHandle handle = service.spawn(descriptor, null);
+        VulkanVfxEffectResources resources = VulkanVfxEffectResources.allocateForTest(
+            handle,
+            descriptor,
+            service.particleView(handle),
+            new MockIndirectCommandBuffer(1L, 2L, new int[] {0}, new int[] {4096})
+        );
+        service.registerEffectResources(handle, resources, VulkanVfxDescriptorSets.allocate(1L, pool, layout, resources, 3));
+        return handle;
+    }
+
+    private static ParticleEmitterDescriptor burst(int count) {
+        return burst(count, BlendMode.ADDITIVE);
+    }
+
+    private static ParticleEmitterDescriptor alphaBurst(int count) {
+        return burst(count, BlendMode.ALPHA);
+    }
+
+    private static ParticleEmitterDescriptor burst(int count, BlendMode blend) {
+        return EffectBuilder.emitter("burst")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.burst(count))
+            .init(ParticleInit.builder().lifetime(5f, 5f).velocityRange(1f, 2f).sizeRange(0.1f, 0.1f).build())
+            .renderer(Renderer.billboard().blend(blend).build())
+            .build();
+    }
+
+    private static List<VfxComputeStage> sortDispatches(TrackingAdapter adapter) {
+        return adapter.dispatches.stream()
+            .filter(stage -> stage == VfxComputeStage.SORT || stage == VfxComputeStage.SORT_REPAIR)
+            .toList();
+    }
+
+    static final class TrackingAdapter implements VfxGpuCommandAdapter {
+        final List<VfxComputeStage> dispatches = new ArrayList<>();
+
+        @Override
+        public long commandBuffer(VfxFrameContext frameContext) {
+            return 1L;
+        }
+
+        @Override
+        public void dispatch(long commandBuffer, VfxComputeStage stage, int groupCountX) {
+            dispatches.add(stage);
+        }
+    }
+
+    static final class FrameContext implements VfxFrameContext {
+        private final long frameIndex;
+        private final float cameraX;
+
+        FrameContext(long frameIndex) {
+            this(frameIndex, 0f);
+        }
+
+        FrameContext(long frameIndex, float cameraX) {
+            this.frameIndex = frameIndex;
+            this.cameraX = cameraX;
+        }
+
+        @Override
+        public long commandBuffer() {
+            return 1L;
+        }
+
+        @Override
+        public float[] cameraView() {
+            return new float[] {
+                1f, 0f, 0f, 0f,
+                0f, 1f, 0f, 0f,
+                0f, 0f, 1f, 0f,
+                -cameraX, 0f, 0f, 1f
+            };
+        }
+
+        @Override
+        public float[] cameraProjection() {
+            return new float[16];
+        }
+
+        @Override
+        public float[] frustumPlanes() {
+            return new float[24];
+        }
+
+        @Override
+        public long frameIndex() {
+            return frameIndex;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.dynamisengine.vfx.vulkan;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.api.VfxHandle;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VulkanVfxServiceSpatialQueryTest {
+
+    @Test
+    void sphereQueryFindsOnlyNearbyEffectsAndFollowsTransforms() {
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        VulkanVfxService service = new VulkanVfxService(1L, null, null, layout);
+
+        VfxHandle torch = service.spawn(torch(), translation(0f, 0f, 0f));
+        VfxHandle vent = service.spawn(torch(), translation(100f, 0f, 0f));
+
+        List<VfxHandle> near = new ArrayList<>();
+        service.queryEffectsInSphere(0f, 0f, 0f, 5f, near::add);
+        assertEquals(List.of(torch), near);
+
+        service.updateTransform(vent, translation(2f, 0f, 0f));
+        near.clear();
+        service.queryEffectsInSphere(0f, 0f, 0f, 5f, near::add);
+        assertEquals(2, near.size());
+
+        service.despawn(torch);
+        List<VfxHandle> hits = new ArrayList<>();
+        service.raycastEffects(new float[] {-50f, 0f, 0f}, new float[] {1f, 0f, 0f}, 1000f, hits::add);
+        assertEquals(List.of(vent), hits);
+        assertTrue(service.isHandleAlive(vent));
+
+        service.destroy();
+        layout.destroy(1L);
+    }
+
+    private static ParticleEmitterDescriptor torch() {
+        return EffectBuilder.emitter("torch")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.continuous(30f))
+            .init(ParticleInit.builder().lifetime(0.5f, 0.5f).velocityRange(0.5f, 1.0f).sizeRange(0.1f, 0.1f).build())
+            .renderer(Renderer.billboard().blend(BlendMode.ADDITIVE).build())
+            .build();
+    }
+
+    private static float[] translation(float x, float y, float z) {
+        return new float[] {
+            1f, 0f, 0f, 0f,
+            0f, 1f, 0f, 0f,
+            0f, 0f, 1f, 0f,
+            x, y, z, 1f
+        };
+    }
+}
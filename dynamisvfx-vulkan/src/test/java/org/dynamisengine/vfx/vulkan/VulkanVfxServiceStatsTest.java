@@ -0,0 +1,64 @@
+package org.dynamisengine.vfx.vulkan;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.api.ParticleEmitterDescriptor;
+import org.dynamisengine.vfx.api.VfxHandle;
+import org.dynamisengine.vfx.api.VfxStats;
+import org.dynamisengine.vfx.api.VfxStatsSnapshot;
+import org.dynamisengine.vfx.core.builder.EffectBuilder;
+import org.dynamisengine.vfx.core.builder.EmissionRate;
+import org.dynamisengine.vfx.core.builder.EmitterShape;
+import org.dynamisengine.vfx.core.builder.ParticleInit;
+import org.dynamisengine.vfx.core.builder.Renderer;
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VulkanVfxServiceStatsTest {
+
+    @Test
+    void snapshotTracksSpawnAndDespawnWithoutRebuilding() {
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        VulkanVfxService service = new VulkanVfxService(1L, null, null, layout);
+        VfxStatsSnapshot snapshot = new VfxStatsSnapshot();
+
+        VfxHandle a = service.spawn(spark(), null);
+        VfxHandle b = service.spawn(spark(), null);
+        // Each effect is a disjoint range of the shared arena.
+        assertNotEquals(service.particleView(a).arenaOffset(), service.particleView(b).arenaOffset());
+        assertTrue(service.particleView(a).isArenaView());
+        service.readStats(snapshot);
+        assertEquals(2, snapshot.activeEffectCount());
+        // Nothing has been simulated yet, so both emitters count as sleeping.
+        assertEquals(2, snapshot.sleepingEmitterCount());
+        assertEquals(2, snapshot.budgetEffectCount());
+        assertEquals(snapshot.totalBudget() - snapshot.usedBudget(), snapshot.remainingBudget());
+
+        VfxStats stats = service.getStats();
+        assertEquals(stats, snapshot.toStats());
+
+        int usedBefore = snapshot.usedBudget();
+        service.despawn(a);
+        service.despawn(a);
+        service.readStats(snapshot);
+        assertEquals(1, snapshot.activeEffectCount());
+        assertEquals(1, snapshot.sleepingEmitterCount());
+        assertEquals(0, snapshot.activeParticleCount());
+        assertEquals(usedBefore / 2, snapshot.usedBudget());
+
+        service.destroy();
+        layout.destroy(1L);
+    }
+
+    private static ParticleEmitterDescriptor spark() {
+        return EffectBuilder.emitter("spark")
+            .shape(EmitterShape.point())
+            .rate(EmissionRate.continuous(10f))
+            .init(ParticleInit.builder().lifetime(1f, 1f).velocityRange(1f, 2f).sizeRange(0.1f, 0.1f).build())
+            .renderer(Renderer.billboard().blend(BlendMode.ADDITIVE).build())
+            .build();
+    }
+}
@@ -0,0 +1,69 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VfxBuddyAllocatorTest {
+
+    @Test
+    void roundsUpToPowerOfTwoBlocksAndSplitsBuddies() {
+        VfxBuddyAllocator buddy = new VfxBuddyAllocator(1024, 64);
+        int a = buddy.allocate(100);
+        int b = buddy.allocate(10);
+
+        assertEquals(128, buddy.blockSize(a));
+        assertEquals(64, buddy.blockSize(b));
+        assertEquals(0, a % 128);
+        assertNotEquals(a, b);
+        assertEquals(1024 - 192, buddy.freeParticles());
+        assertEquals(-1, buddy.allocate(2048));
+    }
+
+    @Test
+    void randomChurnCoalescesBackToOneBlock() {
+        VfxBuddyAllocator buddy = new VfxBuddyAllocator(1 << 16, 64);
+        SplittableRandom random = new SplittableRandom(11L);
+        List<Integer> live = new ArrayList<>();
+        for (int round = 0; round < 5_000; round++) {
+            if (live.isEmpty() || random.nextInt(3) != 0) {
+                int offset = buddy.allocate(1 + random.nextInt(2048));
+                if (offset >= 0) {
+                    live.add(offset);
+                }
+            } else {
+                buddy.free(live.remove(random.nextInt(live.size())));
+            }
+            int used = 0;
+            for (int offset : live) {
+                used += buddy.blockSize(offset);
+            }
+            assertEquals((1 << 16) - used, buddy.freeParticles());
+        }
+
+        Collections.shuffle(live, new java.util.Random(3L));
+        for (int offset : live) {
+            buddy.free(offset);
+        }
+        assertEquals(1 << 16, buddy.largestFreeBlock());
+    }
+
+    @Test
+    void rejectsDoubleFreeAndUnalignedOffsets() {
+        VfxBuddyAllocator buddy = new VfxBuddyAllocator(256, 64);
+        int a = buddy.allocate(64);
+        buddy.free(a);
+        assertThrows(IllegalArgumentException.class, () -> buddy.free(a));
+        assertThrows(IllegalArgumentException.class, () -> buddy.free(3));
+        assertThrows(IllegalArgumentException.class, () -> new VfxBuddyAllocator(100, 64));
+        assertTrue(buddy.allocate(256) >= 0);
+    }
+}
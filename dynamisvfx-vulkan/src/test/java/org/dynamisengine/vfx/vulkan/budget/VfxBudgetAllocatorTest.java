@@ -3,7 +3,10 @@ package org.dynamisengine.vfx.vulkan.budget;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -123,4 +126,195 @@ class VfxBudgetAllocatorTest {
         alloc.release(999);
         assertEquals(0, alloc.stats().usedBudget());
     }
+
+    @Test
+    void arenaBackedBudgetGrantsPowerOfTwoRangesAndReusesThem() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(VfxBudgetPolicy.CLAMP, new VfxBuddyAllocator(1024, 64));
+        VfxBudgetAllocation spark = alloc.allocate(40, NO_OP);
+        VfxBudgetAllocation smoke = alloc.allocate(700, NO_OP);
+        assertEquals(64, spark.allocatedParticles());
+        assertEquals(1024, alloc.totalBudget());
+        // 700 rounds to 1024, which no longer fits: clamped to the largest free block.
+        assertEquals(512, smoke.allocatedParticles());
+        assertEquals(1, alloc.stats().clampedThisFrame());
+
+        alloc.release(spark.allocationId());
+        VfxBudgetAllocation again = alloc.allocate(64, NO_OP);
+        assertEquals(spark.arenaOffset(), again.arenaOffset());
+        assertNull(new VfxBudgetAllocator(VfxBudgetPolicy.REJECT, new VfxBuddyAllocator(128, 64))
+            .allocate(1000, NO_OP));
+    }
+
+    @Test
+    void compactionPacksLiveRangesWithinPerFrameBudget() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(VfxBudgetPolicy.REJECT, new VfxBuddyAllocator(1024, 64));
+        List<VfxBudgetAllocation> all = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            all.add(alloc.allocate(64, NO_OP));
+        }
+        for (int i = 0; i < 16; i += 2) {
+            alloc.release(all.get(i).allocationId());
+        }
+        assertEquals(64, alloc.ranges().largestFreeBlock());
+
+        Map<Integer, Integer> offsets = new HashMap<>();
+        VfxArenaMoveListener listener = (id, from, to, particles) -> {
+            assertTrue(to < from);
+            offsets.put(id, to);
+        };
+        int frames = 0;
+        while (alloc.compact(128, listener) > 0) {
+            frames++;
+        }
+        // Two 64-slot moves per frame; the four live ranges above the midpoint move down.
+        assertEquals(2, frames);
+        assertEquals(512, alloc.ranges().largestFreeBlock());
+        offsets.forEach((id, offset) -> assertEquals(offset.intValue(), alloc.allocation(id).arenaOffset()));
+        assertNotNull(alloc.allocate(512, NO_OP));
+    }
+
+    @Test
+    void compactionUnderChurnKeepsOffsetsConsistent() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(VfxBudgetPolicy.REJECT, new VfxBuddyAllocator(1 << 14, 64));
+        Map<Integer, Integer> model = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(21L);
+        VfxArenaMoveListener listener = (id, from, to, particles) -> {
+            assertEquals(from, model.get(id).intValue());
+            model.put(id, to);
+        };
+        for (int frame = 0; frame < 2_000; frame++) {
+            if (model.isEmpty() || random.nextBoolean()) {
+                VfxBudgetAllocation a = alloc.allocate(1 + random.nextInt(1024), NO_OP);
+                if (a != null) {
+                    model.put(a.allocationId(), a.arenaOffset());
+                }
+            } else {
+                Integer victim = model.keySet().stream().skip(random.nextInt(model.size())).findFirst().orElseThrow();
+                model.remove(victim);
+                alloc.release(victim);
+            }
+            assertTrue(alloc.compact(512, listener) <= 512);
+        }
+        model.forEach((id, offset) -> assertEquals(offset.intValue(), alloc.allocation(id).arenaOffset()));
+    }
+
+    @Test
+    void evictionCallbackRunsAfterReleaseAndMayReenter() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(100, VfxBudgetPolicy.EVICT_OLDEST);
+        List<Integer> evicted = new ArrayList<>();
+        Consumer<Integer> despawn = id -> {
+            assertNull(alloc.allocation(id), "victim released before the owner hears about it");
+            alloc.release(id);
+            evicted.add(id);
+        };
+        VfxBudgetAllocation first = alloc.allocate(40, despawn);
+        VfxBudgetAllocation second = alloc.allocate(40, despawn);
+        alloc.release(first.allocationId());
+        alloc.allocate(20, despawn);
+
+        // The released first allocation is skipped; the second is now the oldest.
+        assertNotNull(alloc.allocate(60, despawn));
+        assertEquals(List.of(second.allocationId()), evicted);
+        assertEquals(80, alloc.stats().usedBudget());
+    }
+
+    @Test
+    void concurrentSpawnersNeverOverrunTheBudget() throws Exception {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(10_000, VfxBudgetPolicy.EVICT_OLDEST);
+        int threads = 8;
+        Thread[] workers = new Thread[threads];
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                List<Integer> mine = new ArrayList<>();
+                for (int i = 0; i < 20_000; i++) {
+                    VfxBudgetAllocation a = alloc.allocate(1 + random.nextInt(500), alloc::release);
+                    if (a != null) {
+                        mine.add(a.allocationId());
+                    }
+                    if (alloc.stats().usedBudget() > alloc.totalBudget()) {
+                        throw new AssertionError("budget overrun");
+                    }
+                    if (mine.size() > 4) {
+                        alloc.release(mine.remove(0));
+                    }
+                }
+                mine.forEach(alloc::release);
+            });
+            workers[t].setUncaughtExceptionHandler((thread, e) -> failure[0] = e);
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure[0]);
+        assertEquals(0, alloc.stats().usedBudget());
+        assertEquals(0, alloc.stats().activeEffectCount());
+    }
+
+    @Test
+    void importancePolicyEvictsOffscreenSparksBeforeTheCampfire() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(VfxBudgetPolicy.IMPORTANCE, new VfxBuddyAllocator(4096, 64));
+        List<Integer> evicted = new ArrayList<>();
+        float campfireScore = VfxImportance.score(0, 5f, 0.3f, VfxImportance.PERSISTENT);
+        VfxBudgetAllocation campfire = alloc.allocate(1024, campfireScore, evicted::add);
+        List<Integer> sparks = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            VfxBudgetAllocation spark = alloc.allocate(64, VfxImportance.score(0, 80f, 0f, 0.4f), evicted::add);
+            if (spark != null) {
+                sparks.add(spark.allocationId());
+            }
+        }
+        assertEquals(48, sparks.size());
+        assertTrue(evicted.isEmpty());
+
+        // A new on-screen effect only fits once sparks go; the older, persistent campfire stays.
+        VfxBudgetAllocation explosion = alloc.allocate(2048, VfxImportance.score(0, 10f, 0.5f, 3f), evicted::add);
+        assertNotNull(explosion);
+        assertEquals(2048, explosion.allocatedParticles());
+        assertFalse(evicted.contains(campfire.allocationId()));
+        assertTrue(sparks.containsAll(evicted));
+        assertNotNull(alloc.allocation(campfire.allocationId()));
+    }
+
+    @Test
+    void importancePolicyShrinksRequestsThatEverythingOutranks() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(100, VfxBudgetPolicy.IMPORTANCE);
+        VfxBudgetAllocation hero = alloc.allocate(80, VfxImportance.score(1, 0f, 1f, VfxImportance.PERSISTENT), NO_OP);
+        VfxBudgetAllocation ambient = alloc.allocate(50, VfxImportance.score(0, 50f, 0f, 1f), NO_OP);
+        assertEquals(20, ambient.allocatedParticles());
+        assertEquals(1, alloc.stats().clampedThisFrame());
+        assertEquals(0, alloc.stats().evictedThisFrame());
+
+        // Re-scored above the hero, the ambient effect now wins the next contest.
+        assertTrue(alloc.updateImportance(ambient.allocationId(), VfxImportance.score(2, 0f, 1f, 5f)));
+        assertNotNull(alloc.allocate(60, VfxImportance.score(1, 0f, 1f, VfxImportance.PERSISTENT) + 1f, NO_OP));
+        assertNull(alloc.allocation(hero.allocationId()));
+        assertNotNull(alloc.allocation(ambient.allocationId()));
+        assertFalse(alloc.updateImportance(hero.allocationId(), 0f));
+    }
+
+    @Test
+    void beginFrameRollsCountersIntoHistory() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(100, VfxBudgetPolicy.REJECT);
+        alloc.beginFrame(0);
+        VfxBudgetAllocation a = alloc.allocate(100, NO_OP);
+        for (int frame = 1; frame <= 20; frame++) {
+            // Frame f rejects f % 5 spawns.
+            for (int i = 0; i < frame % 5; i++) {
+                alloc.allocate(10, NO_OP);
+            }
+            assertEquals(frame % 5, alloc.stats().rejectedThisFrame());
+            alloc.beginFrame(frame);
+            alloc.beginFrame(frame);
+            assertEquals(0, alloc.stats().rejectedThisFrame());
+        }
+        VfxBudgetStats stats = alloc.stats();
+        assertEquals(new VfxBudgetPressure(2, 4, 4, 20), stats.rejectedHistory());
+        assertEquals(20L, alloc.currentFrame());
+        assertEquals(100, stats.usedBudget());
+        assertNotNull(a);
+    }
 }
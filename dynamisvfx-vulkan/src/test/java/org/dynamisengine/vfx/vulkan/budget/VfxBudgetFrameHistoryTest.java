@@ -0,0 +1,34 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VfxBudgetFrameHistoryTest {
+
+    @Test
+    void percentilesUseNearestRank() {
+        VfxBudgetFrameHistory history = new VfxBudgetFrameHistory(100);
+        for (int frame = 0; frame < 100; frame++) {
+            history.record(frame, frame + 1, 0, frame == 42 ? 7 : 0);
+        }
+        VfxBudgetPressure rejected = history.pressure(VfxBudgetFrameHistory.REJECTED);
+        assertEquals(new VfxBudgetPressure(50, 95, 100, 100), rejected);
+        assertEquals(new VfxBudgetPressure(0, 0, 7, 100), history.pressure(VfxBudgetFrameHistory.EVICTED));
+        assertEquals(VfxBudgetPressure.NONE, new VfxBudgetFrameHistory(4).pressure(VfxBudgetFrameHistory.CLAMPED));
+    }
+
+    @Test
+    void ringKeepsOnlyTheLatestFrames() {
+        VfxBudgetFrameHistory history = new VfxBudgetFrameHistory(4);
+        for (int frame = 10; frame < 16; frame++) {
+            history.record(frame, 0, frame, 0);
+        }
+        assertEquals(4, history.size());
+        assertEquals(15L, history.frameIndex(0));
+        assertEquals(12L, history.frameIndex(3));
+        assertEquals(13, history.count(VfxBudgetFrameHistory.CLAMPED, 2));
+        assertEquals(new VfxBudgetPressure(13, 15, 15, 4), history.pressure(VfxBudgetFrameHistory.CLAMPED));
+        assertThrows(IllegalArgumentException.class, () -> history.count(VfxBudgetFrameHistory.CLAMPED, 4));
+    }
+}
@@ -0,0 +1,102 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VfxBudgetPoolTest {
+
+    private static final Consumer<Integer> NO_OP = id -> {};
+
+    @Test
+    void guaranteedRequestReclaimsBorrowedParticles() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(1000, VfxBudgetPolicy.REJECT);
+        VfxBudgetPool combat = alloc.addPool("combat", alloc.root(), 400, 1000);
+        VfxBudgetPool weather = alloc.addPool("weather", alloc.root(), 300, 1000);
+        List<Integer> evicted = new ArrayList<>();
+        List<Integer> rain = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            rain.add(alloc.allocate(weather, 100, 0f, evicted::add).allocationId());
+        }
+        assertEquals(600, weather.borrowed());
+
+        // Combat is within its guarantee, so weather's two oldest drops are reclaimed.
+        assertNotNull(alloc.allocate(combat, 300, 0f, evicted::add));
+        assertEquals(rain.subList(0, 2), evicted);
+        assertEquals(700, weather.used());
+        assertEquals(2, alloc.stats(weather).evictedThisFrame());
+
+        // Past its guarantee combat only borrows what is free; weather keeps the rest.
+        assertNull(alloc.allocate(combat, 200, 0f, evicted::add));
+        assertEquals(1, alloc.stats(combat).rejectedThisFrame());
+        assertEquals(2, evicted.size());
+        assertEquals(1000, alloc.stats().usedBudget());
+    }
+
+    @Test
+    void capsHoldEvenWithFreeBudget() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(1000, VfxBudgetPolicy.CLAMP);
+        VfxBudgetPool ui = alloc.addPool("ui", alloc.root(), 50, 200);
+        VfxBudgetAllocation a = alloc.allocate(ui, 300, 0f, NO_OP);
+        assertEquals(200, a.allocatedParticles());
+        assertEquals(1, alloc.stats(ui).clampedThisFrame());
+
+        VfxBudgetStats stats = alloc.stats(ui);
+        assertEquals(200, stats.totalBudget());
+        assertEquals(0, stats.remainingBudget());
+        assertEquals(1, stats.activeEffectCount());
+
+        alloc.release(a.allocationId());
+        assertEquals(0, ui.used());
+        assertEquals(0, alloc.root().used());
+    }
+
+    @Test
+    void nestedPoolsChargeEveryAncestor() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(1000, VfxBudgetPolicy.EVICT_OLDEST);
+        VfxBudgetPool combat = alloc.addPool("combat", alloc.root(), 600, 800);
+        VfxBudgetPool sparks = alloc.addPool("sparks", combat, 100, 300);
+        VfxBudgetPool spells = alloc.addPool("spells", combat, 400, 800);
+        alloc.allocate(sparks, 250, 0f, NO_OP);
+        alloc.allocate(spells, 500, 0f, NO_OP);
+        assertEquals(750, combat.used());
+        assertEquals(750, alloc.root().used());
+
+        // Combat's cap binds before the global budget; sparks evicts its own oldest, not spells.
+        List<Integer> evicted = new ArrayList<>();
+        assertNotNull(alloc.allocate(sparks, 100, 0f, evicted::add));
+        assertEquals(1, evicted.size());
+        assertEquals(500, spells.used());
+        assertEquals(100, sparks.used());
+    }
+
+    @Test
+    void arenaPoolReclaimsAContiguousRange() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(VfxBudgetPolicy.CLAMP, new VfxBuddyAllocator(1024, 64));
+        VfxBudgetPool combat = alloc.addPool("combat", alloc.root(), 512, 1024);
+        VfxBudgetPool weather = alloc.addPool("weather", alloc.root(), 256, 1024);
+        for (int i = 0; i < 16; i++) {
+            assertNotNull(alloc.allocate(weather, 64, 0f, NO_OP));
+        }
+        VfxBudgetAllocation burst = alloc.allocate(combat, 512, 0f, NO_OP);
+        assertEquals(512, burst.allocatedParticles());
+        assertEquals(0, alloc.stats(combat).clampedThisFrame());
+        assertEquals(8, alloc.stats(weather).evictedThisFrame());
+        assertEquals(512, weather.used());
+    }
+
+    @Test
+    void poolTreeRejectsOvercommittedGuarantees() {
+        VfxBudgetAllocator alloc = new VfxBudgetAllocator(1000, VfxBudgetPolicy.REJECT);
+        alloc.addPool("combat", alloc.root(), 700, 1000);
+        assertThrows(IllegalArgumentException.class, () -> alloc.addPool("weather", alloc.root(), 400, 1000));
+        assertThrows(IllegalArgumentException.class, () -> alloc.addPool("ui", alloc.root(), 10, 2000));
+        assertThrows(IllegalArgumentException.class, () -> alloc.addPool("combat", alloc.root(), 0, 10));
+        VfxBudgetPool foreign = new VfxBudgetAllocator(10, VfxBudgetPolicy.REJECT).root();
+        assertThrows(IllegalArgumentException.class, () -> alloc.allocate(foreign, 1, 0f, NO_OP));
+    }
+}
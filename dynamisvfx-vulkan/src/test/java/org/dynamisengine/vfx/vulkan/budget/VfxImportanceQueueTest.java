@@ -0,0 +1,62 @@
+package org.dynamisengine.vfx.vulkan.budget;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VfxImportanceQueueTest {
+
+    @Test
+    void lowestScoreComesFirstAndTiesFavourOlderIds() {
+        VfxImportanceQueue queue = new VfxImportanceQueue();
+        queue.add(3, 2.0f);
+        queue.add(1, 5.0f);
+        queue.add(2, 2.0f);
+        assertEquals(2, queue.peekId());
+        assertEquals(2.0f, queue.peekScore());
+
+        queue.update(2, 9.0f);
+        assertEquals(3, queue.peekId());
+        queue.remove(3);
+        assertEquals(1, queue.peekId());
+        assertEquals(2, queue.size());
+        assertTrue(Float.isNaN(queue.score(3)));
+    }
+
+    @Test
+    void randomUpdatesAndRemovalsMatchSortedModel() {
+        VfxImportanceQueue queue = new VfxImportanceQueue();
+        TreeMap<Integer, Float> model = new TreeMap<>();
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int step = 0; step < 5_000; step++) {
+            int id = 1 + random.nextInt(200);
+            float score = random.nextInt(50);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    queue.add(id, score);
+                    model.put(id, score);
+                }
+                case 1 -> assertEquals(model.containsKey(id) ? model.put(id, score) != null : false,
+                    queue.update(id, score));
+                default -> assertEquals(model.remove(id) != null, queue.remove(id));
+            }
+            assertEquals(model.size(), queue.size());
+            assertEquals(expectedMin(model), queue.peekId());
+        }
+    }
+
+    private static int expectedMin(TreeMap<Integer, Float> model) {
+        int best = -1;
+        float bestScore = Float.POSITIVE_INFINITY;
+        for (var entry : model.entrySet()) {
+            if (entry.getValue() < bestScore) {
+                best = entry.getKey();
+                bestScore = entry.getValue();
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,119 @@
+package org.dynamisengine.vfx.vulkan.compute;
+
+import org.dynamisengine.vfx.api.VfxFrameContext;
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
+import org.dynamisengine.vfx.vulkan.internal.gpu.VfxComputeStage;
+import org.dynamisengine.vfx.vulkan.internal.gpu.VfxGpuCommandAdapter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VulkanVfxBatchedDispatcherTest {
+
+    @Test
+    void fiveHundredEffectsRecordOneDispatchPerBatchAndOneBarrierPerStage() {
+        RecordingAdapter adapter = new RecordingAdapter();
+        VulkanVfxBatchedDispatcher dispatcher = dispatcher(adapter);
+
+        dispatcher.begin();
+        int[] cullRefs = new int[500];
+        for (int i = 0; i < 500; i++) {
+            // Two buffer classes (64 and 128 slots), every other effect on screen.
+            int maxParticles = i % 2 == 0 ? 64 : 100;
+            cullRefs[i] = dispatcher.add(maxParticles, false, i * 128, i + 1, i < 10 ? 4 : 0, i, i % 2 == 0);
+        }
+        dispatcher.recordUpdate(1L, 1L, 0);
+        dispatcher.recordCull(1L, 1L, 0, new float[24]);
+
+        assertEquals(2, dispatcher.updateBatchCount());
+        assertEquals(1, dispatcher.cullBatchCount());
+        assertEquals(2, adapter.dispatches[VfxComputeStage.RETIRE.ordinal()]);
+        assertEquals(2, adapter.dispatches[VfxComputeStage.EMIT.ordinal()]);
+        assertEquals(2, adapter.dispatches[VfxComputeStage.SIMULATE.ordinal()]);
+        assertEquals(1, adapter.dispatches[VfxComputeStage.CULL_COMPACT.ordinal()]);
+        for (VfxComputeStage stage : new VfxComputeStage[] {
+            VfxComputeStage.RETIRE, VfxComputeStage.EMIT, VfxComputeStage.SIMULATE, VfxComputeStage.CULL_COMPACT
+        }) {
+            assertEquals(1, adapter.barriers[stage.ordinal()], stage.name());
+        }
+        assertEquals(-1, cullRefs[1]);
+        assertEquals(64, dispatcher.instanceCount(cullRefs[0]));
+        assertEquals(0, dispatcher.instanceCount(cullRefs[1]));
+    }
+
+    @Test
+    void particleAndSpawnLookupsFindTheOwningEntry() {
+        VulkanVfxEffectBatch batch = new VulkanVfxEffectBatch();
+        batch.reset(0);
+        batch.add(64, 0, 1, 3, 1L, 0);
+        batch.add(0, 64, 2, 0, 2L, 0);
+        batch.add(64, 128, 3, 0, 3L, 0);
+        batch.add(64, 192, 4, 5, 4L, 0);
+
+        assertEquals(0, batch.entryForParticle(0));
+        assertEquals(0, batch.entryForParticle(63));
+        // The empty entry shares its offset with the next one and never owns a particle.
+        assertEquals(2, batch.entryForParticle(64));
+        assertEquals(3, batch.entryForParticle(128));
+        assertEquals(3, batch.entryForParticle(191));
+        assertEquals(0, batch.entryForSpawn(2));
+        assertEquals(3, batch.entryForSpawn(3));
+        assertEquals(3, batch.entryForSpawn(7));
+    }
+
+    @Test
+    void effectTableLaysEffectsEndToEnd() {
+        VulkanVfxBatchedDispatcher dispatcher = dispatcher(new RecordingAdapter());
+        dispatcher.begin();
+        dispatcher.add(128, true, 0, 3, 5, 7L, true);
+        dispatcher.add(100, true, 256, 4, 2, 8L, true);
+
+        VulkanVfxEffectBatch batch = dispatcher.updateBatch(0);
+        assertEquals(2, batch.size());
+        assertEquals(228, batch.totalParticles());
+        assertEquals(7, batch.totalSpawnCount());
+        assertEquals(128, batch.get(1, VulkanVfxEffectBatch.PARTICLE_OFFSET));
+        assertEquals(5, batch.get(1, VulkanVfxEffectBatch.SPAWN_OFFSET));
+        assertEquals(4, batch.get(1, VulkanVfxEffectBatch.DESCRIPTOR_INDEX));
+        assertEquals(256, batch.get(1, VulkanVfxEffectBatch.ARENA_OFFSET));
+
+        ByteBuffer upload = ByteBuffer.allocate(batch.size() * VulkanVfxEffectBatch.ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        batch.writeTo(upload);
+        assertEquals(128, upload.getInt(VulkanVfxEffectBatch.ENTRY_BYTES));
+        assertEquals(VulkanVfxEffectBatch.FLAG_SORTED, upload.getInt(VulkanVfxEffectBatch.ENTRY_BYTES + 7 * Integer.BYTES));
+    }
+
+    private static VulkanVfxBatchedDispatcher dispatcher(VfxGpuCommandAdapter adapter) {
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        return new VulkanVfxBatchedDispatcher(
+            VulkanVfxRetireStage.create(1L, layout),
+            VulkanVfxEmitStage.create(1L, layout),
+            VulkanVfxSimulateStage.create(1L, layout),
+            VulkanVfxCullCompactStage.create(1L, layout),
+            adapter
+        );
+    }
+
+    private static final class RecordingAdapter implements VfxGpuCommandAdapter {
+        private final int[] dispatches = new int[VfxComputeStage.values().length];
+        private final int[] barriers = new int[VfxComputeStage.values().length];
+
+        @Override
+        public long commandBuffer(VfxFrameContext frameContext) {
+            return 1L;
+        }
+
+        @Override
+        public void dispatch(long commandBuffer, VfxComputeStage stage, int groupCountX) {
+            dispatches[stage.ordinal()]++;
+        }
+
+        @Override
+        public void barrier(long commandBuffer, VfxComputeStage stage) {
+            barriers[stage.ordinal()]++;
+        }
+    }
+}
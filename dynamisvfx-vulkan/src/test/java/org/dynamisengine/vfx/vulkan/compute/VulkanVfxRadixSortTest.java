@@ -0,0 +1,114 @@
+package org.dynamisengine.vfx.vulkan.compute;
+
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VulkanVfxRadixSortTest {
+
+    @Test
+    void sortsUnsignedKeysStably() {
+        int n = 5000;
+        int[] keys = new int[n];
+        int[] indices = new int[n];
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt(64) * 0x01010101 ^ (random.nextBoolean() ? 0x80000000 : 0);
+            indices[i] = i;
+        }
+
+        VulkanVfxRadixSort sort = create(n, ForkJoinPool.commonPool());
+        sort.loadInputs(keys, indices, n);
+        sort.sort(1L, n);
+
+        assertArrayEquals(expectedKeys(keys), sort.sortedKeys());
+        int[] sortedIndices = sort.sortedIndices();
+        for (int i = 1; i < n; i++) {
+            assertTrue(Integer.compareUnsigned(sort.sortedKey(i - 1), sort.sortedKey(i)) <= 0);
+            if (sort.sortedKey(i - 1) == sort.sortedKey(i)) {
+                assertTrue(sortedIndices[i - 1] < sortedIndices[i], "equal keys must keep input order");
+            }
+        }
+    }
+
+    @Test
+    void uniformDigitsSkipPasses() {
+        int n = 1000;
+        int[] keys = new int[n];
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = 0x3F800000 | ((n - i) & 0xFF) << 8;
+            indices[i] = i;
+        }
+
+        VulkanVfxRadixSort sort = create(n, ForkJoinPool.commonPool());
+        sort.loadInputs(keys, indices, n);
+        sort.sort(1L, n);
+        assertEquals(1, sort.lastPassCount());
+        assertArrayEquals(expectedKeys(keys), sort.sortedKeys());
+
+        Arrays.fill(keys, 42);
+        sort.loadInputs(keys, indices, n);
+        sort.sort(1L, n);
+        assertEquals(0, sort.lastPassCount());
+        assertArrayEquals(indices, sort.sortedIndices());
+    }
+
+    @Test
+    void parallelPathMatchesSerialPath() {
+        int n = VulkanVfxRadixSort.PARALLEL_THRESHOLD * 3 + 17;
+        int[] keys = new int[n];
+        int[] indices = new int[n];
+        SplittableRandom random = new SplittableRandom(99L);
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt(1 << 20) << 4;
+            indices[i] = i;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            VulkanVfxRadixSort parallel = create(n, pool);
+            VulkanVfxRadixSort serial = create(n, single);
+            parallel.loadInputs(keys, indices, n);
+            parallel.sort(1L, n);
+            serial.loadInputs(keys, indices, n);
+            serial.sort(1L, n);
+
+            assertArrayEquals(serial.sortedKeys(), parallel.sortedKeys());
+            assertArrayEquals(serial.sortedIndices(), parallel.sortedIndices());
+            assertArrayEquals(expectedKeys(keys), parallel.sortedKeys());
+
+            int[] copied = new int[parallel.sortedCount()];
+            parallel.copySortedIndices(copied);
+            assertArrayEquals(serial.sortedIndices(), copied);
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+    }
+
+    private static VulkanVfxRadixSort create(int maxParticles, ForkJoinPool pool) {
+        return VulkanVfxRadixSort.create(1L, VulkanVfxDescriptorSetLayout.create(1L), maxParticles, pool);
+    }
+
+    private static int[] expectedKeys(int[] keys) {
+        // Flipping the sign bit turns unsigned order into signed order.
+        int[] expected = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            expected[i] = keys[i] ^ 0x80000000;
+        }
+        Arrays.sort(expected);
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] ^= 0x80000000;
+        }
+        return expected;
+    }
+}
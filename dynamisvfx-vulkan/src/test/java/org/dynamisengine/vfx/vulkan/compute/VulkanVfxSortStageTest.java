@@ -0,0 +1,140 @@
+package org.dynamisengine.vfx.vulkan.compute;
+
+import org.dynamisengine.vfx.api.BlendMode;
+import org.dynamisengine.vfx.vulkan.descriptor.VulkanVfxDescriptorSetLayout;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VulkanVfxSortStageTest {
+
+    @Test
+    void distanceKeysOrderSlotsNearToFarWithDeadFirst() {
+        ByteBuffer positions = positions(new float[][] {
+            {10f, 0f, 0f, 0.5f},
+            {2f, 0f, 0f, 0.5f},
+            {5f, 0f, 0f, 1.0f},
+            {-4f, 0f, 0f, 0.1f}
+        });
+        VulkanVfxSortStage stage = VulkanVfxSortStage.create(1L, VulkanVfxDescriptorSetLayout.create(1L), 16);
+        stage.dispatchWithPositions(1L, BlendMode.ALPHA, positions, 4, new float[] {0f, 0f, 0f}, null);
+
+        assertArrayEquals(new int[] {2, 1, 3, 0}, stage.lastSortedIndices());
+        assertEquals(0, stage.lastSortedKeys()[0]);
+    }
+
+    @Test
+    void viewDepthKeysIgnoreLateralOffset() {
+        ByteBuffer positions = positions(new float[][] {
+            {100f, 0f, -3f, 0f},
+            {0f, 0f, -5f, 0f},
+            {0f, 50f, -1f, 0f}
+        });
+        VulkanVfxSortStage stage = VulkanVfxSortStage.create(1L, VulkanVfxDescriptorSetLayout.create(1L), 16);
+        stage.dispatchWithPositions(1L, BlendMode.ALPHA, positions, 3, new float[] {0f, 0f, 0f}, new float[] {0f, 0f, -1f});
+
+        assertArrayEquals(new int[] {2, 0, 1}, stage.lastSortedIndices());
+    }
+
+    @Test
+    void coherentFrameRepairsPreviousOrderAndMatchesFullSort() {
+        int n = 4096;
+        float[][] particles = new float[n][];
+        SplittableRandom random = new SplittableRandom(5L);
+        for (int i = 0; i < n; i++) {
+            particles[i] = new float[] {(float) random.nextDouble(-50, 50), (float) random.nextDouble(-50, 50), (float) random.nextDouble(-50, 50), 0.2f};
+        }
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        VulkanVfxSortStage incremental = VulkanVfxSortStage.create(1L, layout, n);
+        VulkanVfxSortStage full = VulkanVfxSortStage.create(1L, layout, n);
+        full.setIncrementalEnabled(false);
+
+        float[] camera = {1f, 2f, 3f};
+        incremental.dispatchWithPositions(1L, BlendMode.ALPHA, positions(particles), n, camera, null);
+        assertFalse(incremental.lastIncremental());
+
+        // Small drift: nearly sorted, so the previous order is repaired in place.
+        for (float[] p : particles) {
+            p[0] += (float) random.nextDouble(-0.01, 0.01);
+        }
+        float[] nudged = {1.01f, 2f, 3f};
+        ByteBuffer drifted = positions(particles);
+        incremental.dispatchWithPositions(1L, BlendMode.ALPHA, drifted, n, nudged, null);
+        full.dispatchWithPositions(1L, BlendMode.ALPHA, drifted, n, nudged, null);
+        assertTrue(incremental.lastIncremental());
+        assertArrayEquals(full.lastSortedKeys(), incremental.lastSortedKeys());
+
+        // A camera jump invalidates the previous order.
+        incremental.dispatchWithPositions(1L, BlendMode.ALPHA, drifted, n, new float[] {40f, 0f, 0f}, null);
+        assertFalse(incremental.lastIncremental());
+    }
+
+    @Test
+    void scrambledFrameFallsBackToRadixSort() {
+        int n = 1024;
+        float[][] particles = new float[n][];
+        for (int i = 0; i < n; i++) {
+            particles[i] = new float[] {i, 0f, 0f, 0f};
+        }
+        VulkanVfxSortStage stage = VulkanVfxSortStage.create(1L, VulkanVfxDescriptorSetLayout.create(1L), n);
+        stage.dispatchWithPositions(1L, BlendMode.ALPHA, positions(particles), n, new float[] {0f, 0f, 0f}, null);
+
+        for (int i = 0; i < n; i++) {
+            particles[i][0] = n - i;
+        }
+        stage.dispatchWithPositions(1L, BlendMode.ALPHA, positions(particles), n, new float[] {0f, 0f, 0f}, null);
+        assertFalse(stage.lastIncremental());
+        int[] sorted = stage.lastSortedIndices();
+        assertEquals(n - 1, sorted[0]);
+        assertEquals(0, sorted[n - 1]);
+    }
+
+    @Test
+    void alternatingEffectsRepairOnlyTheirOwnOrder() {
+        int n = 512;
+        float[][] first = new float[n][];
+        float[][] second = new float[n][];
+        for (int i = 0; i < n; i++) {
+            first[i] = new float[] {i, 0f, 0f, 0f};
+            second[i] = new float[] {n - i, 0f, 0f, 0f};
+        }
+        VulkanVfxDescriptorSetLayout layout = VulkanVfxDescriptorSetLayout.create(1L);
+        VulkanVfxSortStage stage = VulkanVfxSortStage.create(1L, layout, n);
+        VulkanVfxSortStage full = VulkanVfxSortStage.create(1L, layout, n);
+        full.setIncrementalEnabled(false);
+        VulkanVfxSortHistory firstHistory = new VulkanVfxSortHistory();
+        VulkanVfxSortHistory secondHistory = new VulkanVfxSortHistory();
+        float[] camera = {0f, 0f, 0f};
+
+        stage.dispatchWithPositions(1L, BlendMode.ALPHA, positions(first), n, camera, null, firstHistory);
+        stage.dispatchWithPositions(1L, BlendMode.ALPHA, positions(second), n, camera, null, secondHistory);
+        for (int frame = 0; frame < 2; frame++) {
+            stage.dispatchWithPositions(1L, BlendMode.ALPHA, positions(first), n, camera, null, firstHistory);
+            full.dispatchWithPositions(1L, BlendMode.ALPHA, positions(first), n, camera, null);
+            assertTrue(stage.lastIncremental());
+            assertArrayEquals(full.lastSortedIndices(), stage.lastSortedIndices());
+
+            stage.dispatchWithPositions(1L, BlendMode.ALPHA, positions(second), n, camera, null, secondHistory);
+            full.dispatchWithPositions(1L, BlendMode.ALPHA, positions(second), n, camera, null);
+            assertTrue(stage.lastIncremental());
+            assertArrayEquals(full.lastSortedIndices(), stage.lastSortedIndices());
+        }
+    }
+
+    private static ByteBuffer positions(float[][] particles) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(particles.length * 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] p : particles) {
+            for (float v : p) {
+                buffer.putFloat(v);
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -73,4 +73,17 @@ class VulkanEmitterDescriptorPackerTest {
         int flags = buf.getInt(100);
         assertEquals(2, flags & 2, "lod bit should be set");
     }
+
+    @Test
+    void writeToMatchesPackedBytes() {
+        PackedEmitterDescriptor packed = VulkanEmitterDescriptorPacker.pack(fullDescriptor(null, null));
+        ByteBuffer direct = ByteBuffer.allocateDirect(PackedEmitterDescriptor.SIZE_BYTES);
+        packed.writeTo(direct);
+        assertEquals(0, direct.remaining());
+
+        byte[] written = new byte[PackedEmitterDescriptor.SIZE_BYTES];
+        direct.flip().get(written);
+        assertArrayEquals(packed.data(), written);
+        assertEquals(java.util.Arrays.hashCode(packed.data()), packed.contentHash());
+    }
 }